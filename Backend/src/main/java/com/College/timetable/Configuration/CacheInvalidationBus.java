@@ -0,0 +1,79 @@
+package com.College.timetable.Configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Broadcasts near-cache invalidations to the other app nodes over Redis pub/sub.
+ *
+ * Message format: {@code nodeId \n cacheName [\n key]} — no key means "clear the cache".
+ * A node ignores its own messages; it has already updated its local tier.
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final StringRedisTemplate redis;
+    private final String channel;
+    private final RedisCircuitBreaker breaker;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // (cacheName, key) — key is null for a clear
+    private final List<BiConsumer<String, String>> handlers = new CopyOnWriteArrayList<>();
+
+    public CacheInvalidationBus(StringRedisTemplate redis, String channel) {
+        this(redis, channel, null);
+    }
+
+    public CacheInvalidationBus(StringRedisTemplate redis, String channel, RedisCircuitBreaker breaker) {
+        this.redis = redis;
+        this.channel = channel;
+        this.breaker = breaker;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void addHandler(BiConsumer<String, String> handler) {
+        handlers.add(handler);
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        send(nodeId + "\n" + cacheName + "\n" + key);
+    }
+
+    public void publishClear(String cacheName) {
+        send(nodeId + "\n" + cacheName);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) return;
+        String key = parts.length == 3 ? parts[2] : null;
+        handlers.forEach(h -> h.accept(parts[1], key));
+    }
+
+    private void send(String payload) {
+        // Redis is down — the caches that missed this are cleared on every node when it returns
+        if (breaker != null && breaker.isOpen()) return;
+        try {
+            redis.convertAndSend(channel, payload);
+        } catch (RuntimeException e) {
+            if (breaker != null && e instanceof DataAccessException dae) breaker.recordFailure(dae);
+            // Other nodes fall back to the near-cache TTL for this key
+            logger.warn("[CACHE] Could not broadcast invalidation on {}: {}", channel, e.getMessage());
+        }
+    }
+}
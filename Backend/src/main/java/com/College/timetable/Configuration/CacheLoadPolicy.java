@@ -0,0 +1,80 @@
+package com.College.timetable.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a TieredCache loads and expires the values it writes to the shared tier.
+ *
+ * <ul>
+ *   <li>Jitter — each value expires after {@code sharedTtl} ± {@code ttlJitter}, so views
+ *       cached together (a publish, a warm-up) do not all expire in the same second.</li>
+ *   <li>Early refresh — a hit on a value with less than {@code refreshAhead} of its TTL left
+ *       reloads it in the background through the registered {@link Refresher}, so a hot key
+ *       is replaced before it expires instead of missing on every request at once.</li>
+ *   <li>Single flight — concurrent misses on one key wait up to {@code loadWait} for the
+ *       first caller's load instead of running their own.</li>
+ * </ul>
+ */
+public class CacheLoadPolicy {
+
+    /** No expiry stamping and no early refresh — loads are still coalesced. */
+    public static final CacheLoadPolicy NONE = new CacheLoadPolicy(null, 0, 0, Duration.ofSeconds(30));
+
+    /**
+     * Reloads one key from the source of truth, bypassing every cache tier.
+     */
+    @FunctionalInterface
+    public interface Refresher {
+        Object load(String cacheName, String key) throws Exception;
+    }
+
+    private final Duration sharedTtl;
+    private final double ttlJitter;
+    private final double refreshAhead;
+    private final Duration loadWait;
+
+    private volatile Refresher refresher;
+    private volatile Executor refreshExecutor;
+
+    public CacheLoadPolicy(Duration sharedTtl, double ttlJitter, double refreshAhead, Duration loadWait) {
+        this.sharedTtl = sharedTtl;
+        this.ttlJitter = Math.max(0, Math.min(ttlJitter, 0.5));
+        this.refreshAhead = Math.max(0, Math.min(refreshAhead, 0.9));
+        this.loadWait = loadWait;
+    }
+
+    public void setRefresher(Refresher refresher, Executor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+        this.refresher = refresher;
+    }
+
+    Refresher refresher() {
+        return refresher;
+    }
+
+    Executor refreshExecutor() {
+        return refreshExecutor;
+    }
+
+    Duration loadWait() {
+        return loadWait;
+    }
+
+    /** Wrap a value written now with its jittered expiry; raw when no TTL is known. */
+    Object stamp(Object value) {
+        if (sharedTtl == null) return value;
+        long ttl = sharedTtl.toMillis();
+        long jitter = (long) (ttl * ttlJitter);
+        long jittered = ttl + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+        return new StampedValue(value, System.currentTimeMillis() + jittered);
+    }
+
+    /** True when the stamped value is close enough to expiry to reload it now. */
+    boolean dueForRefresh(StampedValue stamped) {
+        if (sharedTtl == null || refreshAhead <= 0 || refresher == null || stamped.expiresAt() <= 0) return false;
+        long remaining = stamped.expiresAt() - System.currentTimeMillis();
+        return remaining < sharedTtl.toMillis() * refreshAhead;
+    }
+}
@@ -0,0 +1,26 @@
+package com.College.timetable.Configuration;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.College.timetable.Service.TimetableCacheWarmer;
+
+/**
+ * GET /actuator/cachewarmup — progress of the timetable cache warm-up runs on this node.
+ */
+@Component
+@Endpoint(id = "cachewarmup")
+public class CacheWarmupEndpoint {
+
+    private final TimetableCacheWarmer cacheWarmer;
+
+    public CacheWarmupEndpoint(TimetableCacheWarmer cacheWarmer) {
+        this.cacheWarmer = cacheWarmer;
+    }
+
+    @ReadOperation
+    public TimetableCacheWarmer.WarmupProgress progress() {
+        return cacheWarmer.progress();
+    }
+}
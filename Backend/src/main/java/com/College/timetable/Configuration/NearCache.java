@@ -0,0 +1,59 @@
+package com.College.timetable.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU with a per-entry expiry. Size-evicts the least recently read entry.
+ * Local tier of TieredCache and the outage fallback of ResilientCache.
+ */
+final class NearCache {
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> map;
+    private long evictions;
+
+    NearCache(int maxEntries, long ttlNanos) {
+        this.ttlNanos = ttlNanos;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    synchronized Object get(String key) {
+        Entry e = map.get(key);
+        if (e == null) return null;
+        if (System.nanoTime() - e.expiresAt > 0) {
+            map.remove(key);
+            return null;
+        }
+        return e.value;
+    }
+
+    synchronized void put(String key, Object value) {
+        map.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+    }
+
+    synchronized void remove(String key) {
+        map.remove(key);
+    }
+
+    synchronized void clear() {
+        map.clear();
+    }
+
+    synchronized int size() {
+        return map.size();
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.College.timetable.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Circuit breaker in front of the shared Redis cache.
+ *
+ * CLOSED: caches talk to Redis. After {@code failureThreshold} consecutive Redis failures the
+ * circuit OPENs — ResilientCache then serves from its local fallback (or the caller loads from
+ * the DB) without waiting out the Redis timeout on every read. While open a background probe
+ * pings Redis; once it answers the circuit is HALF_OPEN while the recovery actions run (clear
+ * the caches whose evictions were skipped, re-bump view versions), then CLOSED again.
+ *
+ * Also the {@link CacheErrorHandler} of the {@code @Cacheable} layer: any cache error that
+ * still escapes is logged and treated as a miss instead of failing the request.
+ *
+ * Metrics: {@code cache.redis.circuit.state} (0 closed, 1 open, 2 half-open),
+ * {@code cache.redis.circuit.transitions{from,to}}, {@code cache.redis.failures} and
+ * {@code cache.redis.circuit.short-circuited}.
+ */
+public class RedisCircuitBreaker implements CacheErrorHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final RedisConnectionFactory connectionFactory;
+    private final int failureThreshold;
+    private final Duration probeInterval;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final List<Runnable> recoveryActions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService prober;
+    private final Counter failures;
+    private final Counter shortCircuited;
+
+    private volatile Instant since = Instant.now();
+    private volatile String lastError;
+
+    public RedisCircuitBreaker(RedisConnectionFactory connectionFactory, int failureThreshold, Duration probeInterval,
+                               MeterRegistry meterRegistry) {
+        this.connectionFactory = connectionFactory;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.probeInterval = probeInterval;
+        this.meterRegistry = meterRegistry;
+        this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "redis-circuit-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        this.failures = meterRegistry.counter("cache.redis.failures");
+        this.shortCircuited = meterRegistry.counter("cache.redis.circuit.short-circuited");
+        Gauge.builder("cache.redis.circuit.state", state, s -> s.get().ordinal())
+            .description("0 = closed, 1 = open, 2 = half-open")
+            .register(meterRegistry);
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    /** True while caches may use Redis; otherwise counts the skipped call. */
+    public boolean allowRequest() {
+        if (state.get() == State.CLOSED) return true;
+        shortCircuited.increment();
+        return false;
+    }
+
+    /** True only while the circuit is OPEN — HALF_OPEN lets recovery traffic through. */
+    public boolean isOpen() {
+        return state.get() == State.OPEN;
+    }
+
+    /**
+     * Runs once Redis is reachable again, before the circuit closes. An action that throws a
+     * DataAccessException re-opens the circuit and is retried on the next probe.
+     */
+    public void onRecovery(Runnable action) {
+        recoveryActions.add(action);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    public void recordFailure(RuntimeException e) {
+        failures.increment();
+        lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(state.get(), since, consecutiveFailures.get(), lastError);
+    }
+
+    public void shutdown() {
+        prober.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+    // TRANSITIONS
+    // ---------------------------------------------------------------
+
+    private void open() {
+        if (!state.compareAndSet(State.CLOSED, State.OPEN)) return;
+        transitioned(State.CLOSED, State.OPEN);
+        logger.warn("[REDIS-CIRCUIT] Opened after {} consecutive failures ({}) — serving from local fallback",
+            consecutiveFailures.get(), lastError);
+        scheduleProbe();
+    }
+
+    private void scheduleProbe() {
+        try {
+            prober.schedule(this::probe, probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    void probe() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+        } catch (RuntimeException e) {
+            lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            logger.debug("[REDIS-CIRCUIT] Probe failed: {}", lastError);
+            scheduleProbe();
+            return;
+        }
+
+        state.set(State.HALF_OPEN);
+        transitioned(State.OPEN, State.HALF_OPEN);
+        try {
+            recoveryActions.forEach(Runnable::run);
+        } catch (DataAccessException e) {
+            lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            state.set(State.OPEN);
+            transitioned(State.HALF_OPEN, State.OPEN);
+            logger.warn("[REDIS-CIRCUIT] Recovery failed ({}) — staying open", lastError);
+            scheduleProbe();
+            return;
+        }
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+        transitioned(State.HALF_OPEN, State.CLOSED);
+        logger.info("[REDIS-CIRCUIT] Redis reachable again — circuit closed");
+    }
+
+    private void transitioned(State from, State to) {
+        since = Instant.now();
+        meterRegistry.counter("cache.redis.circuit.transitions", "from", from.name(), "to", to.name()).increment();
+    }
+
+    // ---------------------------------------------------------------
+    // CacheErrorHandler — errors that reach the @Cacheable interceptor
+    // ---------------------------------------------------------------
+
+    @Override
+    public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+        handle("get", exception, cache, key);
+    }
+
+    @Override
+    public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+        handle("put", exception, cache, key);
+    }
+
+    @Override
+    public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+        handle("evict", exception, cache, key);
+    }
+
+    @Override
+    public void handleCacheClearError(RuntimeException exception, Cache cache) {
+        handle("clear", exception, cache, null);
+    }
+
+    private void handle(String operation, RuntimeException exception, Cache cache, Object key) {
+        if (exception instanceof DataAccessException) {
+            recordFailure(exception);
+        }
+        // A get error becomes a miss and the method runs against the DB
+        logger.warn("[CACHE] {} on {} [{}] failed: {}", operation, cache.getName(), key, exception.getMessage());
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    public record Snapshot(State state, Instant since, int consecutiveFailures, String lastError) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.College.timetable.Configuration;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code redisCircuit} component of /actuator/health. An open circuit reports DEGRADED rather
+ * than DOWN: the node keeps serving from the DB and its local fallback caches, and taking it
+ * out of rotation would not help — every node shares the same Redis.
+ */
+@Component("redisCircuit")
+public class RedisCircuitHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED", "Redis unreachable — serving from local fallback caches");
+
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ResilientCacheManager resilientCacheManager;
+
+    public RedisCircuitHealthIndicator(RedisCircuitBreaker circuitBreaker, ResilientCacheManager resilientCacheManager) {
+        this.circuitBreaker = circuitBreaker;
+        this.resilientCacheManager = resilientCacheManager;
+    }
+
+    @Override
+    public Health health() {
+        RedisCircuitBreaker.Snapshot snapshot = circuitBreaker.snapshot();
+        Health.Builder builder = snapshot.state() == RedisCircuitBreaker.State.CLOSED
+            ? Health.up()
+            : Health.status(DEGRADED);
+        builder.withDetail("state", snapshot.state())
+            .withDetail("since", snapshot.since())
+            .withDetail("consecutiveFailures", snapshot.consecutiveFailures())
+            .withDetail("fallbackEntries", resilientCacheManager.fallbackSizes());
+        if (snapshot.lastError() != null) {
+            builder.withDetail("lastError", snapshot.lastError());
+        }
+        return builder.build();
+    }
+}
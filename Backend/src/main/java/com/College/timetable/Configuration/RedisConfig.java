@@ -1,31 +1,199 @@
 package com.College.timetable.Configuration;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisElementWriter;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.College.timetable.Service.TimetableCacheInvalidator;
+import com.College.timetable.Service.TimetableExportCache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
-public class RedisConfig {
+public class RedisConfig implements CachingConfigurer {
+
+    @Autowired
+    private ObjectProvider<RedisCircuitBreaker> redisCircuitBreaker;
+
+    // Every cache the app uses. Unknown names fail fast instead of silently creating
+    // a cache that nothing evicts.
+    static Set<String> cacheNames() {
+        Set<String> names = new LinkedHashSet<>(TimetableCacheInvalidator.CACHE_NAMES);
+        names.addAll(List.of("departments", "academic-years", TimetableExportCache.CACHE));
+        return names;
+    }
+
+    /**
+     * Caches read through a local L1 first. Everything else goes straight to Redis.
+     */
+    @Bean
+    @Primary
+    public TieredCacheManager cacheManager(
+            ResilientCacheManager resilientCacheManager,
+            CacheInvalidationBus cacheInvalidationBus,
+            @Value("${app.cache.near.max-entries:1000}") int maxEntries,
+            @Value("${app.cache.near.ttl-seconds:120}") long ttlSeconds,
+            @Value("${app.cache.view.ttl-minutes:10}") long viewTtlMinutes,
+            @Value("${app.cache.view.ttl-jitter:0.1}") double ttlJitter,
+            @Value("${app.cache.view.refresh-ahead:0.2}") double refreshAhead,
+            @Value("${app.cache.view.load-wait-ms:30000}") long loadWaitMs) {
+        CacheLoadPolicy loadPolicy = new CacheLoadPolicy(Duration.ofMinutes(viewTtlMinutes), ttlJitter, refreshAhead,
+                Duration.ofMillis(loadWaitMs));
+        return new TieredCacheManager(resilientCacheManager, Set.copyOf(TimetableCacheInvalidator.CACHE_NAMES),
+                maxEntries, Duration.ofSeconds(ttlSeconds), cacheInvalidationBus, loadPolicy);
+    }
 
+    /**
+     * Redis caches behind the circuit breaker — a local bounded fallback serves while Redis is down.
+     */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        // ObjectMapper that can handle Java 8 date/time types (LocalDate, LocalDateTime, etc.)
+    public ResilientCacheManager resilientCacheManager(
+            RedisCacheManager redisCacheManager,
+            RedisCircuitBreaker redisCircuitBreaker,
+            CacheInvalidationBus cacheInvalidationBus,
+            @Value("${app.cache.fallback.max-entries:500}") int maxEntries,
+            @Value("${app.cache.fallback.ttl-seconds:60}") long ttlSeconds) {
+        return new ResilientCacheManager(redisCacheManager, redisCircuitBreaker, maxEntries,
+                Duration.ofSeconds(ttlSeconds), cacheInvalidationBus);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisCircuitBreaker redisCircuitBreaker(
+            RedisConnectionFactory connectionFactory,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.circuit.failure-threshold:3}") int failureThreshold,
+            @Value("${app.cache.circuit.probe-interval-ms:5000}") long probeIntervalMs) {
+        return new RedisCircuitBreaker(connectionFactory, failureThreshold, Duration.ofMillis(probeIntervalMs),
+                meterRegistry);
+    }
+
+    /**
+     * Cache errors that reach the @Cacheable interceptor are logged and treated as misses —
+     * the default handler would fail the request.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return redisCircuitBreaker.getObject();
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(
+            StringRedisTemplate redisTemplate,
+            RedisCircuitBreaker redisCircuitBreaker,
+            @Value("${app.cache.near.invalidation-channel:samaysetu:cache-invalidation}") String channel) {
+        return new CacheInvalidationBus(redisTemplate, channel, redisCircuitBreaker);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+        return container;
+    }
+
+    @Bean
+    public RedisCacheManager redisCacheManager(
+            RedisConnectionFactory connectionFactory,
+            MeterRegistry meterRegistry,
+            @Value("${app.export.cache.ttl-hours:24}") long exportTtlHours,
+            @Value("${app.cache.view.ttl-minutes:10}") long viewTtlMinutes) {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(typedMapper());
+
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
+                .entryTtl(Duration.ofMinutes(10))
+                .disableCachingNullValues();
+
+        // Timetable views are stored as a compact TimetableView without type metadata, next to
+        // the jittered expiry TieredCache stamped them with — Redis expires the key at that time.
+        // The "v3:" prefix keeps them apart from payloads written by older builds.
+        RedisCacheConfiguration viewConfig = config
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new StampedViewRedisSerializer(timetableViewMapper())))
+                .entryTtl((key, value) -> value instanceof StampedValue s
+                        ? Duration.ofMillis(Math.max(1000, s.expiresAt() - System.currentTimeMillis()))
+                        : Duration.ofMinutes(viewTtlMinutes))
+                .prefixCacheNameWith("v3:");
+
+        // Generated PDF / Excel documents, keyed by a content version — stored as raw bytes and
+        // never evicted, the TTL only bounds how long superseded versions take up memory
+        RedisCacheConfiguration exportConfig = config
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.byteArray()))
+                .entryTtl(Duration.ofHours(exportTtlHours));
+
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(config)
+                .initialCacheNames(cacheNames()) // must come first — it resets every listed name to the defaults
+                .disableCreateOnMissingCache();
+        for (String name : cacheNames()) {
+            RedisCacheConfiguration cacheConfig = TimetableCacheInvalidator.CACHE_NAMES.contains(name) ? viewConfig
+                    : TimetableExportCache.CACHE.equals(name) ? exportConfig
+                    : config;
+            builder.withCacheConfiguration(name, withEntrySizes(cacheConfig, name, meterRegistry));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Records the serialized size of every value written to the cache as
+     * {@code cache.entry.size{cache}} — what an entry costs in Redis memory.
+     */
+    private static RedisCacheConfiguration withEntrySizes(RedisCacheConfiguration config, String cacheName,
+                                                          MeterRegistry meterRegistry) {
+        DistributionSummary sizes = DistributionSummary.builder("cache.entry.size")
+                .baseUnit("bytes")
+                .tag("cache", cacheName)
+                .description("Serialized size of values written to Redis")
+                .register(meterRegistry);
+        RedisSerializationContext.SerializationPair<Object> values = config.getValueSerializationPair();
+        RedisElementWriter<Object> writer = value -> {
+            ByteBuffer bytes = values.write(value);
+            sizes.record(bytes.remaining());
+            return bytes;
+        };
+        return config.serializeValuesWith(RedisSerializationContext.SerializationPair.just(values.getReader(), writer));
+    }
+
+    /**
+     * ObjectMapper for entity payloads (departments, academic years): handles Java 8 date/time
+     * types and records the concrete type of every object so Redis can deserialize it back.
+     */
+    public static ObjectMapper typedMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
-        // Enable default typing so Redis can deserialize back to the correct Java types
         mapper.activateDefaultTyping(
                 BasicPolymorphicTypeValidator.builder()
                         .allowIfSubType("com.College.timetable.")
@@ -35,17 +203,16 @@ public class RedisConfig {
                         .build(),
                 ObjectMapper.DefaultTyping.NON_FINAL
         );
+        return mapper;
+    }
 
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(mapper);
-
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
-                .entryTtl(Duration.ofMinutes(10))
-                .disableCachingNullValues();
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+    /**
+     * ObjectMapper for TimetableView — the target type is fixed, so no type metadata, and nulls are dropped.
+     */
+    public static ObjectMapper timetableViewMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        return mapper;
     }
 }
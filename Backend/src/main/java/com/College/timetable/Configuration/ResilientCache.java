@@ -0,0 +1,205 @@
+package com.College.timetable.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Redis cache that keeps working when Redis does not.
+ *
+ * While the {@link RedisCircuitBreaker} is closed every call goes to Redis; a Redis failure
+ * is recorded and the call is answered from a bounded local fallback instead (a miss makes
+ * the caller load from the DB). While the circuit is open Redis is not called at all; while
+ * it is half-open only evictions reach it, so none is lost during recovery.
+ *
+ * Evictions that could not reach Redis mark the cache dirty — Redis may still hold the
+ * evicted value — and ResilientCacheManager clears it in Redis before the circuit closes
+ * again. Puts need no such care: they follow a miss. The fallback's TTL bounds how long
+ * this node can miss a change made on another node during the outage.
+ *
+ * Bound to a MeterRegistry, every Redis round trip is timed as
+ * {@code cache.redis.latency{cache, operation}} — failed calls included.
+ */
+public class ResilientCache implements Cache, MeterBinder {
+
+    private final Cache redis;
+    private final RedisCircuitBreaker breaker;
+    private final NearCache fallback;
+    private final Runnable markDirty;
+
+    private volatile Timer getLatency;
+    private volatile Timer putLatency;
+    private volatile Timer evictLatency;
+    private volatile Timer clearLatency;
+
+    ResilientCache(Cache redis, RedisCircuitBreaker breaker, int maxEntries, Duration ttl, Runnable markDirty) {
+        this.redis = redis;
+        this.breaker = breaker;
+        this.fallback = new NearCache(maxEntries, ttl.toNanos());
+        this.markDirty = markDirty;
+    }
+
+    @Override
+    public String getName() {
+        return redis.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redis.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (breaker.allowRequest()) {
+            long start = System.nanoTime();
+            try {
+                ValueWrapper wrapper = redis.get(key);
+                breaker.recordSuccess();
+                return wrapper;
+            } catch (DataAccessException e) {
+                breaker.recordFailure(e);
+            } finally {
+                recordLatency(getLatency, start);
+            }
+        }
+        Object value = fallback.get(String.valueOf(key));
+        return value != null ? new SimpleValueWrapper(value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) return;
+        if (breaker.allowRequest()) {
+            long start = System.nanoTime();
+            try {
+                redis.put(key, value);
+                breaker.recordSuccess();
+                return;
+            } catch (DataAccessException e) {
+                breaker.recordFailure(e);
+            } finally {
+                recordLatency(putLatency, start);
+            }
+        }
+        fallback.put(String.valueOf(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        fallback.remove(String.valueOf(key));
+        if (!breaker.isOpen()) {
+            long start = System.nanoTime();
+            try {
+                redis.evict(key);
+                breaker.recordSuccess();
+                return;
+            } catch (DataAccessException e) {
+                breaker.recordFailure(e);
+            } finally {
+                recordLatency(evictLatency, start);
+            }
+        }
+        markDirty.run();
+    }
+
+    @Override
+    public void clear() {
+        fallback.clear();
+        if (!breaker.isOpen()) {
+            long start = System.nanoTime();
+            try {
+                redis.clear();
+                breaker.recordSuccess();
+                return;
+            } catch (DataAccessException e) {
+                breaker.recordFailure(e);
+            } finally {
+                recordLatency(clearLatency, start);
+            }
+        }
+        markDirty.run();
+    }
+
+    // ---------------------------------------------------------------
+    // RECOVERY — called by ResilientCacheManager
+    // ---------------------------------------------------------------
+
+    /** Clear the Redis copy directly, bypassing the breaker; failures propagate. */
+    void clearShared() {
+        redis.clear();
+    }
+
+    void clearFallback() {
+        fallback.clear();
+    }
+
+    int fallbackSize() {
+        return fallback.size();
+    }
+
+    // ---------------------------------------------------------------
+    // METRICS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        getLatency = latencyTimer(registry, "get");
+        putLatency = latencyTimer(registry, "put");
+        evictLatency = latencyTimer(registry, "evict");
+        clearLatency = latencyTimer(registry, "clear");
+        Gauge.builder("cache.fallback.size", fallback, NearCache::size)
+            .tag("cache", getName())
+            .description("Entries held in the local fallback while Redis is unreachable")
+            .register(registry);
+    }
+
+    private Timer latencyTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("cache.redis.latency")
+            .tags("cache", getName(), "operation", operation)
+            .description("Redis round trip of a cache operation")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+    }
+
+    private static void recordLatency(Timer timer, long startNanos) {
+        if (timer != null) timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
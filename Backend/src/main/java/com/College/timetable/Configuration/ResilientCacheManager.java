@@ -0,0 +1,97 @@
+package com.College.timetable.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Wraps every Redis cache in a {@link ResilientCache} sharing one {@link RedisCircuitBreaker}.
+ *
+ * When Redis comes back, before the circuit closes, every cache that skipped an eviction
+ * is cleared in Redis, and the other nodes are told to drop their near-cache copies (they
+ * missed the invalidations sent during the outage).
+ *
+ * As a MeterBinder bean it is bound to the registry at startup; each cache then reports
+ * its Redis latency (see {@link ResilientCache#bindTo}).
+ */
+public class ResilientCacheManager implements CacheManager, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientCacheManager.class);
+
+    private final CacheManager redis;
+    private final RedisCircuitBreaker breaker;
+    private final int fallbackMaxEntries;
+    private final Duration fallbackTtl;
+    private final CacheInvalidationBus bus;
+
+    private final Map<String, ResilientCache> caches = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry meterRegistry;
+
+    public ResilientCacheManager(CacheManager redis, RedisCircuitBreaker breaker, int fallbackMaxEntries,
+                                 Duration fallbackTtl, CacheInvalidationBus bus) {
+        this.redis = redis;
+        this.breaker = breaker;
+        this.fallbackMaxEntries = fallbackMaxEntries;
+        this.fallbackTtl = fallbackTtl;
+        this.bus = bus;
+        breaker.onRecovery(this::recover);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        ResilientCache cache = caches.get(name);
+        if (cache != null) return cache;
+        Cache redisCache = redis.getCache(name);
+        if (redisCache == null) return null;
+        return caches.computeIfAbsent(name, n ->
+            bind(new ResilientCache(redisCache, breaker, fallbackMaxEntries, fallbackTtl, () -> dirty.add(n))));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        caches.values().forEach(cache -> cache.bindTo(registry));
+    }
+
+    private ResilientCache bind(ResilientCache cache) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) cache.bindTo(registry);
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redis.getCacheNames();
+    }
+
+    /** Entries currently held in the local fallbacks, per cache. */
+    public Map<String, Integer> fallbackSizes() {
+        Map<String, Integer> sizes = new TreeMap<>();
+        caches.forEach((name, cache) -> sizes.put(name, cache.fallbackSize()));
+        return sizes;
+    }
+
+    private void recover() {
+        for (String name : Set.copyOf(dirty)) {
+            ResilientCache cache = caches.get(name);
+            if (cache != null) cache.clearShared();
+            if (bus != null) bus.publishClear(name);
+            dirty.remove(name);
+            logger.info("[REDIS-CIRCUIT] Cleared {} — evictions were skipped while Redis was down", name);
+        }
+        // Back on Redis; drop what was served locally so a later outage starts clean
+        caches.values().forEach(ResilientCache::clearFallback);
+    }
+}
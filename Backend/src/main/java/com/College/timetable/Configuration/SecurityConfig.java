@@ -76,6 +76,8 @@ public class SecurityConfig {
 					.requestMatchers("/admin/upload-courses", "/admin/download-courses-template").hasAnyRole("ADMIN", "SUPER_ADMIN", "DEPARTMENT_ADMIN", "HOD")
 					.requestMatchers("/admin/api/**").hasAnyRole("ADMIN", "SUPER_ADMIN", "DEPARTMENT_ADMIN", "HOD", "TIMETABLE_COORDINATOR")
 					.requestMatchers("/admin/**").hasAnyRole("ADMIN", "SUPER_ADMIN", "DEPARTMENT_ADMIN", "HOD", "TIMETABLE_COORDINATOR")
+					// Operational actuator endpoints (metrics, cache warm-up progress)
+					.requestMatchers("/actuator/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
 					.anyRequest().authenticated()
 				)
 		.sessionManagement(session->session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
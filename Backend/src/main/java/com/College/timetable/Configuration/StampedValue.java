@@ -0,0 +1,13 @@
+package com.College.timetable.Configuration;
+
+/**
+ * A value in the shared tier together with the time it expires (epoch millis). The Redis
+ * TTL is derived from {@code expiresAt}, so the early-refresh check and Redis agree;
+ * {@code expiresAt <= 0} means unknown.
+ */
+public record StampedValue(Object value, long expiresAt) {
+
+    static Object unwrap(Object stored) {
+        return stored instanceof StampedValue s ? s.value() : stored;
+    }
+}
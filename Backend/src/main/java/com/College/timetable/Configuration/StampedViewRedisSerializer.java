@@ -0,0 +1,49 @@
+package com.College.timetable.Configuration;
+
+import java.io.IOException;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.College.timetable.IO.TimetableView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Redis payload of the timetable view caches: {@code {"value": <TimetableView>, "expiresAt": millis}}.
+ * An unstamped view is written with {@code expiresAt = 0}.
+ */
+public class StampedViewRedisSerializer implements RedisSerializer<Object> {
+
+    private final ObjectMapper mapper;
+
+    public StampedViewRedisSerializer(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) return null;
+        Wire wire = value instanceof StampedValue s
+            ? new Wire((TimetableView) s.value(), s.expiresAt())
+            : new Wire((TimetableView) value, 0);
+        try {
+            return mapper.writeValueAsBytes(wire);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write timetable view", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        try {
+            Wire wire = mapper.readValue(bytes, Wire.class);
+            return new StampedValue(wire.value(), wire.expiresAt());
+        } catch (IOException e) {
+            throw new SerializationException("Could not read timetable view", e);
+        }
+    }
+
+    private record Wire(TimetableView value, long expiresAt) {
+    }
+}
@@ -0,0 +1,384 @@
+package com.College.timetable.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Two-tier cache: a bounded in-process LRU (L1) in front of a shared cache (L2, Redis).
+ *
+ * Reads try L1, then L2 (filling L1 on a hit). Writes and evictions go to both tiers and
+ * are broadcast through {@link CacheInvalidationBus} so other nodes drop their L1 copy.
+ * L1 keys are {@code String.valueOf(key)} — the same form Redis stores them under.
+ *
+ * Values in L1 are shared between requests on this node, so cached values must be
+ * immutable — the timetable caches hold TimetableView records.
+ *
+ * Loading follows the cache's {@link CacheLoadPolicy}: values are written stamped with a
+ * jittered expiry, a hit close to that expiry reloads the key in the background, and
+ * concurrent misses on one key ({@code @Cacheable(sync = true)}) share a single load.
+ * Coalescing is per node — each node runs at most one load per key at a time.
+ *
+ * Bound to a MeterRegistry, it reports per-cache lookups, writes, invalidations, L1 size
+ * and load times, all tagged {@code cache=<name>}.
+ */
+public class TieredCache implements Cache, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredCache.class);
+
+    private final Cache shared;
+    private final CacheInvalidationBus bus;
+    private final NearCache near;
+    private final CacheLoadPolicy policy;
+
+    // Bumped on every local or remote invalidation. An L2 read only fills L1 if no
+    // invalidation happened while it was in flight, so a stale read cannot outlive an evict.
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder clears = new LongAdder();
+
+    private volatile Timer loadSuccess;
+    private volatile Timer loadFailure;
+
+    // In-flight loads by key. A flight started before an invalidation is not joined —
+    // its result may predate the change.
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public TieredCache(Cache shared, int maxEntries, Duration ttl, CacheInvalidationBus bus) {
+        this(shared, maxEntries, ttl, bus, CacheLoadPolicy.NONE);
+    }
+
+    public TieredCache(Cache shared, int maxEntries, Duration ttl, CacheInvalidationBus bus, CacheLoadPolicy policy) {
+        this.shared = shared;
+        this.bus = bus;
+        this.near = new NearCache(maxEntries, ttl.toNanos());
+        this.policy = policy;
+    }
+
+    @Override
+    public String getName() {
+        return shared.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return shared.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String nearKey = String.valueOf(key);
+        Object stored = near.get(nearKey);
+        if (stored != null && expired(stored)) {
+            near.remove(nearKey);
+            stored = null;
+        }
+        if (stored != null) {
+            l1Hits.increment();
+            refreshIfDue(key, nearKey, stored);
+            return new SimpleValueWrapper(StampedValue.unwrap(stored));
+        }
+        long seen = generation.get();
+        ValueWrapper wrapper = shared.get(key);
+        if (wrapper == null || wrapper.get() == null || expired(wrapper.get())) {
+            misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        stored = wrapper.get();
+        if (generation.get() == seen) {
+            near.put(nearKey, stored);
+        }
+        refreshIfDue(key, nearKey, stored);
+        return stored instanceof StampedValue s ? new SimpleValueWrapper(s.value()) : wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Read-through with single flight: the first caller to miss loads the value, callers
+     * that miss while it runs wait up to {@code loadWait} for its result and then fall back
+     * to loading it themselves.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) wrapper.get();
+        }
+        String nearKey = String.valueOf(key);
+        long seen = generation.get();
+        Flight mine = new Flight(seen, new CompletableFuture<>());
+        Flight flight = flights.compute(nearKey,
+            (k, running) -> running != null && running.generation() == seen ? running : mine);
+        if (flight != mine) {
+            coalescedLoads.increment();
+            try {
+                return (T) flight.result().get(policy.loadWait().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("[CACHE] Load of {}::{} still running after {} ms — loading again", getName(), nearKey,
+                    policy.loadWait().toMillis());
+                return load(key, nearKey, valueLoader, seen);
+            } catch (ExecutionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+        try {
+            T value = load(key, nearKey, valueLoader, seen);
+            mine.result().complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e instanceof ValueRetrievalException ? e.getCause() : e);
+            throw e;
+        } finally {
+            flights.remove(nearKey, mine);
+        }
+    }
+
+    private <T> T load(Object key, String nearKey, Callable<T> valueLoader, long seen) {
+        T value;
+        long start = System.nanoTime();
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            recordLoad(start, loadFailure);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        recordLoad(start, loadSuccess);
+        loads.increment();
+        if (value != null) fill(key, nearKey, value, seen);
+        return value;
+    }
+
+    /**
+     * Store a freshly loaded value in both tiers without broadcasting — other nodes hold
+     * nothing newer. Skipped if the key was invalidated while the load ran.
+     */
+    private void fill(Object key, String nearKey, Object value, long seen) {
+        if (generation.get() != seen) return;
+        Object stamped = policy.stamp(value);
+        shared.put(key, stamped);
+        puts.increment();
+        if (generation.get() == seen) {
+            near.put(nearKey, stamped);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stamped = value != null ? policy.stamp(value) : null;
+        shared.put(key, stamped);
+        puts.increment();
+        invalidateOthers(key);
+        if (stamped != null) {
+            near.put(String.valueOf(key), stamped);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        shared.evict(key);
+        evictions.increment();
+        evictLocal(String.valueOf(key));
+        if (bus != null) bus.publishEvict(getName(), String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        clears.increment();
+        clearLocal();
+        if (bus != null) bus.publishClear(getName());
+    }
+
+    private void invalidateOthers(Object key) {
+        generation.incrementAndGet();
+        if (bus != null) bus.publishEvict(getName(), String.valueOf(key));
+    }
+
+    // ---------------------------------------------------------------
+    // EARLY REFRESH
+    // ---------------------------------------------------------------
+
+    private static boolean expired(Object stored) {
+        return stored instanceof StampedValue s && s.expiresAt() > 0 && s.expiresAt() <= System.currentTimeMillis();
+    }
+
+    /**
+     * Reload a key that is close to expiry on the refresh executor, at most once at a time
+     * per key. Requests keep getting the current value meanwhile.
+     */
+    private void refreshIfDue(Object key, String nearKey, Object stored) {
+        if (!(stored instanceof StampedValue s) || !policy.dueForRefresh(s)) return;
+        if (flights.containsKey(nearKey) || !refreshing.add(nearKey)) return;
+        long seen = generation.get();
+        CacheLoadPolicy.Refresher refresher = policy.refresher();
+        try {
+            policy.refreshExecutor().execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    Object value = refresher.load(getName(), nearKey);
+                    recordLoad(start, loadSuccess);
+                    if (value != null) fill(key, nearKey, value, seen);
+                } catch (Exception e) {
+                    recordLoad(start, loadFailure);
+                    // The current value stays until it expires; the next hit tries again
+                    logger.warn("[CACHE] Early refresh of {}::{} failed: {}", getName(), nearKey, e.getMessage());
+                } finally {
+                    refreshing.remove(nearKey);
+                }
+            });
+            earlyRefreshes.increment();
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(nearKey);
+        }
+    }
+
+    private record Flight(long generation, CompletableFuture<Object> result) {
+    }
+
+    // ---------------------------------------------------------------
+    // LOCAL TIER — also driven by invalidations from other nodes
+    // ---------------------------------------------------------------
+
+    void evictLocal(String key) {
+        generation.incrementAndGet();
+        near.remove(key);
+    }
+
+    void clearLocal() {
+        generation.incrementAndGet();
+        near.clear();
+    }
+
+    public TierStats stats() {
+        TierStats stats = new TierStats();
+        long l1 = l1Hits.sum();
+        long l2 = l2Hits.sum();
+        long miss = misses.sum();
+        stats.setL1Hits(l1);
+        stats.setL2Hits(l2);
+        stats.setMisses(miss);
+        stats.setL1HitRatio(ratio(l1, l1 + l2 + miss));
+        stats.setL2HitRatio(ratio(l2, l2 + miss));
+        stats.setHitRatio(ratio(l1 + l2, l1 + l2 + miss));
+        stats.setL1Size(near.size());
+        stats.setL1Evictions(near.evictions());
+        stats.setLoads(loads.sum());
+        stats.setCoalescedLoads(coalescedLoads.sum());
+        stats.setEarlyRefreshes(earlyRefreshes.sum());
+        return stats;
+    }
+
+    private static double ratio(long part, long total) {
+        return total == 0 ? 0.0 : (double) part / total;
+    }
+
+    // ---------------------------------------------------------------
+    // METRICS — /actuator/metrics, tagged cache=<name>
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String name = getName();
+        lookups(registry, name, "near-hit", l1Hits);
+        lookups(registry, name, "redis-hit", l2Hits);
+        lookups(registry, name, "miss", misses);
+        FunctionCounter.builder("cache.writes", puts, LongAdder::sum)
+            .tag("cache", name).description("Values written to both tiers").register(registry);
+        FunctionCounter.builder("cache.invalidations", evictions, LongAdder::sum)
+            .tags("cache", name, "scope", "key").description("Keys evicted on this node").register(registry);
+        FunctionCounter.builder("cache.invalidations", clears, LongAdder::sum)
+            .tags("cache", name, "scope", "all").description("Whole-cache clears on this node").register(registry);
+        FunctionCounter.builder("cache.near.evictions", near, NearCache::evictions)
+            .tag("cache", name).description("Entries the L1 dropped to stay within its size bound").register(registry);
+        Gauge.builder("cache.near.size", near, NearCache::size)
+            .tag("cache", name).description("Entries held in the L1").register(registry);
+        FunctionCounter.builder("cache.load.coalesced", coalescedLoads, LongAdder::sum)
+            .tag("cache", name).description("Misses that waited for another request's load").register(registry);
+        FunctionCounter.builder("cache.refresh.early", earlyRefreshes, LongAdder::sum)
+            .tag("cache", name).description("Background reloads of keys close to expiry").register(registry);
+        loadSuccess = loadTimer(registry, name, "success");
+        loadFailure = loadTimer(registry, name, "failure");
+    }
+
+    private static void lookups(MeterRegistry registry, String name, String result, LongAdder count) {
+        FunctionCounter.builder("cache.lookups", count, LongAdder::sum)
+            .tags("cache", name, "result", result)
+            .description("Reads answered by the L1, by Redis, or by neither")
+            .register(registry);
+    }
+
+    private static Timer loadTimer(MeterRegistry registry, String name, String result) {
+        return Timer.builder("cache.load")
+            .tags("cache", name, "result", result)
+            .description("Time to build a value from the DB on a miss or early refresh")
+            .register(registry);
+    }
+
+    private static void recordLoad(long startNanos, Timer timer) {
+        if (timer != null) timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class TierStats {
+        private long l1Hits;
+        private long l2Hits;
+        private long misses;
+        private double l1HitRatio;
+        /** Share of L1 misses that Redis answered. */
+        private double l2HitRatio;
+        private double hitRatio;
+        private int l1Size;
+        private long l1Evictions;
+        private long loads;
+        /** Misses that waited for another request's load instead of running their own. */
+        private long coalescedLoads;
+        private long earlyRefreshes;
+    }
+}
@@ -0,0 +1,102 @@
+package com.College.timetable.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Composite CacheManager — wraps the named caches of {@code shared} (Redis) in a
+ * {@link TieredCache} with an in-process L1; every other cache is served by Redis alone.
+ * As a MeterBinder bean it binds each TieredCache's meters to the registry.
+ */
+public class TieredCacheManager implements CacheManager, MeterBinder {
+
+    private final CacheManager shared;
+    private final Set<String> nearCached;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final CacheInvalidationBus bus;
+    private final CacheLoadPolicy loadPolicy;
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public TieredCacheManager(CacheManager shared, Set<String> nearCached, int maxEntries, Duration ttl,
+                              CacheInvalidationBus bus) {
+        this(shared, nearCached, maxEntries, ttl, bus, CacheLoadPolicy.NONE);
+    }
+
+    public TieredCacheManager(CacheManager shared, Set<String> nearCached, int maxEntries, Duration ttl,
+                              CacheInvalidationBus bus, CacheLoadPolicy loadPolicy) {
+        this.shared = shared;
+        this.nearCached = nearCached;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.bus = bus;
+        this.loadPolicy = loadPolicy;
+        if (bus != null) bus.addHandler(this::onRemoteInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) return cache;
+        Cache sharedCache = shared.getCache(name);
+        if (sharedCache == null) return null;
+        return caches.computeIfAbsent(name, n -> nearCached.contains(n)
+            ? bind(new TieredCache(sharedCache, maxEntries, ttl, bus, loadPolicy))
+            : sharedCache);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        caches.values().forEach(cache -> {
+            if (cache instanceof TieredCache tiered) tiered.bindTo(registry);
+        });
+    }
+
+    private TieredCache bind(TieredCache cache) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) cache.bindTo(registry);
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return shared.getCacheNames();
+    }
+
+    /**
+     * Register the loader that refreshes near-cached keys ahead of expiry. Until one is set,
+     * keys simply expire and load on the next miss.
+     */
+    public void setRefresher(CacheLoadPolicy.Refresher refresher, Executor executor) {
+        loadPolicy.setRefresher(refresher, executor);
+    }
+
+    /** L1 hit ratios etc. for every near-cached cache that has been used. */
+    public Map<String, TieredCache.TierStats> stats() {
+        Map<String, TieredCache.TierStats> stats = new LinkedHashMap<>();
+        nearCached.forEach(name -> {
+            if (caches.get(name) instanceof TieredCache tiered) stats.put(name, tiered.stats());
+        });
+        return stats;
+    }
+
+    private void onRemoteInvalidation(String cacheName, String key) {
+        if (!(caches.get(cacheName) instanceof TieredCache tiered)) return;
+        if (key == null) tiered.clearLocal();
+        else tiered.evictLocal(key);
+    }
+}
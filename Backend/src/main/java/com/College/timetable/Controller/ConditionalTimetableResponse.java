@@ -0,0 +1,57 @@
+package com.College.timetable.Controller;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.College.timetable.Entity.TimetableEntry;
+import com.College.timetable.Service.TimetableVersionService;
+
+/**
+ * Conditional GET for the timetable JSON read endpoints. The ETag / Last-Modified come from
+ * the view's version counter, so an unchanged view is answered with 304 before any entries
+ * are loaded or serialized.
+ */
+@Component
+public class ConditionalTimetableResponse {
+
+    // Clients may keep the response but must revalidate on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final TimetableVersionService timetableVersions;
+
+    public ConditionalTimetableResponse(TimetableVersionService timetableVersions) {
+        this.timetableVersions = timetableVersions;
+    }
+
+    /**
+     * 304 when the request's If-None-Match / If-Modified-Since still matches the view,
+     * otherwise 200 with the entries from {@code loader}. The version is read before
+     * loading, so a write racing the load only costs the client one extra 200 later.
+     */
+    public ResponseEntity<List<TimetableEntry>> of(WebRequest request, String cacheName, Long id, Long academicYearId,
+                                                   Supplier<List<TimetableEntry>> loader) {
+        TimetableVersionService.Version version = timetableVersions.current(cacheName, id, academicYearId);
+        if (version == null) {
+            return ResponseEntity.ok(loader.get());
+        }
+        String etag = version.etag(cacheName, id, academicYearId);
+        if (request.checkNotModified(etag, version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .lastModified(version.lastModified())
+                .cacheControl(REVALIDATE)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .lastModified(version.lastModified())
+            .cacheControl(REVALIDATE)
+            .body(loader.get());
+    }
+}
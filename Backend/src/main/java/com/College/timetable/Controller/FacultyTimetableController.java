@@ -5,10 +5,12 @@ import com.College.timetable.Entity.TimetableEntry;
 import com.College.timetable.Entity.Semester;
 import com.College.timetable.Service.TimetableService;
 import com.College.timetable.Service.DepartmentAuthorizationService;
+import com.College.timetable.Service.TimetableCacheInvalidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,14 +22,16 @@ public class FacultyTimetableController {
 
     private final TimetableService timetableService;
     private final DepartmentAuthorizationService authService;
+    private final ConditionalTimetableResponse conditional;
 
     @GetMapping("/my-timetable")
     public ResponseEntity<List<TimetableEntry>> getMyTimetable(
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        WebRequest request
     ) {
         TeacherEntity currentTeacher = authService.getCurrentUser();
-        List<TimetableEntry> entries = timetableService.getTeacherTimetable(currentTeacher.getId(), academicYearId);
-        return ResponseEntity.ok(entries);
+        return conditional.of(request, TimetableCacheInvalidator.TEACHER, currentTeacher.getId(), academicYearId,
+            () -> timetableService.getTeacherTimetable(currentTeacher.getId(), academicYearId));
     }
 
     @GetMapping("/department-timetable")
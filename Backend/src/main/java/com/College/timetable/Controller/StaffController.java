@@ -22,6 +22,7 @@ import com.College.timetable.Entity.TeacherEntity;
 import com.College.timetable.IO.ChangePasswordRequest;
 import com.College.timetable.IO.StaffProfileUpdateRequest;
 import com.College.timetable.Repository.TeacherAvailability_repo;
+import com.College.timetable.Service.TeacherAvailabilityIndexService;
 import com.College.timetable.Service.TeacherService;
 
 import jakarta.validation.Valid;
@@ -36,6 +37,9 @@ public class StaffController {
 
     @Autowired
     private TeacherAvailability_repo availabilityRepo;
+
+    @Autowired
+    private TeacherAvailabilityIndexService availabilityIndex;
     
     @GetMapping("/profile")
     public ResponseEntity<TeacherEntity> getProfile(Principal principal) {
@@ -115,6 +119,7 @@ public class StaffController {
                 newEntries.add(avail);
             }
             availabilityRepo.saveAll(newEntries);
+            availabilityIndex.onAvailabilitySaved(teacher.getId(), newEntries);
 
             return ResponseEntity.ok("Availability saved successfully");
         } catch (Exception e) {
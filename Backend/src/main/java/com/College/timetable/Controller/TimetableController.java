@@ -3,19 +3,29 @@ package com.College.timetable.Controller;
 import com.College.timetable.Entity.LabSessionGroup;
 import com.College.timetable.Entity.Semester;
 import com.College.timetable.Entity.TimetableEntry;
+import com.College.timetable.IO.BulkExportRequest;
 import com.College.timetable.IO.CreateLabSessionGroupDTO;
 import com.College.timetable.IO.CreateLabSessionGroupDTO;
 import com.College.timetable.IO.CreateTimetableEntryDTO;
+import com.College.timetable.Service.TimetableBulkExportService;
+import com.College.timetable.Service.TimetableCacheInvalidator;
+import com.College.timetable.Service.TimetableExportCache;
+import com.College.timetable.Service.TimetableExportJobService;
 import com.College.timetable.Service.TimetableService;
 import com.College.timetable.Util.TimetableConflictException;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -24,175 +34,272 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class TimetableController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TimetableController.class);
+
     private final TimetableService timetableService;
     private final com.College.timetable.Service.TimetableValidationService validationService;
     private final com.College.timetable.Service.TimetableExportService exportService;
     private final com.College.timetable.Service.DepartmentAuthorizationService authService;
+    private final com.College.timetable.Service.OccupancyIndexService occupancyIndex;
+    private final com.College.timetable.Service.AvailabilityGridService availabilityGridService;
+    private final com.College.timetable.Service.TimetableGeneratorService generatorService;
+    private final com.College.timetable.Service.TimetableOptimizerService optimizerService;
+    private final TimetableCacheInvalidator cacheInvalidator;
+    private final com.College.timetable.Configuration.TieredCacheManager tieredCacheManager;
+    private final TimetableExportCache exportCache;
+    private final TimetableBulkExportService bulkExportService;
+    private final TimetableExportJobService exportJobs;
+    private final ConditionalTimetableResponse conditional;
+
+    @org.springframework.beans.factory.annotation.Value("${app.timetable.batch-check.max-candidates:500}")
+    private int maxBatchCandidates;
 
     // ---------------------------------------------------------------
     // EXPORT endpoints — PDF & Excel download (semester-specific)
+    // ?async=true queues the export as a job and answers 202 with the job to poll
     // ---------------------------------------------------------------
 
     @GetMapping("/export/division/{divisionId}/pdf")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
-    public ResponseEntity<byte[]> exportDivisionPDF(
+    public ResponseEntity<?> exportDivisionPDF(
         @PathVariable Long divisionId,
         @RequestParam Long academicYearId,
-        @RequestParam String semester
+        @RequestParam String semester,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkDivisionAccess(divisionId);
-            byte[] pdf = exportService.generateDivisionPDF(divisionId, academicYearId, Semester.valueOf(semester));
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/pdf")
-                .header("Content-Disposition", "attachment; filename=timetable_division_" + divisionId + "_" + semester + ".pdf")
-                .body(pdf);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error generating division PDF: " + e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+        authService.checkDivisionAccess(divisionId);
+        return export(ifNoneMatch, async, false,
+            exportCache.etag(TimetableExportCache.DIVISION, divisionId, academicYearId, Semester.valueOf(semester), "pdf"),
+            "application/pdf", "timetable_division_" + divisionId + "_" + semester + ".pdf",
+            out -> exportService.writeDivisionPDF(divisionId, academicYearId, Semester.valueOf(semester), out));
     }
 
     @GetMapping("/export/division/{divisionId}/excel")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
-    public ResponseEntity<byte[]> exportDivisionExcel(
+    public ResponseEntity<?> exportDivisionExcel(
         @PathVariable Long divisionId,
         @RequestParam Long academicYearId,
-        @RequestParam String semester
+        @RequestParam String semester,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkDivisionAccess(divisionId);
-            byte[] excel = exportService.generateDivisionExcel(divisionId, academicYearId, Semester.valueOf(semester));
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                .header("Content-Disposition", "attachment; filename=timetable_division_" + divisionId + "_" + semester + ".xlsx")
-                .body(excel);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error generating division Excel: " + e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+        authService.checkDivisionAccess(divisionId);
+        return export(ifNoneMatch, async, false,
+            exportCache.etag(TimetableExportCache.DIVISION, divisionId, academicYearId, Semester.valueOf(semester), "excel"),
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "timetable_division_" + divisionId + "_" + semester + ".xlsx",
+            out -> exportService.writeDivisionExcel(divisionId, academicYearId, Semester.valueOf(semester), out));
     }
 
     @GetMapping("/export/teacher/{teacherId}/pdf")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR', 'TEACHER')")
-    public ResponseEntity<byte[]> exportTeacherPDF(
+    public ResponseEntity<?> exportTeacherPDF(
         @PathVariable Long teacherId,
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkTeacherAccess(teacherId);
-            byte[] pdf = exportService.generateTeacherPDF(teacherId, academicYearId);
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/pdf")
-                .header("Content-Disposition", "attachment; filename=timetable_teacher_" + teacherId + ".pdf")
-                .body(pdf);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        authService.checkTeacherAccess(teacherId);
+        return export(ifNoneMatch, async, false,
+            exportCache.etag(TimetableExportCache.TEACHER, teacherId, academicYearId, null, "pdf"),
+            "application/pdf", "timetable_teacher_" + teacherId + ".pdf",
+            out -> exportService.writeTeacherPDF(teacherId, academicYearId, out));
     }
 
     @GetMapping("/export/teacher/{teacherId}/excel")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR', 'TEACHER')")
-    public ResponseEntity<byte[]> exportTeacherExcel(
+    public ResponseEntity<?> exportTeacherExcel(
         @PathVariable Long teacherId,
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkTeacherAccess(teacherId);
-            byte[] excel = exportService.generateTeacherExcel(teacherId, academicYearId);
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                .header("Content-Disposition", "attachment; filename=timetable_teacher_" + teacherId + ".xlsx")
-                .body(excel);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        authService.checkTeacherAccess(teacherId);
+        return export(ifNoneMatch, async, false,
+            exportCache.etag(TimetableExportCache.TEACHER, teacherId, academicYearId, null, "excel"),
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "timetable_teacher_" + teacherId + ".xlsx",
+            out -> exportService.writeTeacherExcel(teacherId, academicYearId, out));
     }
 
     @GetMapping("/export/department/{departmentId}/pdf")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
-    public ResponseEntity<byte[]> exportDepartmentPDF(
+    public ResponseEntity<?> exportDepartmentPDF(
         @PathVariable Long departmentId,
         @RequestParam Long academicYearId,
-        @RequestParam String semester
+        @RequestParam String semester,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkDepartmentAccess(departmentId);
-            byte[] pdf = exportService.generateDepartmentPDF(departmentId, academicYearId, Semester.valueOf(semester));
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/pdf")
-                .header("Content-Disposition", "attachment; filename=timetable_department_" + departmentId + "_" + semester + ".pdf")
-                .body(pdf);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
-        }
+        authService.checkDepartmentAccess(departmentId);
+        return export(ifNoneMatch, async, true,
+            exportCache.etag(TimetableExportCache.DEPARTMENT, departmentId, academicYearId, Semester.valueOf(semester), "pdf"),
+            "application/pdf", "timetable_department_" + departmentId + "_" + semester + ".pdf",
+            out -> exportService.writeDepartmentPDF(departmentId, academicYearId, Semester.valueOf(semester), out));
     }
 
     @GetMapping("/export/department/{departmentId}/excel")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
-    public ResponseEntity<byte[]> exportDepartmentExcel(
+    public ResponseEntity<?> exportDepartmentExcel(
         @PathVariable Long departmentId,
         @RequestParam Long academicYearId,
-        @RequestParam String semester
+        @RequestParam String semester,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkDepartmentAccess(departmentId);
-            byte[] excel = exportService.generateDepartmentExcel(departmentId, academicYearId, Semester.valueOf(semester));
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                .header("Content-Disposition", "attachment; filename=timetable_department_" + departmentId + "_" + semester + ".xlsx")
-                .body(excel);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
-        }
+        authService.checkDepartmentAccess(departmentId);
+        return export(ifNoneMatch, async, true,
+            exportCache.etag(TimetableExportCache.DEPARTMENT, departmentId, academicYearId, Semester.valueOf(semester), "excel"),
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "timetable_department_" + departmentId + "_" + semester + ".xlsx",
+            out -> exportService.writeDepartmentExcel(departmentId, academicYearId, Semester.valueOf(semester), out));
     }
 
     @GetMapping("/export/room/{roomId}/pdf")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
-    public ResponseEntity<byte[]> exportRoomPDF(
+    public ResponseEntity<?> exportRoomPDF(
         @PathVariable Long roomId,
         @RequestParam Long academicYearId,
-        @RequestParam String semester
+        @RequestParam String semester,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkRoomAccess(roomId);
-            byte[] pdf = exportService.generateRoomPDF(roomId, academicYearId, Semester.valueOf(semester));
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/pdf")
-                .header("Content-Disposition", "attachment; filename=timetable_room_" + roomId + "_" + semester + ".pdf")
-                .body(pdf);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
-        }
+        authService.checkRoomAccess(roomId);
+        return export(ifNoneMatch, async, false,
+            exportCache.etag(TimetableExportCache.ROOM, roomId, academicYearId, Semester.valueOf(semester), "pdf"),
+            "application/pdf", "timetable_room_" + roomId + "_" + semester + ".pdf",
+            out -> exportService.writeRoomPDF(roomId, academicYearId, Semester.valueOf(semester), out));
     }
 
     @GetMapping("/export/room/{roomId}/excel")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
-    public ResponseEntity<byte[]> exportRoomExcel(
+    public ResponseEntity<?> exportRoomExcel(
         @PathVariable Long roomId,
         @RequestParam Long academicYearId,
-        @RequestParam String semester
+        @RequestParam String semester,
+        @RequestParam(defaultValue = "false") boolean async,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
-        try {
-            authService.checkRoomAccess(roomId);
-            byte[] excel = exportService.generateRoomExcel(roomId, academicYearId, Semester.valueOf(semester));
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                .header("Content-Disposition", "attachment; filename=timetable_room_" + roomId + "_" + semester + ".xlsx")
-                .body(excel);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+        authService.checkRoomAccess(roomId);
+        return export(ifNoneMatch, async, false,
+            exportCache.etag(TimetableExportCache.ROOM, roomId, academicYearId, Semester.valueOf(semester), "excel"),
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "timetable_room_" + roomId + "_" + semester + ".xlsx",
+            out -> exportService.writeRoomExcel(roomId, academicYearId, Semester.valueOf(semester), out));
+    }
+
+    /**
+     * POST /api/timetable/export/bulk
+     * Start an institution-wide export: every published division / teacher / room timetable of
+     * a year and semester, rendered in the background into one ZIP. Poll the returned job.
+     */
+    @PostMapping("/export/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<TimetableBulkExportService.BulkExportProgress> startBulkExport(
+        @Valid @RequestBody BulkExportRequest request
+    ) {
+        TimetableBulkExportService.Job job = bulkExportService.start(request);
+        return ResponseEntity.accepted()
+            .location(java.net.URI.create("/api/timetable/export/bulk/" + job.id()))
+            .body(job.progress());
+    }
+
+    /**
+     * GET /api/timetable/export/bulk/{jobId}
+     * Progress of a bulk export; carries the download URL once the ZIP is ready.
+     */
+    @GetMapping("/export/bulk/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<TimetableBulkExportService.BulkExportProgress> getBulkExport(@PathVariable String jobId) {
+        return bulkExportService.progress(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/timetable/export/bulk/{jobId}/download
+     * The finished ZIP, streamed from the export file store.
+     */
+    @GetMapping("/export/bulk/{jobId}/download")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadBulkExport(@PathVariable String jobId) throws IOException {
+        java.nio.file.Path zip = bulkExportService.zip(jobId).orElse(null);
+        if (zip == null) return ResponseEntity.notFound().build();
+        StreamingResponseBody body = out -> java.nio.file.Files.copy(zip, out);
+        return ResponseEntity.ok()
+            .header("Content-Type", "application/zip")
+            .header("Content-Disposition", "attachment; filename=timetables_" + jobId + ".zip")
+            .contentLength(java.nio.file.Files.size(zip))
+            .body(body);
+    }
+
+    /**
+     * GET /api/timetable/export/jobs/{jobId}
+     * Progress of an export queued with async=true; carries the download URL once it is ready.
+     */
+    @GetMapping("/export/jobs/{jobId}")
+    public ResponseEntity<TimetableExportJobService.ExportJobProgress> getExportJob(@PathVariable String jobId) {
+        return exportJobs.job(jobId)
+            .map(job -> ResponseEntity.ok(job.progress()))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/timetable/export/jobs/{jobId}/download
+     * The document of a finished export job — 409 with its progress while it is still queued
+     * or rendering. Only the user who queued the job can see it.
+     */
+    @GetMapping("/export/jobs/{jobId}/download")
+    public ResponseEntity<?> downloadExportJob(@PathVariable String jobId) {
+        TimetableExportJobService.Job job = exportJobs.job(jobId).orElse(null);
+        if (job == null) return ResponseEntity.notFound().build();
+        if (!job.isDone()) return ResponseEntity.status(HttpStatus.CONFLICT).body(job.progress());
+        StreamingResponseBody body = out -> exportJobs.copy(job, out);
+        return ResponseEntity.ok()
+            .header("Content-Type", job.contentType())
+            .header("Content-Disposition", "attachment; filename=" + job.filename())
+            .body(body);
+    }
+
+    /**
+     * Serve an export by its ETag: 304 when the client already has this version, otherwise the
+     * document — from the cache, or rendered on a miss. private + no-cache makes browsers revalidate.
+     *
+     * Renders share the bounded export pool. A small export renders straight into the response
+     * when a render slot is free; it takes the slot only once the body runs, so a body that
+     * never runs holds none. Otherwise, and always for {@code large} (department) ones, it
+     * is queued as a job. With {@code async} the client gets 202 and the job to poll; without,
+     * the download waits for the job on the async request thread. A full queue answers 503.
+     */
+    private ResponseEntity<?> export(String ifNoneMatch, boolean async, boolean large, String etag,
+                                     String contentType, String filename, TimetableExportCache.DocumentWriter writer) {
+        if (TimetableExportCache.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(org.springframework.http.CacheControl.noCache().cachePrivate())
+                .build();
         }
+        StreamingResponseBody body;
+        if (!async && !large && exportJobs.canRenderInline()) {
+            body = out -> exportJobs.renderInline(etag, filename, contentType, writer, out);
+        } else {
+            TimetableExportJobService.Job job = exportJobs.submit(etag, filename, contentType, writer);
+            if (async) {
+                return ResponseEntity.accepted()
+                    .location(java.net.URI.create(String.format(TimetableExportJobService.POLL_URL, job.id())))
+                    .body(job.progress());
+            }
+            body = out -> exportJobs.awaitAndCopy(job, out);
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(org.springframework.http.CacheControl.noCache().cachePrivate())
+            .header("Content-Type", contentType)
+            .header("Content-Disposition", "attachment; filename=" + filename)
+            .body(body);
     }
 
     // ---------------------------------------------------------------
     // READ endpoints — available to all authenticated users
+    // Division / teacher / department / room views answer If-None-Match and
+    // If-Modified-Since with 304 when the view has not changed
     // ---------------------------------------------------------------
 
     /**
@@ -203,11 +310,11 @@ public class TimetableController {
     @GetMapping("/division/{divisionId}")
     public ResponseEntity<List<TimetableEntry>> getDivisionTimetable(
         @PathVariable Long divisionId,
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        WebRequest request
     ) {
-        return ResponseEntity.ok(
-            timetableService.getDivisionTimetable(divisionId, academicYearId)
-        );
+        return conditional.of(request, TimetableCacheInvalidator.DIVISION, divisionId, academicYearId,
+            () -> timetableService.getDivisionTimetable(divisionId, academicYearId));
     }
 
     /**
@@ -218,11 +325,11 @@ public class TimetableController {
     @GetMapping("/teacher/{teacherId}")
     public ResponseEntity<List<TimetableEntry>> getTeacherTimetable(
         @PathVariable Long teacherId,
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        WebRequest request
     ) {
-        return ResponseEntity.ok(
-            timetableService.getTeacherTimetable(teacherId, academicYearId)
-        );
+        return conditional.of(request, TimetableCacheInvalidator.TEACHER, teacherId, academicYearId,
+            () -> timetableService.getTeacherTimetable(teacherId, academicYearId));
     }
 
     /**
@@ -234,12 +341,12 @@ public class TimetableController {
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR', 'TEACHER')")
     public ResponseEntity<List<TimetableEntry>> getDepartmentTimetable(
         @PathVariable Long departmentId,
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        WebRequest request
     ) {
         authService.checkDepartmentAccess(departmentId);
-        return ResponseEntity.ok(
-            timetableService.getDepartmentTimetable(departmentId, academicYearId)
-        );
+        return conditional.of(request, TimetableCacheInvalidator.DEPARTMENT, departmentId, academicYearId,
+            () -> timetableService.getDepartmentTimetable(departmentId, academicYearId));
     }
 
     /**
@@ -250,12 +357,12 @@ public class TimetableController {
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR', 'TEACHER')")
     public ResponseEntity<List<TimetableEntry>> getRoomTimetable(
         @PathVariable Long roomId,
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        WebRequest request
     ) {
         authService.checkRoomAccess(roomId);
-        return ResponseEntity.ok(
-            timetableService.getRoomTimetable(roomId, academicYearId)
-        );
+        return conditional.of(request, TimetableCacheInvalidator.ROOM, roomId, academicYearId,
+            () -> timetableService.getRoomTimetable(roomId, academicYearId));
     }
 
     /**
@@ -298,16 +405,23 @@ public class TimetableController {
     // ---------------------------------------------------------------
 
     /**
-     * POST /api/timetable/entries
+     * POST /api/timetable/entries?dryRun=false
      * Add a single timetable entry (manual mode)
-     * Conflict check runs before saving — returns 409 if conflict found
+     * Conflict check runs before saving — returns 409 if conflict found.
+     * dryRun=true returns the would-be entries and conflicts (200) without saving anything.
      */
     @PostMapping("/entries")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
-    public ResponseEntity<?> addEntry(@Valid @RequestBody CreateTimetableEntryDTO dto) {
+    public ResponseEntity<?> addEntry(
+        @Valid @RequestBody CreateTimetableEntryDTO dto,
+        @RequestParam(defaultValue = "false") boolean dryRun
+    ) {
         authService.checkDivisionAccess(dto.getDivisionId());
+        if (dryRun) {
+            return ResponseEntity.ok(timetableService.previewEntry(dto));
+        }
         // Debug logging
-        System.out.println("DEBUG: Received DTO - batchId: " + dto.getBatchId() + ", labSessionGroupId: " + dto.getLabSessionGroupId());
+        logger.debug("[TIMETABLE] Received entry - batchId: {}, labSessionGroupId: {}", dto.getBatchId(), dto.getLabSessionGroupId());
         
         try {
             TimetableEntry entry = timetableService.addEntry(dto);
@@ -323,6 +437,36 @@ public class TimetableController {
         }
     }
 
+    /**
+     * POST /api/timetable/conflicts/check
+     * Check many candidate placements in one call — nothing is saved.
+     * Returns each candidate's conflicts, including clashes between candidates of the same request.
+     */
+    @PostMapping("/conflicts/check")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
+    public ResponseEntity<?> checkCandidateConflicts(
+        @RequestBody List<com.College.timetable.Service.ConflictCheckService.TimetableEntryRequest> candidates
+    ) {
+        if (candidates.size() > maxBatchCandidates) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "message", "Too many candidates — at most " + maxBatchCandidates + " per request"
+            ));
+        }
+        candidates.stream()
+            .filter(c -> c != null && c.getDivisionId() != null)
+            .map(com.College.timetable.Service.ConflictCheckService.TimetableEntryRequest::getDivisionId)
+            .distinct()
+            .forEach(authService::checkDivisionAccess);
+
+        var results = timetableService.checkCandidateConflicts(candidates);
+        long withConflicts = results.stream().filter(r -> !r.isClear()).count();
+        return ResponseEntity.ok(Map.of(
+            "candidates", results.size(),
+            "candidatesWithConflicts", withConflicts,
+            "results", results
+        ));
+    }
+
     /**
      * PUT /api/timetable/entries/{id}
      * Update an existing DRAFT entry
@@ -466,15 +610,20 @@ public class TimetableController {
     }
 
     /**
-     * POST /api/timetable/lab-session
+     * POST /api/timetable/lab-session?dryRun=false
      * Single-step lab session creation — creates group + all batch entries at once.
+     * dryRun=true returns the would-be batch entries and conflicts (200) without saving anything.
      */
     @PostMapping("/lab-session")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
     public ResponseEntity<?> createLabSession(
-        @Valid @RequestBody com.College.timetable.IO.CreateLabSessionRequest request
+        @Valid @RequestBody com.College.timetable.IO.CreateLabSessionRequest request,
+        @RequestParam(defaultValue = "false") boolean dryRun
     ) {
         authService.checkDivisionAccess(request.getDivisionId());
+        if (dryRun) {
+            return ResponseEntity.ok(timetableService.previewLabSession(request));
+        }
         try {
             Map<String, Object> result = timetableService.createLabSession(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(result);
@@ -503,24 +652,83 @@ public class TimetableController {
     /**
      * Copy draft timetable from one division to another (same academic year).
      * Only copies non-lab entries. Lab sessions must be configured separately.
+     * Cells whose teacher or room is already booked in that slot (or where the target division already
+     * has a class) are not copied and are listed in "skipped". With reassign=true a busy teacher / room is
+     * replaced by a free teacher assigned to the course / a free room of the same type instead.
      */
     @PostMapping("/copy")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
     public ResponseEntity<Map<String, Object>> copyTimetable(
         @RequestParam Long sourceDivisionId,
         @RequestParam Long targetDivisionId,
-        @RequestParam Long academicYearId
+        @RequestParam Long academicYearId,
+        @RequestParam(defaultValue = "false") boolean reassign
     ) {
         authService.checkDivisionAccess(sourceDivisionId);
         authService.checkDivisionAccess(targetDivisionId);
-        int copied = timetableService.copyDraftEntries(sourceDivisionId, targetDivisionId, academicYearId);
+        TimetableService.CopyResult result =
+            timetableService.copyDraftEntries(sourceDivisionId, targetDivisionId, academicYearId, reassign);
         return ResponseEntity.ok(Map.of(
             "message", "Timetable copied successfully",
-            "entriesCopied", copied,
+            "entriesCopied", result.copied(),
+            "entriesReassigned", result.reassigned(),
+            "skipped", result.skipped(),
             "note", "Lab session entries were skipped — configure them separately for the target division"
         ));
     }
 
+    /**
+     * POST /api/timetable/generate
+     * Generate a DRAFT timetable for one division or every division of a department.
+     * Unless persist=true the proposal is returned without saving; unplaceable items are listed with a reason.
+     */
+    @PostMapping("/generate")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
+    public ResponseEntity<?> generateTimetable(@Valid @RequestBody com.College.timetable.IO.GenerateTimetableRequest request) {
+        if ((request.getDivisionId() == null) == (request.getDepartmentId() == null)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "message", "Provide exactly one of divisionId or departmentId"
+            ));
+        }
+        if (request.getDivisionId() != null) {
+            authService.checkDivisionAccess(request.getDivisionId());
+        } else {
+            authService.checkDepartmentAccess(request.getDepartmentId());
+        }
+        return ResponseEntity.ok(generatorService.generate(request));
+    }
+
+    /**
+     * POST /api/timetable/optimize
+     * Improve an existing DRAFT (teacher gaps, heavy days, course spread) by moving and swapping entries.
+     * Hard constraints are never broken. Returns the score before/after and the moved entries;
+     * persist=true applies the moves.
+     */
+    @PostMapping("/optimize")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'DEPARTMENT_ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
+    public ResponseEntity<?> optimizeTimetable(@Valid @RequestBody com.College.timetable.IO.OptimizeTimetableRequest request) {
+        if ((request.getDivisionId() == null) == (request.getDepartmentId() == null)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "message", "Provide exactly one of divisionId or departmentId"
+            ));
+        }
+        if (request.getDivisionId() != null) {
+            authService.checkDivisionAccess(request.getDivisionId());
+        } else {
+            authService.checkDepartmentAccess(request.getDepartmentId());
+        }
+        try {
+            return ResponseEntity.ok(optimizerService.optimize(request));
+        } catch (TimetableConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                Map.of(
+                    "message", "Timetable changed during optimization",
+                    "conflicts", e.getConflicts()
+                )
+            );
+        }
+    }
+
     // ---------------------------------------------------------------
     // AVAILABILITY FILTERING — Real-time filtering for timetable creation
     // ---------------------------------------------------------------
@@ -584,6 +792,23 @@ public class TimetableController {
         return ResponseEntity.ok(available);
     }
 
+    /**
+     * GET /api/timetable/availability-grid?divisionId=1&academicYearId=1&semester=SEM_3
+     * Free rooms, teachers and batches for every (day, slot) of a division's week grid in one call.
+     */
+    @GetMapping("/availability-grid")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOD', 'TIMETABLE_COORDINATOR')")
+    public ResponseEntity<com.College.timetable.Service.AvailabilityGridService.AvailabilityGrid> getAvailabilityGrid(
+        @RequestParam Long divisionId,
+        @RequestParam Long academicYearId,
+        @RequestParam String semester
+    ) {
+        authService.checkDivisionAccess(divisionId);
+        return ResponseEntity.ok(availabilityGridService.getGrid(
+            divisionId, academicYearId, com.College.timetable.Entity.Semester.valueOf(semester)
+        ));
+    }
+
     /**
      * GET /api/timetable/analytics?academicYearId=1
      * Get aggregated teacher workload, room utilization, and slot density statistics.
@@ -602,6 +827,39 @@ public class TimetableController {
         ));
     }
 
+    /**
+     * GET /api/timetable/occupancy-index/verify?academicYearId=1&rebuild=true
+     * Compare the in-memory occupancy index with the DB; optionally rebuild the year on drift.
+     */
+    @GetMapping("/occupancy-index/verify")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<com.College.timetable.Service.OccupancyIndexService.ConsistencyReport> verifyOccupancyIndex(
+        @RequestParam Long academicYearId,
+        @RequestParam(defaultValue = "true") boolean rebuild
+    ) {
+        return ResponseEntity.ok(occupancyIndex.verify(academicYearId, rebuild));
+    }
+
+    /**
+     * GET /api/timetable/cache/evictions
+     * Timetable cache keys evicted since startup, per cache.
+     */
+    @GetMapping("/cache/evictions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<TimetableCacheInvalidator.EvictionStats> getCacheEvictions() {
+        return ResponseEntity.ok(cacheInvalidator.stats());
+    }
+
+    /**
+     * GET /api/timetable/cache/tiers
+     * Near-cache (L1) and Redis (L2) hit ratios on this node, per cache.
+     */
+    @GetMapping("/cache/tiers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<Map<String, com.College.timetable.Configuration.TieredCache.TierStats>> getCacheTiers() {
+        return ResponseEntity.ok(tieredCacheManager.stats());
+    }
+
     /**
      * GET /api/timetable/dashboard-stats?academicYearId=1
      * Get unified dashboard statistics for counts, room occupancy utilization, and recent timetable changes.
@@ -15,6 +15,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -25,7 +26,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "timetable_entries")
+@Table(name = "timetable_entries", indexes = {
+    // Serves the per-cell booked-ID projections used by the available-* filters.
+    // Created outside ddl-auto=update by db/migration/V3 (BookingIndexInitializer while Flyway is off).
+    @Index(name = "idx_timetable_entries_year_day_slot", columnList = "academic_year_id, day_of_week, time_slot_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,6 +2,7 @@ package com.College.timetable.Exception;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.College.timetable.Util.TimetableConflictException;
+
 import jakarta.persistence.EntityNotFoundException;
 
 @RestControllerAdvice
@@ -94,6 +97,17 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
 	}
 
+	@ExceptionHandler(TimetableConflictException.class)
+	public ResponseEntity<Map<String, Object>> handleTimetableConflict(TimetableConflictException ex) {
+		// Endpoints that don't catch conflicts themselves (copy, generate) still get a 409
+		logger.warn("TimetableConflictException occurred: {}", ex.getMessage());
+		Map<String, Object> error = new HashMap<>();
+		error.put("message", "Scheduling conflicts detected");
+		error.put("conflicts", ex.getConflicts());
+		error.put("status", "409");
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+	}
+
 	@ExceptionHandler(EntityNotFoundException.class)
 	public ResponseEntity<Map<String, String>> handleEntityNotFound(EntityNotFoundException ex) {
 		logger.warn("EntityNotFoundException occurred: {}", ex.getMessage());
@@ -129,6 +143,16 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
 	}
 
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<Map<String, String>> handleRejectedExecution(RejectedExecutionException ex) {
+		// A bounded work queue (e.g. the export render queue) is full — shed load instead of piling up
+		logger.warn("RejectedExecutionException occurred: {}", ex.getMessage());
+		Map<String, String> error = new HashMap<>();
+		error.put("message", ex.getMessage());
+		error.put("status", "503");
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "10").body(error);
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
 		// Log full exception server-side at ERROR level
@@ -0,0 +1,37 @@
+package com.College.timetable.IO;
+
+import java.util.Set;
+
+import com.College.timetable.Entity.Semester;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Institution-wide export: every published division, teacher and/or room timetable of one
+ * academic year and semester, rendered into a single ZIP.
+ *
+ * Example payload:
+ * {
+ *   "academicYearId": 2, "semester": "SEM_3",
+ *   "scopes": ["DIVISION", "TEACHER", "ROOM"], "formats": ["PDF"]
+ * }
+ */
+@Data
+public class BulkExportRequest {
+
+    public enum Scope { DIVISION, TEACHER, ROOM, DEPARTMENT }
+
+    public enum Format { PDF, EXCEL }
+
+    @NotNull(message = "Academic year is required")
+    private Long academicYearId;
+
+    @NotNull(message = "Semester is required")
+    private Semester semester;
+
+    // Empty = DIVISION, TEACHER and ROOM
+    private Set<Scope> scopes;
+
+    // Empty = PDF only
+    private Set<Format> formats;
+}
@@ -0,0 +1,40 @@
+package com.College.timetable.IO;
+
+import com.College.timetable.Entity.Semester;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * Automatic timetable generation for one division or a whole department.
+ *
+ * Example payload:
+ * {
+ *   "divisionId": 1, "academicYearId": 2, "semester": "SEM_3",
+ *   "timeBudgetMs": 15000, "replaceDraft": true, "persist": true
+ * }
+ */
+@Data
+public class GenerateTimetableRequest {
+
+    // Exactly one of divisionId / departmentId
+    private Long divisionId;
+
+    private Long departmentId;
+
+    @NotNull(message = "Academic year is required")
+    private Long academicYearId;
+
+    @NotNull(message = "Semester is required")
+    private Semester semester;
+
+    // Search time limit; defaults to app.timetable.generator.time-budget-ms
+    @Positive(message = "Time budget must be positive")
+    private Long timeBudgetMs;
+
+    // Drop the existing DRAFT of the target divisions/semester and generate from scratch
+    private Boolean replaceDraft = true;
+
+    // Default preview only, nothing is saved — true writes the DRAFT (and with replaceDraft, drops the old one)
+    private Boolean persist = false;
+}
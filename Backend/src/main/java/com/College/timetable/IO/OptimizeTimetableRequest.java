@@ -0,0 +1,37 @@
+package com.College.timetable.IO;
+
+import com.College.timetable.Entity.Semester;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * Local-search improvement of an existing DRAFT for one division or a whole department.
+ *
+ * Example payload:
+ * {
+ *   "departmentId": 1, "academicYearId": 2, "semester": "SEM_3",
+ *   "timeBudgetMs": 20000, "persist": false
+ * }
+ */
+@Data
+public class OptimizeTimetableRequest {
+
+    // Exactly one of divisionId / departmentId
+    private Long divisionId;
+
+    private Long departmentId;
+
+    @NotNull(message = "Academic year is required")
+    private Long academicYearId;
+
+    @NotNull(message = "Semester is required")
+    private Semester semester;
+
+    // Search time limit; defaults to app.timetable.optimizer.time-budget-ms
+    @Positive(message = "Time budget must be positive")
+    private Long timeBudgetMs;
+
+    // false = return the improved assignment and diff only; true = apply the moves to the DRAFT
+    private Boolean persist = false;
+}
@@ -0,0 +1,274 @@
+package com.College.timetable.IO;
+
+import java.sql.Timestamp;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.College.timetable.Entity.*;
+
+/**
+ * Compact, immutable read model of one cached timetable view (a division, teacher, room or
+ * department for one academic year).
+ *
+ * Each entry is a {@link Row} of IDs and indexes into shared reference tables — a course,
+ * teacher or room used by 20 entries is stored once — carrying only the fields the read
+ * endpoints and exports display. {@link #toEntries()} rebuilds detached TimetableEntry
+ * objects from it, so responses keep their shape.
+ */
+public record TimetableView(
+    Long academicYearId,
+    String academicYearName,
+    List<DepartmentRef> departments,
+    List<DivisionRef> divisions,
+    List<CourseRef> courses,
+    List<TeacherRef> teachers,
+    List<RoomRef> rooms,
+    List<SlotRef> slots,
+    List<BatchRef> batches,
+    List<Row> rows
+) {
+
+    public TimetableView {
+        departments = List.copyOf(departments);
+        divisions = List.copyOf(divisions);
+        courses = List.copyOf(courses);
+        teachers = List.copyOf(teachers);
+        rooms = List.copyOf(rooms);
+        slots = List.copyOf(slots);
+        batches = List.copyOf(batches);
+        rows = List.copyOf(rows);
+    }
+
+    // Reference tables — an int field is an index into another table, -1 when absent
+    public record DepartmentRef(Long id, String name, String code) { }
+    public record DivisionRef(Long id, String name, Integer year, String branch, String timeSlotType,
+                              String classTeacher, int department) { }
+    public record CourseRef(Long id, String name, String code, String shortName, CourseType courseType,
+                            CourseCategory courseCategory, Integer credits, Integer hoursPerWeek, int department) { }
+    public record TeacherRef(Long id, String name, String shortName, String employeeId, int department) { }
+    public record RoomRef(Long id, String name, String roomNumber, String buildingWing, Integer capacity,
+                          RoomType roomType, int department) { }
+    public record SlotRef(Long id, String slotName, LocalTime startTime, LocalTime endTime, Integer durationMinutes,
+                          Boolean isBreak, String type) { }
+    public record BatchRef(Long id, String name, Integer strength) { }
+
+    /** One timetable entry. */
+    public record Row(Long id, int division, int course, int teacher, int room, int slot, int batch,
+                      Long labSessionGroupId, DayOfWeek day, TimetableStatus status, Semester semester,
+                      Boolean lab, Integer weekNumber, Boolean recurring, String notes, Long updatedAt) { }
+
+    public int size() {
+        return rows.size();
+    }
+
+    // ---------------------------------------------------------------
+    // ENTITY GRAPH -> VIEW
+    // ---------------------------------------------------------------
+
+    public static TimetableView of(Long academicYearId, List<TimetableEntry> entries) {
+        Builder b = new Builder();
+        String yearName = null;
+        List<Row> rows = new ArrayList<>(entries.size());
+        for (TimetableEntry e : entries) {
+            if (yearName == null && e.getAcademicYear() != null) yearName = e.getAcademicYear().getYearName();
+            rows.add(new Row(
+                e.getId(),
+                b.division(e.getDivision()),
+                b.course(e.getCourse()),
+                b.teacher(e.getTeacher()),
+                b.room(e.getRoom()),
+                b.slot(e.getTimeSlot()),
+                b.batch(e.getBatch()),
+                e.getLabSessionGroup() != null ? e.getLabSessionGroup().getId() : null,
+                e.getDayOfWeek(),
+                e.getStatus(),
+                e.getSemester(),
+                e.getIsLabSession(),
+                e.getWeekNumber(),
+                e.getIsRecurring(),
+                e.getNotes(),
+                e.getUpdatedAt() != null ? e.getUpdatedAt().getTime() : null
+            ));
+        }
+        return new TimetableView(academicYearId, yearName, b.departments.values, b.divisions.values,
+            b.courses.values, b.teachers.values, b.rooms.values, b.slots.values, b.batches.values, rows);
+    }
+
+    /** Interns each referenced object once per view. */
+    private static final class Builder {
+        final Table<DepartmentRef> departments = new Table<>();
+        final Table<DivisionRef> divisions = new Table<>();
+        final Table<CourseRef> courses = new Table<>();
+        final Table<TeacherRef> teachers = new Table<>();
+        final Table<RoomRef> rooms = new Table<>();
+        final Table<SlotRef> slots = new Table<>();
+        final Table<BatchRef> batches = new Table<>();
+
+        int department(DepartmentEntity d) {
+            return d == null ? -1 : departments.intern(d.getId(), id -> new DepartmentRef(id, d.getName(), d.getCode()));
+        }
+
+        int division(Division d) {
+            return d == null ? -1 : divisions.intern(d.getId(), id -> new DivisionRef(id, d.getName(), d.getYear(),
+                d.getBranch(), d.getTimeSlotType(), d.getClassTeacher(), department(d.getDepartment())));
+        }
+
+        int course(CourseEntity c) {
+            return c == null ? -1 : courses.intern(c.getId(), id -> new CourseRef(id, c.getName(), c.getCode(),
+                c.getShortName(), c.getCourseType(), c.getCourseCategory(), c.getCredits(), c.getHoursPerWeek(),
+                department(c.getDepartment())));
+        }
+
+        int teacher(TeacherEntity t) {
+            return t == null ? -1 : teachers.intern(t.getId(), id -> new TeacherRef(id, t.getName(), t.getShortName(),
+                t.getEmployeeId(), department(t.getDepartment())));
+        }
+
+        int room(ClassRoom r) {
+            return r == null ? -1 : rooms.intern(r.getId(), id -> new RoomRef(id, r.getName(), r.getRoomNumber(),
+                r.getBuildingWing(), r.getCapacity(), r.getRoomType(), department(r.getDepartment())));
+        }
+
+        int slot(TimeSlot s) {
+            return s == null ? -1 : slots.intern(s.getId(), id -> new SlotRef(id, s.getSlotName(), s.getStartTime(),
+                s.getEndTime(), s.getDurationMinutes(), s.getIsBreak(), s.getType()));
+        }
+
+        int batch(Batch b) {
+            return b == null ? -1 : batches.intern(b.getId(), id -> new BatchRef(id, b.getName(), b.getStrength()));
+        }
+    }
+
+    private static final class Table<T> {
+        final List<T> values = new ArrayList<>();
+        final Map<Long, Integer> index = new HashMap<>();
+
+        int intern(Long id, Function<Long, T> create) {
+            Integer i = index.get(id);
+            if (i != null) return i;
+            T value = create.apply(id);
+            values.add(value);
+            index.put(id, values.size() - 1);
+            return values.size() - 1;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // VIEW -> DETACHED ENTITIES (response shape of the read endpoints)
+    // ---------------------------------------------------------------
+
+    public List<TimetableEntry> toEntries() {
+        AcademicYear year = new AcademicYear();
+        year.setId(academicYearId);
+        year.setYearName(academicYearName);
+
+        List<DepartmentEntity> deps = departments.stream().map(d -> {
+            DepartmentEntity x = new DepartmentEntity();
+            x.setId(d.id());
+            x.setName(d.name());
+            x.setCode(d.code());
+            return x;
+        }).toList();
+        List<Division> divs = divisions.stream().map(d -> {
+            Division x = new Division();
+            x.setId(d.id());
+            x.setName(d.name());
+            x.setYear(d.year());
+            x.setBranch(d.branch());
+            x.setTimeSlotType(d.timeSlotType());
+            x.setClassTeacher(d.classTeacher());
+            x.setDepartment(pick(deps, d.department()));
+            return x;
+        }).toList();
+        List<CourseEntity> crs = courses.stream().map(c -> {
+            CourseEntity x = new CourseEntity();
+            x.setId(c.id());
+            x.setName(c.name());
+            x.setCode(c.code());
+            x.setShortName(c.shortName());
+            x.setCourseType(c.courseType());
+            x.setCourseCategory(c.courseCategory());
+            x.setCredits(c.credits());
+            x.setHoursPerWeek(c.hoursPerWeek());
+            x.setDepartment(pick(deps, c.department()));
+            return x;
+        }).toList();
+        List<TeacherEntity> tchs = teachers.stream().map(t -> {
+            TeacherEntity x = new TeacherEntity();
+            x.setId(t.id());
+            x.setName(t.name());
+            x.setShortName(t.shortName());
+            x.setEmployeeId(t.employeeId());
+            x.setDepartment(pick(deps, t.department()));
+            return x;
+        }).toList();
+        List<ClassRoom> rms = rooms.stream().map(r -> {
+            ClassRoom x = new ClassRoom();
+            x.setId(r.id());
+            x.setName(r.name());
+            x.setRoomNumber(r.roomNumber());
+            x.setBuildingWing(r.buildingWing());
+            x.setCapacity(r.capacity());
+            x.setRoomType(r.roomType());
+            x.setDepartment(pick(deps, r.department()));
+            return x;
+        }).toList();
+        List<TimeSlot> sls = slots.stream().map(s -> {
+            TimeSlot x = new TimeSlot();
+            x.setId(s.id());
+            x.setSlotName(s.slotName());
+            x.setStartTime(s.startTime());
+            x.setEndTime(s.endTime());
+            x.setDurationMinutes(s.durationMinutes());
+            x.setIsBreak(s.isBreak());
+            x.setType(s.type());
+            return x;
+        }).toList();
+        List<Batch> bts = batches.stream().map(b -> {
+            Batch x = new Batch();
+            x.setId(b.id());
+            x.setName(b.name());
+            x.setStrength(b.strength());
+            return x;
+        }).toList();
+
+        Map<Long, LabSessionGroup> groups = new HashMap<>();
+        List<TimetableEntry> entries = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            TimetableEntry e = new TimetableEntry();
+            e.setId(r.id());
+            e.setAcademicYear(year);
+            e.setDivision(pick(divs, r.division()));
+            e.setCourse(pick(crs, r.course()));
+            e.setTeacher(pick(tchs, r.teacher()));
+            e.setRoom(pick(rms, r.room()));
+            e.setTimeSlot(pick(sls, r.slot()));
+            e.setBatch(pick(bts, r.batch()));
+            if (r.labSessionGroupId() != null) {
+                e.setLabSessionGroup(groups.computeIfAbsent(r.labSessionGroupId(), id -> {
+                    LabSessionGroup g = new LabSessionGroup();
+                    g.setId(id);
+                    return g;
+                }));
+            }
+            e.setDayOfWeek(r.day());
+            e.setStatus(r.status());
+            e.setSemester(r.semester());
+            e.setIsLabSession(r.lab());
+            e.setWeekNumber(r.weekNumber());
+            e.setIsRecurring(r.recurring());
+            e.setNotes(r.notes());
+            e.setUpdatedAt(r.updatedAt() != null ? new Timestamp(r.updatedAt()) : null);
+            entries.add(e);
+        }
+        return entries;
+    }
+
+    private static <T> T pick(List<T> table, int index) {
+        return index >= 0 ? table.get(index) : null;
+    }
+}
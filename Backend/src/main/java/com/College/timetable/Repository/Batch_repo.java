@@ -1,8 +1,11 @@
 package com.College.timetable.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.College.timetable.Entity.Batch;
@@ -11,4 +14,8 @@ import com.College.timetable.Entity.Batch;
 public interface Batch_repo extends JpaRepository<Batch, Long> {
     List<Batch> findByDivisionId(Long divisionId);
     long countByDivisionId(Long divisionId);
+
+    // Batch count per division — [0] divisionId, [1] count
+    @Query("SELECT b.division.id, COUNT(b) FROM Batch b WHERE b.division.id IN :divisionIds GROUP BY b.division.id")
+    List<Object[]> countByDivisionIds(@Param("divisionIds") Collection<Long> divisionIds);
 }
@@ -12,6 +12,10 @@ import com.College.timetable.Entity.CourseEntity;
 @Repository
 public interface Course_repo extends JpaRepository<CourseEntity, Long> {
 	long countByDepartmentId(Long departmentId);
+
+	// Active course load of one department year in a semester (timetable generator)
+	java.util.List<CourseEntity> findByDepartmentIdAndYearAndSemesterAndIsActiveTrue(
+		Long departmentId, Integer year, com.College.timetable.Entity.Semester semester);
 	
 	// Check if short name exists for a specific department and year
 	@Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM CourseEntity c " +
@@ -36,4 +36,9 @@ public interface TeacherAvailability_repo extends JpaRepository<TeacherAvailabil
 		@Param("slotStart") LocalTime slotStart,
 		@Param("slotEnd") LocalTime slotEnd
 	);
+
+	// All rows as scalars for the in-memory availability index
+	// Columns: [0] teacherId, [1] dayOfWeek, [2] startTime, [3] endTime, [4] isAvailable
+	@Query("SELECT ta.teacher.id, ta.dayOfWeek, ta.startTime, ta.endTime, ta.isAvailable FROM TeacherAvailability ta")
+	List<Object[]> findAvailabilityRows();
 }
@@ -3,6 +3,8 @@ package com.College.timetable.Repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.College.timetable.Entity.TeacherEntity;
@@ -27,4 +29,8 @@ public interface Teacher_Repo extends JpaRepository<TeacherEntity, Long> {
     boolean existsByShortName(String shortName);
     
     Optional<TeacherEntity> findByShortName(String shortName);
+
+    // Teacher assignments for many courses at once — rows of [courseId, teacherId]
+    @Query("SELECT c.id, t.id FROM TeacherEntity t JOIN t.courses c WHERE c.id IN :courseIds")
+    java.util.List<Object[]> findCourseTeacherPairs(@Param("courseIds") java.util.Collection<Long> courseIds);
 }
\ No newline at end of file
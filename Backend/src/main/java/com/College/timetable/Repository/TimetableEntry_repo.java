@@ -417,6 +417,67 @@ public interface TimetableEntry_repo extends JpaRepository<TimetableEntry, Long>
                "GROUP BY te.dayOfWeek, te.timeSlot.id")
         List<Object[]> getGlobalSlotBookingCounts(@Param("academicYearId") Long academicYearId);
 
+        // ---------------------------------------------------------------
+        // AVAILABILITY FILTERS — booked IDs for one (year, day, slot) cell
+        // Only DRAFT + PUBLISHED entries of the given semesters (one series) count
+        // ---------------------------------------------------------------
+
+        @Query("SELECT DISTINCT te.room.id FROM TimetableEntry te " +
+               "WHERE te.academicYear.id = :academicYearId " +
+               "AND te.dayOfWeek = :day " +
+               "AND te.timeSlot.id = :timeSlotId " +
+               "AND te.status IN ('DRAFT', 'PUBLISHED') " +
+               "AND te.semester IN :semesters")
+        List<Long> findBookedRoomIds(
+            @Param("academicYearId") Long academicYearId,
+            @Param("day") DayOfWeek day,
+            @Param("timeSlotId") Long timeSlotId,
+            @Param("semesters") java.util.Collection<com.College.timetable.Entity.Semester> semesters
+        );
+
+        @Query("SELECT DISTINCT te.teacher.id FROM TimetableEntry te " +
+               "WHERE te.academicYear.id = :academicYearId " +
+               "AND te.dayOfWeek = :day " +
+               "AND te.timeSlot.id = :timeSlotId " +
+               "AND te.status IN ('DRAFT', 'PUBLISHED') " +
+               "AND te.semester IN :semesters")
+        List<Long> findBookedTeacherIds(
+            @Param("academicYearId") Long academicYearId,
+            @Param("day") DayOfWeek day,
+            @Param("timeSlotId") Long timeSlotId,
+            @Param("semesters") java.util.Collection<com.College.timetable.Entity.Semester> semesters
+        );
+
+        @Query("SELECT DISTINCT b.id FROM TimetableEntry te " +
+               "JOIN te.batch b " +
+               "WHERE te.academicYear.id = :academicYearId " +
+               "AND te.dayOfWeek = :day " +
+               "AND te.timeSlot.id = :timeSlotId " +
+               "AND te.status IN ('DRAFT', 'PUBLISHED') " +
+               "AND te.semester IN :semesters")
+        List<Long> findBookedBatchIds(
+            @Param("academicYearId") Long academicYearId,
+            @Param("day") DayOfWeek day,
+            @Param("timeSlotId") Long timeSlotId,
+            @Param("semesters") java.util.Collection<com.College.timetable.Entity.Semester> semesters
+        );
+
+        // ---------------------------------------------------------------
+        // OCCUPANCY INDEX — scalar projections (no EAGER graph hydration)
+        // ---------------------------------------------------------------
+
+        /**
+         * One row per entry in an academic year, used to build and verify the in-memory occupancy index.
+         * Columns: [0] entryId, [1] teacherId, [2] roomId, [3] divisionId, [4] batchId (nullable),
+         *          [5] dayOfWeek, [6] timeSlotId, [7] status, [8] semester, [9] slot durationMinutes
+         */
+        @Query("SELECT te.id, te.teacher.id, te.room.id, te.division.id, b.id, te.dayOfWeek, ts.id, " +
+               "te.status, te.semester, ts.durationMinutes FROM TimetableEntry te " +
+               "JOIN te.timeSlot ts " +
+               "LEFT JOIN te.batch b " +
+               "WHERE te.academicYear.id = :academicYearId")
+        List<Object[]> findOccupancyRowsByAcademicYear(@Param("academicYearId") Long academicYearId);
+
         // Keep the old method names for backward compatibility but delegate to new methods
         default List<TimetableEntry> findPublishedByProfessorAndSemester(
             Long professorId, Long academicYearId, com.College.timetable.Entity.Semester semester) {
@@ -19,6 +19,9 @@ public class AcademicService {
 	@Autowired
 	private AcademicYearRepository academicYearRepo;
 
+	@Autowired
+	private ReferenceDataRegistry referenceData;
+
 	@Transactional
 	@CacheEvict(value = "academic-years", allEntries = true)
 	public AcademicYear addAcademic(AcademicYear aca) {
@@ -29,6 +32,7 @@ public class AcademicService {
 				throw new IllegalArgumentException("An academic year '" + existingCurrent.getYearName() + "' is already set as current. Please unset it first before setting a new current year.");
 			}
 		}
+		referenceData.invalidateAfterCommit();
 		return academicYearRepo.save(aca);
 	}
 
@@ -62,6 +66,7 @@ public class AcademicService {
 		existing.setStartDate(aca.getStartDate());
 		existing.setEndDate(aca.getEndDate());
 		existing.setIsCurrent(aca.getIsCurrent());
+		referenceData.invalidateAfterCommit();
 		return academicYearRepo.save(existing);
 	}
 
@@ -72,5 +77,6 @@ public class AcademicService {
 			throw new EntityNotFoundException("Academic year not found with id: " + id);
 		}
 		academicYearRepo.deleteById(id);
+		referenceData.invalidateAfterCommit();
 	}
 }
@@ -0,0 +1,121 @@
+package com.College.timetable.Service;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.Repository.*;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Whole-week availability matrix for a division.
+ * Answers "which rooms, teachers and batches are free" for every (day, slot) of the division's
+ * grid in a single request, using one pass over the occupancy index instead of one
+ * available-rooms / available-teachers / available-batches round trip per cell.
+ *
+ * Filtering mirrors TimetableService.getAvailableRooms/Teachers/Batches without a course context.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityGridService {
+
+    private final OccupancyIndexService occupancyIndex;
+    private final Division_repo divisionRepo;
+    private final ReferenceDataRegistry referenceData;
+    private final Teacher_Repo teacherRepo;
+    private final Batch_repo batchRepo;
+    private final TeacherAvailabilityIndexService availabilityIndex;
+
+    @Value("${app.timetable.max-periods-per-day:6}")
+    private int maxPeriodsPerDay;
+
+    @Transactional(readOnly = true)
+    public AvailabilityGrid getGrid(Long divisionId, Long academicYearId, Semester semester) {
+        Division division = divisionRepo.findById(divisionId)
+            .orElseThrow(() -> new EntityNotFoundException("Division not found"));
+
+        String slotType = division.getTimeSlotType() != null ? division.getTimeSlotType() : "TYPE_1";
+        List<TimeSlot> slots = referenceData.activeSlots(slotType).stream()
+            .filter(s -> !Boolean.TRUE.equals(s.getIsBreak()))
+            .toList();
+
+        int divStrength = division.getTotalStudents() != null ? division.getTotalStudents() : 0;
+        List<ClassRoom> rooms = referenceData.activeRoomsWithCapacity(divStrength);
+        List<TeacherEntity> teachers = teacherRepo.findAll().stream()
+            .filter(t -> Boolean.TRUE.equals(t.getIsActive()))
+            .toList();
+        List<Batch> batches = batchRepo.findByDivisionId(divisionId);
+
+        List<Long> teacherIds = teachers.stream().map(TeacherEntity::getId).toList();
+        OccupancyIndexService.GridSnapshot occupancy = occupancyIndex.gridSnapshot(academicYearId, semester);
+
+        List<GridCell> cells = new ArrayList<>(DayOfWeek.values().length * slots.size());
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (TimeSlot slot : slots) {
+                int slotMinutes = slot.getDurationMinutes() != null ? slot.getDurationMinutes() : 60;
+                Set<Long> notMarkedUnavailable = new HashSet<>(
+                    availabilityIndex.availableTeachers(teacherIds, day, slot.getStartTime(), slot.getEndTime()));
+
+                GridCell cell = new GridCell();
+                cell.setDay(day);
+                cell.setSlotId(slot.getId());
+                cell.setFreeRoomIds(rooms.stream()
+                    .map(ClassRoom::getId)
+                    .filter(id -> !occupancy.isRoomBooked(id, day, slot.getId()))
+                    .toList());
+                cell.setFreeTeacherIds(teachers.stream()
+                    .filter(t -> !occupancy.isTeacherBooked(t.getId(), day, slot.getId()))
+                    .filter(t -> notMarkedUnavailable.contains(t.getId()))
+                    .filter(t -> occupancy.teacherPeriodsOnDay(t.getId(), day) < maxPeriodsPerDay)
+                    .filter(t -> t.getMaxWeeklyHours() == null
+                        || (occupancy.teacherWeeklyMinutes(t.getId()) + slotMinutes) / 60 <= t.getMaxWeeklyHours())
+                    .map(TeacherEntity::getId)
+                    .toList());
+                cell.setFreeBatchIds(batches.stream()
+                    .map(Batch::getId)
+                    .filter(id -> !occupancy.isBatchBooked(id, day, slot.getId()))
+                    .toList());
+                cells.add(cell);
+            }
+        }
+
+        AvailabilityGrid grid = new AvailabilityGrid();
+        grid.setDivisionId(divisionId);
+        grid.setAcademicYearId(academicYearId);
+        grid.setSemester(semester);
+        grid.setSlots(slots);
+        grid.setRooms(rooms);
+        grid.setTeachers(teachers);
+        grid.setBatches(batches);
+        grid.setCells(cells);
+        return grid;
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class AvailabilityGrid {
+        private Long divisionId;
+        private Long academicYearId;
+        private Semester semester;
+        private List<TimeSlot> slots;
+        private List<ClassRoom> rooms;
+        private List<TeacherEntity> teachers;
+        private List<Batch> batches;
+        private List<GridCell> cells;
+    }
+
+    @lombok.Data
+    public static class GridCell {
+        private DayOfWeek day;
+        private Long slotId;
+        private List<Long> freeRoomIds;
+        private List<Long> freeTeacherIds;
+        private List<Long> freeBatchIds;
+    }
+}
@@ -0,0 +1,49 @@
+package com.College.timetable.Service;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.College.timetable.Entity.DayOfWeek;
+import com.College.timetable.Util.TimetableConflictException;
+
+/**
+ * Booking unique indexes on timetable_entries (db/migration V2) and their translation
+ * back into the conflict messages of {@link ConflictCheckService}.
+ */
+public final class BookingConstraints {
+
+    public static final String TEACHER_INDEX = "ux_timetable_entries_teacher_booking";
+    public static final String ROOM_INDEX = "ux_timetable_entries_room_booking";
+    public static final String BATCH_INDEX = "ux_timetable_entries_batch_booking";
+
+    // Postgres detail: Key (academic_year_id, day_of_week, time_slot_id, user_id)=(1, MONDAY, 3, 7) already exists.
+    private static final Pattern KEY_DAY = Pattern.compile("\\)=\\(\\s*[^,]*,\\s*([A-Z]+)\\s*,");
+
+    private BookingConstraints() {
+    }
+
+    /**
+     * Translate a booking index violation into a TimetableConflictException.
+     *
+     * @param e           the exception raised by the insert / update
+     * @param fallbackDay day to report when the driver message carries no key values
+     * @return the conflict, or null when {@code e} is some other integrity error
+     */
+    public static TimetableConflictException translate(DataIntegrityViolationException e, DayOfWeek fallbackDay) {
+        String detail = e.getMostSpecificCause().getMessage();
+        if (detail == null) return null;
+
+        String template;
+        if (detail.contains(TEACHER_INDEX)) template = ConflictCheckService.TEACHER_CONFLICT;
+        else if (detail.contains(ROOM_INDEX)) template = ConflictCheckService.ROOM_CONFLICT;
+        else if (detail.contains(BATCH_INDEX)) template = ConflictCheckService.BATCH_CONFLICT;
+        else return null;
+
+        Matcher key = KEY_DAY.matcher(detail);
+        Object day = key.find() ? key.group(1) : fallbackDay;
+        return new TimetableConflictException(List.of(String.format(template, day)), e);
+    }
+}
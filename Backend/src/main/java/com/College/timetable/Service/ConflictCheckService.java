@@ -1,10 +1,10 @@
 package com.College.timetable.Service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.College.timetable.Entity.*;
-import com.College.timetable.Repository.TimetableEntry_repo;
-import com.College.timetable.Repository.TeacherAvailability_repo;
 import com.College.timetable.Repository.Room_repo;
 import com.College.timetable.Repository.Division_repo;
 import com.College.timetable.Repository.TimeSlot_repo;
@@ -13,19 +13,37 @@ import com.College.timetable.Repository.Batch_repo;
 import lombok.RequiredArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ConflictCheckService {
 
-    private final TimetableEntry_repo timetableEntryRepository;
-    private final TeacherAvailability_repo availabilityRepo;
+    private static final Logger logger = LoggerFactory.getLogger(ConflictCheckService.class);
+
     private final Room_repo roomRepo;
     private final Division_repo divisionRepo;
     private final TimeSlot_repo timeSlotRepo;
     private final Batch_repo batchRepo;
+    private final OccupancyIndexService occupancyIndex;
+    private final TeacherAvailabilityIndexService availabilityIndex;
+
+    // Booking conflict messages — shared with BookingConstraints so DB-detected clashes read the same
+    public static final String TEACHER_CONFLICT =
+        "Teacher conflict: This teacher is already assigned to another class on %s at this time slot.";
+    public static final String ROOM_CONFLICT =
+        "Room conflict: This room is already booked on %s at this time slot.";
+    public static final String DIVISION_CONFLICT =
+        "Division conflict: This division already has a class on %s at this time slot.";
+    public static final String BATCH_CONFLICT =
+        "Batch conflict: This batch already has a class/lab scheduled on %s at this time slot.";
 
     // Configurable limits — override in application.properties
     @Value("${app.timetable.max-periods-per-day:6}")
@@ -36,13 +54,22 @@ public class ConflictCheckService {
      * Returns ALL conflict messages at once so admin can fix everything in one pass.
      */
     public List<String> checkConflicts(TimetableEntryRequest request, Long excludeId) {
+        return evaluate(request, excludeId, new RepositoryLookup());
+    }
+
+    /**
+     * Evaluate every conflict rule for one request. Reference data and workload figures come
+     * from the lookup so single checks (per-row queries) and batch checks (preloaded maps)
+     * share exactly the same rules and messages.
+     */
+    private List<String> evaluate(TimetableEntryRequest request, Long excludeId, ConflictLookup lookup) {
         List<String> conflicts = new ArrayList<>();
 
         boolean isLabEntry = request.getLabSessionGroupId() != null;
         boolean isLabCourse = "LAB".equalsIgnoreCase(request.getCourseType());
 
         // ── 0. BREAK SLOT PROTECTION ──
-        Optional<TimeSlot> slotOpt = timeSlotRepo.findById(request.getTimeSlotId());
+        Optional<TimeSlot> slotOpt = lookup.slot(request.getTimeSlotId());
         if (slotOpt.isPresent() && Boolean.TRUE.equals(slotOpt.get().getIsBreak())) {
             conflicts.add(String.format(
                 "Break slot: Cannot schedule a class during '%s' — this is a break period.",
@@ -52,7 +79,8 @@ public class ConflictCheckService {
         }
 
         // ── 1. TEACHER CONFLICT — teacher already assigned at this time ──
-        boolean teacherBooked = timetableEntryRepository.isTeacherBooked(
+        // Booked checks 1–3.5 are answered from the in-memory occupancy index (no DB round trip)
+        boolean teacherBooked = occupancyIndex.isTeacherBooked(
             request.getTeacherId(),
             request.getDayOfWeek(),
             request.getTimeSlotId(),
@@ -61,13 +89,13 @@ public class ConflictCheckService {
         );
         if (teacherBooked) {
             conflicts.add(String.format(
-                "Teacher conflict: This teacher is already assigned to another class on %s at this time slot.",
+                TEACHER_CONFLICT,
                 request.getDayOfWeek()
             ));
         }
 
         // ── 2. ROOM CONFLICT — always checked, even for labs ──
-        boolean roomBooked = timetableEntryRepository.isRoomBooked(
+        boolean roomBooked = occupancyIndex.isRoomBooked(
             request.getRoomId(),
             request.getDayOfWeek(),
             request.getTimeSlotId(),
@@ -76,14 +104,14 @@ public class ConflictCheckService {
         );
         if (roomBooked) {
             conflicts.add(String.format(
-                "Room conflict: This room is already booked on %s at this time slot.",
+                ROOM_CONFLICT,
                 request.getDayOfWeek()
             ));
         }
 
         // ── 3. DIVISION CONFLICT — division already has a class at this time (skipped for labs) ──
         if (!isLabCourse) {
-            boolean divisionBooked = timetableEntryRepository.isDivisionBooked(
+            boolean divisionBooked = occupancyIndex.isDivisionBooked(
                 request.getDivisionId(),
                 request.getDayOfWeek(),
                 request.getTimeSlotId(),
@@ -92,7 +120,7 @@ public class ConflictCheckService {
             );
             if (divisionBooked) {
                 conflicts.add(String.format(
-                    "Division conflict: This division already has a class on %s at this time slot.",
+                    DIVISION_CONFLICT,
                     request.getDayOfWeek()
                 ));
             }
@@ -100,7 +128,7 @@ public class ConflictCheckService {
 
         // ── 3.5. BATCH CONFLICT — batch already has a class/lab at this time ──
         if (isLabCourse && request.getBatchId() != null) {
-            boolean batchBooked = timetableEntryRepository.isBatchBooked(
+            boolean batchBooked = occupancyIndex.isBatchBooked(
                 request.getBatchId(),
                 request.getDayOfWeek(),
                 request.getTimeSlotId(),
@@ -109,14 +137,14 @@ public class ConflictCheckService {
             );
             if (batchBooked) {
                 conflicts.add(String.format(
-                    "Batch conflict: This batch already has a class/lab scheduled on %s at this time slot.",
+                    BATCH_CONFLICT,
                     request.getDayOfWeek()
                 ));
             }
         }
 
         // ── 4. TEACHER DAILY PERIOD LIMIT (configurable) ──
-        long dailyPeriods = timetableEntryRepository.countTeacherPeriodsOnDay(
+        long dailyPeriods = lookup.teacherPeriodsOnDay(
             request.getTeacherId(),
             request.getAcademicYearId(),
             request.getDayOfWeek()
@@ -131,7 +159,7 @@ public class ConflictCheckService {
         // ── 5. TEACHER WEEKLY HOUR LIMIT (uses actual duration, not entry count) ──
         if (request.getTeacherMaxWeeklyHours() != null) {
             // FIX: Use SUM(durationMinutes) instead of COUNT(entries)
-            Integer weeklyMinutes = timetableEntryRepository.calculateTeacherWeeklyMinutes(
+            Integer weeklyMinutes = lookup.teacherWeeklyMinutes(
                 request.getTeacherId(),
                 request.getAcademicYearId(),
                 excludeId
@@ -154,7 +182,7 @@ public class ConflictCheckService {
         }
 
         // ── 6. ROOM CAPACITY vs DIVISION STRENGTH OR BATCH STRENGTH ──
-        Optional<ClassRoom> roomOpt = roomRepo.findById(request.getRoomId());
+        Optional<ClassRoom> roomOpt = lookup.room(request.getRoomId());
         if (roomOpt.isPresent()) {
             ClassRoom room = roomOpt.get();
             isLabCourse = "LAB".equalsIgnoreCase(request.getCourseType());
@@ -162,12 +190,12 @@ public class ConflictCheckService {
             Integer batchStrength = null;
             Long batchId = request.getBatchId();
             
-            Optional<Division> divOpt = divisionRepo.findById(request.getDivisionId());
+            Optional<Division> divOpt = lookup.division(request.getDivisionId());
             int divStrength = divOpt.map(Division::getTotalStudents).orElse(0);
             
             if (isLabCourse) {
                 if (batchId != null) {
-                    Optional<Batch> batchOpt = batchRepo.findById(batchId);
+                    Optional<Batch> batchOpt = lookup.batch(batchId);
                     if (batchOpt.isPresent()) {
                         Batch batch = batchOpt.get();
                         if (batch.getStrength() != null && batch.getStrength() > 0) {
@@ -178,7 +206,7 @@ public class ConflictCheckService {
                 }
                 
                 if (batchStrength == null) {
-                    long totalBatches = batchRepo.countByDivisionId(request.getDivisionId());
+                    long totalBatches = lookup.batchCount(request.getDivisionId());
                     if (totalBatches <= 0) {
                         totalBatches = 3; // Standard fallback
                     }
@@ -188,12 +216,11 @@ public class ConflictCheckService {
                 requiredCapacity = divStrength;
             }
             
-            // Temporary logging for capacity checking
-            System.out.printf("[CAPACITY CHECK LOG] Course Type: %s, Division Strength: %d, Batch ID: %s, Batch Strength: %s, Computed Required Capacity: %d, Room Capacity: %d%n",
+            logger.debug("[CAPACITY-CHECK] Course Type: {}, Division Strength: {}, Batch ID: {}, Batch Strength: {}, Computed Required Capacity: {}, Room Capacity: {}",
                 request.getCourseType(),
                 divStrength,
-                batchId != null ? batchId.toString() : "N/A",
-                batchStrength != null ? batchStrength.toString() : "N/A",
+                batchId != null ? batchId : "N/A",
+                batchStrength != null ? batchStrength : "N/A",
                 requiredCapacity,
                 room.getCapacity() != null ? room.getCapacity() : 0
             );
@@ -221,16 +248,9 @@ public class ConflictCheckService {
         if (slotOpt.isPresent()) {
             TimeSlot slot = slotOpt.get();
             try {
-                long availCount = availabilityRepo.countAvailability(
-                    request.getTeacherId(),
-                    request.getDayOfWeek(),
-                    slot.getStartTime(),
-                    slot.getEndTime()
-                );
                 // If teacher has explicitly set availability AND marked unavailable
-                List<TeacherAvailability> dayAvailability = availabilityRepo
-                    .findByTeacherIdAndDayOfWeek(request.getTeacherId(), request.getDayOfWeek());
-                if (!dayAvailability.isEmpty() && availCount == 0) {
+                if (availabilityIndex.isMarkedUnavailable(request.getTeacherId(), request.getDayOfWeek(),
+                        slot.getStartTime(), slot.getEndTime())) {
                     conflicts.add(String.format(
                         "Teacher availability: This teacher is marked as unavailable on %s at this time slot.",
                         request.getDayOfWeek()
@@ -251,6 +271,219 @@ public class ConflictCheckService {
         return !checkConflicts(request, excludeId).isEmpty();
     }
 
+    // ---------------------------------------------------------------
+    // BATCH CHECK — many candidate placements in one call
+    // ---------------------------------------------------------------
+
+    /**
+     * Check many candidate placements at once.
+     * Reference data and workload figures are loaded with a few set-based queries for the whole
+     * batch and booked checks come from the occupancy index. Candidates are evaluated in order and
+     * each one also sees the candidates before it, so clashes inside the batch itself (same teacher
+     * placed twice, daily limit reached only by the batch, ...) are reported too.
+     */
+    public List<CandidateResult> checkConflictsBatch(List<TimetableEntryRequest> candidates) {
+        BatchLookup lookup = new BatchLookup(candidates);
+        List<CandidateResult> results = new ArrayList<>(candidates.size());
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int i = 0; i < candidates.size(); i++) {
+            TimetableEntryRequest candidate = candidates.get(i);
+            if (!isComplete(candidate)) {
+                results.add(new CandidateResult(i, new ArrayList<>(List.of(
+                    "Incomplete candidate: teacherId, roomId, divisionId, timeSlotId, academicYearId and dayOfWeek are required."
+                ))));
+                continue;
+            }
+
+            List<String> conflicts = evaluate(candidate, null, lookup);
+            boolean breakSlot = lookup.slot(candidate.getTimeSlotId())
+                .map(slot -> Boolean.TRUE.equals(slot.getIsBreak()))
+                .orElse(false);
+            if (!breakSlot) {
+                conflicts.addAll(candidateClashes(candidates, accepted, i));
+                // Later candidates see this one as already placed
+                lookup.accept(candidate);
+                accepted.add(i);
+            }
+            results.add(new CandidateResult(i, conflicts));
+        }
+        return results;
+    }
+
+    /**
+     * Same-cell clashes between candidate {@code i} and the earlier accepted candidates.
+     * Follows the single-check rules: division clashes are skipped for labs, batch clashes only apply to labs.
+     */
+    private List<String> candidateClashes(List<TimetableEntryRequest> candidates, List<Integer> accepted, int i) {
+        TimetableEntryRequest c = candidates.get(i);
+        boolean isLabCourse = "LAB".equalsIgnoreCase(c.getCourseType());
+        List<String> clashes = new ArrayList<>();
+
+        for (int j : accepted) {
+            TimetableEntryRequest other = candidates.get(j);
+            if (!c.getAcademicYearId().equals(other.getAcademicYearId())
+                    || c.getDayOfWeek() != other.getDayOfWeek()
+                    || !c.getTimeSlotId().equals(other.getTimeSlotId())) {
+                continue;
+            }
+            if (c.getTeacherId().equals(other.getTeacherId())) {
+                clashes.add(String.format(
+                    "Candidate conflict: This teacher is also placed by candidate %d on %s at this time slot.",
+                    j, c.getDayOfWeek()
+                ));
+            }
+            if (c.getRoomId().equals(other.getRoomId())) {
+                clashes.add(String.format(
+                    "Candidate conflict: This room is also used by candidate %d on %s at this time slot.",
+                    j, c.getDayOfWeek()
+                ));
+            }
+            if (!isLabCourse && c.getDivisionId().equals(other.getDivisionId())) {
+                clashes.add(String.format(
+                    "Candidate conflict: This division also has candidate %d on %s at this time slot.",
+                    j, c.getDayOfWeek()
+                ));
+            }
+            if (isLabCourse && c.getBatchId() != null && c.getBatchId().equals(other.getBatchId())) {
+                clashes.add(String.format(
+                    "Candidate conflict: This batch also has candidate %d on %s at this time slot.",
+                    j, c.getDayOfWeek()
+                ));
+            }
+        }
+        return clashes;
+    }
+
+    private static boolean isComplete(TimetableEntryRequest r) {
+        return r != null && r.getTeacherId() != null && r.getRoomId() != null && r.getDivisionId() != null
+            && r.getTimeSlotId() != null && r.getAcademicYearId() != null && r.getDayOfWeek() != null;
+    }
+
+    // ---------------------------------------------------------------
+    // LOOKUPS — where evaluate() gets reference data and workload figures
+    // ---------------------------------------------------------------
+
+    private interface ConflictLookup {
+        Optional<TimeSlot> slot(Long timeSlotId);
+        Optional<ClassRoom> room(Long roomId);
+        Optional<Division> division(Long divisionId);
+        Optional<Batch> batch(Long batchId);
+        long batchCount(Long divisionId);
+        long teacherPeriodsOnDay(Long teacherId, Long academicYearId, DayOfWeek day);
+        Integer teacherWeeklyMinutes(Long teacherId, Long academicYearId, Long excludeId);
+    }
+
+    /**
+     * Single-request lookup — one query per figure.
+     */
+    private class RepositoryLookup implements ConflictLookup {
+        public Optional<TimeSlot> slot(Long id) { return timeSlotRepo.findById(id); }
+        public Optional<ClassRoom> room(Long id) { return roomRepo.findById(id); }
+        public Optional<Division> division(Long id) { return divisionRepo.findById(id); }
+        public Optional<Batch> batch(Long id) { return batchRepo.findById(id); }
+        public long batchCount(Long divisionId) { return batchRepo.countByDivisionId(divisionId); }
+
+        public long teacherPeriodsOnDay(Long teacherId, Long academicYearId, DayOfWeek day) {
+            return occupancyIndex.teacherPeriodsOnDay(teacherId, academicYearId, day);
+        }
+
+        public Integer teacherWeeklyMinutes(Long teacherId, Long academicYearId, Long excludeId) {
+            return occupancyIndex.teacherWeeklyMinutes(teacherId, academicYearId, excludeId);
+        }
+    }
+
+    /**
+     * Batch lookup — everything preloaded with set-based queries, plus running tallies of the
+     * candidates accepted so far so later candidates see the workload added by earlier ones.
+     */
+    private class BatchLookup implements ConflictLookup {
+        private final Map<Long, TimeSlot> slots = new HashMap<>();
+        private final Map<Long, ClassRoom> rooms = new HashMap<>();
+        private final Map<Long, Division> divisions = new HashMap<>();
+        private final Map<Long, Batch> batches = new HashMap<>();
+        private final Map<Long, Long> batchCounts = new HashMap<>();
+        private final Map<TeacherDay, Long> dailyPeriods = new HashMap<>();
+        private final Map<TeacherYear, Integer> weeklyMinutes = new HashMap<>();
+
+        BatchLookup(List<TimetableEntryRequest> candidates) {
+            List<TimetableEntryRequest> complete = candidates.stream().filter(ConflictCheckService::isComplete).toList();
+            Set<Long> slotIds = collect(complete, TimetableEntryRequest::getTimeSlotId);
+            Set<Long> roomIds = collect(complete, TimetableEntryRequest::getRoomId);
+            Set<Long> divisionIds = collect(complete, TimetableEntryRequest::getDivisionId);
+            Set<Long> batchIds = collect(complete, TimetableEntryRequest::getBatchId);
+            Set<Long> teacherIds = collect(complete, TimetableEntryRequest::getTeacherId);
+            Set<Long> yearIds = collect(complete, TimetableEntryRequest::getAcademicYearId);
+
+            if (!slotIds.isEmpty()) timeSlotRepo.findAllById(slotIds).forEach(s -> slots.put(s.getId(), s));
+            if (!roomIds.isEmpty()) roomRepo.findAllById(roomIds).forEach(r -> rooms.put(r.getId(), r));
+            if (!divisionIds.isEmpty()) {
+                divisionRepo.findAllById(divisionIds).forEach(d -> divisions.put(d.getId(), d));
+                for (Object[] row : batchRepo.countByDivisionIds(divisionIds)) {
+                    batchCounts.put((Long) row[0], ((Number) row[1]).longValue());
+                }
+            }
+            if (!batchIds.isEmpty()) batchRepo.findAllById(batchIds).forEach(b -> batches.put(b.getId(), b));
+
+            if (!teacherIds.isEmpty()) {
+                for (Long yearId : yearIds) {
+                    Map<Long, OccupancyIndexService.TeacherWorkload> ledger = occupancyIndex.teacherWorkloads(yearId);
+                    for (Long teacherId : teacherIds) {
+                        OccupancyIndexService.TeacherWorkload load = ledger.get(teacherId);
+                        if (load == null) continue;
+                        for (DayOfWeek day : DayOfWeek.values()) {
+                            dailyPeriods.put(new TeacherDay(teacherId, yearId, day), (long) load.periodsOn(day));
+                        }
+                        weeklyMinutes.put(new TeacherYear(teacherId, yearId), load.totalMinutes());
+                    }
+                }
+            }
+        }
+
+        void accept(TimetableEntryRequest c) {
+            TimeSlot slot = slots.get(c.getTimeSlotId());
+            int minutes = slot != null && slot.getDurationMinutes() != null ? slot.getDurationMinutes() : 60;
+            dailyPeriods.merge(new TeacherDay(c.getTeacherId(), c.getAcademicYearId(), c.getDayOfWeek()), 1L, Long::sum);
+            weeklyMinutes.merge(new TeacherYear(c.getTeacherId(), c.getAcademicYearId()), minutes, Integer::sum);
+        }
+
+        public Optional<TimeSlot> slot(Long id) { return Optional.ofNullable(slots.get(id)); }
+        public Optional<ClassRoom> room(Long id) { return Optional.ofNullable(rooms.get(id)); }
+        public Optional<Division> division(Long id) { return Optional.ofNullable(divisions.get(id)); }
+        public Optional<Batch> batch(Long id) { return Optional.ofNullable(batches.get(id)); }
+        public long batchCount(Long divisionId) { return batchCounts.getOrDefault(divisionId, 0L); }
+
+        public long teacherPeriodsOnDay(Long teacherId, Long academicYearId, DayOfWeek day) {
+            return dailyPeriods.getOrDefault(new TeacherDay(teacherId, academicYearId, day), 0L);
+        }
+
+        public Integer teacherWeeklyMinutes(Long teacherId, Long academicYearId, Long excludeId) {
+            return weeklyMinutes.getOrDefault(new TeacherYear(teacherId, academicYearId), 0);
+        }
+    }
+
+    private static Set<Long> collect(List<TimetableEntryRequest> requests, Function<TimetableEntryRequest, Long> field) {
+        return requests.stream().map(field).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private record TeacherDay(Long teacherId, Long academicYearId, DayOfWeek day) {}
+
+    private record TeacherYear(Long teacherId, Long academicYearId) {}
+
+    // ---------------------------------------------------------------
+    // Result DTO — conflicts for one candidate of a batch check
+    // ---------------------------------------------------------------
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class CandidateResult {
+        private int index;                // position in the submitted list
+        private List<String> conflicts;
+
+        public boolean isClear() {
+            return conflicts.isEmpty();
+        }
+    }
+
     // ---------------------------------------------------------------
     // Inner DTO — carries all data needed for conflict checks
     // ---------------------------------------------------------------
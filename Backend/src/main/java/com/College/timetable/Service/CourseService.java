@@ -34,6 +34,9 @@ public class CourseService {
 	private Division_repo divisionRepo;
 	@Autowired
 	private com.College.timetable.Repository.Batch_repo batchRepo;
+
+	@Autowired
+	private TimetableCacheInvalidator cacheInvalidator;
 	
 	@Transactional
 	public CourseEntity add(CourseEntity c) {
@@ -90,6 +93,8 @@ public class CourseService {
 			existing.setDepartment(depart);
 		}
 
+		// Course name / code / type are embedded in the cached timetable views
+		cacheInvalidator.evictAllAfterCommit();
 		return course.save(existing);
 	}
 
@@ -99,6 +104,7 @@ public class CourseService {
 			throw new EntityNotFoundException("Course not found with id: " + id);
 		}
 		course.deleteById(id);
+		cacheInvalidator.evictAllAfterCommit();
 	}
 	
 	/**
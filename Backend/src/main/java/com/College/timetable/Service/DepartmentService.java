@@ -23,9 +23,13 @@ public class DepartmentService {
 	@Autowired
 	private AcademicYearRepository academicYearRepo;
 
+	@Autowired
+	private ReferenceDataRegistry referenceData;
+
 	@Transactional
 	@org.springframework.cache.annotation.CacheEvict(value = "departments", allEntries = true)
 	public DepartmentEntity addDep(DepartmentEntity d) {
+		referenceData.invalidateAfterCommit();
 		return dep.save(d);
 	}
 
@@ -55,6 +59,7 @@ public class DepartmentService {
 		existing.setCode(d.getCode());
 		existing.setHeadOfDepartment(d.getHeadOfDepartment());
 		existing.setYears(d.getYears());
+		referenceData.invalidateAfterCommit();
 		return dep.save(existing);
 	}
 
@@ -65,6 +70,7 @@ public class DepartmentService {
 			throw new EntityNotFoundException("Department not found with id: " + id);
 		}
 		dep.deleteById(id);
+		referenceData.invalidateAfterCommit();
 	}
 
 	@Transactional
@@ -88,6 +94,7 @@ public class DepartmentService {
 			copiedDepartments.add(dep.save(newDept));
 		}
 		
+		referenceData.invalidateAfterCommit();
 		return copiedDepartments;
 	}
 }
@@ -29,6 +29,9 @@ public class DivisionService {
 	
 	@Autowired
 	private BatchValidationService batchValidationService;
+
+	@Autowired
+	private TimetableCacheInvalidator cacheInvalidator;
 	
 	@Transactional
 	public Division addDivision(Division division) {
@@ -96,6 +99,8 @@ public class DivisionService {
 		}
 
 		Division saved = div.save(existing);
+		// Division name / year / branch are embedded in the cached timetable views
+		cacheInvalidator.evictAllAfterCommit();
 		
 		// Auto-adjust last batch strength if division strength changed
 		if (strengthChanged) {
@@ -116,5 +121,6 @@ public class DivisionService {
 			throw new EntityNotFoundException("Division not found with id: " + id);
 		}
 		div.deleteById(id);
+		cacheInvalidator.evictAllAfterCommit();
 	}
 }
@@ -0,0 +1,160 @@
+package com.College.timetable.Service;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Cell styles of one workbook. A style belongs to the workbook that created it, so each
+ * export keeps one of these and asks it for the {@link Spec}s in {@link ExportPalette.Excel};
+ * every distinct spec (and font) is created once per workbook, however many cells or sheets
+ * use it. Not thread-safe — neither is the workbook.
+ */
+public final class ExcelStyles {
+
+    public enum Borders { NONE, ALL, BOTTOM, BOTTOM_RIGHT }
+
+    /**
+     * What a cell style looks like, independent of any workbook. {@code fontSize} 0 keeps the
+     * default size; null colours keep the defaults.
+     */
+    public record Spec(
+            short fontSize,
+            boolean bold,
+            boolean italic,
+            Color fontColor,
+            Color fill,
+            HorizontalAlignment align,
+            VerticalAlignment valign,
+            boolean wrap,
+            Borders borders,
+            short rotation) {
+
+        public static final Spec PLAIN = new Spec((short) 0, false, false, null, null,
+            HorizontalAlignment.GENERAL, VerticalAlignment.BOTTOM, false, Borders.NONE, (short) 0);
+
+        public Spec size(int points) {
+            return new Spec((short) points, bold, italic, fontColor, fill, align, valign, wrap, borders, rotation);
+        }
+
+        public Spec bold() {
+            return new Spec(fontSize, true, italic, fontColor, fill, align, valign, wrap, borders, rotation);
+        }
+
+        public Spec italic() {
+            return new Spec(fontSize, bold, true, fontColor, fill, align, valign, wrap, borders, rotation);
+        }
+
+        public Spec color(Color color) {
+            return new Spec(fontSize, bold, italic, color, fill, align, valign, wrap, borders, rotation);
+        }
+
+        public Spec fill(Color color) {
+            return new Spec(fontSize, bold, italic, fontColor, color, align, valign, wrap, borders, rotation);
+        }
+
+        public Spec align(HorizontalAlignment horizontal) {
+            return new Spec(fontSize, bold, italic, fontColor, fill, horizontal, valign, wrap, borders, rotation);
+        }
+
+        public Spec valign(VerticalAlignment vertical) {
+            return new Spec(fontSize, bold, italic, fontColor, fill, align, vertical, wrap, borders, rotation);
+        }
+
+        /** Centred both ways. */
+        public Spec centered() {
+            return align(HorizontalAlignment.CENTER).valign(VerticalAlignment.CENTER);
+        }
+
+        public Spec wrap() {
+            return new Spec(fontSize, bold, italic, fontColor, fill, align, valign, true, borders, rotation);
+        }
+
+        public Spec borders(Borders sides) {
+            return new Spec(fontSize, bold, italic, fontColor, fill, align, valign, wrap, sides, rotation);
+        }
+
+        public Spec rotation(int degrees) {
+            return new Spec(fontSize, bold, italic, fontColor, fill, align, valign, wrap, borders, (short) degrees);
+        }
+
+        boolean hasFont() {
+            return fontSize > 0 || bold || italic || fontColor != null;
+        }
+    }
+
+    private record FontKey(short size, boolean bold, boolean italic, Color color) {
+    }
+
+    private final XSSFWorkbook workbook;
+    private final Map<Spec, CellStyle> styles = new HashMap<>();
+    private final Map<FontKey, XSSFFont> fonts = new HashMap<>();
+
+    /** Styles of {@code workbook} — for a streaming workbook, its backing XSSFWorkbook. */
+    public ExcelStyles(XSSFWorkbook workbook) {
+        this.workbook = workbook;
+    }
+
+    public CellStyle get(Spec spec) {
+        return styles.computeIfAbsent(spec, this::create);
+    }
+
+    /** Number of styles created so far. */
+    public int size() {
+        return styles.size();
+    }
+
+    private CellStyle create(Spec spec) {
+        XSSFCellStyle style = workbook.createCellStyle();
+        if (spec.hasFont()) {
+            style.setFont(fonts.computeIfAbsent(
+                new FontKey(spec.fontSize(), spec.bold(), spec.italic(), spec.fontColor()), this::font));
+        }
+        if (spec.fill() != null) {
+            style.setFillForegroundColor(color(spec.fill()));
+            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        }
+        style.setAlignment(spec.align());
+        style.setVerticalAlignment(spec.valign());
+        style.setWrapText(spec.wrap());
+        switch (spec.borders()) {
+            case ALL -> {
+                style.setBorderTop(BorderStyle.THIN);
+                style.setBorderLeft(BorderStyle.THIN);
+                style.setBorderBottom(BorderStyle.THIN);
+                style.setBorderRight(BorderStyle.THIN);
+            }
+            case BOTTOM -> style.setBorderBottom(BorderStyle.THIN);
+            case BOTTOM_RIGHT -> {
+                style.setBorderBottom(BorderStyle.THIN);
+                style.setBorderRight(BorderStyle.THIN);
+            }
+            case NONE -> { }
+        }
+        if (spec.rotation() != 0) style.setRotation(spec.rotation());
+        return style;
+    }
+
+    private XSSFFont font(FontKey key) {
+        XSSFFont font = workbook.createFont();
+        if (key.size() > 0) font.setFontHeightInPoints(key.size());
+        font.setBold(key.bold());
+        font.setItalic(key.italic());
+        if (key.color() != null) font.setColor(color(key.color()));
+        return font;
+    }
+
+    private static XSSFColor color(Color c) {
+        return new XSSFColor(new byte[]{(byte) c.getRed(), (byte) c.getGreen(), (byte) c.getBlue()}, null);
+    }
+}
@@ -0,0 +1,129 @@
+package com.College.timetable.Service;
+
+import java.awt.Color;
+
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+import com.College.timetable.Service.ExcelStyles.Borders;
+import com.College.timetable.Service.ExcelStyles.Spec;
+import com.lowagie.text.Font;
+
+/**
+ * Colours, PDF fonts and Excel style specs of the institutional timetable documents, built
+ * once per JVM. OpenPDF only reads a Font while laying text out, so the fonts are shared by
+ * concurrent exports — never call a setter on them; derive a new Font instead.
+ */
+public final class ExportPalette {
+
+    private ExportPalette() {
+    }
+
+    // ---------------------------------------------------------------
+    // Colours
+    // ---------------------------------------------------------------
+
+    public static final Color NAVY = new Color(27, 42, 78);
+    public static final Color HEADER_BG = new Color(214, 228, 240);
+    public static final Color BREAK_BG = new Color(240, 240, 240);
+    public static final Color GRID_BREAK_BG = new Color(245, 245, 245);
+    public static final Color REFERENCE_BG = new Color(230, 230, 230);
+    public static final Color LAB_BG = new Color(248, 244, 255);
+    public static final Color THEORY_FILL = new Color(232, 240, 254);
+    public static final Color LAB_FILL = new Color(243, 232, 255);
+
+    /** Cell border width of the institutional PDF tables. */
+    public static final float BORDER = 0.5f;
+
+    // ---------------------------------------------------------------
+    // PDF fonts
+    // ---------------------------------------------------------------
+
+    public static final class Pdf {
+
+        private Pdf() {
+        }
+
+        public static final Font TITLE = font(11, Font.BOLD, Color.BLACK);
+        public static final Font META_LABEL = font(7, Font.BOLD, Color.BLACK);
+        public static final Font META_VALUE = font(7, Font.NORMAL, Color.BLACK);
+        public static final Font SMALL = font(6, Font.NORMAL, Color.DARK_GRAY);
+        public static final Font NAME = font(9, Font.BOLD, Color.BLACK);
+        public static final Font LOAD_LABEL = font(6.5f, Font.NORMAL, Color.BLACK);
+
+        public static final Font GRID_HEADER = font(6, Font.BOLD, NAVY);
+        public static final Font GRID_TIME = font(5, Font.BOLD, NAVY);
+        public static final Font GRID_PERIOD = font(7, Font.BOLD, NAVY);
+        public static final Font DAY = font(7, Font.BOLD, Color.BLACK);
+        public static final Font CELL_COURSE = font(6.5f, Font.BOLD, Color.BLACK);
+        public static final Font CELL_DETAIL = font(6, Font.NORMAL, Color.BLACK);
+        public static final Font LAB_BATCH = font(5.5f, Font.NORMAL, Color.BLACK);
+        public static final Font BREAK = font(6, Font.BOLD, Color.GRAY);
+        public static final Font GRID_BREAK = font(5.5f, Font.BOLD, Color.GRAY);
+
+        public static final Font REFERENCE_HEADER = font(6, Font.BOLD, Color.BLACK);
+        public static final Font REFERENCE_CELL = font(5.5f, Font.NORMAL, Color.BLACK);
+
+        /** Fonts of the blank paragraphs that space the tables apart. */
+        public static final Font GAP_2 = font(2, Font.NORMAL, Color.BLACK);
+        public static final Font GAP_3 = font(3, Font.NORMAL, Color.BLACK);
+        public static final Font GAP_4 = font(4, Font.NORMAL, Color.BLACK);
+
+        private static Font font(float size, int style, Color color) {
+            return new Font(Font.HELVETICA, size, style, color);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Excel style specs — materialised per workbook by ExcelStyles
+    // ---------------------------------------------------------------
+
+    public static final class Excel {
+
+        private Excel() {
+        }
+
+        private static final Spec BOXED = Spec.PLAIN.borders(Borders.ALL);
+
+        // Institutional header block
+        public static final Spec INSTITUTE = Spec.PLAIN.bold().size(10);
+        public static final Spec DEPARTMENT = Spec.PLAIN.bold().size(9);
+        public static final Spec TITLE = Spec.PLAIN.bold().size(13).centered();
+        public static final Spec BOXED_TITLE = BOXED.bold().size(12).centered();
+        public static final Spec BOXED_NAME = BOXED.bold().size(11).centered();
+        public static final Spec META_LABEL = BOXED.bold().size(8).valign(VerticalAlignment.CENTER);
+        public static final Spec META_VALUE = BOXED.size(8).valign(VerticalAlignment.CENTER);
+        public static final Spec META_LABEL_LARGE = BOXED.bold().size(9).valign(VerticalAlignment.CENTER);
+        public static final Spec META_VALUE_LARGE = BOXED.size(9).valign(VerticalAlignment.CENTER);
+        public static final Spec SMALL = Spec.PLAIN.size(7).color(Color.GRAY);
+
+        // Days × slots grid
+        public static final Spec GRID_HEADER = BOXED.bold().size(8).color(Color.WHITE).fill(NAVY).centered().wrap();
+        public static final Spec GRID_HEADER_LIGHT = BOXED.bold().size(9).color(NAVY).fill(HEADER_BG).centered();
+        public static final Spec DAY = BOXED.bold().size(9).centered();
+        public static final Spec DAY_LARGE = BOXED.bold().size(10).centered();
+        public static final Spec CELL = BOXED.size(8).centered().wrap();
+        public static final Spec ENTRY = BOXED.centered().wrap();
+        public static final Spec LAB_ENTRY = ENTRY.fill(LAB_BG);
+        public static final Spec EMPTY = BOXED.centered();
+        public static final Spec GRID_BREAK = BOXED.bold().italic().size(7).color(Color.GRAY).fill(GRID_BREAK_BG)
+            .centered().wrap().rotation(90);
+
+        // Reference tables and signatures
+        public static final Spec REFERENCE_HEADER = BOXED.bold().size(8).fill(REFERENCE_BG).centered();
+        public static final Spec REFERENCE_CELL = BOXED.size(7).valign(VerticalAlignment.CENTER).wrap();
+        public static final Spec SIGNATURE = Spec.PLAIN.size(9);
+        public static final Spec SIGNATURE_CENTER = SIGNATURE.align(HorizontalAlignment.CENTER);
+        public static final Spec SIGNATURE_RIGHT = SIGNATURE.align(HorizontalAlignment.RIGHT);
+
+        // Slot-per-row listing (teacher workbook)
+        public static final Spec LIST_TITLE = Spec.PLAIN.bold().size(14);
+        public static final Spec LIST_HEADER = Spec.PLAIN.bold().size(10).color(Color.WHITE).fill(NAVY)
+            .align(HorizontalAlignment.CENTER).borders(Borders.BOTTOM);
+        public static final Spec LIST_CELL = Spec.PLAIN.valign(VerticalAlignment.TOP).wrap().borders(Borders.BOTTOM_RIGHT);
+        public static final Spec LIST_THEORY = LIST_CELL.fill(THEORY_FILL);
+        public static final Spec LIST_LAB = LIST_CELL.fill(LAB_FILL);
+        public static final Spec LIST_BREAK = Spec.PLAIN.italic().color(Color.GRAY).fill(BREAK_BG)
+            .align(HorizontalAlignment.CENTER);
+    }
+}
@@ -0,0 +1,755 @@
+package com.College.timetable.Service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.College.timetable.Entity.DayOfWeek;
+import com.College.timetable.Entity.Semester;
+import com.College.timetable.Entity.TimetableEntry;
+import com.College.timetable.Entity.TimetableStatus;
+import com.College.timetable.Repository.TimetableEntry_repo;
+
+/**
+ * In-memory occupancy index used by conflict checks.
+ *
+ * One {@link YearOccupancy} per academic year holds a compact bitset per teacher, room,
+ * division and batch. Bit {@code slotOrdinal * DAYS + day} is set when that resource is
+ * booked in that (day, slot) cell, so every "is booked" question is answered in O(1)
+ * without a DB round trip.
+ *
+ * The index only reflects COMMITTED state — mutations are applied after the surrounding
+ * transaction commits. Years are loaded lazily with one scalar projection query and
+ * periodically verified against TimetableEntry_repo so drift (e.g. writes from another
+ * app node) is detected and the year rebuilt.
+ *
+ * Booked semantics mirror the TimetableEntry_repo.is*Booked queries: every status counts
+ * and the semester is not considered.
+ *
+ * Each year also keeps a teacher workload ledger (periods per day, weekly minutes) that is
+ * adjusted on the same mutations, replacing per-teacher COUNT/SUM queries in limit checks
+ * and analytics.
+ */
+@Service
+public class OccupancyIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyIndexService.class);
+
+    static final int DAYS = DayOfWeek.values().length;
+
+    // Reloads verify() attempts before it gives up on a year that keeps changing under it
+    static final int VERIFY_ATTEMPTS = 3;
+
+    private final TimetableEntry_repo timetableRepo;
+    private final TransactionTemplate loadTx;
+
+    private final Map<Long, YearOccupancy> years = new ConcurrentHashMap<>();
+
+    // Bumped before every change to a year, loaded or not — verify() swaps in its reload only
+    // if nothing changed while the reload ran outside the map's lock
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // TimeSlot IDs are sparse — map them to dense ordinals so bitsets stay small
+    private final Map<Long, Integer> slotOrdinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlotOrdinal = new AtomicInteger();
+
+    public OccupancyIndexService(TimetableEntry_repo timetableRepo, PlatformTransactionManager txManager) {
+        this.timetableRepo = timetableRepo;
+        // Load in a separate read-only transaction so the index never sees uncommitted rows
+        this.loadTx = new TransactionTemplate(txManager);
+        this.loadTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTx.setReadOnly(true);
+    }
+
+    // ---------------------------------------------------------------
+    // QUERIES — O(1) booked checks
+    // ---------------------------------------------------------------
+
+    public boolean isTeacherBooked(Long teacherId, DayOfWeek day, Long timeSlotId, Long academicYearId, Long excludeId) {
+        return isBooked(Resource.TEACHER, teacherId, day, timeSlotId, academicYearId, excludeId);
+    }
+
+    public boolean isRoomBooked(Long roomId, DayOfWeek day, Long timeSlotId, Long academicYearId, Long excludeId) {
+        return isBooked(Resource.ROOM, roomId, day, timeSlotId, academicYearId, excludeId);
+    }
+
+    public boolean isDivisionBooked(Long divisionId, DayOfWeek day, Long timeSlotId, Long academicYearId, Long excludeId) {
+        return isBooked(Resource.DIVISION, divisionId, day, timeSlotId, academicYearId, excludeId);
+    }
+
+    public boolean isBatchBooked(Long batchId, DayOfWeek day, Long timeSlotId, Long academicYearId, Long excludeId) {
+        return isBooked(Resource.BATCH, batchId, day, timeSlotId, academicYearId, excludeId);
+    }
+
+    private boolean isBooked(Resource resource, Long resourceId, DayOfWeek day, Long timeSlotId,
+                             Long academicYearId, Long excludeId) {
+        if (resourceId == null || day == null || timeSlotId == null || academicYearId == null) {
+            return false;
+        }
+        return year(academicYearId).isBooked(resource, resourceId, cell(day, timeSlotId), excludeId);
+    }
+
+    // ---------------------------------------------------------------
+    // WORKLOAD LEDGER — per-teacher periods per day and weekly minutes
+    // ---------------------------------------------------------------
+
+    /**
+     * Same figure as TimetableEntry_repo.countTeacherPeriodsOnDay (non-ARCHIVED entries).
+     */
+    public long teacherPeriodsOnDay(Long teacherId, Long academicYearId, DayOfWeek day) {
+        if (teacherId == null || academicYearId == null || day == null) return 0;
+        TeacherWorkload load = year(academicYearId).workload(teacherId);
+        return load != null ? load.periodsOn(day) : 0;
+    }
+
+    /**
+     * Same figure as TimetableEntry_repo.calculateTeacherWeeklyMinutes (every status, minus excludeId).
+     */
+    public int teacherWeeklyMinutes(Long teacherId, Long academicYearId, Long excludeId) {
+        if (teacherId == null || academicYearId == null) return 0;
+        return year(academicYearId).weeklyMinutes(teacherId, excludeId);
+    }
+
+    /**
+     * Bulk copy of the ledger for one year: teacherId -> workload.
+     */
+    public Map<Long, TeacherWorkload> teacherWorkloads(Long academicYearId) {
+        if (academicYearId == null) return Map.of();
+        return year(academicYearId).workloads();
+    }
+
+    /**
+     * Copy of every placement of a year — used by the timetable generator to seed its model.
+     */
+    java.util.List<Placement> placements(Long academicYearId) {
+        return new java.util.ArrayList<>(year(academicYearId).snapshot().values());
+    }
+
+    // ---------------------------------------------------------------
+    // GRID SNAPSHOT — whole-week view for availability matrices
+    // ---------------------------------------------------------------
+
+    /**
+     * Build, in one pass over the year's placements, the booked cells of every teacher, room and
+     * batch plus teacher workload figures. Booked cells follow the availability-filter rules:
+     * only DRAFT/PUBLISHED entries of the same semester series (odd/even) count.
+     * Workload figures follow the conflict-check rules: daily periods exclude ARCHIVED,
+     * weekly minutes count every status.
+     */
+    public GridSnapshot gridSnapshot(Long academicYearId, Semester semester) {
+        YearOccupancy year = year(academicYearId);
+        GridSnapshot grid = new GridSnapshot(year.workloads());
+        year.forEach(p -> {
+            boolean active = p.status() == TimetableStatus.DRAFT || p.status() == TimetableStatus.PUBLISHED;
+            if (active && p.semester() != null && semester != null && semester.isSameSeries(p.semester())) {
+                grid.mark(grid.teachers, p.teacherId(), p.cell());
+                grid.mark(grid.rooms, p.roomId(), p.cell());
+                grid.mark(grid.batches, p.batchId(), p.cell());
+            }
+        });
+        return grid;
+    }
+
+    // ---------------------------------------------------------------
+    // MUTATIONS — applied after the surrounding transaction commits
+    // ---------------------------------------------------------------
+
+    /**
+     * Record a saved (new or updated) entry. Idempotent — re-applying replaces the placement.
+     */
+    public void onEntrySaved(TimetableEntry entry) {
+        Placement placement = toPlacement(entry);
+        if (placement == null) return;
+        Long yearId = entry.getAcademicYear().getId();
+        afterCommit(() -> applyIfLoaded(yearId, y -> y.put(placement)));
+    }
+
+    public void onEntryDeleted(TimetableEntry entry) {
+        if (entry == null || entry.getId() == null || entry.getAcademicYear() == null) return;
+        Long entryId = entry.getId();
+        Long yearId = entry.getAcademicYear().getId();
+        afterCommit(() -> applyIfLoaded(yearId, y -> y.remove(entryId)));
+    }
+
+    public void onEntriesDeleted(Collection<TimetableEntry> entries) {
+        entries.forEach(this::onEntryDeleted);
+    }
+
+    /**
+     * Mirror a bulk status flip (publish / archive) for one division + semester.
+     */
+    public void onStatusChanged(Long divisionId, Long academicYearId, Semester semester,
+                                TimetableStatus from, TimetableStatus to) {
+        afterCommit(() -> applyIfLoaded(academicYearId, y -> y.transition(
+            p -> p.divisionId().equals(divisionId) && p.semester() == semester && p.status() == from, to)));
+    }
+
+    /**
+     * Mirror clearDraft — drop DRAFT placements for one division + semester.
+     */
+    public void onDraftCleared(Long divisionId, Long academicYearId, Semester semester) {
+        afterCommit(() -> applyIfLoaded(academicYearId, y -> y.removeIf(
+            p -> p.divisionId().equals(divisionId) && p.semester() == semester && p.status() == TimetableStatus.DRAFT)));
+    }
+
+    /**
+     * Drop a year so the next check reloads it from the DB.
+     */
+    public void invalidate(Long academicYearId) {
+        afterCommit(() -> drop(academicYearId));
+    }
+
+    /**
+     * A booking unique index rejected a write this index let through — another writer (or node)
+     * got there first. Drop the year now: the write rolls back, so there is no commit to wait for.
+     */
+    public void onBookingConflict(Long academicYearId) {
+        if (academicYearId != null) drop(academicYearId);
+    }
+
+    // ---------------------------------------------------------------
+    // CONSISTENCY — detect drift against TimetableEntry_repo
+    // ---------------------------------------------------------------
+
+    /**
+     * Compare the indexed placements of a year with the DB.
+     * If drift is found and {@code rebuild} is true, the year is replaced with a fresh load.
+     *
+     * The fresh load runs outside {@code years.compute} so checks and changes of the year are
+     * not held up by a full-year query. Compare and swap then run under the map's lock, and only
+     * if the year's generation is unchanged: a change committed during the load may be missing
+     * from it, so the load is retried instead of replacing the copy that change was applied to.
+     * After VERIFY_ATTEMPTS busy loads the drift is reported but the year is left as it is.
+     */
+    public ConsistencyReport verify(Long academicYearId, boolean rebuild) {
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt == VERIFY_ATTEMPTS;
+            long generation = generation(academicYearId);
+            YearOccupancy fresh = load(academicYearId);
+
+            ConsistencyReport report = new ConsistencyReport();
+            report.setAcademicYearId(academicYearId);
+            report.setDatabaseEntries(fresh.size());
+            AtomicBoolean settled = new AtomicBoolean();
+
+            years.compute(academicYearId, (id, current) -> {
+                boolean unchanged = generation(id) == generation;
+                if (!unchanged && !lastAttempt) return current;
+                settled.set(true);
+                report.setChangedDuringLoad(!unchanged);
+
+                if (current == null) {
+                    // Nothing indexed — the fresh load is by definition consistent, unless the
+                    // year was dropped while it ran; then the next check loads it again
+                    report.setIndexedEntries(unchanged ? fresh.size() : 0);
+                    return unchanged ? fresh : null;
+                }
+
+                compare(current.snapshot(), fresh.snapshot(), report);
+                if (!report.isConsistent()) {
+                    logger.warn("[OCCUPANCY-INDEX] Drift in academic year {}: missing={}, stale={}, mismatched={}{}",
+                        id, report.getMissingFromIndex(), report.getStaleInIndex(), report.getMismatched(),
+                        unchanged ? "" : " (the year kept changing during the check — not rebuilt)");
+                    if (rebuild && unchanged) {
+                        report.setRebuilt(true);
+                        return fresh;
+                    }
+                }
+                return current;
+            });
+            if (settled.get()) return report;
+            logger.debug("[OCCUPANCY-INDEX] Academic year {} changed during verification — reloading", academicYearId);
+        }
+    }
+
+    private static void compare(Map<Long, Placement> indexed, Map<Long, Placement> actual, ConsistencyReport report) {
+        report.setIndexedEntries(indexed.size());
+        for (Map.Entry<Long, Placement> e : actual.entrySet()) {
+            Placement p = indexed.get(e.getKey());
+            if (p == null) {
+                report.setMissingFromIndex(report.getMissingFromIndex() + 1);
+            } else if (!p.equals(e.getValue())) {
+                report.setMismatched(report.getMismatched() + 1);
+            }
+        }
+        for (Long entryId : indexed.keySet()) {
+            if (!actual.containsKey(entryId)) {
+                report.setStaleInIndex(report.getStaleInIndex() + 1);
+            }
+        }
+    }
+
+    /**
+     * Periodic drift check for every loaded year — catches writes made by other app nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.timetable.occupancy-index.verify-interval-ms:300000}",
+               initialDelayString = "${app.timetable.occupancy-index.verify-interval-ms:300000}")
+    public void verifyLoadedYears() {
+        for (Long yearId : years.keySet()) {
+            try {
+                verify(yearId, true);
+            } catch (Exception e) {
+                logger.error("[OCCUPANCY-INDEX] Verification failed for academic year {}", yearId, e);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------------
+
+    YearOccupancy year(Long academicYearId) {
+        return years.computeIfAbsent(academicYearId, this::load);
+    }
+
+    private void applyIfLoaded(Long academicYearId, Consumer<YearOccupancy> change) {
+        bumpGeneration(academicYearId);
+        // computeIfPresent waits for an in-flight load of the same year, so no change is lost
+        years.computeIfPresent(academicYearId, (id, y) -> {
+            change.accept(y);
+            return y;
+        });
+    }
+
+    private void drop(Long academicYearId) {
+        bumpGeneration(academicYearId);
+        years.remove(academicYearId);
+    }
+
+    private long generation(Long academicYearId) {
+        AtomicLong generation = generations.get(academicYearId);
+        return generation != null ? generation.get() : 0;
+    }
+
+    private void bumpGeneration(Long academicYearId) {
+        generations.computeIfAbsent(academicYearId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    private YearOccupancy load(Long academicYearId) {
+        long start = System.currentTimeMillis();
+        YearOccupancy year = new YearOccupancy();
+        loadTx.executeWithoutResult(status -> {
+            for (Object[] row : timetableRepo.findOccupancyRowsByAcademicYear(academicYearId)) {
+                year.put(toPlacement(row));
+            }
+        });
+        logger.debug("[OCCUPANCY-INDEX] Loaded academic year {} — {} entries in {} ms",
+            academicYearId, year.size(), System.currentTimeMillis() - start);
+        return year;
+    }
+
+    int cell(DayOfWeek day, Long timeSlotId) {
+        int slot = slotOrdinals.computeIfAbsent(timeSlotId, id -> nextSlotOrdinal.getAndIncrement());
+        return slot * DAYS + day.ordinal();
+    }
+
+    private Placement toPlacement(TimetableEntry e) {
+        if (e == null || e.getId() == null || e.getAcademicYear() == null || e.getTimeSlot() == null
+                || e.getDayOfWeek() == null) {
+            return null;
+        }
+        return new Placement(
+            e.getId(),
+            e.getTeacher() != null ? e.getTeacher().getId() : null,
+            e.getRoom() != null ? e.getRoom().getId() : null,
+            e.getDivision() != null ? e.getDivision().getId() : null,
+            e.getBatch() != null ? e.getBatch().getId() : null,
+            e.getDayOfWeek(),
+            e.getTimeSlot().getId(),
+            cell(e.getDayOfWeek(), e.getTimeSlot().getId()),
+            e.getStatus(),
+            e.getSemester(),
+            e.getTimeSlot().getDurationMinutes() != null ? e.getTimeSlot().getDurationMinutes() : 0
+        );
+    }
+
+    private Placement toPlacement(Object[] row) {
+        DayOfWeek day = (DayOfWeek) row[5];
+        Long slotId = (Long) row[6];
+        return new Placement(
+            (Long) row[0], (Long) row[1], (Long) row[2], (Long) row[3], (Long) row[4],
+            day, slotId, cell(day, slotId),
+            (TimetableStatus) row[7], (Semester) row[8],
+            row[9] != null ? ((Number) row[9]).intValue() : 0
+        );
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    enum Resource { TEACHER, ROOM, DIVISION, BATCH }
+
+    /**
+     * Read-only, per-request copy of a year's occupancy used to fill a whole week grid.
+     */
+    public final class GridSnapshot {
+        private final Map<Long, BitSet> teachers = new HashMap<>();
+        private final Map<Long, BitSet> rooms = new HashMap<>();
+        private final Map<Long, BitSet> batches = new HashMap<>();
+        private final Map<Long, TeacherWorkload> workloads;
+
+        private GridSnapshot(Map<Long, TeacherWorkload> workloads) {
+            this.workloads = workloads;
+        }
+
+        public boolean isTeacherBooked(Long teacherId, DayOfWeek day, Long timeSlotId) {
+            return isSet(teachers, teacherId, day, timeSlotId);
+        }
+
+        public boolean isRoomBooked(Long roomId, DayOfWeek day, Long timeSlotId) {
+            return isSet(rooms, roomId, day, timeSlotId);
+        }
+
+        public boolean isBatchBooked(Long batchId, DayOfWeek day, Long timeSlotId) {
+            return isSet(batches, batchId, day, timeSlotId);
+        }
+
+        public int teacherPeriodsOnDay(Long teacherId, DayOfWeek day) {
+            TeacherWorkload load = workloads.get(teacherId);
+            return load != null ? load.periodsOn(day) : 0;
+        }
+
+        public int teacherWeeklyMinutes(Long teacherId) {
+            TeacherWorkload load = workloads.get(teacherId);
+            return load != null ? load.totalMinutes() : 0;
+        }
+
+        private void mark(Map<Long, BitSet> byId, Long id, int cell) {
+            if (id != null) byId.computeIfAbsent(id, k -> new BitSet()).set(cell);
+        }
+
+        private boolean isSet(Map<Long, BitSet> byId, Long id, DayOfWeek day, Long timeSlotId) {
+            BitSet cells = byId.get(id);
+            return cells != null && cells.get(cell(day, timeSlotId));
+        }
+    }
+
+    /**
+     * Immutable copy of one teacher's ledger line.
+     * periodsPerDay and scheduledMinutes exclude ARCHIVED entries; totalMinutes counts every status.
+     */
+    public record TeacherWorkload(int[] periodsPerDay, int scheduledMinutes, int totalMinutes) {
+        public int periodsOn(DayOfWeek day) {
+            return periodsPerDay[day.ordinal()];
+        }
+    }
+
+    /**
+     * Mutable ledger line kept inside a YearOccupancy.
+     */
+    static final class TeacherTally {
+        private final int[] periodsPerDay = new int[DAYS];
+        private int scheduledMinutes;
+        private int totalMinutes;
+        private int entries;
+
+        void apply(Placement p, int sign) {
+            entries += sign;
+            totalMinutes += sign * p.durationMinutes();
+            if (p.status() != TimetableStatus.ARCHIVED) {
+                periodsPerDay[p.day().ordinal()] += sign;
+                scheduledMinutes += sign * p.durationMinutes();
+            }
+        }
+
+        TeacherWorkload freeze() {
+            return new TeacherWorkload(periodsPerDay.clone(), scheduledMinutes, totalMinutes);
+        }
+    }
+
+    /**
+     * Immutable snapshot of one entry's position in the grid.
+     */
+    record Placement(
+        Long entryId,
+        Long teacherId,
+        Long roomId,
+        Long divisionId,
+        Long batchId,
+        DayOfWeek day,
+        Long timeSlotId,
+        int cell,
+        TimetableStatus status,
+        Semester semester,
+        int durationMinutes
+    ) {
+        Long resourceId(Resource resource) {
+            return switch (resource) {
+                case TEACHER -> teacherId;
+                case ROOM -> roomId;
+                case DIVISION -> divisionId;
+                case BATCH -> batchId;
+            };
+        }
+
+        Placement withStatus(TimetableStatus newStatus) {
+            return new Placement(entryId, teacherId, roomId, divisionId, batchId, day, timeSlotId, cell,
+                newStatus, semester, durationMinutes);
+        }
+    }
+
+    /**
+     * Occupied cells of one resource. The bitset answers "booked?"; the sparse overflow map
+     * only tracks cells holding more than one entry so removal stays exact.
+     */
+    static final class ResourceBits {
+        private final BitSet cells = new BitSet();
+        private Map<Integer, Integer> overflow;
+
+        void add(int cell) {
+            if (!cells.get(cell)) {
+                cells.set(cell);
+                return;
+            }
+            if (overflow == null) overflow = new HashMap<>();
+            overflow.merge(cell, 1, Integer::sum);
+        }
+
+        void remove(int cell) {
+            if (overflow != null) {
+                Integer extra = overflow.get(cell);
+                if (extra != null) {
+                    if (extra == 1) overflow.remove(cell);
+                    else overflow.put(cell, extra - 1);
+                    return;
+                }
+            }
+            cells.clear(cell);
+        }
+
+        int count(int cell) {
+            if (!cells.get(cell)) return 0;
+            return 1 + (overflow != null ? overflow.getOrDefault(cell, 0) : 0);
+        }
+
+        boolean isEmpty() {
+            return cells.isEmpty();
+        }
+    }
+
+    /**
+     * All placements of one academic year plus their per-resource bitsets and the teacher ledger.
+     */
+    static final class YearOccupancy {
+        private final Map<Long, Placement> placements = new HashMap<>();
+        private final Map<Resource, Map<Long, ResourceBits>> bits = new HashMap<>();
+        private final Map<Long, TeacherTally> tallies = new HashMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        YearOccupancy() {
+            for (Resource r : Resource.values()) {
+                bits.put(r, new HashMap<>());
+            }
+        }
+
+        boolean isBooked(Resource resource, Long resourceId, int cell, Long excludeId) {
+            lock.readLock().lock();
+            try {
+                ResourceBits rb = bits.get(resource).get(resourceId);
+                int count = rb != null ? rb.count(cell) : 0;
+                if (count > 0 && excludeId != null) {
+                    Placement excluded = placements.get(excludeId);
+                    if (excluded != null && excluded.cell() == cell
+                            && Objects.equals(resourceId, excluded.resourceId(resource))) {
+                        count--;
+                    }
+                }
+                return count > 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(Placement placement) {
+            lock.writeLock().lock();
+            try {
+                Placement previous = placements.put(placement.entryId(), placement);
+                if (previous != null) unmark(previous);
+                mark(placement);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long entryId) {
+            lock.writeLock().lock();
+            try {
+                Placement previous = placements.remove(entryId);
+                if (previous != null) unmark(previous);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removeIf(Predicate<Placement> filter) {
+            lock.writeLock().lock();
+            try {
+                placements.values().removeIf(p -> {
+                    if (!filter.test(p)) return false;
+                    unmark(p);
+                    return true;
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void transition(Predicate<Placement> filter, TimetableStatus to) {
+            lock.writeLock().lock();
+            try {
+                // Status does not affect bitsets — only the stored placement and the ledger change
+                placements.replaceAll((id, p) -> {
+                    if (!filter.test(p)) return p;
+                    Placement moved = p.withStatus(to);
+                    tally(p, -1);
+                    tally(moved, 1);
+                    return moved;
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void forEach(Consumer<Placement> action) {
+            lock.readLock().lock();
+            try {
+                placements.values().forEach(action);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        TeacherWorkload workload(Long teacherId) {
+            lock.readLock().lock();
+            try {
+                TeacherTally t = tallies.get(teacherId);
+                return t != null ? t.freeze() : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int weeklyMinutes(Long teacherId, Long excludeId) {
+            lock.readLock().lock();
+            try {
+                TeacherTally t = tallies.get(teacherId);
+                int minutes = t != null ? t.totalMinutes : 0;
+                Placement excluded = excludeId != null ? placements.get(excludeId) : null;
+                if (excluded != null && Objects.equals(teacherId, excluded.teacherId())) {
+                    minutes -= excluded.durationMinutes();
+                }
+                return minutes;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<Long, TeacherWorkload> workloads() {
+            lock.readLock().lock();
+            try {
+                Map<Long, TeacherWorkload> copy = new HashMap<>();
+                tallies.forEach((id, t) -> copy.put(id, t.freeze()));
+                return copy;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<Long, Placement> snapshot() {
+            lock.readLock().lock();
+            try {
+                return new HashMap<>(placements);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return placements.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void mark(Placement p) {
+            tally(p, 1);
+            for (Resource r : Resource.values()) {
+                Long id = p.resourceId(r);
+                if (id != null) {
+                    bits.get(r).computeIfAbsent(id, k -> new ResourceBits()).add(p.cell());
+                }
+            }
+        }
+
+        private void unmark(Placement p) {
+            tally(p, -1);
+            for (Resource r : Resource.values()) {
+                Long id = p.resourceId(r);
+                if (id == null) continue;
+                Map<Long, ResourceBits> byId = bits.get(r);
+                ResourceBits rb = byId.get(id);
+                if (rb != null) {
+                    rb.remove(p.cell());
+                    if (rb.isEmpty()) byId.remove(id);
+                }
+            }
+        }
+
+        private void tally(Placement p, int sign) {
+            if (p.teacherId() == null) return;
+            TeacherTally t = tallies.computeIfAbsent(p.teacherId(), k -> new TeacherTally());
+            t.apply(p, sign);
+            if (t.entries == 0) tallies.remove(p.teacherId());
+        }
+    }
+
+    // ── Result DTO ──
+
+    @lombok.Data
+    public static class ConsistencyReport {
+        private Long academicYearId;
+        private int indexedEntries;
+        private int databaseEntries;
+        private int missingFromIndex;
+        private int staleInIndex;
+        private int mismatched;
+        private boolean rebuilt;
+        /** The year changed during every reload attempt — the figures may include in-flight changes. */
+        private boolean changedDuringLoad;
+
+        public boolean isConsistent() {
+            return missingFromIndex == 0 && staleInIndex == 0 && mismatched == 0;
+        }
+    }
+}
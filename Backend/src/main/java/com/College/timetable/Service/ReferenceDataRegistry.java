@@ -0,0 +1,310 @@
+package com.College.timetable.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.College.timetable.Configuration.CacheInvalidationBus;
+import com.College.timetable.Entity.AcademicYear;
+import com.College.timetable.Entity.ClassRoom;
+import com.College.timetable.Entity.DepartmentEntity;
+import com.College.timetable.Entity.TimeSlot;
+import com.College.timetable.Repository.AcademicYearRepository;
+import com.College.timetable.Repository.Dep_repo;
+import com.College.timetable.Repository.Room_repo;
+import com.College.timetable.Repository.TimeSlot_repo;
+
+/**
+ * In-memory registry of the reference tables that change a few times a semester: time slots,
+ * rooms, departments and academic years.
+ *
+ * Everything is loaded with one findAll per table into an immutable {@link Snapshot} that is
+ * pre-sorted the way callers used to sort after every scan — active slots per type by start
+ * time, active rooms by capacity. TimeSlotService, RoomService, DepartmentService and
+ * AcademicService writes drop the snapshot after commit and tell the other nodes over the
+ * cache invalidation bus; a periodic reload covers a missed message.
+ *
+ * Every invalidation bumps a generation, and a snapshot is only served while it carries the
+ * current one. A load that was already reading the tables when a write committed therefore
+ * cannot publish the pre-commit rows for longer than the request that started it.
+ *
+ * The returned entities are shared between threads — treat them as read-only and load a
+ * managed copy through the repository before attaching one to a new entity.
+ */
+@Service
+public class ReferenceDataRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataRegistry.class);
+
+    // Name used on the cache invalidation bus
+    static final String BUS_NAME = "referenceData";
+
+    private static final Comparator<TimeSlot> BY_START =
+        Comparator.comparing(TimeSlot::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TimeSlot::getId);
+
+    private final TimeSlot_repo timeSlotRepo;
+    private final Room_repo roomRepo;
+    private final Dep_repo departmentRepo;
+    private final AcademicYearRepository academicYearRepo;
+    private final TimetableCacheInvalidator cacheInvalidator;
+    private final CacheInvalidationBus bus;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();
+    private long loads;
+
+    public ReferenceDataRegistry(TimeSlot_repo timeSlotRepo, Room_repo roomRepo, Dep_repo departmentRepo,
+                                 AcademicYearRepository academicYearRepo, TimetableCacheInvalidator cacheInvalidator,
+                                 CacheInvalidationBus bus) {
+        this.timeSlotRepo = timeSlotRepo;
+        this.roomRepo = roomRepo;
+        this.departmentRepo = departmentRepo;
+        this.academicYearRepo = academicYearRepo;
+        this.cacheInvalidator = cacheInvalidator;
+        this.bus = bus;
+        if (bus != null) {
+            bus.addHandler((name, key) -> {
+                if (BUS_NAME.equals(name)) drop();
+            });
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // TIME SLOTS
+    // ---------------------------------------------------------------
+
+    /** Every slot, by ID. */
+    public List<TimeSlot> allSlots() {
+        return snapshot().allSlots;
+    }
+
+    /** Active slots of every type (breaks included), by start time. */
+    public List<TimeSlot> activeSlots() {
+        return snapshot().activeSlots;
+    }
+
+    /** Active slots of one type (breaks included), by start time. */
+    public List<TimeSlot> activeSlots(String type) {
+        return snapshot().activeSlotsByType.getOrDefault(type, List.of());
+    }
+
+    public Optional<TimeSlot> slot(Long id) {
+        return Optional.ofNullable(snapshot().slotsById.get(id));
+    }
+
+    // ---------------------------------------------------------------
+    // ROOMS
+    // ---------------------------------------------------------------
+
+    /** Active rooms, smallest capacity first; rooms without a capacity come first. */
+    public List<ClassRoom> activeRooms() {
+        return snapshot().activeRooms;
+    }
+
+    /**
+     * Active rooms that fit {@code minCapacity} students, smallest first. A room with no
+     * capacity recorded is assumed to fit, as the callers always have.
+     */
+    public List<ClassRoom> activeRoomsWithCapacity(int minCapacity) {
+        Snapshot s = snapshot();
+        // First sized room with capacity >= minCapacity
+        int lo = 0, hi = s.capacities.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (s.capacities[mid] < minCapacity) lo = mid + 1;
+            else hi = mid;
+        }
+        List<ClassRoom> fitting = new ArrayList<>(s.unsizedRooms.size() + s.sizedRooms.size() - lo);
+        fitting.addAll(s.unsizedRooms);
+        fitting.addAll(s.sizedRooms.subList(lo, s.sizedRooms.size()));
+        return fitting;
+    }
+
+    public Optional<ClassRoom> room(Long id) {
+        return Optional.ofNullable(snapshot().roomsById.get(id));
+    }
+
+    // ---------------------------------------------------------------
+    // DEPARTMENTS + ACADEMIC YEARS
+    // ---------------------------------------------------------------
+
+    public List<DepartmentEntity> departments() {
+        return List.copyOf(snapshot().departmentsById.values());
+    }
+
+    public Optional<DepartmentEntity> department(Long id) {
+        return Optional.ofNullable(snapshot().departmentsById.get(id));
+    }
+
+    public List<AcademicYear> academicYears() {
+        return List.copyOf(snapshot().yearsById.values());
+    }
+
+    public Optional<AcademicYear> academicYear(Long id) {
+        return Optional.ofNullable(snapshot().yearsById.get(id));
+    }
+
+    /** The year flagged current, or null. */
+    public AcademicYear currentAcademicYear() {
+        return snapshot().yearsById.values().stream()
+            .filter(y -> Boolean.TRUE.equals(y.getIsCurrent()))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /** Local load counter — changes every time this node reloads the tables. */
+    public synchronized long version() {
+        return loads;
+    }
+
+    // ---------------------------------------------------------------
+    // INVALIDATION
+    // ---------------------------------------------------------------
+
+    /**
+     * Call from every write to slots, rooms, departments or academic years. After commit this
+     * node reloads on next use, the other nodes are told to do the same, and the cached
+     * timetable views — which embed slot, room, department and year fields — are dropped.
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        drop();
+        if (bus != null) bus.publishClear(BUS_NAME);
+        cacheInvalidator.evictAll();
+    }
+
+    /**
+     * Periodic reload — catches a write on another node whose bus message was lost.
+     */
+    @Scheduled(fixedDelayString = "${app.reference-data.refresh-interval-ms:600000}",
+               initialDelayString = "${app.reference-data.refresh-interval-ms:600000}")
+    public void reload() {
+        if (snapshot == null) return;
+        try {
+            synchronized (this) {
+                Snapshot s = load();
+                // An invalidation during the load wins — the next use loads again
+                if (s.generation == generation.get()) snapshot = s;
+            }
+        } catch (Exception e) {
+            logger.error("[REFERENCE-DATA] Reload failed — keeping previous snapshot", e);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------------
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (!isCurrent(current)) {
+            synchronized (this) {
+                current = snapshot;
+                if (!isCurrent(current)) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean isCurrent(Snapshot s) {
+        return s != null && s.generation == generation.get();
+    }
+
+    private void drop() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private synchronized Snapshot load() {
+        long start = System.currentTimeMillis();
+        // Read before the tables: an invalidation from here on leaves the snapshot outdated
+        long loadedGeneration = generation.get();
+        Snapshot s = new Snapshot(loadedGeneration, timeSlotRepo.findAll(), roomRepo.findAll(),
+            departmentRepo.findAll(), academicYearRepo.findAll());
+        loads++;
+        logger.info("[REFERENCE-DATA] Loaded {} slots, {} rooms, {} departments, {} years in {} ms",
+            s.allSlots.size(), s.roomsById.size(), s.departmentsById.size(), s.yearsById.size(),
+            System.currentTimeMillis() - start);
+        return s;
+    }
+
+    /**
+     * Immutable, pre-sorted copy of the reference tables.
+     */
+    private static final class Snapshot {
+        final long generation;
+        final List<TimeSlot> allSlots;
+        final List<TimeSlot> activeSlots;
+        final Map<String, List<TimeSlot>> activeSlotsByType;
+        final Map<Long, TimeSlot> slotsById;
+        final List<ClassRoom> activeRooms;
+        final List<ClassRoom> unsizedRooms;
+        final List<ClassRoom> sizedRooms;
+        final int[] capacities;
+        final Map<Long, ClassRoom> roomsById;
+        final Map<Long, DepartmentEntity> departmentsById;
+        final Map<Long, AcademicYear> yearsById;
+
+        Snapshot(long generation, List<TimeSlot> slots, List<ClassRoom> rooms, List<DepartmentEntity> departments,
+                 List<AcademicYear> years) {
+            this.generation = generation;
+            allSlots = slots.stream().sorted(Comparator.comparing(TimeSlot::getId)).toList();
+            activeSlots = slots.stream().filter(s -> Boolean.TRUE.equals(s.getIsActive())).sorted(BY_START).toList();
+            activeSlotsByType = activeSlots.stream()
+                .filter(s -> s.getType() != null)
+                .collect(Collectors.groupingBy(TimeSlot::getType, Collectors.toUnmodifiableList()));
+            slotsById = byId(allSlots, TimeSlot::getId);
+
+            List<ClassRoom> active = rooms.stream().filter(r -> Boolean.TRUE.equals(r.getIsActive())).toList();
+            unsizedRooms = active.stream().filter(r -> r.getCapacity() == null)
+                .sorted(Comparator.comparing(ClassRoom::getId)).toList();
+            sizedRooms = active.stream().filter(r -> r.getCapacity() != null)
+                .sorted(Comparator.comparing(ClassRoom::getCapacity).thenComparing(ClassRoom::getId)).toList();
+            capacities = sizedRooms.stream().mapToInt(ClassRoom::getCapacity).toArray();
+            List<ClassRoom> ordered = new ArrayList<>(unsizedRooms);
+            ordered.addAll(sizedRooms);
+            activeRooms = List.copyOf(ordered);
+            roomsById = byId(rooms.stream().sorted(Comparator.comparing(ClassRoom::getId)).toList(), ClassRoom::getId);
+
+            departmentsById = byId(departments.stream().sorted(Comparator.comparing(DepartmentEntity::getId)).toList(),
+                DepartmentEntity::getId);
+            yearsById = byId(years.stream().sorted(Comparator.comparing(AcademicYear::getId)).toList(),
+                AcademicYear::getId);
+        }
+
+        private static <T> Map<Long, T> byId(List<T> values, Function<T, Long> id) {
+            Map<Long, T> map = new LinkedHashMap<>();
+            values.forEach(v -> map.put(id.apply(v), v));
+            return java.util.Collections.unmodifiableMap(map);
+        }
+    }
+}
@@ -22,6 +22,9 @@ public class RoomService {
 	@Autowired
 	private Dep_repo dep;
 
+	@Autowired
+	private ReferenceDataRegistry referenceData;
+
 	@Transactional
 	public ClassRoom addRoom(ClassRoom room) {
 		// Validate department exists
@@ -29,6 +32,7 @@ public class RoomService {
 			DepartmentEntity depart = dep.findById(room.getDepartment().getId())
 				.orElseThrow(() -> new EntityNotFoundException("Department not found"));
 		}
+		referenceData.invalidateAfterCommit();
 		return rm.save(room);
 	}
 
@@ -62,6 +66,7 @@ public class RoomService {
 			existing.setDepartment(depart);
 		}
 
+		referenceData.invalidateAfterCommit();
 		return rm.save(existing);
 	}
 
@@ -71,5 +76,6 @@ public class RoomService {
 			throw new EntityNotFoundException("Room not found with id: " + id);
 		}
 		rm.deleteById(id);
+		referenceData.invalidateAfterCommit();
 	}
 }
@@ -0,0 +1,220 @@
+package com.College.timetable.Service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.College.timetable.Entity.DayOfWeek;
+import com.College.timetable.Entity.TeacherAvailability;
+import com.College.timetable.Repository.TeacherAvailability_repo;
+
+/**
+ * In-memory view of user_availability used by conflict checks and teacher filters.
+ *
+ * Per teacher and day, the "available" rows are kept sorted by start time together with a
+ * running maximum of their end times. A slot [start, end] is covered when some row starts at or
+ * before {@code start} and ends at or after {@code end} — one binary search for the last row
+ * starting at or before {@code start}, then one comparison against the running maximum.
+ *
+ * Semantics mirror TeacherAvailability_repo.countAvailability + findByTeacherIdAndDayOfWeek:
+ * a teacher with no rows on a day is available; a teacher with rows on a day is available
+ * only inside a single row marked available.
+ *
+ * Loaded lazily with one projection query, refreshed per teacher when availability is saved
+ * and fully reloaded periodically to pick up writes from other app nodes.
+ */
+@Service
+public class TeacherAvailabilityIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeacherAvailabilityIndexService.class);
+
+    private static final int DAYS = DayOfWeek.values().length;
+
+    private final TeacherAvailability_repo availabilityRepo;
+
+    private volatile Map<Long, TeacherDays> teachers;
+
+    public TeacherAvailabilityIndexService(TeacherAvailability_repo availabilityRepo) {
+        this.availabilityRepo = availabilityRepo;
+    }
+
+    // ---------------------------------------------------------------
+    // QUERIES
+    // ---------------------------------------------------------------
+
+    /**
+     * True when the teacher has availability rows on this day and none of the available ones
+     * contains [start, end].
+     */
+    public boolean isMarkedUnavailable(Long teacherId, DayOfWeek day, LocalTime start, LocalTime end) {
+        if (teacherId == null || day == null || start == null || end == null) return false;
+        TeacherDays days = teachers().get(teacherId);
+        return days != null && !days.covers(day, start.toSecondOfDay(), end.toSecondOfDay());
+    }
+
+    /**
+     * Filter many teachers for one slot in a single call. Keeps the input order.
+     */
+    public List<Long> availableTeachers(Collection<Long> teacherIds, DayOfWeek day, LocalTime start, LocalTime end) {
+        Map<Long, TeacherDays> snapshot = teachers();
+        int from = start.toSecondOfDay();
+        int to = end.toSecondOfDay();
+        List<Long> available = new ArrayList<>(teacherIds.size());
+        for (Long id : teacherIds) {
+            TeacherDays days = snapshot.get(id);
+            if (days == null || days.covers(day, from, to)) {
+                available.add(id);
+            }
+        }
+        return available;
+    }
+
+    // ---------------------------------------------------------------
+    // MUTATIONS
+    // ---------------------------------------------------------------
+
+    /**
+     * Replace one teacher's intervals with the rows just saved. Applied after the
+     * surrounding transaction commits.
+     */
+    public void onAvailabilitySaved(Long teacherId, Collection<TeacherAvailability> rows) {
+        TeacherDays days = TeacherDays.of(rows.stream()
+            .map(a -> new Interval(a.getDayOfWeek(), a.getStartTime(), a.getEndTime(), a.getIsAvailable()))
+            .toList());
+        afterCommit(() -> {
+            // Same lock as load + swap, so a save committed during a reload lands in the new map
+            synchronized (this) {
+                Map<Long, TeacherDays> current = teachers;
+                if (current == null) return; // not loaded yet — the first load will see the rows
+                if (days == null) current.remove(teacherId);
+                else current.put(teacherId, days);
+            }
+        });
+    }
+
+    /**
+     * Periodic full reload — catches availability saved on other app nodes. Runs under the
+     * lock onAvailabilitySaved takes, so saves that commit meanwhile are applied on top of it.
+     */
+    @Scheduled(fixedDelayString = "${app.timetable.availability-index.refresh-interval-ms:300000}",
+               initialDelayString = "${app.timetable.availability-index.refresh-interval-ms:300000}")
+    public void reload() {
+        if (teachers == null) return;
+        try {
+            synchronized (this) {
+                teachers = load();
+            }
+        } catch (Exception e) {
+            logger.error("[AVAILABILITY-INDEX] Reload failed — keeping previous intervals", e);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INTERNALS
+    // ---------------------------------------------------------------
+
+    private Map<Long, TeacherDays> teachers() {
+        Map<Long, TeacherDays> current = teachers;
+        if (current == null) {
+            synchronized (this) {
+                current = teachers;
+                if (current == null) {
+                    current = load();
+                    teachers = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<Long, TeacherDays> load() {
+        long start = System.currentTimeMillis();
+        Map<Long, List<Interval>> rows = new HashMap<>();
+        for (Object[] row : availabilityRepo.findAvailabilityRows()) {
+            rows.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                .add(new Interval((DayOfWeek) row[1], (LocalTime) row[2], (LocalTime) row[3], (Boolean) row[4]));
+        }
+        Map<Long, TeacherDays> loaded = new ConcurrentHashMap<>();
+        rows.forEach((teacherId, intervals) -> {
+            TeacherDays days = TeacherDays.of(intervals);
+            if (days != null) loaded.put(teacherId, days);
+        });
+        logger.debug("[AVAILABILITY-INDEX] Loaded {} teachers in {} ms", loaded.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Interval(DayOfWeek day, LocalTime start, LocalTime end, Boolean isAvailable) {}
+
+    /**
+     * Immutable per-teacher intervals. For each day: whether any row exists, the sorted start
+     * times of available rows and the running maximum of their end times (seconds of day).
+     */
+    static final class TeacherDays {
+        private final boolean[] hasRows = new boolean[DAYS];
+        private final int[][] starts = new int[DAYS][];
+        private final int[][] maxEnds = new int[DAYS][];
+
+        static TeacherDays of(List<Interval> intervals) {
+            if (intervals.isEmpty()) return null;
+            TeacherDays days = new TeacherDays();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                int d = day.ordinal();
+                days.hasRows[d] = intervals.stream().anyMatch(i -> i.day() == day);
+                int[][] available = intervals.stream()
+                    .filter(i -> i.day() == day && Boolean.TRUE.equals(i.isAvailable())
+                        && i.start() != null && i.end() != null)
+                    .map(i -> new int[] { i.start().toSecondOfDay(), i.end().toSecondOfDay() })
+                    .sorted(Comparator.comparingInt(i -> i[0]))
+                    .toArray(int[][]::new);
+                days.starts[d] = new int[available.length];
+                days.maxEnds[d] = new int[available.length];
+                int maxEnd = Integer.MIN_VALUE;
+                for (int k = 0; k < available.length; k++) {
+                    maxEnd = Math.max(maxEnd, available[k][1]);
+                    days.starts[d][k] = available[k][0];
+                    days.maxEnds[d][k] = maxEnd;
+                }
+            }
+            return days;
+        }
+
+        boolean covers(DayOfWeek day, int start, int end) {
+            int d = day.ordinal();
+            if (!hasRows[d]) return true;
+            // Last available row starting at or before the slot start
+            int idx = Arrays.binarySearch(starts[d], start);
+            if (idx < 0) {
+                idx = -idx - 2;
+            } else {
+                while (idx + 1 < starts[d].length && starts[d][idx + 1] == start) idx++;
+            }
+            return idx >= 0 && maxEnds[d][idx] >= end;
+        }
+    }
+}
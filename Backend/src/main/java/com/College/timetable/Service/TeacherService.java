@@ -46,6 +46,10 @@ public class TeacherService implements UserDetailsService{
     @Autowired
     private EmailService emailService;
 
+	@Autowired
+	@Lazy
+	private TimetableCacheInvalidator cacheInvalidator;
+
 	
 	@Transactional
 	public TeacherEntity add(TeacherEntity teach) {
@@ -362,6 +366,8 @@ public class TeacherService implements UserDetailsService{
 			existing.setDepartment(depart);
 		}
 		
+		// Teacher name / employee ID / department are embedded in the cached timetable views
+		cacheInvalidator.evictAllAfterCommit();
 		return teacher.save(existing);
 	}
 	
@@ -433,6 +439,8 @@ public class TeacherService implements UserDetailsService{
 			existing.setDepartment(depart);
 		}
 
+		// Teacher name / employee ID / department are embedded in the cached timetable views
+		cacheInvalidator.evictAllAfterCommit();
 		return teacher.save(existing);
 	}
 
@@ -442,6 +450,7 @@ public class TeacherService implements UserDetailsService{
 			throw new EntityNotFoundException("Teacher not found with id: " + id);
 		}
 		teacher.deleteById(id);
+		cacheInvalidator.evictAllAfterCommit();
 	}
 
 	// Admin approval methods
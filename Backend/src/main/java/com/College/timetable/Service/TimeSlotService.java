@@ -17,6 +17,9 @@ public class TimeSlotService {
 	@Autowired
 	private TimeSlot_repo timeSlotRepo;
 
+	@Autowired
+	private ReferenceDataRegistry referenceData;
+
 	@Transactional
 	public TimeSlot add(TimeSlot timeSlot) {
 		// Check for overlapping slots in the same type
@@ -33,6 +36,7 @@ public class TimeSlotService {
 				overlapping.get(0).getEndTime() + ")");
 		}
 
+		referenceData.invalidateAfterCommit();
 		return timeSlotRepo.save(timeSlot);
 	}
 
@@ -73,6 +77,7 @@ public class TimeSlotService {
 		existing.setIsBreak(timeSlot.getIsBreak());
 		existing.setIsActive(timeSlot.getIsActive());
 		existing.setType(timeSlot.getType());
+		referenceData.invalidateAfterCommit();
 		return timeSlotRepo.save(existing);
 	}
 
@@ -87,5 +92,6 @@ public class TimeSlotService {
 			throw new EntityNotFoundException("Time slot not found with id: " + id);
 		}
 		timeSlotRepo.deleteById(id);
+		referenceData.invalidateAfterCommit();
 	}
 }
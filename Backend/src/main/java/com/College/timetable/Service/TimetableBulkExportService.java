@@ -0,0 +1,480 @@
+package com.College.timetable.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.College.timetable.Entity.ClassRoom;
+import com.College.timetable.Entity.DepartmentEntity;
+import com.College.timetable.Entity.Division;
+import com.College.timetable.Entity.Semester;
+import com.College.timetable.Entity.TeacherEntity;
+import com.College.timetable.Entity.TimetableStatus;
+import com.College.timetable.IO.BulkExportRequest;
+import com.College.timetable.IO.BulkExportRequest.Format;
+import com.College.timetable.IO.BulkExportRequest.Scope;
+import com.College.timetable.Repository.Division_repo;
+import com.College.timetable.Repository.Teacher_Repo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Institution-wide bulk export: every published division, teacher, room (and optionally
+ * department) timetable of one academic year and semester, rendered into one ZIP.
+ *
+ * A job is started by an admin and runs in the background. The documents render in parallel
+ * on a bounded worker pool — each into a temp file through TimetableExportCache, so cached
+ * documents are reused and fresh ones are cached — and are appended to the job's ZIP as they
+ * finish. The ZIP lives in a local file store (app.export.bulk.store-dir) until it is older
+ * than app.export.bulk.retention-hours, so it can be downloaded by a later request; a
+ * document that fails to render is listed in the job's progress and in errors.txt.
+ */
+@Service
+public class TimetableBulkExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableBulkExportService.class);
+
+    public static final String DOWNLOAD_URL = "/api/timetable/export/bulk/%s/download";
+
+    private static final Set<Scope> DEFAULT_SCOPES = EnumSet.of(Scope.DIVISION, Scope.TEACHER, Scope.ROOM);
+    private static final int MAX_ERRORS = 20;
+
+    private final TimetableExportService exportService;
+    private final TimetableExportCache exportCache;
+    private final OccupancyIndexService occupancyIndex;
+    private final Division_repo divisionRepo;
+    private final Teacher_Repo teacherRepo;
+    private final ReferenceDataRegistry referenceData;
+    private final Path store;
+    private final Duration retention;
+    private final ThreadPoolExecutor pool;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public TimetableBulkExportService(TimetableExportService exportService, TimetableExportCache exportCache,
+                                      OccupancyIndexService occupancyIndex, Division_repo divisionRepo,
+                                      Teacher_Repo teacherRepo, ReferenceDataRegistry referenceData,
+                                      @Value("${app.export.bulk.store-dir:${java.io.tmpdir}/samaysetu-exports}") String storeDir,
+                                      @Value("${app.export.bulk.parallelism:4}") int parallelism,
+                                      @Value("${app.export.bulk.retention-hours:24}") long retentionHours) {
+        this.exportService = exportService;
+        this.exportCache = exportCache;
+        this.occupancyIndex = occupancyIndex;
+        this.divisionRepo = divisionRepo;
+        this.teacherRepo = teacherRepo;
+        this.referenceData = referenceData;
+        this.store = Paths.get(storeDir).toAbsolutePath();
+        this.retention = Duration.ofHours(retentionHours);
+        try {
+            Files.createDirectories(store);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the bulk export store " + store, e);
+        }
+        // Bounded so a bulk export never renders more documents at once than this, however
+        // many jobs are running — each one holds a DB connection while it loads its entries
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadId = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "bulk-export-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), factory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+    // JOBS
+    // ---------------------------------------------------------------
+
+    /**
+     * Start a bulk export. The documents are listed here, from the occupancy index; rendering
+     * and zipping run on the worker pool — follow them with {@link #progress(String)}.
+     */
+    public Job start(BulkExportRequest request) {
+        Set<Scope> scopes = request.getScopes() == null || request.getScopes().isEmpty()
+            ? DEFAULT_SCOPES : EnumSet.copyOf(request.getScopes());
+        Set<Format> formats = request.getFormats() == null || request.getFormats().isEmpty()
+            ? EnumSet.of(Format.PDF) : EnumSet.copyOf(request.getFormats());
+
+        List<Document> documents = documents(request.getAcademicYearId(), request.getSemester(), scopes, formats);
+        Job job = new Job(UUID.randomUUID().toString(), request.getAcademicYearId(), request.getSemester(),
+            scopes, formats, documents.size());
+        jobs.put(job.id, job);
+        logger.info("[BULK-EXPORT] Job {} started: {} documents for year {} {}", job.id, documents.size(),
+            job.academicYearId, job.semester);
+        job.completion = run(job, documents);
+        return job;
+    }
+
+    public Optional<BulkExportProgress> progress(String jobId) {
+        Job job = jobs.get(checkId(jobId));
+        if (job != null) return Optional.of(job.progress());
+        // Finished before a restart: the ZIP is still in the store
+        return zip(jobId).map(TimetableBulkExportService::stored);
+    }
+
+    /** The finished ZIP of a job, if it is done and still in the store. */
+    public Optional<Path> zip(String jobId) {
+        Path zip = store.resolve(checkId(jobId) + ".zip");
+        return Files.isRegularFile(zip) ? Optional.of(zip) : Optional.empty();
+    }
+
+    private static String checkId(String jobId) {
+        // Job ids name files in the store — never let anything but a UUID near a path
+        return UUID.fromString(jobId).toString();
+    }
+
+    // ---------------------------------------------------------------
+    // DOCUMENT LIST
+    // ---------------------------------------------------------------
+
+    /** One document of a job: its place in the ZIP and how to render it. */
+    private record Document(String entryName, String type, Long id, Semester semester, String format,
+                            TimetableExportCache.DocumentWriter writer) {
+    }
+
+    /**
+     * The documents of every division, teacher and room with PUBLISHED entries in this year and
+     * semester, and the departments of those divisions.
+     */
+    private List<Document> documents(Long academicYearId, Semester semester, Set<Scope> scopes, Set<Format> formats) {
+        Set<Long> divisionIds = new TreeSet<>();
+        Set<Long> teacherIds = new TreeSet<>();
+        Set<Long> roomIds = new TreeSet<>();
+        for (OccupancyIndexService.Placement p : occupancyIndex.placements(academicYearId)) {
+            if (p.status() != TimetableStatus.PUBLISHED || p.semester() != semester) continue;
+            if (p.divisionId() != null) divisionIds.add(p.divisionId());
+            if (p.teacherId() != null) teacherIds.add(p.teacherId());
+            if (p.roomId() != null) roomIds.add(p.roomId());
+        }
+
+        List<Document> documents = new ArrayList<>();
+        if (scopes.contains(Scope.DIVISION) || scopes.contains(Scope.DEPARTMENT)) {
+            Set<Long> departmentIds = new TreeSet<>();
+            for (Division d : divisionRepo.findByAcademicYearId(academicYearId)) {
+                if (!divisionIds.contains(d.getId())) continue;
+                if (d.getDepartment() != null) departmentIds.add(d.getDepartment().getId());
+                if (!scopes.contains(Scope.DIVISION)) continue;
+                String name = "divisions/" + fileName(d.getYear() + "-" + d.getName(), d.getId());
+                for (Format f : formats) {
+                    documents.add(new Document(name + extension(f), TimetableExportCache.DIVISION, d.getId(),
+                        semester, format(f), f == Format.PDF
+                            ? out -> exportService.writeDivisionPDF(d.getId(), academicYearId, semester, out)
+                            : out -> exportService.writeDivisionExcel(d.getId(), academicYearId, semester, out)));
+                }
+            }
+            if (scopes.contains(Scope.DEPARTMENT)) {
+                for (Long id : departmentIds) {
+                    String name = "departments/" + fileName(
+                        referenceData.department(id).map(DepartmentEntity::getName).orElse(null), id);
+                    for (Format f : formats) {
+                        documents.add(new Document(name + extension(f), TimetableExportCache.DEPARTMENT, id,
+                            semester, format(f), f == Format.PDF
+                                ? out -> exportService.writeDepartmentPDF(id, academicYearId, semester, out)
+                                : out -> exportService.writeDepartmentExcel(id, academicYearId, semester, out)));
+                    }
+                }
+            }
+        }
+        if (scopes.contains(Scope.TEACHER)) {
+            // The teacher documents cover every semester of the year, as on the single download
+            for (TeacherEntity t : teacherRepo.findAllById(teacherIds)) {
+                String name = "teachers/" + fileName(t.getName(), t.getId());
+                for (Format f : formats) {
+                    documents.add(new Document(name + extension(f), TimetableExportCache.TEACHER, t.getId(),
+                        null, format(f), f == Format.PDF
+                            ? out -> exportService.writeTeacherPDF(t.getId(), academicYearId, out)
+                            : out -> exportService.writeTeacherExcel(t.getId(), academicYearId, out)));
+                }
+            }
+        }
+        if (scopes.contains(Scope.ROOM)) {
+            for (Long id : roomIds) {
+                String name = "rooms/" + fileName(
+                    referenceData.room(id).map(ClassRoom::getRoomNumber).orElse(null), id);
+                for (Format f : formats) {
+                    documents.add(new Document(name + extension(f), TimetableExportCache.ROOM, id,
+                        semester, format(f), f == Format.PDF
+                            ? out -> exportService.writeRoomPDF(id, academicYearId, semester, out)
+                            : out -> exportService.writeRoomExcel(id, academicYearId, semester, out)));
+                }
+            }
+        }
+        return documents;
+    }
+
+    /** {@code <name>_<id>} with anything but letters, digits, dot and dash replaced — the id keeps entries unique. */
+    private static String fileName(String name, Long id) {
+        if (name == null || name.isBlank()) return String.valueOf(id);
+        return name.trim().replaceAll("[^A-Za-z0-9.-]+", "_") + "_" + id;
+    }
+
+    private static String extension(Format format) {
+        return format == Format.PDF ? ".pdf" : ".xlsx";
+    }
+
+    // Format segment of the export ETags, as used by the single-document endpoints
+    private static String format(Format format) {
+        return format == Format.PDF ? "pdf" : "excel";
+    }
+
+    // ---------------------------------------------------------------
+    // RENDERING
+    // ---------------------------------------------------------------
+
+    private CompletableFuture<Void> run(Job job, List<Document> documents) {
+        Path part = store.resolve(job.id + ".zip.part");
+        ZipOutputStream zip;
+        try {
+            zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(part)));
+        } catch (IOException e) {
+            job.finish("FAILED", 0);
+            job.error(null, e);
+            logger.error("[BULK-EXPORT] Job {} could not create its ZIP: {}", job.id, e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<?>[] tasks = documents.stream()
+            .map(doc -> CompletableFuture.runAsync(() -> render(job, doc, zip), pool))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(tasks).handle((v, e) -> {
+            complete(job, zip, part);
+            return null;
+        });
+    }
+
+    /** Render one document into a temp file, then append it to the job's ZIP. */
+    private void render(Job job, Document doc, ZipOutputStream zip) {
+        Path file = null;
+        try {
+            String etag = exportCache.etag(doc.type(), doc.id(), job.academicYearId, doc.semester(), doc.format());
+            file = Files.createTempFile(store, job.id + "-", ".doc");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                exportCache.writeTo(etag, out, doc.writer());
+            }
+            // ZipOutputStream is not thread-safe; copying a finished file is quick
+            synchronized (zip) {
+                zip.putNextEntry(new ZipEntry(doc.entryName()));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+            job.completed.incrementAndGet();
+        } catch (Exception e) {
+            job.failed.incrementAndGet();
+            job.error(doc.entryName(), e);
+            logger.warn("[BULK-EXPORT] Job {} could not render {}: {}", job.id, doc.entryName(), e.getMessage());
+        } finally {
+            delete(file);
+        }
+    }
+
+    private void complete(Job job, ZipOutputStream zip, Path part) {
+        try {
+            synchronized (zip) {
+                if (job.failed.get() > 0) {
+                    zip.putNextEntry(new ZipEntry("errors.txt"));
+                    zip.write(String.join("\n", job.errors).concat("\n").getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+                zip.close();
+            }
+            Path done = store.resolve(job.id + ".zip");
+            Files.move(part, done, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.finish("DONE", Files.size(done));
+            logger.info("[BULK-EXPORT] Job {} finished: {} of {} documents, {} failed, {} KB", job.id,
+                job.completed.get(), job.total, job.failed.get(), job.sizeBytes / 1024);
+        } catch (IOException e) {
+            job.finish("FAILED", 0);
+            job.error(null, e);
+            delete(part);
+            logger.error("[BULK-EXPORT] Job {} could not write its ZIP: {}", job.id, e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // FILE STORE CLEAN-UP
+    // ---------------------------------------------------------------
+
+    /**
+     * Drop jobs and files older than the retention — including temp files a crashed node left
+     * behind. Running jobs are left alone.
+     */
+    @Scheduled(fixedDelayString = "${app.export.bulk.cleanup-interval-ms:3600000}",
+               initialDelayString = "${app.export.bulk.cleanup-interval-ms:3600000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+        Set<String> running = new TreeSet<>();
+        jobs.values().forEach(job -> { if (job.finishedAt == null) running.add(job.id); });
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(store)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.length() < 36 || running.contains(name.substring(0, 36))) continue;
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && delete(file)) removed++;
+            }
+        } catch (IOException e) {
+            logger.warn("[BULK-EXPORT] Could not clean up {}: {}", store, e.getMessage());
+        }
+        if (removed > 0) logger.info("[BULK-EXPORT] Removed {} expired files from {}", removed, store);
+    }
+
+    private static boolean delete(Path file) {
+        if (file == null) return false;
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("[BULK-EXPORT] Could not delete {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // JOB STATE
+    // ---------------------------------------------------------------
+
+    public static final class Job {
+        final String id;
+        final Long academicYearId;
+        final Semester semester;
+        final Set<Scope> scopes;
+        final Set<Format> formats;
+        final int total;
+        final Instant startedAt = Instant.now();
+        volatile Instant finishedAt;
+        volatile String state = "RUNNING";
+        volatile long sizeBytes;
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        volatile CompletableFuture<Void> completion;
+
+        Job(String id, Long academicYearId, Semester semester, Set<Scope> scopes, Set<Format> formats, int total) {
+            this.id = id;
+            this.academicYearId = academicYearId;
+            this.semester = semester;
+            this.scopes = scopes;
+            this.formats = formats;
+            this.total = total;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        /** Completes once the ZIP is written (or the job has failed). */
+        public CompletableFuture<Void> completion() {
+            return completion;
+        }
+
+        void error(String document, Exception e) {
+            if (errors.size() < MAX_ERRORS) errors.add((document != null ? document + ": " : "") + e.getMessage());
+        }
+
+        void finish(String state, long sizeBytes) {
+            this.sizeBytes = sizeBytes;
+            this.state = state;
+            this.finishedAt = Instant.now();
+        }
+
+        public BulkExportProgress progress() {
+            BulkExportProgress p = new BulkExportProgress();
+            p.setJobId(id);
+            p.setState(state);
+            p.setAcademicYearId(academicYearId);
+            p.setSemester(semester);
+            p.setScopes(scopes);
+            p.setFormats(formats);
+            p.setStartedAt(startedAt);
+            p.setFinishedAt(finishedAt);
+            p.setTotal(total);
+            p.setCompleted(completed.get());
+            p.setFailed(failed.get());
+            p.setPercent(total == 0 ? 100 : (completed.get() + failed.get()) * 100 / total);
+            p.setSizeBytes(sizeBytes);
+            p.setErrors(List.copyOf(errors));
+            if ("DONE".equals(state)) p.setDownloadUrl(String.format(DOWNLOAD_URL, id));
+            return p;
+        }
+    }
+
+    // A ZIP left by a job this node no longer tracks (it restarted since)
+    private static BulkExportProgress stored(Path zip) {
+        BulkExportProgress p = new BulkExportProgress();
+        String id = zip.getFileName().toString().replace(".zip", "");
+        p.setJobId(id);
+        p.setState("DONE");
+        p.setPercent(100);
+        try {
+            p.setFinishedAt(Files.getLastModifiedTime(zip).toInstant());
+            p.setSizeBytes(Files.size(zip));
+        } catch (IOException e) {
+            logger.debug("[BULK-EXPORT] Could not stat {}: {}", zip, e.getMessage());
+        }
+        p.setDownloadUrl(String.format(DOWNLOAD_URL, id));
+        return p;
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class BulkExportProgress {
+        private String jobId;
+        /** RUNNING, DONE or FAILED. A DONE job may still have failed documents — see errors. */
+        private String state;
+        private Long academicYearId;
+        private Semester semester;
+        private Set<Scope> scopes;
+        private Set<Format> formats;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private int total;
+        private int completed;
+        private int failed;
+        private int percent;
+        private long sizeBytes;
+        /** Set once the ZIP is ready. */
+        private String downloadUrl;
+        private List<String> errors;
+    }
+}
@@ -0,0 +1,239 @@
+package com.College.timetable.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.College.timetable.Entity.Division;
+import com.College.timetable.Entity.TimetableEntry;
+import com.College.timetable.Repository.Division_repo;
+
+/**
+ * Dependency-aware eviction for the timetable read caches.
+ *
+ * Every cached timetable view is keyed {@code {id}_{academicYearId}}. A mutation collects
+ * the keys it touches in a {@link Scope} — the division and its department, and the old
+ * and new teacher and room of each entry — and evicts exactly those keys once the
+ * transaction commits, instead of clearing whole caches. The same keys' versions are then
+ * bumped in TimetableVersionService, which drives the ETags of the JSON read endpoints.
+ */
+@Service
+public class TimetableCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableCacheInvalidator.class);
+
+    // Cache names — the @Cacheable annotations and RedisConfig use these constants
+    public static final String DIVISION = "divisionTimetable";
+    public static final String DIVISION_ALL = "divisionTimetableAll";
+    public static final String DEPARTMENT = "departmentTimetable";
+    public static final String TEACHER = "teacherTimetable";
+    public static final String TEACHER_ALL = "teacherTimetableAll";
+    public static final String ROOM = "roomTimetable";
+
+    public static final List<String> CACHE_NAMES = List.of(DIVISION, DIVISION_ALL, DEPARTMENT, TEACHER, TEACHER_ALL, ROOM);
+
+    private final CacheManager cacheManager;
+    private final Division_repo divisionRepo;
+    private final OccupancyIndexService occupancyIndex;
+    private final TimetableVersionService timetableVersions;
+
+    private final Map<String, LongAdder> evictedKeys = new ConcurrentHashMap<>();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TimetableCacheInvalidator(CacheManager cacheManager, Division_repo divisionRepo,
+                                     OccupancyIndexService occupancyIndex, TimetableVersionService timetableVersions) {
+        this.cacheManager = cacheManager;
+        this.divisionRepo = divisionRepo;
+        this.occupancyIndex = occupancyIndex;
+        this.timetableVersions = timetableVersions;
+        CACHE_NAMES.forEach(name -> evictedKeys.put(name, new LongAdder()));
+    }
+
+    public static String key(Long id, Long academicYearId) {
+        return id + "_" + academicYearId;
+    }
+
+    public Scope scope() {
+        return new Scope();
+    }
+
+    // ---------------------------------------------------------------
+    // SCOPE — keys touched by one mutation
+    // ---------------------------------------------------------------
+
+    public final class Scope {
+        private final Map<String, Set<String>> keys = new LinkedHashMap<>();
+
+        private Scope() {
+        }
+
+        /**
+         * Add an entry's division, department, teacher and room. Call it before and after an
+         * update so both the old and the new teacher / room are covered.
+         */
+        public Scope entry(TimetableEntry e) {
+            if (e == null || e.getAcademicYear() == null) return this;
+            Long yearId = e.getAcademicYear().getId();
+            if (e.getDivision() != null) {
+                add(DIVISION, e.getDivision().getId(), yearId);
+                add(DIVISION_ALL, e.getDivision().getId(), yearId);
+                if (e.getDivision().getDepartment() != null) {
+                    add(DEPARTMENT, e.getDivision().getDepartment().getId(), yearId);
+                }
+            }
+            if (e.getTeacher() != null) {
+                add(TEACHER, e.getTeacher().getId(), yearId);
+                add(TEACHER_ALL, e.getTeacher().getId(), yearId);
+            }
+            if (e.getRoom() != null) {
+                add(ROOM, e.getRoom().getId(), yearId);
+            }
+            return this;
+        }
+
+        public Scope entries(Collection<TimetableEntry> entries) {
+            entries.forEach(this::entry);
+            return this;
+        }
+
+        /**
+         * Add a whole division for a bulk change (publish, archive, clear, generate): the
+         * division, its department, and every teacher and room it has booked that year.
+         * Reads committed placements, so call it before the change is applied.
+         */
+        public Scope division(Long divisionId, Long academicYearId) {
+            add(DIVISION, divisionId, academicYearId);
+            add(DIVISION_ALL, divisionId, academicYearId);
+            divisionRepo.findById(divisionId)
+                .map(Division::getDepartment)
+                .ifPresent(d -> add(DEPARTMENT, d.getId(), academicYearId));
+            for (OccupancyIndexService.Placement p : occupancyIndex.placements(academicYearId)) {
+                if (!divisionId.equals(p.divisionId())) continue;
+                add(TEACHER, p.teacherId(), academicYearId);
+                add(TEACHER_ALL, p.teacherId(), academicYearId);
+                add(ROOM, p.roomId(), academicYearId);
+            }
+            return this;
+        }
+
+        /**
+         * Evict the collected keys once the surrounding transaction commits — evicting earlier
+         * would let a concurrent read re-cache the old rows. Runs immediately outside a transaction.
+         */
+        public void evictAfterCommit() {
+            if (keys.isEmpty()) return;
+            Map<String, Set<String>> snapshot = Map.copyOf(keys);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(snapshot);
+                    }
+                });
+            } else {
+                evict(snapshot);
+            }
+        }
+
+        /** Copy of the collected keys: cache name -> keys. */
+        Map<String, Set<String>> keys() {
+            Map<String, Set<String>> copy = new LinkedHashMap<>();
+            keys.forEach((cacheName, ids) -> copy.put(cacheName, Set.copyOf(ids)));
+            return copy;
+        }
+
+        private void add(String cacheName, Long id, Long academicYearId) {
+            if (id == null || academicYearId == null) return;
+            keys.computeIfAbsent(cacheName, k -> new LinkedHashSet<>()).add(key(id, academicYearId));
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // EVICTION + STATS
+    // ---------------------------------------------------------------
+
+    private void evict(Map<String, Set<String>> keys) {
+        int total = 0;
+        for (Map.Entry<String, Set<String>> e : keys.entrySet()) {
+            Cache cache = cacheManager.getCache(e.getKey());
+            if (cache == null) continue;
+            e.getValue().forEach(cache::evict);
+            evictedKeys.get(e.getKey()).add(e.getValue().size());
+            total += e.getValue().size();
+        }
+        // Only after the evict — bumping first would let a read tag the old view with the new version
+        timetableVersions.bump(keys);
+        invalidations.increment();
+        logger.debug("[CACHE] Evicted {} timetable keys: {}", total, keys);
+    }
+
+    /**
+     * Clear every timetable view at once — for edits to reference data (slot times, room
+     * names, departments, years) that are embedded in every cached view. Immediate; callers
+     * run it after their own commit.
+     */
+    public void evictAll() {
+        for (String name : CACHE_NAMES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) cache.clear();
+        }
+        timetableVersions.bumpAll();
+        invalidations.increment();
+        logger.info("[CACHE] Cleared all timetable views");
+    }
+
+    /**
+     * evictAll once the surrounding transaction commits — for course, teacher and division
+     * edits. Their names and codes are embedded in every view that lists them, and bumping
+     * only the versions would let a view still cached with the old names carry a new ETag.
+     */
+    public void evictAllAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll();
+                }
+            });
+        } else {
+            evictAll();
+        }
+    }
+
+    /**
+     * Eviction counts since startup — per cache, plus the number of invalidations.
+     */
+    public EvictionStats stats() {
+        EvictionStats stats = new EvictionStats();
+        Map<String, Long> perCache = new LinkedHashMap<>();
+        CACHE_NAMES.forEach(name -> perCache.put(name, evictedKeys.get(name).sum()));
+        stats.setInvalidations(invalidations.sum());
+        stats.setEvictedKeys(perCache);
+        stats.setTotalEvictedKeys(perCache.values().stream().mapToLong(Long::longValue).sum());
+        return stats;
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class EvictionStats {
+        private long invalidations;
+        private long totalEvictedKeys;
+        private Map<String, Long> evictedKeys;
+    }
+}
@@ -0,0 +1,308 @@
+package com.College.timetable.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.College.timetable.Configuration.TieredCacheManager;
+import com.College.timetable.Entity.AcademicYear;
+import com.College.timetable.Entity.Division;
+import com.College.timetable.Entity.TimetableStatus;
+import com.College.timetable.Repository.Division_repo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background warm-up of the published timetable views.
+ *
+ * After a publish commits, the division, department, teacher and room views it evicted are
+ * rebuilt on a small worker pool, so the first wave of students and faculty reads hits the
+ * cache instead of the DB. Optionally, every published view of the current academic year is
+ * warmed at startup. Loads go through TimetableViewService, so a key someone already read
+ * back in is left alone.
+ *
+ * The same pool reloads hot views shortly before they expire (TieredCache early refresh).
+ */
+@Service
+public class TimetableCacheWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableCacheWarmer.class);
+
+    // The views students and faculty read — the admin-only *_ALL views are left to load on demand
+    static final List<String> WARMED_CACHES = List.of(
+        TimetableCacheInvalidator.DIVISION, TimetableCacheInvalidator.DEPARTMENT,
+        TimetableCacheInvalidator.TEACHER, TimetableCacheInvalidator.ROOM);
+
+    private static final int RUN_HISTORY = 10;
+
+    private final TimetableViewService timetableViews;
+    private final OccupancyIndexService occupancyIndex;
+    private final ReferenceDataRegistry referenceData;
+    private final Division_repo divisionRepo;
+    private final boolean onPublish;
+    private final boolean onStartup;
+    private final int parallelism;
+    private final ThreadPoolExecutor pool;
+
+    private final Deque<Run> runs = new ConcurrentLinkedDeque<>();
+    private final LongAdder warmedKeys = new LongAdder();
+    private final LongAdder failedKeys = new LongAdder();
+
+    public TimetableCacheWarmer(TimetableViewService timetableViews, OccupancyIndexService occupancyIndex,
+                                ReferenceDataRegistry referenceData, Division_repo divisionRepo,
+                                TieredCacheManager cacheManager,
+                                @Value("${app.cache.warmup.on-publish:true}") boolean onPublish,
+                                @Value("${app.cache.warmup.on-startup:false}") boolean onStartup,
+                                @Value("${app.cache.warmup.parallelism:4}") int parallelism) {
+        this.timetableViews = timetableViews;
+        this.occupancyIndex = occupancyIndex;
+        this.referenceData = referenceData;
+        this.divisionRepo = divisionRepo;
+        this.onPublish = onPublish;
+        this.onStartup = onStartup;
+        // Bounded so a warm-up never takes more DB connections than this from request threads
+        this.parallelism = Math.max(1, parallelism);
+        AtomicInteger threadId = new AtomicInteger();
+        ThreadFactory threads = r -> {
+            Thread t = new Thread(r, "cache-warmup-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.pool = new ThreadPoolExecutor(this.parallelism, this.parallelism, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), threads);
+        cacheManager.setRefresher(this::reload, pool);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+    // TRIGGERS
+    // ---------------------------------------------------------------
+
+    /**
+     * Warm the views a publish evicts, once the transaction commits. Call it after
+     * {@code scope.evictAfterCommit()} so the eviction runs first.
+     */
+    public void warmAfterCommit(TimetableCacheInvalidator.Scope scope) {
+        if (!onPublish) return;
+        Map<String, Set<String>> keys = scope.keys();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    warm("PUBLISH", keys);
+                }
+            });
+        } else {
+            warm("PUBLISH", keys);
+        }
+    }
+
+    /**
+     * Warm every published view of the current academic year (app.cache.warmup.on-startup).
+     * Runs on the warm-up pool so startup is not held up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (!onStartup) return;
+        CompletableFuture.runAsync(() -> {
+            AcademicYear year = referenceData.currentAcademicYear();
+            if (year == null) {
+                logger.info("[CACHE-WARMUP] No current academic year — skipping startup warm-up");
+                return;
+            }
+            warm("STARTUP", publishedKeys(year.getId()));
+        }, pool).exceptionally(e -> {
+            logger.error("[CACHE-WARMUP] Startup warm-up failed: {}", e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Keys of every published view of a year: the divisions with PUBLISHED entries, their
+     * departments, and the teachers and rooms those entries book.
+     */
+    Map<String, Set<String>> publishedKeys(Long academicYearId) {
+        Set<Long> divisions = new HashSet<>();
+        Map<String, Set<String>> keys = new LinkedHashMap<>();
+        for (OccupancyIndexService.Placement p : occupancyIndex.placements(academicYearId)) {
+            if (p.status() != TimetableStatus.PUBLISHED) continue;
+            divisions.add(p.divisionId());
+            add(keys, TimetableCacheInvalidator.DIVISION, p.divisionId(), academicYearId);
+            add(keys, TimetableCacheInvalidator.TEACHER, p.teacherId(), academicYearId);
+            add(keys, TimetableCacheInvalidator.ROOM, p.roomId(), academicYearId);
+        }
+        for (Division d : divisionRepo.findByAcademicYearId(academicYearId)) {
+            if (divisions.contains(d.getId()) && d.getDepartment() != null) {
+                add(keys, TimetableCacheInvalidator.DEPARTMENT, d.getDepartment().getId(), academicYearId);
+            }
+        }
+        return keys;
+    }
+
+    private static void add(Map<String, Set<String>> keys, String cacheName, Long id, Long academicYearId) {
+        if (id == null) return;
+        keys.computeIfAbsent(cacheName, k -> new LinkedHashSet<>()).add(TimetableCacheInvalidator.key(id, academicYearId));
+    }
+
+    // ---------------------------------------------------------------
+    // WARM-UP RUN
+    // ---------------------------------------------------------------
+
+    /**
+     * Load the given keys (cache name -> {@code {id}_{academicYearId}}) on the warm-up pool.
+     * Keys of caches outside {@link #WARMED_CACHES} are skipped. Completes when every key
+     * has been loaded or has failed.
+     */
+    public CompletableFuture<Void> warm(String trigger, Map<String, Set<String>> keys) {
+        List<String[]> work = new ArrayList<>();
+        for (String cacheName : WARMED_CACHES) {
+            for (String key : keys.getOrDefault(cacheName, Set.of())) {
+                work.add(new String[] { cacheName, key });
+            }
+        }
+        if (work.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        Run run = new Run(trigger, work.size());
+        runs.addFirst(run);
+        while (runs.size() > RUN_HISTORY) runs.pollLast();
+        logger.debug("[CACHE-WARMUP] {} warm-up of {} views started", trigger, work.size());
+
+        CompletableFuture<?>[] tasks = work.stream()
+            .map(w -> CompletableFuture.runAsync(() -> load(run, w[0], w[1]), pool))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(tasks).whenComplete((v, e) -> {
+            run.finishedAt = Instant.now();
+            logger.info("[CACHE-WARMUP] {} warm-up finished: {} of {} views cached, {} failed", trigger,
+                run.completed.get(), run.total, run.failed.get());
+        });
+    }
+
+    private void load(Run run, String cacheName, String key) {
+        try {
+            int sep = key.lastIndexOf('_');
+            Long id = Long.valueOf(key.substring(0, sep));
+            Long academicYearId = Long.valueOf(key.substring(sep + 1));
+            switch (cacheName) {
+                case TimetableCacheInvalidator.DIVISION -> timetableViews.division(id, academicYearId);
+                case TimetableCacheInvalidator.DEPARTMENT -> timetableViews.department(id, academicYearId);
+                case TimetableCacheInvalidator.TEACHER -> timetableViews.teacher(id, academicYearId);
+                case TimetableCacheInvalidator.ROOM -> timetableViews.room(id, academicYearId);
+                default -> throw new IllegalArgumentException("Not a warmed cache: " + cacheName);
+            }
+            run.completed.incrementAndGet();
+            warmedKeys.increment();
+        } catch (Exception e) {
+            // A failed key just loads on first read, as it would without warm-up
+            run.failed.incrementAndGet();
+            failedKeys.increment();
+            logger.warn("[CACHE-WARMUP] Could not warm {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Early-refresh loader: rebuilds a view from the DB, bypassing the cache — TieredCache
+     * stores the result.
+     */
+    Object reload(String cacheName, String key) {
+        int sep = key.lastIndexOf('_');
+        return timetableViews.load(cacheName, Long.valueOf(key.substring(0, sep)), Long.valueOf(key.substring(sep + 1)));
+    }
+
+    private static final class Run {
+        final String trigger;
+        final int total;
+        final Instant startedAt = Instant.now();
+        volatile Instant finishedAt;
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+
+        Run(String trigger, int total) {
+            this.trigger = trigger;
+            this.total = total;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // PROGRESS — exposed on /actuator/cachewarmup
+    // ---------------------------------------------------------------
+
+    public WarmupProgress progress() {
+        WarmupProgress progress = new WarmupProgress();
+        progress.setOnPublish(onPublish);
+        progress.setOnStartup(onStartup);
+        progress.setParallelism(parallelism);
+        progress.setQueuedKeys(pool.getQueue().size());
+        progress.setWarmedKeys(warmedKeys.sum());
+        progress.setFailedKeys(failedKeys.sum());
+        List<RunProgress> recent = new ArrayList<>();
+        for (Run run : runs) {
+            RunProgress r = new RunProgress();
+            r.setTrigger(run.trigger);
+            r.setState(run.finishedAt != null ? "DONE" : "RUNNING");
+            r.setStartedAt(run.startedAt);
+            r.setFinishedAt(run.finishedAt);
+            r.setTotal(run.total);
+            r.setCompleted(run.completed.get());
+            r.setFailed(run.failed.get());
+            r.setPercent(run.total == 0 ? 100 : (run.completed.get() + run.failed.get()) * 100 / run.total);
+            recent.add(r);
+        }
+        progress.setRuns(recent);
+        return progress;
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class WarmupProgress {
+        private boolean onPublish;
+        private boolean onStartup;
+        private int parallelism;
+        private int queuedKeys;
+        private long warmedKeys;
+        private long failedKeys;
+        /** Most recent first. */
+        private List<RunProgress> runs;
+    }
+
+    @lombok.Data
+    public static class RunProgress {
+        private String trigger;
+        private String state;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private int total;
+        private int completed;
+        private int failed;
+        private int percent;
+    }
+}
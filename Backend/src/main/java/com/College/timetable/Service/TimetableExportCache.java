@@ -0,0 +1,292 @@
+package com.College.timetable.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.College.timetable.Configuration.RedisConfig;
+import com.College.timetable.Entity.AcademicYear;
+import com.College.timetable.Entity.ClassRoom;
+import com.College.timetable.Entity.DepartmentEntity;
+import com.College.timetable.Entity.Division;
+import com.College.timetable.Entity.Semester;
+import com.College.timetable.Entity.TeacherEntity;
+import com.College.timetable.IO.TimetableView;
+import com.College.timetable.Repository.Division_repo;
+import com.College.timetable.Repository.Teacher_Repo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Content-addressed cache of generated PDF / Excel exports.
+ *
+ * A version token is a digest of everything an export renders: the cached TimetableView of
+ * the division, teacher, room or department (entries and their course, teacher, room, slot
+ * and batch fields), the subject's own row, the academic year and the time slot grid. Room,
+ * department, year and slot rows come from ReferenceDataRegistry, not a query per download. Any
+ * entry change or reference-data edit yields a new token, so a cached document is never
+ * stale and nothing has to evict it — old versions simply age out of Redis.
+ *
+ * The token doubles as the HTTP ETag of the download.
+ *
+ * Documents are streamed: a miss renders straight into the response and keeps a copy for
+ * the cache only while it stays under {@code app.export.cache.max-document-kb}, so heap per
+ * export is bounded by that limit however large the document is. Larger documents are
+ * rendered on every download.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TimetableExportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableExportCache.class);
+
+    public static final String CACHE = "timetableExports";
+
+    // Bump when the PDF / Excel layout code changes so old documents are not served
+    static final int LAYOUT_VERSION = 1;
+
+    public static final String DIVISION = "division";
+    public static final String TEACHER = "teacher";
+    public static final String ROOM = "room";
+    public static final String DEPARTMENT = "department";
+
+    private static final ObjectMapper VIEW_MAPPER = RedisConfig.timetableViewMapper();
+
+    private final CacheManager cacheManager;
+    private final TimetableViewService timetableViews;
+    private final Division_repo divisionRepo;
+    private final Teacher_Repo teacherRepo;
+    private final ReferenceDataRegistry referenceData;
+    private final int maxCachedBytes;
+
+    public TimetableExportCache(CacheManager cacheManager, TimetableViewService timetableViews,
+                                Division_repo divisionRepo, Teacher_Repo teacherRepo,
+                                ReferenceDataRegistry referenceData,
+                                @Value("${app.export.cache.max-document-kb:2048}") int maxCachedKb) {
+        this.cacheManager = cacheManager;
+        this.timetableViews = timetableViews;
+        this.divisionRepo = divisionRepo;
+        this.teacherRepo = teacherRepo;
+        this.referenceData = referenceData;
+        this.maxCachedBytes = maxCachedKb * 1024;
+    }
+
+    /** Renders a document into {@code out}, leaving the stream open. */
+    @FunctionalInterface
+    public interface DocumentWriter {
+        void write(OutputStream out) throws Exception;
+    }
+
+    // ---------------------------------------------------------------
+    // VERSION TOKENS
+    // ---------------------------------------------------------------
+
+    /**
+     * Quoted ETag for one export: {@code "type-id-year-semester-format-version"}.
+     * {@code semester} is null for the all-semester teacher export.
+     */
+    public String etag(String type, Long id, Long academicYearId, Semester semester, String format) {
+        return "\"" + type + "-" + id + "-" + academicYearId + "-" + (semester != null ? semester.name() : "ALL")
+            + "-" + format + "-" + version(type, id, academicYearId) + "\"";
+    }
+
+    /**
+     * Version token of a division, teacher, room or department timetable for one year.
+     * The semester is not part of it: the token covers every semester's entries.
+     */
+    public String version(String type, Long id, Long academicYearId) {
+        Fingerprint f = new Fingerprint();
+        f.add(LAYOUT_VERSION);
+        switch (type) {
+            case DIVISION -> {
+                f.add(view(timetableViews.division(id, academicYearId)));
+                divisionRepo.findById(id).ifPresent(d -> addDivision(f, d));
+            }
+            case TEACHER -> {
+                f.add(view(timetableViews.teacher(id, academicYearId)));
+                teacherRepo.findById(id).ifPresent(t -> addTeacher(f, t));
+            }
+            case ROOM -> {
+                f.add(view(timetableViews.room(id, academicYearId)));
+                referenceData.room(id).ifPresent(r -> addRoom(f, r));
+            }
+            case DEPARTMENT -> {
+                f.add(view(timetableViews.department(id, academicYearId)));
+                referenceData.department(id).ifPresent(d -> addDepartment(f, d));
+                // Every division gets a page, including ones with no entries yet
+                divisionRepo.findByDepartmentId(id).stream()
+                    .sorted(Comparator.comparing(Division::getId))
+                    .forEach(d -> addDivision(f, d));
+            }
+            default -> throw new IllegalArgumentException("Unknown export type: " + type);
+        }
+        referenceData.academicYear(academicYearId).ifPresent(y -> addYear(f, y));
+        referenceData.allSlots().forEach(s -> f.add(s.getId(), s.getSlotName(), s.getStartTime(), s.getEndTime(),
+            s.getDurationMinutes(), s.getIsBreak(), s.getIsActive(), s.getType()));
+        return f.hex();
+    }
+
+    private static byte[] view(TimetableView view) {
+        try {
+            return VIEW_MAPPER.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize timetable view", e);
+        }
+    }
+
+    private static void addDivision(Fingerprint f, Division d) {
+        f.add(d.getId(), d.getName(), d.getYear(), d.getBranch(), d.getTimeSlotType(), d.getClassTeacher(),
+            d.getClassRepresentative(), d.getTotalStudents(), d.getIsActive());
+        if (d.getDepartment() != null) addDepartment(f, d.getDepartment());
+    }
+
+    private static void addTeacher(Fingerprint f, TeacherEntity t) {
+        f.add(t.getId(), t.getName(), t.getShortName(), t.getEmployeeId(), t.getEmail(), t.getSpecialization());
+        if (t.getDepartment() != null) addDepartment(f, t.getDepartment());
+    }
+
+    private static void addRoom(Fingerprint f, ClassRoom r) {
+        f.add(r.getId(), r.getName(), r.getRoomNumber(), r.getBuildingWing(), r.getCapacity(), r.getRoomType());
+        if (r.getDepartment() != null) addDepartment(f, r.getDepartment());
+    }
+
+    private static void addDepartment(Fingerprint f, DepartmentEntity d) {
+        f.add(d.getId(), d.getName(), d.getCode(), d.getHeadOfDepartment());
+    }
+
+    private static void addYear(Fingerprint f, AcademicYear y) {
+        f.add(y.getId(), y.getYearName(), y.getStartDate(), y.getEndDate());
+    }
+
+    /** SHA-256 over a sequence of values, truncated to 16 hex characters. */
+    private static final class Fingerprint {
+        private final MessageDigest digest;
+
+        Fingerprint() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void add(Object... values) {
+            for (Object v : values) {
+                digest.update(String.valueOf(v).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+
+        void add(byte[] bytes) {
+            digest.update(bytes);
+            digest.update((byte) 0);
+        }
+
+        String hex() {
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // DOCUMENT CACHE
+    // ---------------------------------------------------------------
+
+    /**
+     * Write the document stored under this ETag to {@code out}; on a miss, render it into
+     * {@code out} directly and cache it if it is small enough. The stream is left open.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void writeTo(String etag, OutputStream out, DocumentWriter writer) throws Exception {
+        Cache cache = cacheManager.getCache(CACHE);
+        byte[] cached = cache != null ? cache.get(etag, byte[].class) : null;
+        if (cached != null) {
+            logger.debug("[EXPORT-CACHE] Hit {}", etag);
+            out.write(cached);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        CopyingOutputStream copying = new CopyingOutputStream(out, cache != null ? maxCachedBytes : 0);
+        writer.write(copying);
+        copying.flush();
+        byte[] document = copying.captured();
+        if (document != null) cache.put(etag, document);
+        logger.debug("[EXPORT-CACHE] Generated {} ({} bytes{}) in {} ms", etag, copying.written(),
+            document != null ? "" : ", not cached", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Passes everything through to the response and keeps a copy for the cache until the
+     * document grows past {@code limit}. Closing it does not close the response.
+     */
+    private static final class CopyingOutputStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy;
+        private long written;
+
+        CopyingOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+            this.copy = limit > 0 ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written++;
+            if (keep(1)) copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written += len;
+            if (keep(len)) copy.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private boolean keep(int len) {
+            if (copy != null && copy.size() + len > limit) copy = null;
+            return copy != null;
+        }
+
+        byte[] captured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        long written() {
+            return written;
+        }
+    }
+
+    /**
+     * True when an If-None-Match header names this ETag (or is "*"). Weak validators match too.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+}
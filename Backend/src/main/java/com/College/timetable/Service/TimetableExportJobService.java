@@ -0,0 +1,431 @@
+package com.College.timetable.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Render budget and job queue of the PDF / Excel exports.
+ *
+ * At most app.export.jobs.parallelism documents render at once, whether inline in a download
+ * or as a queued job, so a burst of department exports cannot take every thread and DB
+ * connection from the rest of the API. A download renders inline only when a render slot is
+ * free and no job is waiting for one; anything else becomes a job on the bounded queue
+ * (app.export.jobs.queue-capacity) and, once that is full, is rejected with 503 until it drains.
+ *
+ * A job renders through TimetableExportCache into a file in the export store. Its submitter
+ * polls it by id and downloads the file until app.export.jobs.retention-minutes after it
+ * finished. Queue depth, active renders and outcomes are on /actuator/metrics (export.jobs.*).
+ */
+@Service
+public class TimetableExportJobService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableExportJobService.class);
+
+    public static final String POLL_URL = "/api/timetable/export/jobs/%s";
+    public static final String DOWNLOAD_URL = POLL_URL + "/download";
+
+    private final TimetableExportCache exportCache;
+    private final Path store;
+    private final int parallelism;
+    private final int queueCapacity;
+    private final Duration retention;
+    private final ThreadPoolExecutor pool;
+
+    // Every render holds one of these — the pool's workers and inline downloads alike
+    private final Semaphore renderSlots;
+    // Jobs submitted and not yet rendering; inline downloads never overtake them
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final LongAdder inline = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile Timer queueWait;
+    private volatile Timer renderTime;
+
+    public TimetableExportJobService(TimetableExportCache exportCache,
+                                     @Value("${app.export.bulk.store-dir:${java.io.tmpdir}/samaysetu-exports}") String storeDir,
+                                     @Value("${app.export.jobs.parallelism:2}") int parallelism,
+                                     @Value("${app.export.jobs.queue-capacity:20}") int queueCapacity,
+                                     @Value("${app.export.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.exportCache = exportCache;
+        this.store = Paths.get(storeDir).toAbsolutePath().resolve("jobs");
+        this.parallelism = Math.max(1, parallelism);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        try {
+            Files.createDirectories(store);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the export job store " + store, e);
+        }
+        this.renderSlots = new Semaphore(this.parallelism, true);
+        AtomicInteger threadId = new AtomicInteger();
+        ThreadFactory threads = r -> {
+            Thread t = new Thread(r, "export-render-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.pool = new ThreadPoolExecutor(this.parallelism, this.parallelism, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(this.queueCapacity), threads, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+        // Queued jobs will never run — release anyone waiting for them
+        for (Job job : jobs.values()) {
+            if (job.finishedAt == null) job.finish("FAILED", null, 0, "server shutting down");
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // INLINE RENDERS
+    // ---------------------------------------------------------------
+
+    /**
+     * Take a render slot for an inline download if one is free and no job is waiting for it.
+     * A {@code true} must be paired with {@link #releaseInline()} once the document is written.
+     */
+    public boolean tryRenderInline() {
+        if (waiting.get() > 0 || !renderSlots.tryAcquire()) return false;
+        inline.increment();
+        return true;
+    }
+
+    public void releaseInline() {
+        renderSlots.release();
+    }
+
+    /**
+     * Whether a download would render inline right now. Takes no slot — the controller decides
+     * between an inline and a queued response with it, and the slot itself is only taken by
+     * {@link #renderInline} once the response body runs.
+     */
+    public boolean canRenderInline() {
+        return waiting.get() == 0 && renderSlots.availablePermits() > 0;
+    }
+
+    /**
+     * Body of an inline download: render into {@code out} if a slot is free now, otherwise wait
+     * for the document as a job. The slot is taken and released in here, so a response body
+     * that never runs (client gone before the async dispatch, async timeout) holds none.
+     */
+    public void renderInline(String etag, String filename, String contentType,
+                             TimetableExportCache.DocumentWriter writer, OutputStream out) throws IOException {
+        if (!tryRenderInline()) {
+            // Lost the slot to another download since canRenderInline — too late for a 503
+            awaitAndCopy(submit(etag, filename, contentType, writer), out);
+            return;
+        }
+        try {
+            exportCache.writeTo(etag, out, writer);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("[EXPORT] Error generating export {}", filename, e);
+            throw new IOException("Error generating export " + filename, e);
+        } finally {
+            releaseInline();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // JOBS
+    // ---------------------------------------------------------------
+
+    /**
+     * Queue a render. Throws RejectedExecutionException when app.export.jobs.queue-capacity
+     * jobs are already waiting.
+     */
+    public Job submit(String etag, String filename, String contentType, TimetableExportCache.DocumentWriter writer) {
+        Job job = new Job(UUID.randomUUID().toString(), filename, contentType, currentUser());
+        jobs.put(job.id, job);
+        waiting.incrementAndGet();
+        try {
+            pool.execute(() -> run(job, etag, writer));
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            jobs.remove(job.id);
+            rejected.increment();
+            logger.warn("[EXPORT-JOBS] Queue full ({} waiting) — rejected {}", queueCapacity, filename);
+            throw new RejectedExecutionException("Too many exports are being generated — try again shortly");
+        }
+        queued.increment();
+        logger.debug("[EXPORT-JOBS] Job {} queued: {}", job.id, filename);
+        return job;
+    }
+
+    /** A job of the current user; other users' job ids are not found. */
+    public Optional<Job> job(String jobId) {
+        // Job ids name files in the store — never let anything but a UUID near a path
+        Job job = jobs.get(UUID.fromString(jobId).toString());
+        return job != null && Objects.equals(job.owner, currentUser()) ? Optional.of(job) : Optional.empty();
+    }
+
+    /** Write a finished job's document to {@code out}. */
+    public void copy(Job job, OutputStream out) throws IOException {
+        if (!"DONE".equals(job.state)) throw new IOException("Export " + job.id + " is " + job.state);
+        Files.copy(job.file, out);
+    }
+
+    /**
+     * For a download that could not render inline: wait for its job, stream the document and
+     * drop the job — nobody else knows its id.
+     */
+    public void awaitAndCopy(Job job, OutputStream out) throws IOException {
+        try {
+            job.completion.join();
+            if (!"DONE".equals(job.state)) throw new IOException("Error generating export " + job.filename + ": " + job.error);
+            copy(job, out);
+        } finally {
+            discard(job);
+        }
+    }
+
+    private void run(Job job, String etag, TimetableExportCache.DocumentWriter writer) {
+        try {
+            renderSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            waiting.decrementAndGet();
+            job.finish("FAILED", null, 0, "interrupted");
+            return;
+        }
+        waiting.decrementAndGet();
+        job.startedAt = Instant.now();
+        job.state = "RUNNING";
+        record(queueWait, Duration.between(job.submittedAt, job.startedAt).toNanos());
+        long start = System.nanoTime();
+        Path file = store.resolve(job.id + extension(job.filename));
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                exportCache.writeTo(etag, out, writer);
+            }
+            job.finish("DONE", file, Files.size(file), null);
+            succeeded.increment();
+            logger.debug("[EXPORT-JOBS] Job {} rendered {} ({} bytes)", job.id, job.filename, job.sizeBytes);
+        } catch (Exception e) {
+            delete(file);
+            job.finish("FAILED", null, 0, e.getMessage());
+            failed.increment();
+            logger.error("[EXPORT-JOBS] Job {} could not render {}: {}", job.id, job.filename, e.getMessage());
+        } finally {
+            renderSlots.release();
+            record(renderTime, System.nanoTime() - start);
+        }
+    }
+
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot >= 0 ? filename.substring(dot) : "";
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : null;
+    }
+
+    private void discard(Job job) {
+        jobs.remove(job.id);
+        delete(job.file);
+    }
+
+    // ---------------------------------------------------------------
+    // FILE STORE CLEAN-UP
+    // ---------------------------------------------------------------
+
+    /** Drop finished jobs older than the retention, and any file no job refers to any more. */
+    @Scheduled(fixedDelayString = "${app.export.jobs.cleanup-interval-ms:300000}",
+               initialDelayString = "${app.export.jobs.cleanup-interval-ms:300000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(retention);
+        for (Job job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.isBefore(cutoff)) discard(job);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(store)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.length() >= 36 && jobs.containsKey(name.substring(0, 36))) continue;
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) delete(file);
+            }
+        } catch (IOException e) {
+            logger.warn("[EXPORT-JOBS] Could not clean up {}: {}", store, e.getMessage());
+        }
+    }
+
+    private static void delete(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("[EXPORT-JOBS] Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // METRICS — /actuator/metrics
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("export.jobs.queued", waiting, AtomicInteger::get)
+            .description("Export jobs waiting for a render slot").register(registry);
+        Gauge.builder("export.jobs.queue.capacity", this, s -> s.queueCapacity)
+            .description("Export jobs that may wait before new ones are rejected").register(registry);
+        Gauge.builder("export.jobs.active", renderSlots, s -> parallelism - s.availablePermits())
+            .description("Documents rendering now, inline or as jobs").register(registry);
+        requests(registry, "inline", inline);
+        requests(registry, "queued", queued);
+        requests(registry, "rejected", rejected);
+        FunctionCounter.builder("export.jobs.finished", succeeded, LongAdder::sum)
+            .tag("result", "success").description("Export jobs that finished").register(registry);
+        FunctionCounter.builder("export.jobs.finished", failed, LongAdder::sum)
+            .tag("result", "failure").description("Export jobs that finished").register(registry);
+        queueWait = Timer.builder("export.jobs.wait")
+            .description("Time an export job waited for a render slot").register(registry);
+        renderTime = Timer.builder("export.jobs.render")
+            .description("Time to render a queued export").register(registry);
+    }
+
+    private static void requests(MeterRegistry registry, String mode, LongAdder count) {
+        FunctionCounter.builder("export.jobs.requests", count, LongAdder::sum)
+            .tag("mode", mode)
+            .description("Exports rendered inline, queued as a job, or rejected because the queue was full")
+            .register(registry);
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ---------------------------------------------------------------
+    // JOB STATE
+    // ---------------------------------------------------------------
+
+    public static final class Job {
+        final String id;
+        final String filename;
+        final String contentType;
+        final String owner;
+        final Instant submittedAt = Instant.now();
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile String state = "QUEUED";
+        volatile Path file;
+        volatile long sizeBytes;
+        volatile String error;
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        Job(String id, String filename, String contentType, String owner) {
+            this.id = id;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.owner = owner;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public String filename() {
+            return filename;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public boolean isDone() {
+            return "DONE".equals(state);
+        }
+
+        /** Completes once the document is written or the render has failed. */
+        public CompletableFuture<Void> completion() {
+            return completion;
+        }
+
+        void finish(String state, Path file, long sizeBytes, String error) {
+            this.file = file;
+            this.sizeBytes = sizeBytes;
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+            completion.complete(null);
+        }
+
+        public ExportJobProgress progress() {
+            ExportJobProgress p = new ExportJobProgress();
+            p.setJobId(id);
+            p.setState(state);
+            p.setFilename(filename);
+            p.setSubmittedAt(submittedAt);
+            p.setStartedAt(startedAt);
+            p.setFinishedAt(finishedAt);
+            p.setSizeBytes(sizeBytes);
+            p.setError(error);
+            p.setPollUrl(String.format(POLL_URL, id));
+            if (isDone()) p.setDownloadUrl(String.format(DOWNLOAD_URL, id));
+            return p;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class ExportJobProgress {
+        private String jobId;
+        /** QUEUED, RUNNING, DONE or FAILED. */
+        private String state;
+        private String filename;
+        private Instant submittedAt;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private long sizeBytes;
+        private String error;
+        private String pollUrl;
+        /** Set once the document is ready. */
+        private String downloadUrl;
+    }
+}
@@ -5,6 +5,8 @@ import com.College.timetable.IO.TimetableEntryDTO;
 import com.College.timetable.IO.TimetableExportDTO;
 import com.College.timetable.IO.TimeSlotDTO;
 import com.College.timetable.Repository.*;
+import com.College.timetable.Service.ExportPalette.Excel;
+import com.College.timetable.Service.ExportPalette.Pdf;
 import com.lowagie.text.Document;
 import com.lowagie.text.Element;
 import com.lowagie.text.Font;
@@ -18,34 +20,51 @@ import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.College.timetable.Service.ExportPalette.BORDER;
+
+/**
+ * PDF / Excel timetable documents. Every write* method renders into the given stream as it
+ * goes and leaves it open — the export endpoints pass the HTTP response stream.
+ */
 @Service
 @RequiredArgsConstructor
 public class TimetableExportService {
 
     private final TimetableService timetableService;
-    private final TimeSlot_repo timeSlotRepo;
     private final Division_repo divisionRepo;
     private final Teacher_Repo teacherRepo;
-    private final AcademicYearRepository academicYearRepo;
     private final TimetableEntry_repo timetableEntryRepo;
-    private final Room_repo roomRepo;
+    private final ReferenceDataRegistry referenceData;
+
+    @Value("${app.export.excel.streaming:true}")
+    private boolean streamingExcel;
+
+    @Value("${app.export.excel.row-window:100}")
+    private int excelRowWindow;
 
     private static final String[] DAY_NAMES = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"};
     private static final String[] DAY_LABELS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
@@ -81,7 +100,7 @@ public class TimetableExportService {
         System.out.println("DEBUG: Found professor: " + professor.getName());
         
         // Fetch academic year entity
-        AcademicYear academicYear = academicYearRepo.findById(academicYearId)
+        AcademicYear academicYear = referenceData.academicYear(academicYearId)
             .orElseThrow(() -> new RuntimeException("Academic year not found with id: " + academicYearId));
         
         System.out.println("DEBUG: Found academic year: " + academicYear.getYearName());
@@ -106,11 +125,7 @@ public class TimetableExportService {
         
         // Get all active time slots (use TYPE_1 as default for professor view)
         System.out.println("DEBUG: Fetching time slots...");
-        List<TimeSlot> timeSlots = timeSlotRepo.findAll().stream()
-            .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
-            .filter(s -> "TYPE_1".equals(s.getType()))
-            .sorted(Comparator.comparing(TimeSlot::getStartTime))
-            .collect(Collectors.toList());
+        List<TimeSlot> timeSlots = referenceData.activeSlots("TYPE_1");
         
         System.out.println("DEBUG: Found " + timeSlots.size() + " time slots");
         
@@ -198,11 +213,11 @@ public class TimetableExportService {
      */
     public TimetableExportDTO getRoomTimetable(Long roomId, Long academicYearId, Semester semester) {
         // Fetch room entity
-        ClassRoom room = roomRepo.findById(roomId)
+        ClassRoom room = referenceData.room(roomId)
             .orElseThrow(() -> new RuntimeException("Room not found with id: " + roomId));
         
         // Fetch academic year entity
-        AcademicYear academicYear = academicYearRepo.findById(academicYearId)
+        AcademicYear academicYear = referenceData.academicYear(academicYearId)
             .orElseThrow(() -> new RuntimeException("Academic year not found with id: " + academicYearId));
         
         // Query entries (DRAFT and PUBLISHED) for room using custom repository method
@@ -218,11 +233,7 @@ public class TimetableExportService {
             .collect(Collectors.toList());
         
         // Get all active time slots (use TYPE_1 as default for room view)
-        List<TimeSlot> timeSlots = timeSlotRepo.findAll().stream()
-            .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
-            .filter(s -> "TYPE_1".equals(s.getType()))
-            .sorted(Comparator.comparing(TimeSlot::getStartTime))
-            .collect(Collectors.toList());
+        List<TimeSlot> timeSlots = referenceData.activeSlots("TYPE_1");
         
         // Map time slots to DTOs
         List<TimeSlotDTO> timeSlotDTOs = timeSlots.stream()
@@ -371,22 +382,18 @@ public class TimetableExportService {
      * Generate PDF for professor timetable in institutional format (landscape)
      * Follows the exact format: header with institution details, teaching load, time slots as columns, days as rows
      */
-    public byte[] generateProfessorPDF(Long professorId, Long academicYearId, Semester semester) throws Exception {
+    public void writeProfessorPDF(Long professorId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
         // Fetch data
         TeacherEntity professor = teacherRepo.findById(professorId)
             .orElseThrow(() -> new RuntimeException("Professor not found"));
-        AcademicYear academicYear = academicYearRepo.findById(academicYearId)
+        AcademicYear academicYear = referenceData.academicYear(academicYearId)
             .orElseThrow(() -> new RuntimeException("Academic year not found"));
         List<TimetableEntry> entries = timetableEntryRepo.findPublishedByProfessorAndSemester(
             professorId, academicYearId, semester
         );
         
         // Get time slots
-        List<TimeSlot> slots = timeSlotRepo.findAll().stream()
-            .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
-            .filter(s -> "TYPE_1".equals(s.getType()))
-            .sorted(Comparator.comparing(TimeSlot::getStartTime))
-            .collect(Collectors.toList());
+        List<TimeSlot> slots = referenceData.activeSlots("TYPE_1");
         
         // Calculate teaching load
         long thCount = entries.stream().filter(e -> e.getCourse() != null && e.getCourse().getCourseType() == CourseType.THEORY).count();
@@ -403,9 +410,8 @@ public class TimetableExportService {
         }
         
         // Create PDF
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document doc = new Document(PageSize.A4.rotate(), 15, 15, 15, 15);
-        PdfWriter.getInstance(doc, out);
+        PdfWriter.getInstance(doc, out).setCloseStream(false);
         doc.open();
         
         // Fonts
@@ -623,29 +629,24 @@ public class TimetableExportService {
         doc.add(footerTable);
         
         doc.close();
-        return out.toByteArray();
     }
 
     /**
      * Generate Excel for professor timetable in institutional format
      * Follows the same layout as PDF with proper cell merging and formatting
      */
-    public byte[] generateProfessorExcel(Long professorId, Long academicYearId, Semester semester) throws Exception {
+    public void writeProfessorExcel(Long professorId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
         // Fetch data
         TeacherEntity professor = teacherRepo.findById(professorId)
             .orElseThrow(() -> new RuntimeException("Professor not found"));
-        AcademicYear academicYear = academicYearRepo.findById(academicYearId)
+        AcademicYear academicYear = referenceData.academicYear(academicYearId)
             .orElseThrow(() -> new RuntimeException("Academic year not found"));
         List<TimetableEntry> entries = timetableEntryRepo.findPublishedByProfessorAndSemester(
             professorId, academicYearId, semester
         );
         
         // Get time slots
-        List<TimeSlot> slots = timeSlotRepo.findAll().stream()
-            .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
-            .filter(s -> "TYPE_1".equals(s.getType()))
-            .sorted(Comparator.comparing(TimeSlot::getStartTime))
-            .collect(Collectors.toList());
+        List<TimeSlot> slots = referenceData.activeSlots("TYPE_1");
         
         // Calculate teaching load
         long thCount = entries.stream().filter(e -> e.getCourse() != null && e.getCourse().getCourseType() == CourseType.THEORY).count();
@@ -895,27 +896,25 @@ public class TimetableExportService {
             sheet.setColumnWidth(i, 3500);
         }
         
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         wb.write(out);
         wb.close();
-        return out.toByteArray();
     }
 
     /**
      * Generate PDF for room timetable (Official MITAOE Institutional Format)
      * Shows all classes scheduled in the room across all divisions
      */
-    public byte[] generateRoomPDF(Long roomId, Long academicYearId, Semester semester) throws Exception {
-        ClassRoom room = roomRepo.findById(roomId)
+    public void writeRoomPDF(Long roomId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
+        ClassRoom room = referenceData.room(roomId)
             .orElseThrow(() -> new RuntimeException("Room not found"));
-        AcademicYear academicYear = academicYearRepo.findById(academicYearId)
+        AcademicYear academicYear = referenceData.academicYear(academicYearId)
             .orElseThrow(() -> new RuntimeException("Academic year not found"));
         List<TimetableEntry> entries = timetableEntryRepo.findPublishedByRoomAndSemester(roomId, academicYearId, semester);
         List<TimeSlot> allSlots = getSortedSlotsForEntries(entries);
-        Map<String, List<TimetableEntry>> multiLookup = buildMultiLookup(entries);
+        TimetableGrid layout = TimetableGrid.of(allSlots, entries);
 
         // Stats
-        long teachingSlotCount = allSlots.stream().filter(s -> !Boolean.TRUE.equals(s.getIsBreak())).count();
+        long teachingSlotCount = layout.teachingSlots().size();
         long totalCapacity = teachingSlotCount * 6;
         long occupiedSlots = entries.stream()
             .map(e -> e.getDayOfWeek().name() + ":" + e.getTimeSlot().getId()).distinct().count();
@@ -937,27 +936,10 @@ public class TimetableExportService {
             ? "DEPARTMENT OF " + room.getDepartment().getName().toUpperCase()
             : "DEPARTMENT OF COMPUTER ENGINEERING";
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document doc = new Document(PageSize.A4.rotate(), 10, 10, 8, 8);
-        PdfWriter.getInstance(doc, out);
+        PdfWriter.getInstance(doc, out).setCloseStream(false);
         doc.open();
 
-        // Fonts
-        Font titleFont = new Font(Font.HELVETICA, 11, Font.BOLD, Color.BLACK);
-        Font metaLabelFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font metaValueFont = new Font(Font.HELVETICA, 7, Font.NORMAL, Color.BLACK);
-        Font smallFont = new Font(Font.HELVETICA, 6, Font.NORMAL, Color.DARK_GRAY);
-        Font deptFontS = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font roomNameFont = new Font(Font.HELVETICA, 9, Font.BOLD, Color.BLACK);
-        Color headerBgColor = new Color(214, 228, 240);
-        Font gridHeaderFont = new Font(Font.HELVETICA, 6, Font.BOLD, new Color(27, 42, 78));
-        Font dayFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font cellCourseFont = new Font(Font.HELVETICA, 6.5f, Font.BOLD, Color.BLACK);
-        Font cellDetailFont = new Font(Font.HELVETICA, 6, Font.NORMAL, Color.BLACK);
-        Font breakVertFont = new Font(Font.HELVETICA, 6, Font.BOLD, Color.GRAY);
-        Font sigFont = new Font(Font.HELVETICA, 7, Font.NORMAL, Color.BLACK);
-        float bw = 0.5f;
-
         // ── HEADER TABLE ──
         PdfPTable ht = new PdfPTable(3);
         ht.setWidthPercentage(100);
@@ -965,261 +947,126 @@ public class TimetableExportService {
 
         // R1: Logo | Title | Room Label
         PdfPCell logoCell = new PdfPCell();
-        logoCell.setBorderWidth(bw); logoCell.setPadding(3);
+        logoCell.setBorderWidth(BORDER); logoCell.setPadding(3);
         logoCell.setVerticalAlignment(Element.ALIGN_MIDDLE); logoCell.setRowspan(2);
         try {
             Image logo = Image.getInstance(getClass().getResource("/static/mitaoe_logo.png"));
             logo.scaleToFit(120, 28);
             Paragraph lp = new Paragraph();
             lp.add(new Chunk(logo, 0, 0, true));
-            lp.add(new Chunk("  Alandi (D), Pune - 412 105", smallFont));
+            lp.add(new Chunk("  Alandi (D), Pune - 412 105", Pdf.SMALL));
             logoCell.addElement(lp);
         } catch (Exception e) {
-            logoCell.setPhrase(new Phrase("MIT Academy of Engineering, Alandi (D), Pune - 412 105", metaLabelFont));
+            logoCell.setPhrase(new Phrase("MIT Academy of Engineering, Alandi (D), Pune - 412 105", Pdf.META_LABEL));
         }
         ht.addCell(logoCell);
 
         String ttl = "LAB".equals(roomType) ? "LABORATORY WISE TIME TABLE" : "ROOM WISE TIME TABLE";
-        PdfPCell tc = new PdfPCell(new Phrase(ttl, titleFont));
-        tc.setBorderWidth(bw); tc.setPadding(3);
+        PdfPCell tc = new PdfPCell(new Phrase(ttl, Pdf.TITLE));
+        tc.setBorderWidth(BORDER); tc.setPadding(3);
         tc.setHorizontalAlignment(Element.ALIGN_CENTER);
         tc.setVerticalAlignment(Element.ALIGN_MIDDLE); tc.setRowspan(2);
         ht.addCell(tc);
 
-        PdfPCell rl = new PdfPCell(new Phrase("ROOM / LAB NAME", metaLabelFont));
-        rl.setBorderWidth(bw); rl.setPadding(3);
+        PdfPCell rl = new PdfPCell(new Phrase("ROOM / LAB NAME", Pdf.META_LABEL));
+        rl.setBorderWidth(BORDER); rl.setPadding(3);
         rl.setHorizontalAlignment(Element.ALIGN_CENTER);
         rl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         ht.addCell(rl);
 
         // R2: ... | ... | Room Name Value
-        PdfPCell rv = new PdfPCell(new Phrase(roomName + " (" + roomNumber + ")", roomNameFont));
-        rv.setBorderWidth(bw); rv.setPadding(3);
+        PdfPCell rv = new PdfPCell(new Phrase(roomName + " (" + roomNumber + ")", Pdf.NAME));
+        rv.setBorderWidth(BORDER); rv.setPadding(3);
         rv.setHorizontalAlignment(Element.ALIGN_CENTER);
         rv.setVerticalAlignment(Element.ALIGN_MIDDLE);
         ht.addCell(rv);
 
         // R3: Dept | Academic Year | Room Details (rowspan 3)
-        PdfPCell dc = new PdfPCell(new Phrase(deptName, deptFontS));
-        dc.setBorderWidth(bw); dc.setPadding(3);
+        PdfPCell dc = new PdfPCell(new Phrase(deptName, Pdf.META_LABEL));
+        dc.setBorderWidth(BORDER); dc.setPadding(3);
         dc.setHorizontalAlignment(Element.ALIGN_CENTER);
         dc.setVerticalAlignment(Element.ALIGN_MIDDLE);
         ht.addCell(dc);
 
         PdfPCell ac = new PdfPCell();
-        ac.setBorderWidth(bw); ac.setPadding(3);
+        ac.setBorderWidth(BORDER); ac.setPadding(3);
         ac.setVerticalAlignment(Element.ALIGN_MIDDLE);
         Paragraph ap = new Paragraph();
-        ap.add(new Chunk("ACADEMIC YEAR : ", metaLabelFont));
-        ap.add(new Chunk(yearName, metaValueFont));
+        ap.add(new Chunk("ACADEMIC YEAR : ", Pdf.META_LABEL));
+        ap.add(new Chunk(yearName, Pdf.META_VALUE));
         ac.addElement(ap);
         ht.addCell(ac);
 
         PdfPCell dtl = new PdfPCell();
-        dtl.setBorderWidth(bw); dtl.setPadding(3);
+        dtl.setBorderWidth(BORDER); dtl.setPadding(3);
         dtl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         dtl.setRowspan(3); dtl.setHorizontalAlignment(Element.ALIGN_CENTER);
         Paragraph dp = new Paragraph();
         dp.setAlignment(Element.ALIGN_CENTER);
-        dp.add(new Chunk("ROOM DETAILS\n", metaLabelFont));
-        dp.add(new Chunk("Building : " + bldgWing + "\n", metaValueFont));
-        dp.add(new Chunk("Capacity : " + cap + "\n", metaValueFont));
-        dp.add(new Chunk("Type : " + roomType + "\n", metaValueFont));
-        dp.add(new Chunk("Utilization : " + utilization + "%", new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK)));
+        dp.add(new Chunk("ROOM DETAILS\n", Pdf.META_LABEL));
+        dp.add(new Chunk("Building : " + bldgWing + "\n", Pdf.META_VALUE));
+        dp.add(new Chunk("Capacity : " + cap + "\n", Pdf.META_VALUE));
+        dp.add(new Chunk("Type : " + roomType + "\n", Pdf.META_VALUE));
+        dp.add(new Chunk("Utilization : " + utilization + "%", Pdf.META_LABEL));
         dtl.addElement(dp);
         ht.addCell(dtl);
 
         // R4: empty | Semester | (cont)
-        PdfPCell e4 = new PdfPCell(new Phrase("", metaValueFont));
-        e4.setBorderWidth(bw); e4.setPadding(3); ht.addCell(e4);
+        PdfPCell e4 = new PdfPCell(new Phrase("", Pdf.META_VALUE));
+        e4.setBorderWidth(BORDER); e4.setPadding(3); ht.addCell(e4);
         PdfPCell sc = new PdfPCell();
-        sc.setBorderWidth(bw); sc.setPadding(3); sc.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        sc.setBorderWidth(BORDER); sc.setPadding(3); sc.setVerticalAlignment(Element.ALIGN_MIDDLE);
         Paragraph sp = new Paragraph();
-        sp.add(new Chunk("SEMESTER : ", metaLabelFont));
-        sp.add(new Chunk(semesterDisplay, metaValueFont));
+        sp.add(new Chunk("SEMESTER : ", Pdf.META_LABEL));
+        sp.add(new Chunk(semesterDisplay, Pdf.META_VALUE));
         sc.addElement(sp);
         ht.addCell(sc);
 
         // R5: empty | WEF | (cont)
-        PdfPCell e5 = new PdfPCell(new Phrase("", metaValueFont));
-        e5.setBorderWidth(bw); e5.setPadding(3); ht.addCell(e5);
+        PdfPCell e5 = new PdfPCell(new Phrase("", Pdf.META_VALUE));
+        e5.setBorderWidth(BORDER); e5.setPadding(3); ht.addCell(e5);
         PdfPCell wc = new PdfPCell();
-        wc.setBorderWidth(bw); wc.setPadding(3); wc.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        wc.setBorderWidth(BORDER); wc.setPadding(3); wc.setVerticalAlignment(Element.ALIGN_MIDDLE);
         Paragraph wp = new Paragraph();
-        wp.add(new Chunk("W.E.F : ", metaLabelFont));
-        wp.add(new Chunk(LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")), metaValueFont));
+        wp.add(new Chunk("W.E.F : ", Pdf.META_LABEL));
+        wp.add(new Chunk(LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")), Pdf.META_VALUE));
         wc.addElement(wp);
         ht.addCell(wc);
 
         doc.add(ht);
-        doc.add(new Paragraph(" ", new Font(Font.HELVETICA, 2)));
+        doc.add(new Paragraph(" ", Pdf.GAP_2));
 
         // ── TIMETABLE GRID ──
-        int totalCols = 1 + allSlots.size();
-        PdfPTable grid = new PdfPTable(totalCols);
-        grid.setWidthPercentage(100);
-        float[] cw = new float[totalCols];
-        cw[0] = 7f;
-        float sw = 93f / allSlots.size();
-        for (int i = 1; i < totalCols; i++)
-            cw[i] = Boolean.TRUE.equals(allSlots.get(i-1).getIsBreak()) ? sw * 0.5f : sw;
-        grid.setWidths(cw);
-
-        // Header Row 1
-        PdfPCell th = new PdfPCell(new Phrase("Time", gridHeaderFont));
-        th.setBackgroundColor(headerBgColor); th.setBorderWidth(0.5f);
-        th.setHorizontalAlignment(Element.ALIGN_CENTER);
-        th.setVerticalAlignment(Element.ALIGN_MIDDLE);
-        th.setPadding(2); th.setRowspan(2);
-        grid.addCell(th);
-
-        for (int i = 0; i < allSlots.size(); i++) {
-            TimeSlot slot = allSlots.get(i);
-            if (Boolean.TRUE.equals(slot.getIsBreak())) {
-                PdfPCell bh = new PdfPCell();
-                bh.setBackgroundColor(new Color(240,240,240)); bh.setBorderWidth(0.5f);
-                bh.setHorizontalAlignment(Element.ALIGN_CENTER);
-                bh.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                bh.setPadding(1); bh.setRowspan(2 + DAY_NAMES.length);
-                String bn = slot.getSlotName() != null ? slot.getSlotName() : "BREAK";
-                StringBuilder vt = new StringBuilder();
-                for (char c : bn.toCharArray()) vt.append(c).append("\n");
-                bh.setPhrase(new Phrase(vt.toString().trim(), breakVertFont));
-                grid.addCell(bh);
-            } else {
-                PdfPCell sh = new PdfPCell(new Phrase(formatTime(slot), gridHeaderFont));
-                sh.setBackgroundColor(headerBgColor); sh.setBorderWidth(0.5f);
-                sh.setHorizontalAlignment(Element.ALIGN_CENTER);
-                sh.setVerticalAlignment(Element.ALIGN_MIDDLE); sh.setPadding(2);
-                grid.addCell(sh);
-            }
-        }
-
-        // Header Row 2: period numbers
-        int pn = 1;
-        for (int i = 0; i < allSlots.size(); i++) {
-            if (Boolean.TRUE.equals(allSlots.get(i).getIsBreak())) continue;
-            PdfPCell nc = new PdfPCell(new Phrase(String.valueOf(pn++), gridHeaderFont));
-            nc.setBackgroundColor(headerBgColor); nc.setBorderWidth(0.5f);
-            nc.setHorizontalAlignment(Element.ALIGN_CENTER);
-            nc.setVerticalAlignment(Element.ALIGN_MIDDLE); nc.setPadding(2);
-            grid.addCell(nc);
-        }
-
-        Set<String> mergedCells = new HashSet<>();
-
-        for (int d = 0; d < DAY_NAMES.length; d++) {
-            String day = DAY_NAMES[d];
-            PdfPCell dCell = new PdfPCell(new Phrase(DAY_LABELS[d].substring(0,3).toUpperCase(), dayFont));
-            dCell.setBorderWidth(0.5f); dCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            dCell.setVerticalAlignment(Element.ALIGN_MIDDLE); dCell.setPadding(3);
-            dCell.setMinimumHeight(45);
-            grid.addCell(dCell);
-
-            for (int si = 0; si < allSlots.size(); si++) {
-                TimeSlot slot = allSlots.get(si);
-                if (Boolean.TRUE.equals(slot.getIsBreak())) continue;
-                String ck = day + ":" + si;
-                if (mergedCells.contains(ck)) continue;
-
-                String key = day + ":" + slot.getId();
-                List<TimetableEntry> ce = multiLookup.getOrDefault(key, Collections.emptyList());
-                PdfPCell cell = new PdfPCell();
-                cell.setBorderWidth(0.5f); cell.setPadding(2); cell.setMinimumHeight(45);
-                cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-
-                if (!ce.isEmpty()) {
-                    TimetableEntry entry = ce.get(0);
-                    boolean isLab = entry.getCourse() != null && entry.getCourse().getCourseType() == CourseType.LAB;
-                    String cn = getCourseShortName(entry.getCourse());
-                    String ts = entry.getTeacher() != null ? getProfessorShortName(entry.getTeacher()) : "-";
-                    String di = "";
-                    if (entry.getDivision() != null) {
-                        String yl = entry.getDivision().getYear() != null ? getYearLabel(entry.getDivision().getYear()) : "";
-                        String dn = entry.getDivision().getName() != null ? entry.getDivision().getName() : "";
-                        di = yl + " " + dn;
-                    }
-                    String batch = entry.getBatch() != null ? entry.getBatch().getName() : null;
-
-                    // Lab colspan merge
-                    if (isLab && si + 1 < allSlots.size()) {
-                        int nti = -1;
-                        for (int ni = si+1; ni < allSlots.size(); ni++) {
-                            if (!Boolean.TRUE.equals(allSlots.get(ni).getIsBreak())) { nti = ni; break; }
-                        }
-                        if (nti >= 0) {
-                            String nk = day + ":" + allSlots.get(nti).getId();
-                            List<TimetableEntry> ne = multiLookup.getOrDefault(nk, Collections.emptyList());
-                            if (!ne.isEmpty() && ne.get(0).getCourse() != null &&
-                                ne.get(0).getCourse().getCourseType() == CourseType.LAB &&
-                                entry.getCourse().getId().equals(ne.get(0).getCourse().getId())) {
-                                int cs = nti - si + 1;
-                                int bb = 0;
-                                for (int bi = si+1; bi < nti; bi++)
-                                    if (Boolean.TRUE.equals(allSlots.get(bi).getIsBreak())) bb++;
-                                cell.setColspan(cs - bb);
-                                mergedCells.add(day + ":" + nti);
-                            }
-                        }
-                    }
-
-                    Paragraph cp = new Paragraph();
-                    cp.setAlignment(Element.ALIGN_CENTER); cp.setLeading(8f);
-                    if (isLab && batch != null) {
-                        cp.add(new Chunk(batch + "-" + cn + " Lab", cellCourseFont));
-                        cp.add(new Chunk("\n" + di + " - " + ts, cellDetailFont));
-                    } else {
-                        cp.add(new Chunk(cn, cellCourseFont));
-                        cp.add(new Chunk("\n" + di, cellDetailFont));
-                        cp.add(new Chunk("\n" + ts, cellDetailFont));
-                    }
-                    if (ce.size() > 1) {
-                        for (int ei = 1; ei < ce.size(); ei++) {
-                            TimetableEntry ex = ce.get(ei);
-                            String eb = ex.getBatch() != null ? ex.getBatch().getName() : "";
-                            String et = ex.getTeacher() != null ? getProfessorShortName(ex.getTeacher()) : "";
-                            cp.add(new Chunk("\n" + eb + " - " + et, cellDetailFont));
-                        }
-                    }
-                    cell.addElement(cp);
-                    cell.setBackgroundColor(isLab ? new Color(248, 244, 255) : Color.WHITE);
-                }
-                grid.addCell(cell);
-            }
-        }
-        doc.add(grid);
-        doc.add(new Paragraph(" ", new Font(Font.HELVETICA, 4)));
+        doc.add(spanningBreakGrid(layout, this::roomCell));
+        doc.add(new Paragraph(" ", Pdf.GAP_4));
 
         // Signatures
         PdfPTable st = new PdfPTable(2);
         st.setWidthPercentage(100); st.setWidths(new float[]{50f, 50f});
-        PdfPCell sl = new PdfPCell(new Phrase("Time Table Coordinator", sigFont));
+        PdfPCell sl = new PdfPCell(new Phrase("Time Table Coordinator", Pdf.META_VALUE));
         sl.setBorder(0); sl.setPaddingTop(12); sl.setHorizontalAlignment(Element.ALIGN_LEFT);
         st.addCell(sl);
-        PdfPCell sr = new PdfPCell(new Phrase("HOD " + deptName.replace("DEPARTMENT OF ", ""), sigFont));
+        PdfPCell sr = new PdfPCell(new Phrase("HOD " + deptName.replace("DEPARTMENT OF ", ""), Pdf.META_VALUE));
         sr.setBorder(0); sr.setPaddingTop(12); sr.setHorizontalAlignment(Element.ALIGN_RIGHT);
         st.addCell(sr);
         doc.add(st);
 
         doc.close();
-        return out.toByteArray();
     }
 
     /**
      * Generate Excel for room timetable (Official MITAOE Institutional Format)
      * Inverted grid: Days = Rows, Slots = Columns
      */
-    public byte[] generateRoomExcel(Long roomId, Long academicYearId, Semester semester) throws Exception {
-        ClassRoom room = roomRepo.findById(roomId)
+    public void writeRoomExcel(Long roomId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
+        ClassRoom room = referenceData.room(roomId)
             .orElseThrow(() -> new RuntimeException("Room not found"));
-        AcademicYear academicYear = academicYearRepo.findById(academicYearId)
+        AcademicYear academicYear = referenceData.academicYear(academicYearId)
             .orElseThrow(() -> new RuntimeException("Academic year not found"));
         List<TimetableEntry> entries = timetableEntryRepo.findPublishedByRoomAndSemester(roomId, academicYearId, semester);
         List<TimeSlot> allSlots = getSortedSlotsForEntries(entries);
-        List<TimeSlot> teachingSlots = allSlots.stream()
-            .filter(s -> !Boolean.TRUE.equals(s.getIsBreak())).collect(Collectors.toList());
-        Map<String, List<TimetableEntry>> multiLookup = buildMultiLookup(entries);
+        TimetableGrid layout = TimetableGrid.of(allSlots, entries);
+        List<TimeSlot> teachingSlots = layout.teachingSlots();
 
         // Stats
         long totalCap = teachingSlots.size() * 6L;
@@ -1247,72 +1094,16 @@ public class TimetableExportService {
         int gridCols = 1 + teachingSlots.size();
 
         // ── Styles ──
-        XSSFCellStyle metaLblSt = wb.createCellStyle();
-        XSSFFont metaLblFt = wb.createFont();
-        metaLblFt.setBold(true); metaLblFt.setFontHeightInPoints((short) 9);
-        metaLblSt.setFont(metaLblFt);
-        metaLblSt.setBorderBottom(BorderStyle.THIN); metaLblSt.setBorderTop(BorderStyle.THIN);
-        metaLblSt.setBorderLeft(BorderStyle.THIN); metaLblSt.setBorderRight(BorderStyle.THIN);
-        metaLblSt.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        XSSFCellStyle metaValSt = wb.createCellStyle();
-        XSSFFont metaValFt = wb.createFont();
-        metaValFt.setFontHeightInPoints((short) 9);
-        metaValSt.setFont(metaValFt);
-        metaValSt.setBorderBottom(BorderStyle.THIN); metaValSt.setBorderTop(BorderStyle.THIN);
-        metaValSt.setBorderLeft(BorderStyle.THIN); metaValSt.setBorderRight(BorderStyle.THIN);
-        metaValSt.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        XSSFCellStyle titleSt = wb.createCellStyle();
-        XSSFFont titleFt = wb.createFont();
-        titleFt.setBold(true); titleFt.setFontHeightInPoints((short) 12);
-        titleSt.setFont(titleFt);
-        titleSt.setAlignment(HorizontalAlignment.CENTER); titleSt.setVerticalAlignment(VerticalAlignment.CENTER);
-        titleSt.setBorderBottom(BorderStyle.THIN); titleSt.setBorderTop(BorderStyle.THIN);
-        titleSt.setBorderLeft(BorderStyle.THIN); titleSt.setBorderRight(BorderStyle.THIN);
-
-        XSSFCellStyle roomNmSt = wb.createCellStyle();
-        XSSFFont roomNmFt = wb.createFont();
-        roomNmFt.setBold(true); roomNmFt.setFontHeightInPoints((short) 11);
-        roomNmSt.setFont(roomNmFt);
-        roomNmSt.setAlignment(HorizontalAlignment.CENTER); roomNmSt.setVerticalAlignment(VerticalAlignment.CENTER);
-        roomNmSt.setBorderBottom(BorderStyle.THIN); roomNmSt.setBorderTop(BorderStyle.THIN);
-        roomNmSt.setBorderLeft(BorderStyle.THIN); roomNmSt.setBorderRight(BorderStyle.THIN);
-
-        XSSFCellStyle hdrSt = wb.createCellStyle();
-        XSSFFont hdrFt = wb.createFont();
-        hdrFt.setBold(true); hdrFt.setFontHeightInPoints((short) 9);
-        hdrFt.setColor(new XSSFColor(new byte[]{27, 42, 78}, null));
-        hdrSt.setFont(hdrFt);
-        hdrSt.setFillForegroundColor(new XSSFColor(new byte[]{(byte)214,(byte)228,(byte)240}, null));
-        hdrSt.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        hdrSt.setAlignment(HorizontalAlignment.CENTER); hdrSt.setVerticalAlignment(VerticalAlignment.CENTER);
-        hdrSt.setBorderBottom(BorderStyle.THIN); hdrSt.setBorderTop(BorderStyle.THIN);
-        hdrSt.setBorderLeft(BorderStyle.THIN); hdrSt.setBorderRight(BorderStyle.THIN);
-
-        XSSFCellStyle daySt = wb.createCellStyle();
-        XSSFFont dayFt = wb.createFont();
-        dayFt.setBold(true); dayFt.setFontHeightInPoints((short) 10);
-        daySt.setFont(dayFt);
-        daySt.setAlignment(HorizontalAlignment.CENTER); daySt.setVerticalAlignment(VerticalAlignment.CENTER);
-        daySt.setBorderBottom(BorderStyle.THIN); daySt.setBorderTop(BorderStyle.THIN);
-        daySt.setBorderLeft(BorderStyle.THIN); daySt.setBorderRight(BorderStyle.THIN);
-
-        XSSFCellStyle thSt = wb.createCellStyle();
-        thSt.setWrapText(true); thSt.setVerticalAlignment(VerticalAlignment.CENTER);
-        thSt.setAlignment(HorizontalAlignment.CENTER);
-        thSt.setBorderBottom(BorderStyle.THIN); thSt.setBorderTop(BorderStyle.THIN);
-        thSt.setBorderLeft(BorderStyle.THIN); thSt.setBorderRight(BorderStyle.THIN);
-
-        XSSFCellStyle labSt = wb.createCellStyle();
-        labSt.cloneStyleFrom(thSt);
-        labSt.setFillForegroundColor(new XSSFColor(new byte[]{(byte)248,(byte)244,(byte)255}, null));
-        labSt.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        XSSFCellStyle emptSt = wb.createCellStyle();
-        emptSt.setBorderBottom(BorderStyle.THIN); emptSt.setBorderTop(BorderStyle.THIN);
-        emptSt.setBorderLeft(BorderStyle.THIN); emptSt.setBorderRight(BorderStyle.THIN);
-        emptSt.setVerticalAlignment(VerticalAlignment.CENTER); emptSt.setAlignment(HorizontalAlignment.CENTER);
+        ExcelStyles styles = new ExcelStyles(wb);
+        CellStyle metaLblSt = styles.get(Excel.META_LABEL_LARGE);
+        CellStyle metaValSt = styles.get(Excel.META_VALUE_LARGE);
+        CellStyle titleSt = styles.get(Excel.BOXED_TITLE);
+        CellStyle roomNmSt = styles.get(Excel.BOXED_NAME);
+        CellStyle hdrSt = styles.get(Excel.GRID_HEADER_LIGHT);
+        CellStyle daySt = styles.get(Excel.DAY_LARGE);
+        CellStyle thSt = styles.get(Excel.ENTRY);
+        CellStyle labSt = styles.get(Excel.LAB_ENTRY);
+        CellStyle emptSt = styles.get(Excel.EMPTY);
 
         int rowIdx = 0;
 
@@ -1402,44 +1193,19 @@ public class TimetableExportService {
             c.setCellValue(pn++); c.setCellStyle(hdrSt);
         }
 
-        // ── Data Rows ──
-        for (int d = 0; d < DAY_NAMES.length; d++) {
-            String day = DAY_NAMES[d];
+        // ── Data Rows ── (teaching slots only; breaks have no column in the workbook)
+        for (int d = 0; d < layout.days(); d++) {
             Row dRow = sheet.createRow(rowIdx++); dRow.setHeightInPoints(50);
-            dRow.createCell(0).setCellValue(DAY_LABELS[d].substring(0, 3).toUpperCase());
+            dRow.createCell(0).setCellValue(TimetableGrid.DAY_ABBREVIATIONS[d]);
             dRow.getCell(0).setCellStyle(daySt);
             ci = 1;
-            for (TimeSlot slot : teachingSlots) {
-                String key = day + ":" + slot.getId();
-                List<TimetableEntry> ce = multiLookup.getOrDefault(key, Collections.emptyList());
+            for (int c = 0; c < layout.columns(); c++) {
+                if (layout.isBreak(c)) continue;
+                List<TimetableEntry> ce = layout.entries(d, c);
                 org.apache.poi.ss.usermodel.Cell cell = dRow.createCell(ci++);
                 if (!ce.isEmpty()) {
-                    TimetableEntry entry = ce.get(0);
-                    boolean isLab = entry.getCourse() != null && entry.getCourse().getCourseType() == CourseType.LAB;
-                    String cn = getCourseShortName(entry.getCourse());
-                    String ts = entry.getTeacher() != null ? getProfessorShortName(entry.getTeacher()) : "-";
-                    String di = "";
-                    if (entry.getDivision() != null) {
-                        String yl = entry.getDivision().getYear() != null ? getYearLabel(entry.getDivision().getYear()) : "";
-                        String dn = entry.getDivision().getName() != null ? entry.getDivision().getName() : "";
-                        di = yl + " " + dn;
-                    }
-                    String batch = entry.getBatch() != null ? entry.getBatch().getName() : null;
-                    StringBuilder sb = new StringBuilder();
-                    if (isLab && batch != null) {
-                        sb.append(batch).append("-").append(cn).append(" Lab\n").append(di).append(" - ").append(ts);
-                    } else {
-                        sb.append(cn).append("\n").append(di).append("\n").append(ts);
-                    }
-                    if (ce.size() > 1) {
-                        for (int ei = 1; ei < ce.size(); ei++) {
-                            TimetableEntry ex = ce.get(ei);
-                            sb.append("\n").append(ex.getBatch() != null ? ex.getBatch().getName() : "")
-                              .append(" - ").append(ex.getTeacher() != null ? getProfessorShortName(ex.getTeacher()) : "");
-                        }
-                    }
-                    cell.setCellValue(sb.toString());
-                    cell.setCellStyle(isLab ? labSt : thSt);
+                    cell.setCellValue(String.join("\n", roomCellLines(ce)));
+                    cell.setCellStyle(TimetableGrid.isLab(ce.get(0)) ? labSt : thSt);
                 } else {
                     cell.setCellValue("");
                     cell.setCellStyle(emptSt);
@@ -1454,17 +1220,15 @@ public class TimetableExportService {
         sheet.setColumnWidth(0, 3500);
         for (int i = 1; i <= teachingSlots.size(); i++) sheet.setColumnWidth(i, 4200);
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         wb.write(out);
         wb.close();
-        return out.toByteArray();
     }
 
     // ═══════════════════════════════════════════════════════════════
     // PDF GENERATION (Semester-Specific) - EXISTING METHODS
     // ═══════════════════════════════════════════════════════════════
 
-    public byte[] generateDivisionPDF(Long divisionId, Long academicYearId, Semester semester) throws Exception {
+    public void writeDivisionPDF(Long divisionId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
         // Get all entries for division and filter by semester
         List<TimetableEntry> allEntries = timetableService.getDivisionTimetable(divisionId, academicYearId);
         List<TimetableEntry> entries = allEntries.stream()
@@ -1472,44 +1236,31 @@ public class TimetableExportService {
             .collect(Collectors.toList());
             
         Division division = divisionRepo.findById(divisionId).orElse(null);
-        AcademicYear year = academicYearRepo.findById(academicYearId).orElse(null);
+        AcademicYear year = referenceData.academicYear(academicYearId).orElse(null);
         List<TimeSlot> slots = getSortedSlots(division);
 
-        return buildInstitutionalDivisionPDF(entries, slots, division, year, semester);
+        buildInstitutionalDivisionPDF(entries, slots, division, year, semester, out);
     }
 
-    public byte[] generateTeacherPDF(Long teacherId, Long academicYearId) throws Exception {
+    public void writeTeacherPDF(Long teacherId, Long academicYearId, OutputStream out) throws Exception {
         List<TimetableEntry> entries = timetableService.getTeacherTimetable(teacherId, academicYearId);
         TeacherEntity teacher = teacherRepo.findById(teacherId).orElse(null);
-        AcademicYear year = academicYearRepo.findById(academicYearId).orElse(null);
+        AcademicYear year = referenceData.academicYear(academicYearId).orElse(null);
         List<TimeSlot> slots = getSortedSlotsForEntries(entries);
 
-        return buildInstitutionalTeacherPDF(entries, slots, teacher, year);
+        buildInstitutionalTeacherPDF(entries, slots, teacher, year, out);
     }
 
     // ═══════════════════════════════════════════════════════════════
     // INSTITUTIONAL TEACHER PDF (Official MITAOE Faculty Format)
     // ═══════════════════════════════════════════════════════════════
 
-    private byte[] buildInstitutionalTeacherPDF(
+    private void buildInstitutionalTeacherPDF(
             List<TimetableEntry> entries,
             List<TimeSlot> allSlots,
             TeacherEntity teacher,
-            AcademicYear academicYear) throws Exception {
-
-        // Separate break slots and teaching slots
-        List<TimeSlot> teachingSlots = new ArrayList<>();
-        List<Integer> breakIndices = new ArrayList<>(); // indices into allSlots that are breaks
-        for (int i = 0; i < allSlots.size(); i++) {
-            if (Boolean.TRUE.equals(allSlots.get(i).getIsBreak())) {
-                breakIndices.add(i);
-            } else {
-                teachingSlots.add(allSlots.get(i));
-            }
-        }
-
-        // Build multi-value lookup for entries
-        Map<String, List<TimetableEntry>> multiLookup = buildMultiLookup(entries);
+            AcademicYear academicYear,
+            OutputStream out) throws Exception {
 
         // Teaching load calculation
         long theoryCount = entries.stream()
@@ -1538,29 +1289,10 @@ public class TimetableExportService {
         String yearName = academicYear != null ? academicYear.getYearName() : "-";
 
         // ── Create PDF — Landscape A4 ──
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document doc = new Document(PageSize.A4.rotate(), 10, 10, 8, 8);
-        PdfWriter.getInstance(doc, out);
+        PdfWriter.getInstance(doc, out).setCloseStream(false);
         doc.open();
 
-        // ── Font definitions ──
-        Font titleFont = new Font(Font.HELVETICA, 11, Font.BOLD, Color.BLACK);
-        Font metaLabelFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font metaValueFont = new Font(Font.HELVETICA, 7, Font.NORMAL, Color.BLACK);
-        Font smallFont = new Font(Font.HELVETICA, 6, Font.NORMAL, Color.DARK_GRAY);
-        Font deptFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font facultyNameFont = new Font(Font.HELVETICA, 9, Font.BOLD, Color.BLACK);
-
-        Color headerBgColor = new Color(214, 228, 240);
-        Font gridHeaderFont = new Font(Font.HELVETICA, 6, Font.BOLD, new Color(27, 42, 78));
-        Font dayFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font cellCourseFont = new Font(Font.HELVETICA, 6.5f, Font.BOLD, Color.BLACK);
-        Font cellDetailFont = new Font(Font.HELVETICA, 6, Font.NORMAL, Color.BLACK);
-        Font breakVertFont = new Font(Font.HELVETICA, 6, Font.BOLD, Color.GRAY);
-        Font sigFont = new Font(Font.HELVETICA, 7, Font.NORMAL, Color.BLACK);
-
-        float hdrBorderWidth = 0.5f;
-
         // ═══════════════════════════════════════════════════════════
         // HEADER TABLE: 3 columns — Institution | Meta Labels | Meta Values
         // ═══════════════════════════════════════════════════════════
@@ -1570,7 +1302,7 @@ public class TimetableExportService {
 
         // ── ROW 1: Logo+Address | "FACULTY WISE TIME TABLE" | FACULTY NAME ──
         PdfPCell logoCell = new PdfPCell();
-        logoCell.setBorderWidth(hdrBorderWidth);
+        logoCell.setBorderWidth(BORDER);
         logoCell.setPadding(3);
         logoCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         logoCell.setRowspan(2);
@@ -1579,64 +1311,64 @@ public class TimetableExportService {
             logo.scaleToFit(120, 28);
             Paragraph logoPara = new Paragraph();
             logoPara.add(new Chunk(logo, 0, 0, true));
-            logoPara.add(new Chunk("  Alandi (D), Pune - 412 105", smallFont));
+            logoPara.add(new Chunk("  Alandi (D), Pune - 412 105", Pdf.SMALL));
             logoCell.addElement(logoPara);
         } catch (Exception e) {
-            logoCell.setPhrase(new Phrase("MIT Academy of Engineering, Alandi (D), Pune - 412 105", metaLabelFont));
+            logoCell.setPhrase(new Phrase("MIT Academy of Engineering, Alandi (D), Pune - 412 105", Pdf.META_LABEL));
         }
         headerTable.addCell(logoCell);
 
-        PdfPCell titleCell = new PdfPCell(new Phrase("FACULTY WISE TIME TABLE", titleFont));
-        titleCell.setBorderWidth(hdrBorderWidth);
+        PdfPCell titleCell = new PdfPCell(new Phrase("FACULTY WISE TIME TABLE", Pdf.TITLE));
+        titleCell.setBorderWidth(BORDER);
         titleCell.setPadding(3);
         titleCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         titleCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         titleCell.setRowspan(2);
         headerTable.addCell(titleCell);
 
-        PdfPCell fnLabel = new PdfPCell(new Phrase("FACULTY NAME", metaLabelFont));
-        fnLabel.setBorderWidth(hdrBorderWidth);
+        PdfPCell fnLabel = new PdfPCell(new Phrase("FACULTY NAME", Pdf.META_LABEL));
+        fnLabel.setBorderWidth(BORDER);
         fnLabel.setPadding(3);
         fnLabel.setHorizontalAlignment(Element.ALIGN_CENTER);
         fnLabel.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(fnLabel);
 
         // ── ROW 2: (logo continues) | (title continues) | Faculty Name Value ──
-        PdfPCell fnValue = new PdfPCell(new Phrase(facultyName, facultyNameFont));
-        fnValue.setBorderWidth(hdrBorderWidth);
+        PdfPCell fnValue = new PdfPCell(new Phrase(facultyName, Pdf.NAME));
+        fnValue.setBorderWidth(BORDER);
         fnValue.setPadding(3);
         fnValue.setHorizontalAlignment(Element.ALIGN_CENTER);
         fnValue.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(fnValue);
 
         // ── ROW 3: Department | ACADEMIC YEAR : value | Teaching Load Header ──
-        PdfPCell deptCell = new PdfPCell(new Phrase(deptName, deptFont));
-        deptCell.setBorderWidth(hdrBorderWidth);
+        PdfPCell deptCell = new PdfPCell(new Phrase(deptName, Pdf.META_LABEL));
+        deptCell.setBorderWidth(BORDER);
         deptCell.setPadding(3);
         deptCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         deptCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(deptCell);
 
         PdfPCell ayCell = new PdfPCell();
-        ayCell.setBorderWidth(hdrBorderWidth);
+        ayCell.setBorderWidth(BORDER);
         ayCell.setPadding(3);
         ayCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         Paragraph ayPara = new Paragraph();
-        ayPara.add(new Chunk("ACADEMIC YEAR : ", metaLabelFont));
-        ayPara.add(new Chunk(yearName, metaValueFont));
+        ayPara.add(new Chunk("ACADEMIC YEAR : ", Pdf.META_LABEL));
+        ayPara.add(new Chunk(yearName, Pdf.META_VALUE));
         ayCell.addElement(ayPara);
         headerTable.addCell(ayCell);
 
         // Teaching load block: nested table for proper formatting
         PdfPCell loadCell = new PdfPCell();
-        loadCell.setBorderWidth(hdrBorderWidth);
+        loadCell.setBorderWidth(BORDER);
         loadCell.setPadding(2);
         loadCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         loadCell.setRowspan(3);
         loadCell.setHorizontalAlignment(Element.ALIGN_CENTER);
 
         // "TEACHING LOAD" title centered above the mini-table
-        Paragraph loadTitle = new Paragraph("TEACHING LOAD", metaLabelFont);
+        Paragraph loadTitle = new Paragraph("TEACHING LOAD", Pdf.META_LABEL);
         loadTitle.setAlignment(Element.ALIGN_CENTER);
         loadTitle.setSpacingAfter(3);
         loadCell.addElement(loadTitle);
@@ -1646,35 +1378,32 @@ public class TimetableExportService {
         loadTable.setWidthPercentage(90);
         loadTable.setWidths(new float[]{60f, 40f});
 
-        Font loadLblFont = new Font(Font.HELVETICA, 6.5f, Font.NORMAL, Color.BLACK);
-        Font loadValFont = new Font(Font.HELVETICA, 6.5f, Font.BOLD, Color.BLACK);
-
         // Row: TH
-        PdfPCell thLbl = new PdfPCell(new Phrase("TH", loadLblFont));
+        PdfPCell thLbl = new PdfPCell(new Phrase("TH", Pdf.LOAD_LABEL));
         thLbl.setBorderWidth(0.3f); thLbl.setPadding(2);
         thLbl.setHorizontalAlignment(Element.ALIGN_LEFT);
         loadTable.addCell(thLbl);
-        PdfPCell thVal = new PdfPCell(new Phrase(String.valueOf(theoryCount), loadValFont));
+        PdfPCell thVal = new PdfPCell(new Phrase(String.valueOf(theoryCount), Pdf.CELL_COURSE));
         thVal.setBorderWidth(0.3f); thVal.setPadding(2);
         thVal.setHorizontalAlignment(Element.ALIGN_CENTER);
         loadTable.addCell(thVal);
 
         // Row: PR / TU
-        PdfPCell prLbl = new PdfPCell(new Phrase("PR / TU", loadLblFont));
+        PdfPCell prLbl = new PdfPCell(new Phrase("PR / TU", Pdf.LOAD_LABEL));
         prLbl.setBorderWidth(0.3f); prLbl.setPadding(2);
         prLbl.setHorizontalAlignment(Element.ALIGN_LEFT);
         loadTable.addCell(prLbl);
-        PdfPCell prVal = new PdfPCell(new Phrase(String.valueOf(labCount), loadValFont));
+        PdfPCell prVal = new PdfPCell(new Phrase(String.valueOf(labCount), Pdf.CELL_COURSE));
         prVal.setBorderWidth(0.3f); prVal.setPadding(2);
         prVal.setHorizontalAlignment(Element.ALIGN_CENTER);
         loadTable.addCell(prVal);
 
         // Row: TOTAL
-        PdfPCell totLbl = new PdfPCell(new Phrase("TOTAL", new Font(Font.HELVETICA, 6.5f, Font.BOLD, Color.BLACK)));
+        PdfPCell totLbl = new PdfPCell(new Phrase("TOTAL", Pdf.CELL_COURSE));
         totLbl.setBorderWidth(0.3f); totLbl.setPadding(2);
         totLbl.setHorizontalAlignment(Element.ALIGN_LEFT);
         loadTable.addCell(totLbl);
-        PdfPCell totVal = new PdfPCell(new Phrase(String.valueOf(totalLoad), new Font(Font.HELVETICA, 6.5f, Font.BOLD, Color.BLACK)));
+        PdfPCell totVal = new PdfPCell(new Phrase(String.valueOf(totalLoad), Pdf.CELL_COURSE));
         totVal.setBorderWidth(0.3f); totVal.setPadding(2);
         totVal.setHorizontalAlignment(Element.ALIGN_CENTER);
         loadTable.addCell(totVal);
@@ -1683,296 +1412,261 @@ public class TimetableExportService {
         headerTable.addCell(loadCell);
 
         // ── ROW 4: (empty) | SEMESTER : value | (load continues) ──
-        PdfPCell emptyCell4 = new PdfPCell(new Phrase("", metaValueFont));
-        emptyCell4.setBorderWidth(hdrBorderWidth);
+        PdfPCell emptyCell4 = new PdfPCell(new Phrase("", Pdf.META_VALUE));
+        emptyCell4.setBorderWidth(BORDER);
         emptyCell4.setPadding(3);
         headerTable.addCell(emptyCell4);
 
         PdfPCell semCell = new PdfPCell();
-        semCell.setBorderWidth(hdrBorderWidth);
+        semCell.setBorderWidth(BORDER);
         semCell.setPadding(3);
         semCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         Paragraph semPara = new Paragraph();
-        semPara.add(new Chunk("SEMESTER : ", metaLabelFont));
-        semPara.add(new Chunk(semesterDisplay, metaValueFont));
+        semPara.add(new Chunk("SEMESTER : ", Pdf.META_LABEL));
+        semPara.add(new Chunk(semesterDisplay, Pdf.META_VALUE));
         semCell.addElement(semPara);
         headerTable.addCell(semCell);
 
         // ── ROW 5: (empty) | W.E.F : date | (load continues) ──
-        PdfPCell emptyCell5 = new PdfPCell(new Phrase("", metaValueFont));
-        emptyCell5.setBorderWidth(hdrBorderWidth);
+        PdfPCell emptyCell5 = new PdfPCell(new Phrase("", Pdf.META_VALUE));
+        emptyCell5.setBorderWidth(BORDER);
         emptyCell5.setPadding(3);
         headerTable.addCell(emptyCell5);
 
         PdfPCell wefCell = new PdfPCell();
-        wefCell.setBorderWidth(hdrBorderWidth);
+        wefCell.setBorderWidth(BORDER);
         wefCell.setPadding(3);
         wefCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         Paragraph wefPara = new Paragraph();
-        wefPara.add(new Chunk("W.E.F : ", metaLabelFont));
-        wefPara.add(new Chunk(LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")), metaValueFont));
+        wefPara.add(new Chunk("W.E.F : ", Pdf.META_LABEL));
+        wefPara.add(new Chunk(LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")), Pdf.META_VALUE));
         wefCell.addElement(wefPara);
         headerTable.addCell(wefCell);
 
         doc.add(headerTable);
-        doc.add(new Paragraph(" ", new Font(Font.HELVETICA, 2)));
+        doc.add(new Paragraph(" ", Pdf.GAP_2));
+
+        // ── TIMETABLE GRID: Days = Rows, Slots = Columns ──
+        doc.add(spanningBreakGrid(TimetableGrid.of(allSlots, entries), this::facultyCell));
+        doc.add(new Paragraph(" ", Pdf.GAP_4));
 
         // ═══════════════════════════════════════════════════════════
-        // TIMETABLE GRID: Days = Rows, Slots = Columns (inverted grid)
-        // With break columns rendered as vertical merged text
+        // SIGNATURE SECTION
         // ═══════════════════════════════════════════════════════════
+        PdfPTable sigTable = new PdfPTable(2);
+        sigTable.setWidthPercentage(100);
+        sigTable.setWidths(new float[]{50f, 50f});
+
+        PdfPCell sigLeft = new PdfPCell(new Phrase("Time Table Coordinator", Pdf.META_VALUE));
+        sigLeft.setBorder(0);
+        sigLeft.setPaddingTop(12);
+        sigLeft.setHorizontalAlignment(Element.ALIGN_LEFT);
+        sigTable.addCell(sigLeft);
+
+        PdfPCell sigRight = new PdfPCell(new Phrase("HOD " + deptName.replace("SCHOOL OF ", ""), Pdf.META_VALUE));
+        sigRight.setBorder(0);
+        sigRight.setPaddingTop(12);
+        sigRight.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        sigTable.addCell(sigRight);
 
-        // Build column structure: Day label + all slots (teaching + breaks interleaved)
-        // allSlots is already sorted by time; some are breaks, some are teaching
-        int totalCols = 1 + allSlots.size(); // 1 for Day column + all slots
-        PdfPTable grid = new PdfPTable(totalCols);
+        doc.add(sigTable);
+        doc.close();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // SHARED PDF GRID (Faculty and Room formats)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Days × slots grid of the faculty and room PDFs: a time row and a period row on top,
+     * break columns running down the whole grid as vertical text, lab sessions merged
+     * across their slots. {@code content} renders the entries of one booked cell.
+     */
+    private PdfPTable spanningBreakGrid(TimetableGrid layout, Function<List<TimetableEntry>, Paragraph> content)
+            throws Exception {
+        int columns = layout.columns();
+        PdfPTable grid = new PdfPTable(1 + columns);
         grid.setWidthPercentage(100);
 
-        // Column widths: day=8%, each slot gets equal share of 92%
-        float[] colWidths = new float[totalCols];
+        // Day column 7%, breaks half the width of a teaching slot
+        float[] colWidths = new float[1 + columns];
         colWidths[0] = 7f;
-        float slotWidth = 93f / allSlots.size();
-        for (int i = 1; i < totalCols; i++) {
-            // Break columns narrower
-            colWidths[i] = Boolean.TRUE.equals(allSlots.get(i - 1).getIsBreak()) ? slotWidth * 0.5f : slotWidth;
+        float slotWidth = 93f / columns;
+        for (int c = 0; c < columns; c++) {
+            colWidths[c + 1] = layout.isBreak(c) ? slotWidth * 0.5f : slotWidth;
         }
         grid.setWidths(colWidths);
 
-        // ── Header Row 1: "Time" + time ranges ──
-        PdfPCell timeHeader = new PdfPCell(new Phrase("Time", gridHeaderFont));
-        timeHeader.setBackgroundColor(headerBgColor);
-        timeHeader.setBorderWidth(0.5f);
-        timeHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
-        timeHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
-        timeHeader.setPadding(2);
+        // ── Header Row 1: "Time" + time ranges, breaks span header and day rows ──
+        PdfPCell timeHeader = gridHeaderCell("Time");
         timeHeader.setRowspan(2);
         grid.addCell(timeHeader);
 
-        for (int i = 0; i < allSlots.size(); i++) {
-            TimeSlot slot = allSlots.get(i);
-            if (Boolean.TRUE.equals(slot.getIsBreak())) {
-                // Break column header — vertical text, merged with row 2
-                PdfPCell breakHdr = new PdfPCell();
-                breakHdr.setBackgroundColor(new Color(240, 240, 240));
-                breakHdr.setBorderWidth(0.5f);
+        for (int c = 0; c < columns; c++) {
+            TimeSlot slot = layout.slot(c);
+            if (layout.isBreak(c)) {
+                String breakName = slot.getSlotName() != null ? slot.getSlotName() : "BREAK";
+                PdfPCell breakHdr = new PdfPCell(new Phrase(String.join("\n", breakName.split("")).trim(), Pdf.BREAK));
+                breakHdr.setBackgroundColor(ExportPalette.BREAK_BG);
+                breakHdr.setBorderWidth(BORDER);
                 breakHdr.setHorizontalAlignment(Element.ALIGN_CENTER);
                 breakHdr.setVerticalAlignment(Element.ALIGN_MIDDLE);
                 breakHdr.setPadding(1);
-                breakHdr.setRowspan(2 + DAY_NAMES.length); // span header rows + all day rows
-
-                // Vertical text for break name
-                String breakName = slot.getSlotName() != null ? slot.getSlotName() : "BREAK";
-                StringBuilder vertText = new StringBuilder();
-                for (char c : breakName.toCharArray()) {
-                    vertText.append(c).append("\n");
-                }
-                breakHdr.setPhrase(new Phrase(vertText.toString().trim(), breakVertFont));
+                breakHdr.setRowspan(2 + layout.days());
                 grid.addCell(breakHdr);
             } else {
-                // Teaching slot header — time range
-                String timeRange = formatTime(slot);
-                PdfPCell slotHdr = new PdfPCell(new Phrase(timeRange, gridHeaderFont));
-                slotHdr.setBackgroundColor(headerBgColor);
-                slotHdr.setBorderWidth(0.5f);
-                slotHdr.setHorizontalAlignment(Element.ALIGN_CENTER);
-                slotHdr.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                slotHdr.setPadding(2);
-                grid.addCell(slotHdr);
+                grid.addCell(gridHeaderCell(formatTime(slot)));
             }
         }
 
-        // ── Header Row 2: "Day" + period numbers ──
-        // Note: "Day" header is already part of the rowspan from Row 1
-        int periodNum = 1;
-        for (int i = 0; i < allSlots.size(); i++) {
-            TimeSlot slot = allSlots.get(i);
-            if (Boolean.TRUE.equals(slot.getIsBreak())) {
-                // Already merged via rowspan above — skip
-                continue;
-            }
-            PdfPCell numCell = new PdfPCell(new Phrase(String.valueOf(periodNum++), gridHeaderFont));
-            numCell.setBackgroundColor(headerBgColor);
-            numCell.setBorderWidth(0.5f);
-            numCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            numCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-            numCell.setPadding(2);
-            grid.addCell(numCell);
+        // ── Header Row 2: period numbers ──
+        for (int c = 0; c < columns; c++) {
+            if (!layout.isBreak(c)) grid.addCell(gridHeaderCell(String.valueOf(layout.period(c))));
         }
 
-        // Track merged cells for lab sessions
-        Set<String> mergedCells = new HashSet<>();
-
         // ── Data Rows: one per day ──
-        for (int d = 0; d < DAY_NAMES.length; d++) {
-            String day = DAY_NAMES[d];
-            String dayLabel = DAY_LABELS[d].substring(0, 3).toUpperCase();
-
-            PdfPCell dayCell = new PdfPCell(new Phrase(dayLabel, dayFont));
-            dayCell.setBorderWidth(0.5f);
+        for (int d = 0; d < layout.days(); d++) {
+            PdfPCell dayCell = new PdfPCell(new Phrase(TimetableGrid.DAY_ABBREVIATIONS[d], Pdf.DAY));
+            dayCell.setBorderWidth(BORDER);
             dayCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             dayCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
             dayCell.setPadding(3);
             dayCell.setMinimumHeight(45);
             grid.addCell(dayCell);
 
-            for (int slotIdx = 0; slotIdx < allSlots.size(); slotIdx++) {
-                TimeSlot slot = allSlots.get(slotIdx);
-
-                if (Boolean.TRUE.equals(slot.getIsBreak())) {
-                    // Break columns already handled by rowspan above
-                    continue;
-                }
-
-                String cellKey = day + ":" + slotIdx;
-                if (mergedCells.contains(cellKey)) {
-                    // This cell is part of a colspan merge — skip
-                    continue;
-                }
-
-                String key = day + ":" + slot.getId();
-                List<TimetableEntry> cellEntries = multiLookup.getOrDefault(key, Collections.emptyList());
+            for (int c = 0; c < columns; c++) {
+                // Breaks are covered by the header rowspan, merged lab slots by the colspan
+                int span = layout.span(d, c);
+                if (span == 0) continue;
 
                 PdfPCell cell = new PdfPCell();
-                cell.setBorderWidth(0.5f);
+                cell.setBorderWidth(BORDER);
                 cell.setPadding(2);
                 cell.setMinimumHeight(45);
                 cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
                 cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                cell.setColspan(span);
 
+                List<TimetableEntry> cellEntries = layout.entries(d, c);
                 if (!cellEntries.isEmpty()) {
-                    TimetableEntry entry = cellEntries.get(0);
-                    boolean isLab = entry.getCourse() != null && entry.getCourse().getCourseType() == CourseType.LAB;
-                    String courseName = getCourseShortName(entry.getCourse());
-                    String roomNum = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "-";
-
-                    // Division/batch info
-                    String divInfo = "";
-                    if (entry.getDivision() != null) {
-                        String yearLabel = entry.getDivision().getYear() != null ? getYearLabel(entry.getDivision().getYear()) : "";
-                        String divName = entry.getDivision().getName() != null ? entry.getDivision().getName() : "";
-                        divInfo = yearLabel + " " + divName;
-                    }
-                    String batchName = entry.getBatch() != null ? entry.getBatch().getName() : null;
-
-                    // Check for colspan merge (consecutive lab slots)
-                    boolean shouldMerge = false;
-                    if (isLab && slotIdx + 1 < allSlots.size()) {
-                        // Find next non-break slot
-                        int nextTeachingIdx = -1;
-                        for (int ni = slotIdx + 1; ni < allSlots.size(); ni++) {
-                            if (!Boolean.TRUE.equals(allSlots.get(ni).getIsBreak())) {
-                                nextTeachingIdx = ni;
-                                break;
-                            }
-                        }
-                        if (nextTeachingIdx >= 0) {
-                            TimeSlot nextSlot = allSlots.get(nextTeachingIdx);
-                            String nextKey = day + ":" + nextSlot.getId();
-                            List<TimetableEntry> nextEntries = multiLookup.getOrDefault(nextKey, Collections.emptyList());
-                            if (!nextEntries.isEmpty()) {
-                                TimetableEntry nextEntry = nextEntries.get(0);
-                                if (nextEntry.getCourse() != null &&
-                                    nextEntry.getCourse().getCourseType() == CourseType.LAB &&
-                                    entry.getCourse().getId().equals(nextEntry.getCourse().getId()) &&
-                                    Objects.equals(entry.getTeacher() != null ? entry.getTeacher().getId() : null,
-                                                   nextEntry.getTeacher() != null ? nextEntry.getTeacher().getId() : null)) {
-                                    shouldMerge = true;
-                                    // Calculate colspan (skip over any breaks between)
-                                    int colspan = nextTeachingIdx - slotIdx + 1;
-                                    // Count how many break cells are in between (they're already rowspanned)
-                                    int breaksBetween = 0;
-                                    for (int bi = slotIdx + 1; bi < nextTeachingIdx; bi++) {
-                                        if (Boolean.TRUE.equals(allSlots.get(bi).getIsBreak())) {
-                                            breaksBetween++;
-                                        }
-                                    }
-                                    cell.setColspan(colspan - breaksBetween);
-                                    mergedCells.add(day + ":" + nextTeachingIdx);
-                                }
-                            }
-                        }
-                    }
-
-                    // Build cell content — NO teacher short name (it's in the header)
-                    Paragraph cellPara = new Paragraph();
-                    cellPara.setAlignment(Element.ALIGN_CENTER);
-                    cellPara.setLeading(8f);
-
-                    if (isLab && batchName != null) {
-                        // Lab format: "B2-DAA Lab\nCNL II (H204B)"
-                        cellPara.add(new Chunk(divInfo, cellDetailFont));
-                        cellPara.add(new Chunk("\n", cellDetailFont));
-                        cellPara.add(new Chunk(batchName + "-" + courseName + " Lab", cellCourseFont));
-                        cellPara.add(new Chunk("\n", cellDetailFont));
-                        cellPara.add(new Chunk("(" + roomNum + ")", cellDetailFont));
-                    } else if (isLab) {
-                        // Lab without batch
-                        cellPara.add(new Chunk(courseName + " Lab", cellCourseFont));
-                        cellPara.add(new Chunk("\n", cellDetailFont));
-                        cellPara.add(new Chunk(divInfo + " (" + roomNum + ")", cellDetailFont));
-                    } else {
-                        // Theory format: "DAA\nTY A\nH301"
-                        cellPara.add(new Chunk(courseName, cellCourseFont));
-                        cellPara.add(new Chunk("\n", cellDetailFont));
-                        cellPara.add(new Chunk(divInfo, cellDetailFont));
-                        cellPara.add(new Chunk("\n", cellDetailFont));
-                        cellPara.add(new Chunk(roomNum, cellDetailFont));
-                    }
-
-                    // Handle multiple batches in same slot
-                    if (cellEntries.size() > 1) {
-                        for (int ei = 1; ei < cellEntries.size(); ei++) {
-                            TimetableEntry extraEntry = cellEntries.get(ei);
-                            String extraBatch = extraEntry.getBatch() != null ? extraEntry.getBatch().getName() : "";
-                            String extraRoom = extraEntry.getRoom() != null ? extraEntry.getRoom().getRoomNumber() : "";
-                            cellPara.add(new Chunk("\n" + extraBatch + " (" + extraRoom + ")", cellDetailFont));
-                        }
-                    }
-
-                    cell.addElement(cellPara);
-                    cell.setBackgroundColor(isLab ? new Color(248, 244, 255) : Color.WHITE);
+                    cell.addElement(content.apply(cellEntries));
+                    cell.setBackgroundColor(TimetableGrid.isLab(cellEntries.get(0)) ? ExportPalette.LAB_BG : Color.WHITE);
                 }
-
                 grid.addCell(cell);
             }
         }
+        return grid;
+    }
 
-        doc.add(grid);
-        doc.add(new Paragraph(" ", new Font(Font.HELVETICA, 4)));
+    private PdfPCell gridHeaderCell(String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, Pdf.GRID_HEADER));
+        cell.setBackgroundColor(ExportPalette.HEADER_BG);
+        cell.setBorderWidth(BORDER);
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        cell.setPadding(2);
+        return cell;
+    }
 
-        // ═══════════════════════════════════════════════════════════
-        // SIGNATURE SECTION
-        // ═══════════════════════════════════════════════════════════
-        PdfPTable sigTable = new PdfPTable(2);
-        sigTable.setWidthPercentage(100);
-        sigTable.setWidths(new float[]{50f, 50f});
+    /** Faculty PDF cell — no teacher name, it is in the header. */
+    private Paragraph facultyCell(List<TimetableEntry> cellEntries) {
+        TimetableEntry entry = cellEntries.get(0);
+        boolean isLab = TimetableGrid.isLab(entry);
+        String courseName = getCourseShortName(entry.getCourse());
+        String roomNum = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "-";
+        String divInfo = divisionLabel(entry);
+        String batchName = entry.getBatch() != null ? entry.getBatch().getName() : null;
+
+        Paragraph cellPara = new Paragraph();
+        cellPara.setAlignment(Element.ALIGN_CENTER);
+        cellPara.setLeading(8f);
+
+        if (isLab && batchName != null) {
+            // Lab format: "TY A\nB2-DAA Lab\n(H204B)"
+            cellPara.add(new Chunk(divInfo, Pdf.CELL_DETAIL));
+            cellPara.add(new Chunk("\n", Pdf.CELL_DETAIL));
+            cellPara.add(new Chunk(batchName + "-" + courseName + " Lab", Pdf.CELL_COURSE));
+            cellPara.add(new Chunk("\n", Pdf.CELL_DETAIL));
+            cellPara.add(new Chunk("(" + roomNum + ")", Pdf.CELL_DETAIL));
+        } else if (isLab) {
+            // Lab without batch
+            cellPara.add(new Chunk(courseName + " Lab", Pdf.CELL_COURSE));
+            cellPara.add(new Chunk("\n", Pdf.CELL_DETAIL));
+            cellPara.add(new Chunk(divInfo + " (" + roomNum + ")", Pdf.CELL_DETAIL));
+        } else {
+            // Theory format: "DAA\nTY A\nH301"
+            cellPara.add(new Chunk(courseName, Pdf.CELL_COURSE));
+            cellPara.add(new Chunk("\n", Pdf.CELL_DETAIL));
+            cellPara.add(new Chunk(divInfo, Pdf.CELL_DETAIL));
+            cellPara.add(new Chunk("\n", Pdf.CELL_DETAIL));
+            cellPara.add(new Chunk(roomNum, Pdf.CELL_DETAIL));
+        }
+
+        // Other batches in the same slot
+        for (int ei = 1; ei < cellEntries.size(); ei++) {
+            TimetableEntry extraEntry = cellEntries.get(ei);
+            String extraBatch = extraEntry.getBatch() != null ? extraEntry.getBatch().getName() : "";
+            String extraRoom = extraEntry.getRoom() != null ? extraEntry.getRoom().getRoomNumber() : "";
+            cellPara.add(new Chunk("\n" + extraBatch + " (" + extraRoom + ")", Pdf.CELL_DETAIL));
+        }
+        return cellPara;
+    }
 
-        PdfPCell sigLeft = new PdfPCell(new Phrase("Time Table Coordinator", sigFont));
-        sigLeft.setBorder(0);
-        sigLeft.setPaddingTop(12);
-        sigLeft.setHorizontalAlignment(Element.ALIGN_LEFT);
-        sigTable.addCell(sigLeft);
+    /** Room PDF cell — course, class and teacher; no room, it is in the header. */
+    private Paragraph roomCell(List<TimetableEntry> cellEntries) {
+        List<String> lines = roomCellLines(cellEntries);
+        Paragraph cp = new Paragraph();
+        cp.setAlignment(Element.ALIGN_CENTER);
+        cp.setLeading(8f);
+        cp.add(new Chunk(lines.get(0), Pdf.CELL_COURSE));
+        for (String line : lines.subList(1, lines.size())) {
+            cp.add(new Chunk("\n" + line, Pdf.CELL_DETAIL));
+        }
+        return cp;
+    }
 
-        PdfPCell sigRight = new PdfPCell(new Phrase("HOD " + deptName.replace("SCHOOL OF ", ""), sigFont));
-        sigRight.setBorder(0);
-        sigRight.setPaddingTop(12);
-        sigRight.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        sigTable.addCell(sigRight);
+    /** Lines of a room cell, shared by the PDF and the workbook: the first is the course. */
+    private List<String> roomCellLines(List<TimetableEntry> cellEntries) {
+        TimetableEntry entry = cellEntries.get(0);
+        String cn = getCourseShortName(entry.getCourse());
+        String ts = entry.getTeacher() != null ? getProfessorShortName(entry.getTeacher()) : "-";
+        String di = divisionLabel(entry);
+        String batch = entry.getBatch() != null ? entry.getBatch().getName() : null;
+
+        List<String> lines = new ArrayList<>();
+        if (TimetableGrid.isLab(entry) && batch != null) {
+            lines.add(batch + "-" + cn + " Lab");
+            lines.add(di + " - " + ts);
+        } else {
+            lines.add(cn);
+            lines.add(di);
+            lines.add(ts);
+        }
+        for (int ei = 1; ei < cellEntries.size(); ei++) {
+            TimetableEntry ex = cellEntries.get(ei);
+            String eb = ex.getBatch() != null ? ex.getBatch().getName() : "";
+            String et = ex.getTeacher() != null ? getProfessorShortName(ex.getTeacher()) : "";
+            lines.add(eb + " - " + et);
+        }
+        return lines;
+    }
 
-        doc.add(sigTable);
-        doc.close();
-        return out.toByteArray();
+    /** "TY A" — year and division of an entry. */
+    private String divisionLabel(TimetableEntry entry) {
+        if (entry.getDivision() == null) return "";
+        String yearLabel = entry.getDivision().getYear() != null ? getYearLabel(entry.getDivision().getYear()) : "";
+        String divName = entry.getDivision().getName() != null ? entry.getDivision().getName() : "";
+        return yearLabel + " " + divName;
     }
 
-    private byte[] buildPDF(List<TimetableEntry> entries, List<TimeSlot> slots, String title) throws Exception {
+    private void buildPDF(List<TimetableEntry> entries, List<TimeSlot> slots, String title, OutputStream out) throws Exception {
         Map<String, TimetableEntry> lookup = buildLookup(entries);
         
         // Track which cells have been merged (to skip rendering duplicate content)
         java.util.Set<String> mergedCells = new java.util.HashSet<>();
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document doc = new Document(PageSize.A4.rotate(), 20, 20, 30, 20);
-        PdfWriter.getInstance(doc, out);
+        PdfWriter.getInstance(doc, out).setCloseStream(false);
         doc.open();
 
         // Fonts
@@ -2126,7 +1820,6 @@ public class TimetableExportService {
 
         doc.add(table);
         doc.close();
-        return out.toByteArray();
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -2152,22 +1845,6 @@ public class TimetableExportService {
         }
     }
 
-    /**
-     * Build a multi-value lookup map for timetable entries.
-     * Key: "DAYNAME:slotId", Value: list of all entries at that day+slot.
-     * This handles lab sessions where multiple batches occupy the same slot.
-     */
-    private Map<String, List<TimetableEntry>> buildMultiLookup(List<TimetableEntry> entries) {
-        Map<String, List<TimetableEntry>> multiLookup = new HashMap<>();
-        for (TimetableEntry e : entries) {
-            if (e.getDayOfWeek() != null && e.getTimeSlot() != null) {
-                String key = e.getDayOfWeek().name() + ":" + e.getTimeSlot().getId();
-                multiLookup.computeIfAbsent(key, k -> new ArrayList<>()).add(e);
-            }
-        }
-        return multiLookup;
-    }
-
     /**
      * Generate division timetable PDF in the official MITAOE institutional format.
      *
@@ -2176,15 +1853,13 @@ public class TimetableExportService {
      * Includes: institutional header with logo, metadata panel, teaching load,
      * course/teacher reference tables, and signature section.
      */
-    private byte[] buildInstitutionalDivisionPDF(
+    private void buildInstitutionalDivisionPDF(
             List<TimetableEntry> entries,
             List<TimeSlot> slots,
             Division division,
             AcademicYear academicYear,
-            Semester semester) throws Exception {
-
-        // ── Multi-value lookup (supports multiple lab batches per slot) ──
-        Map<String, List<TimetableEntry>> multiLookup = buildMultiLookup(entries);
+            Semester semester,
+            OutputStream out) throws Exception {
 
         // ── Calculate teaching load ──
         long theoryCount = entries.stream()
@@ -2215,29 +1890,10 @@ public class TimetableExportService {
         }
 
         // ── Create PDF document — Landscape A4, tight margins ──
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document doc = new Document(PageSize.A4.rotate(), 10, 10, 8, 8);
-        PdfWriter.getInstance(doc, out);
+        PdfWriter.getInstance(doc, out).setCloseStream(false);
         doc.open();
 
-        // ── Font definitions ──
-        Font titleFont = new Font(Font.HELVETICA, 11, Font.BOLD, Color.BLACK);
-        Font metaLabelFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font metaValueFont = new Font(Font.HELVETICA, 7, Font.NORMAL, Color.BLACK);
-        Font smallFont = new Font(Font.HELVETICA, 6, Font.NORMAL, Color.DARK_GRAY);
-        Font deptFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-
-        Color headerBgColor = new Color(214, 228, 240); // Light steel blue
-        Font gridHeaderFont = new Font(Font.HELVETICA, 6, Font.BOLD, new Color(27, 42, 78)); // Dark navy text
-        Font dayFont = new Font(Font.HELVETICA, 7, Font.BOLD, Color.BLACK);
-        Font cellCourseFont = new Font(Font.HELVETICA, 6.5f, Font.BOLD, Color.BLACK);
-        Font cellDetailFont = new Font(Font.HELVETICA, 6, Font.NORMAL, Color.BLACK);
-        Font labBatchFont = new Font(Font.HELVETICA, 5.5f, Font.NORMAL, Color.BLACK);
-        Font breakFont = new Font(Font.HELVETICA, 5.5f, Font.ITALIC, Color.GRAY);
-        Font refHeaderFont = new Font(Font.HELVETICA, 6, Font.BOLD, Color.BLACK);
-        Font refCellFont = new Font(Font.HELVETICA, 5.5f, Font.NORMAL, Color.BLACK);
-        Font sigFont = new Font(Font.HELVETICA, 7, Font.NORMAL, Color.BLACK);
-
         // ═══════════════════════════════════════════════════════════
         // SECTION 1: INSTITUTIONAL HEADER (3-col × 6-row bordered table)
         // ═══════════════════════════════════════════════════════════
@@ -2258,11 +1914,9 @@ public class TimetableExportService {
         headerTable.setWidthPercentage(100);
         headerTable.setWidths(new float[]{50f, 22f, 28f});
 
-        float hdrBorderWidth = 0.5f;
-
         // ──────── ROW 1: Logo + Address | CLASS | value ────────
         PdfPCell logoCell = new PdfPCell();
-        logoCell.setBorderWidth(hdrBorderWidth);
+        logoCell.setBorderWidth(BORDER);
         logoCell.setPadding(3);
         logoCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         try {
@@ -2270,93 +1924,93 @@ public class TimetableExportService {
             logo.scaleToFit(120, 28);
             Paragraph logoPara = new Paragraph();
             logoPara.add(new Chunk(logo, 0, 0, true));
-            logoPara.add(new Chunk("  Alandi (D), Pune - 412 105", smallFont));
+            logoPara.add(new Chunk("  Alandi (D), Pune - 412 105", Pdf.SMALL));
             logoCell.addElement(logoPara);
         } catch (Exception e) {
-            logoCell.setPhrase(new Phrase("MIT Academy of Engineering, Alandi (D), Pune - 412 105", metaLabelFont));
+            logoCell.setPhrase(new Phrase("MIT Academy of Engineering, Alandi (D), Pune - 412 105", Pdf.META_LABEL));
         }
         headerTable.addCell(logoCell);
 
-        PdfPCell r1Lbl = new PdfPCell(new Phrase("CLASS", metaLabelFont));
-        r1Lbl.setBorderWidth(hdrBorderWidth); r1Lbl.setPadding(3); r1Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r1Lbl = new PdfPCell(new Phrase("CLASS", Pdf.META_LABEL));
+        r1Lbl.setBorderWidth(BORDER); r1Lbl.setPadding(3); r1Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r1Lbl);
-        PdfPCell r1Val = new PdfPCell(new Phrase(classLabel.trim(), metaValueFont));
-        r1Val.setBorderWidth(hdrBorderWidth); r1Val.setPadding(3); r1Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r1Val = new PdfPCell(new Phrase(classLabel.trim(), Pdf.META_VALUE));
+        r1Val.setBorderWidth(BORDER); r1Val.setPadding(3); r1Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r1Val);
 
         // ──────── ROW 2: Department | CLASS COORDINATOR | value ────────
-        PdfPCell deptCell = new PdfPCell(new Phrase(deptName, deptFont));
-        deptCell.setBorderWidth(hdrBorderWidth); deptCell.setPadding(3); deptCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell deptCell = new PdfPCell(new Phrase(deptName, Pdf.META_LABEL));
+        deptCell.setBorderWidth(BORDER); deptCell.setPadding(3); deptCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(deptCell);
 
-        PdfPCell r2Lbl = new PdfPCell(new Phrase("CLASS COORDINATOR", metaLabelFont));
-        r2Lbl.setBorderWidth(hdrBorderWidth); r2Lbl.setPadding(3); r2Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r2Lbl = new PdfPCell(new Phrase("CLASS COORDINATOR", Pdf.META_LABEL));
+        r2Lbl.setBorderWidth(BORDER); r2Lbl.setPadding(3); r2Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r2Lbl);
-        PdfPCell r2Val = new PdfPCell(new Phrase(coordinator, metaValueFont));
-        r2Val.setBorderWidth(hdrBorderWidth); r2Val.setPadding(3); r2Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r2Val = new PdfPCell(new Phrase(coordinator, Pdf.META_VALUE));
+        r2Val.setBorderWidth(BORDER); r2Val.setPadding(3); r2Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r2Val);
 
         // ──────── ROW 3: CLASS WISE TIME TABLE | DIVISION | value ────────
-        PdfPCell titleCell = new PdfPCell(new Phrase("CLASS WISE TIME TABLE", titleFont));
-        titleCell.setBorderWidth(hdrBorderWidth); titleCell.setPadding(3);
+        PdfPCell titleCell = new PdfPCell(new Phrase("CLASS WISE TIME TABLE", Pdf.TITLE));
+        titleCell.setBorderWidth(BORDER); titleCell.setPadding(3);
         titleCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         titleCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(titleCell);
 
-        PdfPCell r3Lbl = new PdfPCell(new Phrase("DIVISION", metaLabelFont));
-        r3Lbl.setBorderWidth(hdrBorderWidth); r3Lbl.setPadding(3); r3Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r3Lbl = new PdfPCell(new Phrase("DIVISION", Pdf.META_LABEL));
+        r3Lbl.setBorderWidth(BORDER); r3Lbl.setPadding(3); r3Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r3Lbl);
-        PdfPCell r3Val = new PdfPCell(new Phrase(divName, metaValueFont));
-        r3Val.setBorderWidth(hdrBorderWidth); r3Val.setPadding(3); r3Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r3Val = new PdfPCell(new Phrase(divName, Pdf.META_VALUE));
+        r3Val.setBorderWidth(BORDER); r3Val.setPadding(3); r3Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r3Val);
 
         // ──────── ROW 4: ACADEMIC YEAR | THEORY | value ────────
         PdfPCell ayCell = new PdfPCell(new Phrase("ACADEMIC YEAR : " +
-            (academicYear != null ? academicYear.getYearName() : ""), metaValueFont));
-        ayCell.setBorderWidth(hdrBorderWidth); ayCell.setPadding(3);
+            (academicYear != null ? academicYear.getYearName() : ""), Pdf.META_VALUE));
+        ayCell.setBorderWidth(BORDER); ayCell.setPadding(3);
         ayCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         ayCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(ayCell);
 
-        PdfPCell r4Lbl = new PdfPCell(new Phrase("THEORY", metaLabelFont));
-        r4Lbl.setBorderWidth(hdrBorderWidth); r4Lbl.setPadding(3); r4Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r4Lbl = new PdfPCell(new Phrase("THEORY", Pdf.META_LABEL));
+        r4Lbl.setBorderWidth(BORDER); r4Lbl.setPadding(3); r4Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r4Lbl);
-        PdfPCell r4Val = new PdfPCell(new Phrase(String.valueOf(theoryCount), metaValueFont));
-        r4Val.setBorderWidth(hdrBorderWidth); r4Val.setPadding(3); r4Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r4Val = new PdfPCell(new Phrase(String.valueOf(theoryCount), Pdf.META_VALUE));
+        r4Val.setBorderWidth(BORDER); r4Val.setPadding(3); r4Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r4Val);
 
         // ──────── ROW 5: SEMESTER | PRACTICAL/TUTORIAL | value ────────
-        PdfPCell semCell = new PdfPCell(new Phrase("SEMESTER : " + toRomanNumeral(semester), metaValueFont));
-        semCell.setBorderWidth(hdrBorderWidth); semCell.setPadding(3);
+        PdfPCell semCell = new PdfPCell(new Phrase("SEMESTER : " + toRomanNumeral(semester), Pdf.META_VALUE));
+        semCell.setBorderWidth(BORDER); semCell.setPadding(3);
         semCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         semCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(semCell);
 
-        PdfPCell r5Lbl = new PdfPCell(new Phrase("PRACTICAL/TUTORIAL", metaLabelFont));
-        r5Lbl.setBorderWidth(hdrBorderWidth); r5Lbl.setPadding(3); r5Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r5Lbl = new PdfPCell(new Phrase("PRACTICAL/TUTORIAL", Pdf.META_LABEL));
+        r5Lbl.setBorderWidth(BORDER); r5Lbl.setPadding(3); r5Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r5Lbl);
-        PdfPCell r5Val = new PdfPCell(new Phrase(String.valueOf(labCount), metaValueFont));
-        r5Val.setBorderWidth(hdrBorderWidth); r5Val.setPadding(3); r5Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r5Val = new PdfPCell(new Phrase(String.valueOf(labCount), Pdf.META_VALUE));
+        r5Val.setBorderWidth(BORDER); r5Val.setPadding(3); r5Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r5Val);
 
         // ──────── ROW 6: W.E.F. + Rev No. | TOTAL | value ────────
         PdfPCell wefCell = new PdfPCell();
-        wefCell.setBorderWidth(hdrBorderWidth); wefCell.setPadding(3);
+        wefCell.setBorderWidth(BORDER); wefCell.setPadding(3);
         wefCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
         Paragraph wefPara = new Paragraph("W.E.F. : " +
-            LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")), metaValueFont);
+            LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")), Pdf.META_VALUE);
         wefPara.setAlignment(Element.ALIGN_CENTER);
         wefCell.addElement(wefPara);
-        Paragraph revPara = new Paragraph("Rev. No. : 01", smallFont);
+        Paragraph revPara = new Paragraph("Rev. No. : 01", Pdf.SMALL);
         revPara.setAlignment(Element.ALIGN_RIGHT);
         wefCell.addElement(revPara);
         headerTable.addCell(wefCell);
 
-        PdfPCell r6Lbl = new PdfPCell(new Phrase("TOTAL", metaLabelFont));
-        r6Lbl.setBorderWidth(hdrBorderWidth); r6Lbl.setPadding(3); r6Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r6Lbl = new PdfPCell(new Phrase("TOTAL", Pdf.META_LABEL));
+        r6Lbl.setBorderWidth(BORDER); r6Lbl.setPadding(3); r6Lbl.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r6Lbl);
-        PdfPCell r6Val = new PdfPCell(new Phrase(String.valueOf(totalCount), metaLabelFont));
-        r6Val.setBorderWidth(hdrBorderWidth); r6Val.setPadding(3); r6Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        PdfPCell r6Val = new PdfPCell(new Phrase(String.valueOf(totalCount), Pdf.META_LABEL));
+        r6Val.setBorderWidth(BORDER); r6Val.setPadding(3); r6Val.setVerticalAlignment(Element.ALIGN_MIDDLE);
         headerTable.addCell(r6Val);
 
         doc.add(headerTable);
@@ -2365,199 +2019,118 @@ public class TimetableExportService {
         // SECTION 2: TIMETABLE GRID (Days = Rows, Time = Columns)
         // ═══════════════════════════════════════════════════════════
 
-        int numSlots = slots.size();
+        TimetableGrid layout = TimetableGrid.of(slots, entries);
+        int numSlots = layout.columns();
         PdfPTable grid = new PdfPTable(numSlots + 1); // 1 day column + N slot columns
         grid.setWidthPercentage(100);
 
-        // Calculate column widths: day col narrow, breaks narrow, regular slots equal
-        float[] colWidths = new float[numSlots + 1];
-        colWidths[0] = 4f; // Day label column
-        float totalSlotWidth = 96f;
-        int breakCount = 0;
-        int regularCount = 0;
-        for (TimeSlot s : slots) {
-            if (Boolean.TRUE.equals(s.getIsBreak())) breakCount++;
-            else regularCount++;
-        }
-        float breakWidth = 1.8f;
-        float regularWidth = regularCount > 0
-            ? (totalSlotWidth - (breakCount * breakWidth)) / regularCount
-            : totalSlotWidth / numSlots;
-
-        for (int i = 0; i < numSlots; i++) {
-            colWidths[i + 1] = Boolean.TRUE.equals(slots.get(i).getIsBreak()) ? breakWidth : regularWidth;
-        }
-        grid.setWidths(colWidths);
+        // Column widths: day col narrow, breaks narrow, regular slots share the rest
+        grid.setWidths(layout.columnWidths(4f, 1.8f));
 
         // ── Header row: "Day/Time" + slot time ranges ──
-        PdfPCell dayTimeHeader = new PdfPCell(new Phrase("Day/\nTime", gridHeaderFont));
-        dayTimeHeader.setBackgroundColor(headerBgColor);
+        PdfPCell dayTimeHeader = new PdfPCell(new Phrase("Day/\nTime", Pdf.GRID_HEADER));
+        dayTimeHeader.setBackgroundColor(ExportPalette.HEADER_BG);
         dayTimeHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
         dayTimeHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
         dayTimeHeader.setPadding(2);
-        dayTimeHeader.setBorderWidth(0.5f);
+        dayTimeHeader.setBorderWidth(BORDER);
         grid.addCell(dayTimeHeader);
 
-        int periodNumber = 1;
-        for (TimeSlot slot : slots) {
+        for (int c = 0; c < numSlots; c++) {
+            TimeSlot slot = layout.slot(c);
             PdfPCell slotHeader = new PdfPCell();
-            slotHeader.setBackgroundColor(headerBgColor);
+            slotHeader.setBackgroundColor(ExportPalette.HEADER_BG);
             slotHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
             slotHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
             slotHeader.setPadding(1);
-            slotHeader.setBorderWidth(0.5f);
+            slotHeader.setBorderWidth(BORDER);
 
-            if (Boolean.TRUE.equals(slot.getIsBreak())) {
+            if (layout.isBreak(c)) {
                 // Break header: just a narrow column
-                slotHeader.setPhrase(new Phrase("", gridHeaderFont));
+                slotHeader.setPhrase(new Phrase("", Pdf.GRID_HEADER));
             } else {
                 // Regular slot: time range + period number
                 String timeStr = slot.getStartTime() != null
                     ? slot.getStartTime().toString().substring(0, 5) : "??:??";
                 String endStr = slot.getEndTime() != null
                     ? slot.getEndTime().toString().substring(0, 5) : "??:??";
-                Paragraph timePara = new Paragraph(timeStr + "\nto\n" + endStr, new Font(Font.HELVETICA, 5, Font.BOLD, new Color(27, 42, 78)));
+                Paragraph timePara = new Paragraph(timeStr + "\nto\n" + endStr, Pdf.GRID_TIME);
                 timePara.setAlignment(Element.ALIGN_CENTER);
                 slotHeader.addElement(timePara);
-                Paragraph numPara = new Paragraph(String.valueOf(periodNumber), new Font(Font.HELVETICA, 7, Font.BOLD, new Color(27, 42, 78)));
+                Paragraph numPara = new Paragraph(String.valueOf(layout.period(c)), Pdf.GRID_PERIOD);
                 numPara.setAlignment(Element.ALIGN_CENTER);
                 slotHeader.addElement(numPara);
-                periodNumber++;
             }
             grid.addCell(slotHeader);
         }
 
         // ── Day rows (6 rows: MON through SAT) ──
-        String[] dayKeys = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"};
-        String[] dayLabels = {"MON", "TUE", "WED", "THU", "FRI", "SAT"};
-
-        for (int d = 0; d < dayKeys.length; d++) {
-            String dayKey = dayKeys[d];
-            String dayLabel = dayLabels[d];
-
+        for (int d = 0; d < layout.days(); d++) {
             // Day label cell
-            PdfPCell dayCell = new PdfPCell(new Phrase(dayLabel, dayFont));
+            PdfPCell dayCell = new PdfPCell(new Phrase(TimetableGrid.DAY_ABBREVIATIONS[d], Pdf.DAY));
             dayCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             dayCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
             dayCell.setPadding(2);
-            dayCell.setBorderWidth(0.5f);
+            dayCell.setBorderWidth(BORDER);
             dayCell.setMinimumHeight(38);
             grid.addCell(dayCell);
 
             // Slot cells for this day
-            for (TimeSlot slot : slots) {
-                if (Boolean.TRUE.equals(slot.getIsBreak())) {
+            for (int c = 0; c < numSlots; c++) {
+                if (layout.isBreak(c)) {
                     if (d == 0) {
                         // First day row: create merged break cell spanning all 6 day rows
                         PdfPCell brkCell = new PdfPCell();
-                        brkCell.setRowspan(dayKeys.length); // Span all day rows
-                        brkCell.setBackgroundColor(new Color(245, 245, 245));
-                        brkCell.setBorderWidth(0.5f);
+                        brkCell.setRowspan(layout.days());
+                        brkCell.setBackgroundColor(ExportPalette.GRID_BREAK_BG);
+                        brkCell.setBorderWidth(BORDER);
                         brkCell.setHorizontalAlignment(Element.ALIGN_CENTER);
                         brkCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
                         brkCell.setPadding(1);
 
                         // Stacked vertical letter text
-                        String breakText;
-                        String slotName = slot.getSlotName() != null ? slot.getSlotName().toLowerCase() : "";
-                        if (slotName.contains("lunch")) {
-                            breakText = "L\nU\nN\nC\nH\n\nB\nR\nE\nA\nK";
-                        } else {
-                            breakText = "S\nH\nO\nR\nT\n\nB\nR\nE\nA\nK";
-                        }
-                        Font brkVertFont = new Font(Font.HELVETICA, 5.5f, Font.BOLD, Color.GRAY);
-                        Paragraph brkPara = new Paragraph(breakText, brkVertFont);
+                        String breakText = isLunch(layout.slot(c))
+                            ? "L\nU\nN\nC\nH\n\nB\nR\nE\nA\nK"
+                            : "S\nH\nO\nR\nT\n\nB\nR\nE\nA\nK";
+                        Paragraph brkPara = new Paragraph(breakText, Pdf.GRID_BREAK);
                         brkPara.setAlignment(Element.ALIGN_CENTER);
                         brkPara.setLeading(6.5f);
                         brkCell.addElement(brkPara);
                         grid.addCell(brkCell);
                     }
                     // For subsequent day rows (d > 0), do NOT add a cell — rowspan covers it
-                } else {
-                    // Regular entry cell
-                    String key = dayKey + ":" + slot.getId();
-                    List<TimetableEntry> slotEntries = multiLookup.getOrDefault(key, Collections.emptyList());
-
-                    PdfPCell entryCell = new PdfPCell();
-                    entryCell.setPadding(2);
-                    entryCell.setBorderWidth(0.5f);
-                    entryCell.setMinimumHeight(38);
-                    entryCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-
-                    if (!slotEntries.isEmpty()) {
-                        // Check if this is a multi-batch lab slot
-                        boolean hasMultipleBatches = slotEntries.size() > 1;
-                        boolean allLabs = slotEntries.stream()
-                            .allMatch(e -> e.getCourse() != null && e.getCourse().getCourseType() == CourseType.LAB);
-
-                        if (hasMultipleBatches && allLabs) {
-                            // Lab cell: list all batches, one line each
-                            // Sort by batch name for consistent ordering
-                            slotEntries.sort((a, b) -> {
-                                String batchA = a.getBatch() != null ? a.getBatch().getName() : "";
-                                String batchB = b.getBatch() != null ? b.getBatch().getName() : "";
-                                return batchA.compareTo(batchB);
-                            });
-                            for (TimetableEntry entry : slotEntries) {
-                                String batchName = entry.getBatch() != null ? entry.getBatch().getName() : "";
-                                String courseName = getCourseShortName(entry.getCourse());
-                                String teacherName = getProfessorShortName(entry.getTeacher());
-                                String room = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "";
-                                String line = batchName + "-" + courseName + "-" + teacherName + " (" + room + ")";
-                                Paragraph linePara = new Paragraph(line, labBatchFont);
-                                linePara.setAlignment(Element.ALIGN_CENTER);
-                                linePara.setLeading(6.5f);
-                                entryCell.addElement(linePara);
-                            }
-                        } else {
-                            // Single entry (theory or single lab)
-                            TimetableEntry entry = slotEntries.get(0);
-                            String courseName = getCourseShortName(entry.getCourse());
-                            String teacherName = getProfessorShortName(entry.getTeacher());
-                            String room = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "";
-
-                            boolean isLab = entry.getCourse() != null
-                                && entry.getCourse().getCourseType() == CourseType.LAB;
+                    continue;
+                }
 
-                            if (isLab && entry.getBatch() != null) {
-                                // Single lab batch
-                                String batchName = entry.getBatch().getName();
-                                Paragraph p1 = new Paragraph(batchName + "-" + courseName, cellCourseFont);
-                                p1.setAlignment(Element.ALIGN_CENTER);
-                                p1.setLeading(7f);
-                                entryCell.addElement(p1);
-
-                                Paragraph p2 = new Paragraph(teacherName, cellDetailFont);
-                                p2.setAlignment(Element.ALIGN_CENTER);
-                                p2.setLeading(6.5f);
-                                entryCell.addElement(p2);
-
-                                Paragraph p3 = new Paragraph(room, cellDetailFont);
-                                p3.setAlignment(Element.ALIGN_CENTER);
-                                p3.setLeading(6.5f);
-                                entryCell.addElement(p3);
-                            } else {
-                                // Theory: 3 lines stacked centered
-                                Paragraph p1 = new Paragraph(courseName, cellCourseFont);
-                                p1.setAlignment(Element.ALIGN_CENTER);
-                                p1.setLeading(7f);
-                                entryCell.addElement(p1);
-
-                                Paragraph p2 = new Paragraph(teacherName, cellDetailFont);
-                                p2.setAlignment(Element.ALIGN_CENTER);
-                                p2.setLeading(6.5f);
-                                entryCell.addElement(p2);
-
-                                Paragraph p3 = new Paragraph(room, cellDetailFont);
-                                p3.setAlignment(Element.ALIGN_CENTER);
-                                p3.setLeading(6.5f);
-                                entryCell.addElement(p3);
-                            }
+                PdfPCell entryCell = new PdfPCell();
+                entryCell.setPadding(2);
+                entryCell.setBorderWidth(BORDER);
+                entryCell.setMinimumHeight(38);
+                entryCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+
+                List<TimetableEntry> slotEntries = layout.entries(d, c);
+                if (!slotEntries.isEmpty()) {
+                    List<String> lines = divisionCellLines(slotEntries);
+                    if (isBatchList(slotEntries)) {
+                        // Lab cell: all batches, one line each
+                        for (String line : lines) {
+                            Paragraph linePara = new Paragraph(line, Pdf.LAB_BATCH);
+                            linePara.setAlignment(Element.ALIGN_CENTER);
+                            linePara.setLeading(6.5f);
+                            entryCell.addElement(linePara);
+                        }
+                    } else {
+                        // Course, teacher and room stacked centered
+                        for (int i = 0; i < lines.size(); i++) {
+                            Paragraph p = new Paragraph(lines.get(i), i == 0 ? Pdf.CELL_COURSE : Pdf.CELL_DETAIL);
+                            p.setAlignment(Element.ALIGN_CENTER);
+                            p.setLeading(i == 0 ? 7f : 6.5f);
+                            entryCell.addElement(p);
                         }
                     }
-                    // Empty cells stay blank (no dash)
-                    grid.addCell(entryCell);
                 }
+                // Empty cells stay blank (no dash)
+                grid.addCell(entryCell);
             }
         }
 
@@ -2567,7 +2140,7 @@ public class TimetableExportService {
         // SECTION 3: REFERENCE TABLES
         // ═══════════════════════════════════════════════════════════
 
-        doc.add(new Paragraph(" ", new Font(Font.HELVETICA, 2)));
+        doc.add(new Paragraph(" ", Pdf.GAP_2));
 
         // Wrapper table: 2 columns for side-by-side reference tables
         PdfPTable refWrapper = new PdfPTable(2);
@@ -2582,8 +2155,8 @@ public class TimetableExportService {
         // Course table header
         String[] courseHeaders = {"Course Code", "Course Name (Short)", "Type", "Room No."};
         for (String h : courseHeaders) {
-            PdfPCell hCell = new PdfPCell(new Phrase(h, refHeaderFont));
-            hCell.setBackgroundColor(new Color(230, 230, 230));
+            PdfPCell hCell = new PdfPCell(new Phrase(h, Pdf.REFERENCE_HEADER));
+            hCell.setBackgroundColor(ExportPalette.REFERENCE_BG);
             hCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             hCell.setPadding(2);
             hCell.setBorderWidth(0.5f);
@@ -2595,7 +2168,7 @@ public class TimetableExportService {
             CourseEntity course = ce.getValue();
             Set<String> rooms = courseRooms.getOrDefault(ce.getKey(), Collections.emptySet());
 
-            PdfPCell codeCell = new PdfPCell(new Phrase(course.getCode() != null ? course.getCode() : "", refCellFont));
+            PdfPCell codeCell = new PdfPCell(new Phrase(course.getCode() != null ? course.getCode() : "", Pdf.REFERENCE_CELL));
             codeCell.setPadding(1);
             codeCell.setBorderWidth(0.5f);
             courseRefTable.addCell(codeCell);
@@ -2604,19 +2177,19 @@ public class TimetableExportService {
             if (course.getShortName() != null && !course.getShortName().isEmpty()) {
                 nameWithShort = course.getName() + " (" + course.getShortName() + ")";
             }
-            PdfPCell nameCell = new PdfPCell(new Phrase(nameWithShort, refCellFont));
+            PdfPCell nameCell = new PdfPCell(new Phrase(nameWithShort, Pdf.REFERENCE_CELL));
             nameCell.setPadding(1);
             nameCell.setBorderWidth(0.5f);
             courseRefTable.addCell(nameCell);
 
             String typeLabel = course.getCourseType() == CourseType.LAB ? "Lab" : "Theory";
-            PdfPCell typeCell = new PdfPCell(new Phrase(typeLabel, refCellFont));
+            PdfPCell typeCell = new PdfPCell(new Phrase(typeLabel, Pdf.REFERENCE_CELL));
             typeCell.setPadding(1);
             typeCell.setBorderWidth(0.5f);
             typeCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             courseRefTable.addCell(typeCell);
 
-            PdfPCell roomCell = new PdfPCell(new Phrase(String.join(", ", rooms), refCellFont));
+            PdfPCell roomCell = new PdfPCell(new Phrase(String.join(", ", rooms), Pdf.REFERENCE_CELL));
             roomCell.setPadding(1);
             roomCell.setBorderWidth(0.5f);
             courseRefTable.addCell(roomCell);
@@ -2635,8 +2208,8 @@ public class TimetableExportService {
         // Teacher table header
         String[] teacherHeaders = {"Faculty Name", "Short Name", "Courses Taught"};
         for (String h : teacherHeaders) {
-            PdfPCell hCell = new PdfPCell(new Phrase(h, refHeaderFont));
-            hCell.setBackgroundColor(new Color(230, 230, 230));
+            PdfPCell hCell = new PdfPCell(new Phrase(h, Pdf.REFERENCE_HEADER));
+            hCell.setBackgroundColor(ExportPalette.REFERENCE_BG);
             hCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             hCell.setPadding(2);
             hCell.setBorderWidth(0.5f);
@@ -2648,18 +2221,18 @@ public class TimetableExportService {
             TeacherEntity teacher = te.getValue();
             Set<String> courses = teacherCourses.getOrDefault(te.getKey(), Collections.emptySet());
 
-            PdfPCell nameCell = new PdfPCell(new Phrase(teacher.getName() != null ? teacher.getName() : "", refCellFont));
+            PdfPCell nameCell = new PdfPCell(new Phrase(teacher.getName() != null ? teacher.getName() : "", Pdf.REFERENCE_CELL));
             nameCell.setPadding(1);
             nameCell.setBorderWidth(0.5f);
             teacherRefTable.addCell(nameCell);
 
-            PdfPCell shortCell = new PdfPCell(new Phrase(getProfessorShortName(teacher), refCellFont));
+            PdfPCell shortCell = new PdfPCell(new Phrase(getProfessorShortName(teacher), Pdf.REFERENCE_CELL));
             shortCell.setPadding(1);
             shortCell.setBorderWidth(0.5f);
             shortCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             teacherRefTable.addCell(shortCell);
 
-            PdfPCell coursesCell = new PdfPCell(new Phrase(String.join(", ", courses), refCellFont));
+            PdfPCell coursesCell = new PdfPCell(new Phrase(String.join(", ", courses), Pdf.REFERENCE_CELL));
             coursesCell.setPadding(1);
             coursesCell.setBorderWidth(0.5f);
             teacherRefTable.addCell(coursesCell);
@@ -2676,25 +2249,25 @@ public class TimetableExportService {
         // SECTION 4: SIGNATURE SECTION
         // ═══════════════════════════════════════════════════════════
 
-        doc.add(new Paragraph(" ", new Font(Font.HELVETICA, 3)));
+        doc.add(new Paragraph(" ", Pdf.GAP_3));
 
         PdfPTable sigTable = new PdfPTable(3);
         sigTable.setWidthPercentage(90);
         sigTable.setWidths(new float[]{33f, 34f, 33f});
 
-        PdfPCell sigLeft = new PdfPCell(new Phrase("TIME TABLE COORDINATOR", sigFont));
+        PdfPCell sigLeft = new PdfPCell(new Phrase("TIME TABLE COORDINATOR", Pdf.META_VALUE));
         sigLeft.setBorder(PdfPCell.NO_BORDER);
         sigLeft.setHorizontalAlignment(Element.ALIGN_LEFT);
         sigLeft.setPaddingTop(12);
         sigTable.addCell(sigLeft);
 
-        PdfPCell sigCenter = new PdfPCell(new Phrase("HOD", sigFont));
+        PdfPCell sigCenter = new PdfPCell(new Phrase("HOD", Pdf.META_VALUE));
         sigCenter.setBorder(PdfPCell.NO_BORDER);
         sigCenter.setHorizontalAlignment(Element.ALIGN_CENTER);
         sigCenter.setPaddingTop(12);
         sigTable.addCell(sigCenter);
 
-        PdfPCell sigRight = new PdfPCell(new Phrase("DY. DIRECTOR / DIRECTOR", sigFont));
+        PdfPCell sigRight = new PdfPCell(new Phrase("DY. DIRECTOR / DIRECTOR", Pdf.META_VALUE));
         sigRight.setBorder(PdfPCell.NO_BORDER);
         sigRight.setHorizontalAlignment(Element.ALIGN_RIGHT);
         sigRight.setPaddingTop(12);
@@ -2703,14 +2276,47 @@ public class TimetableExportService {
         doc.add(sigTable);
 
         doc.close();
-        return out.toByteArray();
+    }
+
+    /** Several lab batches sharing a slot — listed one per line. */
+    private boolean isBatchList(List<TimetableEntry> cellEntries) {
+        return cellEntries.size() > 1 && cellEntries.stream().allMatch(TimetableGrid::isLab);
+    }
+
+    /**
+     * Lines of a division cell, shared by the PDF and the workbook: one "B1-DAA-ABC (H204)"
+     * line per batch for a batch list, otherwise course (with batch for a lab), teacher, room.
+     */
+    private List<String> divisionCellLines(List<TimetableEntry> cellEntries) {
+        List<String> lines = new ArrayList<>();
+        if (isBatchList(cellEntries)) {
+            for (TimetableEntry entry : cellEntries) {
+                String batchName = entry.getBatch() != null ? entry.getBatch().getName() : "";
+                String room = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "";
+                lines.add(batchName + "-" + getCourseShortName(entry.getCourse()) + "-"
+                    + getProfessorShortName(entry.getTeacher()) + " (" + room + ")");
+            }
+            return lines;
+        }
+        TimetableEntry entry = cellEntries.get(0);
+        String courseName = getCourseShortName(entry.getCourse());
+        lines.add(TimetableGrid.isLab(entry) && entry.getBatch() != null
+            ? entry.getBatch().getName() + "-" + courseName
+            : courseName);
+        lines.add(getProfessorShortName(entry.getTeacher()));
+        lines.add(entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "");
+        return lines;
+    }
+
+    private boolean isLunch(TimeSlot slot) {
+        return slot.getSlotName() != null && slot.getSlotName().toLowerCase().contains("lunch");
     }
 
     // ═══════════════════════════════════════════════════════════════
     // EXCEL GENERATION (Semester-Specific)
     // ═══════════════════════════════════════════════════════════════
 
-    public byte[] generateDivisionExcel(Long divisionId, Long academicYearId, Semester semester) throws Exception {
+    public void writeDivisionExcel(Long divisionId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
         // Get all entries for division and filter by semester
         List<TimetableEntry> allEntries = timetableService.getDivisionTimetable(divisionId, academicYearId);
         List<TimetableEntry> entries = allEntries.stream()
@@ -2718,16 +2324,16 @@ public class TimetableExportService {
             .collect(Collectors.toList());
             
         Division division = divisionRepo.findById(divisionId).orElse(null);
-        AcademicYear year = academicYearRepo.findById(academicYearId).orElse(null);
+        AcademicYear year = referenceData.academicYear(academicYearId).orElse(null);
         List<TimeSlot> slots = getSortedSlots(division);
 
-        return buildInstitutionalDivisionExcel(entries, slots, division, year, semester);
+        buildInstitutionalDivisionExcel(entries, slots, division, year, semester, out);
     }
 
-    public byte[] generateTeacherExcel(Long teacherId, Long academicYearId) throws Exception {
+    public void writeTeacherExcel(Long teacherId, Long academicYearId, OutputStream out) throws Exception {
         List<TimetableEntry> entries = timetableService.getTeacherTimetable(teacherId, academicYearId);
         TeacherEntity teacher = teacherRepo.findById(teacherId).orElse(null);
-        AcademicYear year = academicYearRepo.findById(academicYearId).orElse(null);
+        AcademicYear year = referenceData.academicYear(academicYearId).orElse(null);
         List<TimeSlot> slots = getSortedSlotsForEntries(entries);
 
         String sheetName = teacher != null ? teacher.getName() : "Timetable";
@@ -2735,68 +2341,28 @@ public class TimetableExportService {
             teacher != null ? teacher.getName() : "Unknown",
             year != null ? year.getYearName() : "");
 
-        return buildExcel(entries, slots, sheetName, title);
+        buildExcel(entries, slots, sheetName, title, out);
     }
 
-    private byte[] buildExcel(List<TimetableEntry> entries, List<TimeSlot> slots, String sheetName, String title) throws Exception {
-        Map<String, TimetableEntry> lookup = buildLookup(entries);
-        
-        // Track which cells have been merged (to skip rendering duplicate content)
-        java.util.Set<String> mergedCells = new java.util.HashSet<>();
+    private void buildExcel(List<TimetableEntry> entries, List<TimeSlot> slots, String sheetName, String title, OutputStream out) throws Exception {
+        TimetableGrid layout = TimetableGrid.of(slots, entries);
 
         XSSFWorkbook wb = new XSSFWorkbook();
         XSSFSheet sheet = wb.createSheet(sheetName.length() > 31 ? sheetName.substring(0, 31) : sheetName);
 
         // Styles
-        XSSFCellStyle headerStyle = wb.createCellStyle();
-        XSSFFont headerFont = wb.createFont();
-        headerFont.setBold(true);
-        headerFont.setColor(IndexedColors.WHITE.getIndex());
-        headerFont.setFontHeightInPoints((short) 10);
-        headerStyle.setFont(headerFont);
-        headerStyle.setFillForegroundColor(new XSSFColor(new byte[]{27, 42, 78}, null));
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        headerStyle.setAlignment(HorizontalAlignment.CENTER);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-
-        XSSFCellStyle cellStyle = wb.createCellStyle();
-        cellStyle.setWrapText(true);
-        cellStyle.setVerticalAlignment(VerticalAlignment.TOP);
-        cellStyle.setBorderBottom(BorderStyle.THIN);
-        cellStyle.setBorderRight(BorderStyle.THIN);
-
-        XSSFCellStyle breakStyle = wb.createCellStyle();
-        breakStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 240, (byte) 240, (byte) 240}, null));
-        breakStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        breakStyle.setAlignment(HorizontalAlignment.CENTER);
-        XSSFFont breakFont = wb.createFont();
-        breakFont.setItalic(true);
-        breakFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
-        breakStyle.setFont(breakFont);
-
-        // Theory style - consistent blue color
-        XSSFCellStyle theoryStyle = wb.createCellStyle();
-        theoryStyle.cloneStyleFrom(cellStyle);
-        theoryStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 232, (byte) 240, (byte) 254}, null)); // Light blue
-        theoryStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        // Lab style - consistent purple color
-        XSSFCellStyle labStyle = wb.createCellStyle();
-        labStyle.cloneStyleFrom(cellStyle);
-        labStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 243, (byte) 232, (byte) 255}, null)); // Light purple
-        labStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        XSSFCellStyle titleStyle = wb.createCellStyle();
-        XSSFFont titleFont = wb.createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeightInPoints((short) 14);
-        titleStyle.setFont(titleFont);
+        ExcelStyles styles = new ExcelStyles(wb);
+        CellStyle headerStyle = styles.get(Excel.LIST_HEADER);
+        CellStyle cellStyle = styles.get(Excel.LIST_CELL);
+        CellStyle breakStyle = styles.get(Excel.LIST_BREAK);
+        CellStyle theoryStyle = styles.get(Excel.LIST_THEORY);
+        CellStyle labStyle = styles.get(Excel.LIST_LAB);
 
         // Title rows
         Row titleRow = sheet.createRow(0);
         org.apache.poi.ss.usermodel.Cell titleCell = titleRow.createCell(0);
         titleCell.setCellValue("MIT Academy of Engineering");
-        titleCell.setCellStyle(titleStyle);
+        titleCell.setCellStyle(styles.get(Excel.LIST_TITLE));
         sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 6));
 
         Row subtitleRow = sheet.createRow(1);
@@ -2816,12 +2382,12 @@ public class TimetableExportService {
             c.setCellStyle(headerStyle);
         }
 
-        // Data rows
-        for (int slotIdx = 0; slotIdx < slots.size(); slotIdx++) {
-            TimeSlot slot = slots.get(slotIdx);
+        // Data rows: one per slot, days across
+        for (int slotIdx = 0; slotIdx < layout.columns(); slotIdx++) {
+            TimeSlot slot = layout.slot(slotIdx);
             Row row = sheet.createRow(rowIdx++);
 
-            if (Boolean.TRUE.equals(slot.getIsBreak())) {
+            if (layout.isBreak(slotIdx)) {
                 org.apache.poi.ss.usermodel.Cell timeC = row.createCell(0);
                 timeC.setCellValue(formatTime(slot));
                 timeC.setCellStyle(breakStyle);
@@ -2843,89 +2409,42 @@ public class TimetableExportService {
             row.setHeightInPoints(45);
 
             // Day cells
-            for (int d = 0; d < DAY_NAMES.length; d++) {
-                String key = DAY_NAMES[d] + ":" + slot.getId();
-                String cellKey = DAY_NAMES[d] + ":" + slotIdx;
-                
-                // Skip if this cell was already merged
-                if (mergedCells.contains(cellKey)) {
-                    org.apache.poi.ss.usermodel.Cell cell = row.createCell(d + 1);
+            for (int d = 0; d < layout.days(); d++) {
+                org.apache.poi.ss.usermodel.Cell cell = row.createCell(d + 1);
+                int span = layout.span(d, slotIdx);
+                if (span == 0) {
+                    // Covered by the lab session merged from an earlier slot
                     cell.setCellStyle(cellStyle);
                     continue;
                 }
-                
-                TimetableEntry entry = lookup.get(key);
-                org.apache.poi.ss.usermodel.Cell cell = row.createCell(d + 1);
-
-                if (entry != null) {
-                    String courseName = getCourseShortName(entry.getCourse());
-                    String profInitials = entry.getTeacher() != null ? getProfessorShortName(entry.getTeacher()) : "-";
-                    String roomLocation = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "-";
-                    boolean isLab = entry.getCourse() != null && entry.getCourse().getCourseType() == CourseType.LAB;
 
-                    // Get year label
-                    String yearLabel = "";
-                    if (entry.getDivision() != null && entry.getDivision().getYear() != null) {
-                        yearLabel = getYearLabel(entry.getDivision().getYear());
-                    }
-
-                    // Check if this is a lab entry with consecutive slot
-                    boolean shouldMerge = false;
-                    if (isLab && slotIdx + 1 < slots.size()) {
-                        TimeSlot nextSlot = slots.get(slotIdx + 1);
-                        if (!Boolean.TRUE.equals(nextSlot.getIsBreak())) {
-                            String nextKey = DAY_NAMES[d] + ":" + nextSlot.getId();
-                            TimetableEntry nextEntry = lookup.get(nextKey);
-                            
-                            // Check if next entry is same lab session
-                            // Match by: same course, teacher, room, day
-                            if (nextEntry != null && 
-                                nextEntry.getCourse() != null && 
-                                nextEntry.getCourse().getCourseType() == CourseType.LAB &&
-                                entry.getCourse().getId().equals(nextEntry.getCourse().getId()) &&
-                                entry.getTeacher().getId().equals(nextEntry.getTeacher().getId()) &&
-                                entry.getRoom().getId().equals(nextEntry.getRoom().getId()) &&
-                                entry.getDayOfWeek() == nextEntry.getDayOfWeek()) {
-                                
-                                // If both have labSessionGroup, they must match
-                                if (entry.getLabSessionGroup() != null && nextEntry.getLabSessionGroup() != null) {
-                                    shouldMerge = entry.getLabSessionGroup().getId().equals(nextEntry.getLabSessionGroup().getId());
-                                } else if (entry.getBatch() != null && nextEntry.getBatch() != null) {
-                                    // If both have batch, they must match
-                                    shouldMerge = entry.getBatch().getId().equals(nextEntry.getBatch().getId());
-                                } else {
-                                    // Otherwise, match by course/teacher/room is enough
-                                    shouldMerge = true;
-                                }
-                            }
-                        }
-                    }
+                List<TimetableEntry> cellEntries = layout.entries(d, slotIdx);
+                if (cellEntries.isEmpty()) {
+                    cell.setCellValue("-");
+                    cell.setCellStyle(cellStyle);
+                    continue;
+                }
 
-                    String displayText;
-                    if (isLab && entry.getBatch() != null) {
-                        // Lab format: "FY B1 - Course Name - H306B"
-                        String batchName = entry.getBatch().getName();
-                        displayText = yearLabel + " " + batchName + " - " + courseName + " - " + roomLocation;
-                    } else {
-                        // Theory format: "SY A - Course Name - H301"
-                        String divisionName = entry.getDivision() != null ? entry.getDivision().getName() : "";
-                        displayText = yearLabel + " " + divisionName + " - " + courseName + " - " + roomLocation;
-                    }
+                TimetableEntry entry = cellEntries.get(0);
+                String courseName = getCourseShortName(entry.getCourse());
+                String roomLocation = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "-";
+                boolean isLab = TimetableGrid.isLab(entry);
+                String yearLabel = entry.getDivision() != null && entry.getDivision().getYear() != null
+                    ? getYearLabel(entry.getDivision().getYear()) : "";
 
-                    if (shouldMerge) {
-                        // Merge this cell with the next row
-                        cell.setCellValue(displayText);
-                        cell.setCellStyle(labStyle);
-                        sheet.addMergedRegion(new CellRangeAddress(rowIdx - 1, rowIdx, d + 1, d + 1));
-                        // Mark next cell as merged
-                        mergedCells.add(DAY_NAMES[d] + ":" + (slotIdx + 1));
-                    } else {
-                        cell.setCellValue(displayText);
-                        cell.setCellStyle(isLab ? labStyle : theoryStyle);
-                    }
+                if (isLab && entry.getBatch() != null) {
+                    // Lab format: "FY B1 - Course Name - H306B"
+                    cell.setCellValue(yearLabel + " " + entry.getBatch().getName() + " - " + courseName + " - " + roomLocation);
                 } else {
-                    cell.setCellValue("-");
-                    cell.setCellStyle(cellStyle);
+                    // Theory format: "SY A - Course Name - H301"
+                    String divisionName = entry.getDivision() != null ? entry.getDivision().getName() : "";
+                    cell.setCellValue(yearLabel + " " + divisionName + " - " + courseName + " - " + roomLocation);
+                }
+                cell.setCellStyle(isLab ? labStyle : theoryStyle);
+
+                // A lab session over consecutive slots is one cell spanning their rows
+                if (span > 1) {
+                    sheet.addMergedRegion(new CellRangeAddress(rowIdx - 1, rowIdx - 2 + span, d + 1, d + 1));
                 }
             }
         }
@@ -2935,10 +2454,8 @@ public class TimetableExportService {
             sheet.setColumnWidth(i, i == 0 ? 4500 : 5000);
         }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         wb.write(out);
         wb.close();
-        return out.toByteArray();
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -2956,15 +2473,15 @@ public class TimetableExportService {
      * - Course and Teacher reference tables
      * - Signature row
      */
-    private byte[] buildInstitutionalDivisionExcel(
+    private void buildInstitutionalDivisionExcel(
             List<TimetableEntry> entries,
             List<TimeSlot> slots,
             Division division,
             AcademicYear academicYear,
-            Semester semester) throws Exception {
+            Semester semester,
+            OutputStream out) throws Exception {
 
-        // ── Multi-value lookup ──
-        Map<String, List<TimetableEntry>> multiLookup = buildMultiLookup(entries);
+        TimetableGrid layout = TimetableGrid.of(slots, entries);
 
         // ── Teaching load ──
         long theoryCount = entries.stream()
@@ -3005,154 +2522,26 @@ public class TimetableExportService {
         // STYLES
         // ═══════════════════════════════════════════════════════════
 
-        // Title style (large bold)
-        XSSFCellStyle titleStyle = wb.createCellStyle();
-        XSSFFont titleFont = wb.createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeightInPoints((short) 13);
-        titleStyle.setFont(titleFont);
-        titleStyle.setAlignment(HorizontalAlignment.CENTER);
-        titleStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        // Meta label style (bold, bordered)
-        XSSFCellStyle metaLabelStyle = wb.createCellStyle();
-        XSSFFont metaLabelFont = wb.createFont();
-        metaLabelFont.setBold(true);
-        metaLabelFont.setFontHeightInPoints((short) 8);
-        metaLabelStyle.setFont(metaLabelFont);
-        metaLabelStyle.setBorderBottom(BorderStyle.THIN);
-        metaLabelStyle.setBorderTop(BorderStyle.THIN);
-        metaLabelStyle.setBorderLeft(BorderStyle.THIN);
-        metaLabelStyle.setBorderRight(BorderStyle.THIN);
-        metaLabelStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        // Meta value style (normal, bordered)
-        XSSFCellStyle metaValueStyle = wb.createCellStyle();
-        XSSFFont metaValFont = wb.createFont();
-        metaValFont.setFontHeightInPoints((short) 8);
-        metaValueStyle.setFont(metaValFont);
-        metaValueStyle.setBorderBottom(BorderStyle.THIN);
-        metaValueStyle.setBorderTop(BorderStyle.THIN);
-        metaValueStyle.setBorderLeft(BorderStyle.THIN);
-        metaValueStyle.setBorderRight(BorderStyle.THIN);
-        metaValueStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        // Small label style (no border)
-        XSSFCellStyle smallStyle = wb.createCellStyle();
-        XSSFFont smallFont = wb.createFont();
-        smallFont.setFontHeightInPoints((short) 7);
-        smallFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
-        smallStyle.setFont(smallFont);
-
-        // Grid header style (dark bg, white bold text)
-        XSSFCellStyle gridHeaderStyle = wb.createCellStyle();
-        XSSFFont gridHdrFont = wb.createFont();
-        gridHdrFont.setBold(true);
-        gridHdrFont.setFontHeightInPoints((short) 8);
-        gridHdrFont.setColor(IndexedColors.WHITE.getIndex());
-        gridHeaderStyle.setFont(gridHdrFont);
-        gridHeaderStyle.setFillForegroundColor(new XSSFColor(new byte[]{27, 42, 78}, null));
-        gridHeaderStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        gridHeaderStyle.setAlignment(HorizontalAlignment.CENTER);
-        gridHeaderStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        gridHeaderStyle.setWrapText(true);
-        gridHeaderStyle.setBorderBottom(BorderStyle.THIN);
-        gridHeaderStyle.setBorderTop(BorderStyle.THIN);
-        gridHeaderStyle.setBorderLeft(BorderStyle.THIN);
-        gridHeaderStyle.setBorderRight(BorderStyle.THIN);
-
-        // Day label style (bold, centered, bordered)
-        XSSFCellStyle dayStyle = wb.createCellStyle();
-        XSSFFont dayFont = wb.createFont();
-        dayFont.setBold(true);
-        dayFont.setFontHeightInPoints((short) 9);
-        dayStyle.setFont(dayFont);
-        dayStyle.setAlignment(HorizontalAlignment.CENTER);
-        dayStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        dayStyle.setBorderBottom(BorderStyle.THIN);
-        dayStyle.setBorderTop(BorderStyle.THIN);
-        dayStyle.setBorderLeft(BorderStyle.THIN);
-        dayStyle.setBorderRight(BorderStyle.THIN);
-
-        // Cell style (entry content, centered, bordered, wrap)
-        XSSFCellStyle cellStyle = wb.createCellStyle();
-        XSSFFont cellFont = wb.createFont();
-        cellFont.setFontHeightInPoints((short) 8);
-        cellStyle.setFont(cellFont);
-        cellStyle.setAlignment(HorizontalAlignment.CENTER);
-        cellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        cellStyle.setWrapText(true);
-        cellStyle.setBorderBottom(BorderStyle.THIN);
-        cellStyle.setBorderTop(BorderStyle.THIN);
-        cellStyle.setBorderLeft(BorderStyle.THIN);
-        cellStyle.setBorderRight(BorderStyle.THIN);
-
-        // Break style (light grey bg, italic, centered, bordered)
-        XSSFCellStyle breakStyle = wb.createCellStyle();
-        XSSFFont brkFont = wb.createFont();
-        brkFont.setItalic(true);
-        brkFont.setBold(true);
-        brkFont.setFontHeightInPoints((short) 7);
-        brkFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
-        breakStyle.setFont(brkFont);
-        breakStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 245, (byte) 245, (byte) 245}, null));
-        breakStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        breakStyle.setAlignment(HorizontalAlignment.CENTER);
-        breakStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        breakStyle.setWrapText(true);
-        breakStyle.setBorderBottom(BorderStyle.THIN);
-        breakStyle.setBorderTop(BorderStyle.THIN);
-        breakStyle.setBorderLeft(BorderStyle.THIN);
-        breakStyle.setBorderRight(BorderStyle.THIN);
-        breakStyle.setRotation((short) 90);
-
-        // Reference table header style
-        XSSFCellStyle refHeaderStyle = wb.createCellStyle();
-        XSSFFont refHdrFont = wb.createFont();
-        refHdrFont.setBold(true);
-        refHdrFont.setFontHeightInPoints((short) 8);
-        refHeaderStyle.setFont(refHdrFont);
-        refHeaderStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 230, (byte) 230, (byte) 230}, null));
-        refHeaderStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        refHeaderStyle.setAlignment(HorizontalAlignment.CENTER);
-        refHeaderStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        refHeaderStyle.setBorderBottom(BorderStyle.THIN);
-        refHeaderStyle.setBorderTop(BorderStyle.THIN);
-        refHeaderStyle.setBorderLeft(BorderStyle.THIN);
-        refHeaderStyle.setBorderRight(BorderStyle.THIN);
-
-        // Reference table cell style
-        XSSFCellStyle refCellStyle = wb.createCellStyle();
-        XSSFFont refFont = wb.createFont();
-        refFont.setFontHeightInPoints((short) 7);
-        refCellStyle.setFont(refFont);
-        refCellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        refCellStyle.setWrapText(true);
-        refCellStyle.setBorderBottom(BorderStyle.THIN);
-        refCellStyle.setBorderTop(BorderStyle.THIN);
-        refCellStyle.setBorderLeft(BorderStyle.THIN);
-        refCellStyle.setBorderRight(BorderStyle.THIN);
-
-        // Signature style
-        XSSFCellStyle sigStyle = wb.createCellStyle();
-        XSSFFont sigFont = wb.createFont();
-        sigFont.setFontHeightInPoints((short) 9);
-        sigStyle.setFont(sigFont);
-        sigStyle.setVerticalAlignment(VerticalAlignment.BOTTOM);
-
-        XSSFCellStyle sigCenterStyle = wb.createCellStyle();
-        sigCenterStyle.cloneStyleFrom(sigStyle);
-        sigCenterStyle.setAlignment(HorizontalAlignment.CENTER);
-
-        XSSFCellStyle sigRightStyle = wb.createCellStyle();
-        sigRightStyle.cloneStyleFrom(sigStyle);
-        sigRightStyle.setAlignment(HorizontalAlignment.RIGHT);
+        ExcelStyles styles = new ExcelStyles(wb);
+        CellStyle titleStyle = styles.get(Excel.TITLE);
+        CellStyle metaLabelStyle = styles.get(Excel.META_LABEL);
+        CellStyle metaValueStyle = styles.get(Excel.META_VALUE);
+        CellStyle smallStyle = styles.get(Excel.SMALL);
+        CellStyle gridHeaderStyle = styles.get(Excel.GRID_HEADER);
+        CellStyle dayStyle = styles.get(Excel.DAY);
+        CellStyle cellStyle = styles.get(Excel.CELL);
+        CellStyle breakStyle = styles.get(Excel.GRID_BREAK);
+        CellStyle refHeaderStyle = styles.get(Excel.REFERENCE_HEADER);
+        CellStyle refCellStyle = styles.get(Excel.REFERENCE_CELL);
+        CellStyle sigStyle = styles.get(Excel.SIGNATURE);
+        CellStyle sigCenterStyle = styles.get(Excel.SIGNATURE_CENTER);
+        CellStyle sigRightStyle = styles.get(Excel.SIGNATURE_RIGHT);
 
         // ═══════════════════════════════════════════════════════════
         // SECTION 1: INSTITUTIONAL HEADER
         // ═══════════════════════════════════════════════════════════
 
-        int numSlots = slots.size();
+        int numSlots = layout.columns();
         int totalCols = numSlots + 1; // 1 day col + N slot cols
 
         int rowIdx = 0;
@@ -3162,12 +2551,7 @@ public class TimetableExportService {
         instRow.setHeightInPoints(18);
         org.apache.poi.ss.usermodel.Cell instCell = instRow.createCell(0);
         instCell.setCellValue("MIT Academy of Engineering, Alandi (D), Pune - 412 105");
-        XSSFCellStyle instStyle = wb.createCellStyle();
-        XSSFFont instFont = wb.createFont();
-        instFont.setBold(true);
-        instFont.setFontHeightInPoints((short) 10);
-        instStyle.setFont(instFont);
-        instCell.setCellStyle(instStyle);
+        instCell.setCellStyle(styles.get(Excel.INSTITUTE));
         sheet.addMergedRegion(new CellRangeAddress(rowIdx, rowIdx, 0, Math.min(totalCols - 1, 6)));
         // Rev No. at right
         if (totalCols > 7) {
@@ -3184,12 +2568,7 @@ public class TimetableExportService {
         deptRow.setHeightInPoints(15);
         org.apache.poi.ss.usermodel.Cell deptCell = deptRow.createCell(0);
         deptCell.setCellValue(deptName);
-        XSSFCellStyle deptStyle = wb.createCellStyle();
-        XSSFFont deptFont = wb.createFont();
-        deptFont.setBold(true);
-        deptFont.setFontHeightInPoints((short) 9);
-        deptStyle.setFont(deptFont);
-        deptCell.setCellStyle(deptStyle);
+        deptCell.setCellStyle(styles.get(Excel.DEPARTMENT));
         sheet.addMergedRegion(new CellRangeAddress(rowIdx, rowIdx, 0, Math.min(totalCols - 1, 6)));
         rowIdx++;
 
@@ -3279,106 +2658,44 @@ public class TimetableExportService {
         dayTimeHdr.setCellValue("Day / Time");
         dayTimeHdr.setCellStyle(gridHeaderStyle);
 
-        int periodNum = 1;
-        for (int s = 0; s < numSlots; s++) {
-            TimeSlot slot = slots.get(s);
-            org.apache.poi.ss.usermodel.Cell hdrCell = headerRow.createCell(s + 1);
+        for (int c = 0; c < numSlots; c++) {
+            TimeSlot slot = layout.slot(c);
+            org.apache.poi.ss.usermodel.Cell hdrCell = headerRow.createCell(c + 1);
 
-            if (Boolean.TRUE.equals(slot.getIsBreak())) {
+            if (layout.isBreak(c)) {
                 hdrCell.setCellValue("");
-                hdrCell.setCellStyle(gridHeaderStyle);
             } else {
                 String timeStr = slot.getStartTime() != null
                     ? slot.getStartTime().toString().substring(0, 5) : "??:??";
                 String endStr = slot.getEndTime() != null
                     ? slot.getEndTime().toString().substring(0, 5) : "??:??";
-                hdrCell.setCellValue(timeStr + "\nto\n" + endStr + "\n" + periodNum);
-                hdrCell.setCellStyle(gridHeaderStyle);
-                periodNum++;
+                hdrCell.setCellValue(timeStr + "\nto\n" + endStr + "\n" + layout.period(c));
             }
+            hdrCell.setCellStyle(gridHeaderStyle);
         }
         rowIdx++;
 
         // ── Day rows (MON-SAT) ──
-        String[] dayLabels = {"MON", "TUE", "WED", "THU", "FRI", "SAT"};
-
-        // Track break column indices for merging after all rows are created
-        List<Integer> breakColIndices = new ArrayList<>();
-        for (int s = 0; s < numSlots; s++) {
-            if (Boolean.TRUE.equals(slots.get(s).getIsBreak())) {
-                breakColIndices.add(s + 1); // +1 because col 0 is day label
-            }
-        }
-
-        for (int d = 0; d < DAY_NAMES.length; d++) {
-            String dayKey = DAY_NAMES[d];
+        for (int d = 0; d < layout.days(); d++) {
             Row dayRow = sheet.createRow(rowIdx);
             dayRow.setHeightInPoints(50);
 
             // Day label
             org.apache.poi.ss.usermodel.Cell dayCl = dayRow.createCell(0);
-            dayCl.setCellValue(dayLabels[d]);
+            dayCl.setCellValue(TimetableGrid.DAY_ABBREVIATIONS[d]);
             dayCl.setCellStyle(dayStyle);
 
             // Slot cells
-            for (int s = 0; s < numSlots; s++) {
-                TimeSlot slot = slots.get(s);
-                org.apache.poi.ss.usermodel.Cell cl = dayRow.createCell(s + 1);
+            for (int c = 0; c < numSlots; c++) {
+                org.apache.poi.ss.usermodel.Cell cl = dayRow.createCell(c + 1);
 
-                if (Boolean.TRUE.equals(slot.getIsBreak())) {
+                if (layout.isBreak(c)) {
                     // Break cell — only set content on first day row; merge later
-                    if (d == 0) {
-                        String slotName = slot.getSlotName() != null ? slot.getSlotName().toLowerCase() : "";
-                        if (slotName.contains("lunch")) {
-                            cl.setCellValue("LUNCH BREAK");
-                        } else {
-                            cl.setCellValue("SHORT BREAK");
-                        }
-                    }
+                    if (d == 0) cl.setCellValue(isLunch(layout.slot(c)) ? "LUNCH BREAK" : "SHORT BREAK");
                     cl.setCellStyle(breakStyle);
                 } else {
-                    // Regular entry cell
-                    String key = dayKey + ":" + slot.getId();
-                    List<TimetableEntry> slotEntries = multiLookup.getOrDefault(key, Collections.emptyList());
-
-                    if (!slotEntries.isEmpty()) {
-                        boolean hasMultiple = slotEntries.size() > 1;
-                        boolean allLabs = slotEntries.stream()
-                            .allMatch(e -> e.getCourse() != null && e.getCourse().getCourseType() == CourseType.LAB);
-
-                        if (hasMultiple && allLabs) {
-                            // Multi-batch lab
-                            slotEntries.sort((a, b) -> {
-                                String bA = a.getBatch() != null ? a.getBatch().getName() : "";
-                                String bB = b.getBatch() != null ? b.getBatch().getName() : "";
-                                return bA.compareTo(bB);
-                            });
-                            StringBuilder sb = new StringBuilder();
-                            for (TimetableEntry entry : slotEntries) {
-                                String batch = entry.getBatch() != null ? entry.getBatch().getName() : "";
-                                String course = getCourseShortName(entry.getCourse());
-                                String teacher = getProfessorShortName(entry.getTeacher());
-                                String room = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "";
-                                if (sb.length() > 0) sb.append("\n");
-                                sb.append(batch).append("-").append(course).append("-").append(teacher).append(" (").append(room).append(")");
-                            }
-                            cl.setCellValue(sb.toString());
-                        } else {
-                            // Single entry (theory or single lab)
-                            TimetableEntry entry = slotEntries.get(0);
-                            String course = getCourseShortName(entry.getCourse());
-                            String teacher = getProfessorShortName(entry.getTeacher());
-                            String room = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "";
-                            boolean isLab = entry.getCourse() != null
-                                && entry.getCourse().getCourseType() == CourseType.LAB;
-
-                            if (isLab && entry.getBatch() != null) {
-                                cl.setCellValue(entry.getBatch().getName() + "-" + course + "\n" + teacher + "\n" + room);
-                            } else {
-                                cl.setCellValue(course + "\n" + teacher + "\n" + room);
-                            }
-                        }
-                    }
+                    List<TimetableEntry> slotEntries = layout.entries(d, c);
+                    if (!slotEntries.isEmpty()) cl.setCellValue(String.join("\n", divisionCellLines(slotEntries)));
                     cl.setCellStyle(cellStyle);
                 }
             }
@@ -3387,9 +2704,9 @@ public class TimetableExportService {
 
         // Merge break columns across all day rows
         int dayRowStart = gridStartRow + 1; // first day row
-        int dayRowEnd = dayRowStart + DAY_NAMES.length - 1; // last day row
-        for (int brkCol : breakColIndices) {
-            sheet.addMergedRegion(new CellRangeAddress(dayRowStart, dayRowEnd, brkCol, brkCol));
+        int dayRowEnd = dayRowStart + layout.days() - 1; // last day row
+        for (int c = 0; c < numSlots; c++) {
+            if (layout.isBreak(c)) sheet.addMergedRegion(new CellRangeAddress(dayRowStart, dayRowEnd, c + 1, c + 1));
         }
 
         // ═══════════════════════════════════════════════════════════
@@ -3501,12 +2818,8 @@ public class TimetableExportService {
         // ═══════════════════════════════════════════════════════════
 
         sheet.setColumnWidth(0, 3200); // Day column
-        for (int s = 0; s < numSlots; s++) {
-            if (Boolean.TRUE.equals(slots.get(s).getIsBreak())) {
-                sheet.setColumnWidth(s + 1, 1200); // Narrow break column
-            } else {
-                sheet.setColumnWidth(s + 1, 4800); // Regular slot column
-            }
+        for (int c = 0; c < numSlots; c++) {
+            sheet.setColumnWidth(c + 1, layout.isBreak(c) ? 1200 : 4800); // Narrow break columns
         }
 
         // Print setup: landscape
@@ -3516,10 +2829,8 @@ public class TimetableExportService {
         sheet.getPrintSetup().setFitWidth((short) 1);
         sheet.getPrintSetup().setFitHeight((short) 1);
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         wb.write(out);
         wb.close();
-        return out.toByteArray();
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -3528,11 +2839,7 @@ public class TimetableExportService {
 
     private List<TimeSlot> getSortedSlots(Division division) {
         String slotType = division != null && division.getTimeSlotType() != null ? division.getTimeSlotType() : "TYPE_1";
-        return timeSlotRepo.findAll().stream()
-            .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
-            .filter(s -> slotType.equals(s.getType()))
-            .sorted(Comparator.comparing(TimeSlot::getStartTime))
-            .collect(Collectors.toList());
+        return referenceData.activeSlots(slotType);
     }
 
     /**
@@ -3549,11 +2856,7 @@ public class TimetableExportService {
             }
         }
         final String slotType = detectedType;
-        return timeSlotRepo.findAll().stream()
-            .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
-            .filter(s -> slotType.equals(s.getType()))
-            .sorted(Comparator.comparing(TimeSlot::getStartTime))
-            .collect(Collectors.toList());
+        return referenceData.activeSlots(slotType);
     }
 
     private Map<String, TimetableEntry> buildLookup(List<TimetableEntry> entries) {
@@ -3583,15 +2886,14 @@ public class TimetableExportService {
     /**
      * Generate PDF export containing timetables for all divisions of a department, each on a new page.
      */
-    public byte[] generateDepartmentPDF(Long departmentId, Long academicYearId, Semester semester) throws Exception {
+    public void writeDepartmentPDF(Long departmentId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
         List<Division> divisions = divisionRepo.findByDepartmentId(departmentId);
         if (divisions.isEmpty()) {
             throw new RuntimeException("No divisions found for department ID: " + departmentId);
         }
         
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document doc = new Document(PageSize.A4.rotate(), 20, 20, 30, 20);
-        PdfWriter.getInstance(doc, out);
+        PdfWriter.getInstance(doc, out).setCloseStream(false);
         doc.open();
 
         // Fonts
@@ -3611,7 +2913,7 @@ public class TimetableExportService {
                 .filter(e -> e.getSemester() == semester)
                 .collect(Collectors.toList());
                 
-            AcademicYear year = academicYearRepo.findById(academicYearId).orElse(null);
+            AcademicYear year = referenceData.academicYear(academicYearId).orElse(null);
             List<TimeSlot> slots = getSortedSlots(division);
 
             String title = String.format("Timetable — %s %s — Year %d — %s — %s",
@@ -3754,223 +3056,237 @@ public class TimetableExportService {
             doc.add(table);
         }
         doc.close();
-        return out.toByteArray();
     }
 
     /**
      * Generate Excel export containing worksheets for each division of a department.
+     *
+     * In streaming mode (app.export.excel.streaming) the workbook is an SXSSFWorkbook: at most
+     * {@code row-window} rows are held in memory, and each finished division sheet is flushed
+     * to a compressed temp file, so heap stays at about one sheet however many divisions the
+     * department has. Styles are created once on the backing workbook and shared by every sheet.
      */
-    public byte[] generateDepartmentExcel(Long departmentId, Long academicYearId, Semester semester) throws Exception {
+    public void writeDepartmentExcel(Long departmentId, Long academicYearId, Semester semester, OutputStream out) throws Exception {
         List<Division> divisions = divisionRepo.findByDepartmentId(departmentId);
         if (divisions.isEmpty()) {
             throw new RuntimeException("No divisions found for department ID: " + departmentId);
         }
 
-        XSSFWorkbook wb = new XSSFWorkbook();
+        XSSFWorkbook xssf = new XSSFWorkbook();
+        Workbook wb = streamingExcel ? new SXSSFWorkbook(xssf, excelRowWindow, true) : xssf;
+        AcademicYear year = referenceData.academicYear(academicYearId).orElse(null);
 
-        // Styles shared across sheets
-        XSSFCellStyle headerStyle = wb.createCellStyle();
-        XSSFFont headerFont = wb.createFont();
-        headerFont.setBold(true);
-        headerFont.setColor(IndexedColors.WHITE.getIndex());
-        headerFont.setFontHeightInPoints((short) 10);
-        headerStyle.setFont(headerFont);
-        headerStyle.setFillForegroundColor(new XSSFColor(new byte[]{27, 42, 78}, null));
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        headerStyle.setAlignment(HorizontalAlignment.CENTER);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-
-        XSSFCellStyle cellStyle = wb.createCellStyle();
-        cellStyle.setWrapText(true);
-        cellStyle.setVerticalAlignment(VerticalAlignment.TOP);
-        cellStyle.setBorderBottom(BorderStyle.THIN);
-        cellStyle.setBorderRight(BorderStyle.THIN);
-
-        XSSFCellStyle breakStyle = wb.createCellStyle();
-        breakStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 240, (byte) 240, (byte) 240}, null));
-        breakStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        breakStyle.setAlignment(HorizontalAlignment.CENTER);
-        XSSFFont breakFont = wb.createFont();
-        breakFont.setItalic(true);
-        breakFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
-        breakStyle.setFont(breakFont);
-
-        XSSFCellStyle theoryStyle = wb.createCellStyle();
-        theoryStyle.cloneStyleFrom(cellStyle);
-        theoryStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 232, (byte) 240, (byte) 254}, null));
-        theoryStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        XSSFCellStyle labStyle = wb.createCellStyle();
-        labStyle.cloneStyleFrom(cellStyle);
-        labStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 243, (byte) 232, (byte) 255}, null));
-        labStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        XSSFCellStyle titleStyle = wb.createCellStyle();
-        XSSFFont titleFont = wb.createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeightInPoints((short) 14);
-        titleStyle.setFont(titleFont);
-
-        for (Division division : divisions) {
-            // Get all entries for division and filter by semester
-            List<TimetableEntry> allEntries = timetableService.getDivisionTimetable(division.getId(), academicYearId);
-            List<TimetableEntry> entries = allEntries.stream()
-                .filter(e -> e.getSemester() == semester)
-                .collect(Collectors.toList());
-                
-            AcademicYear year = academicYearRepo.findById(academicYearId).orElse(null);
-            List<TimeSlot> slots = getSortedSlots(division);
-
-            String sheetName = division.getName() + " Year " + division.getYear();
-            if (sheetName.length() > 31) {
-                sheetName = sheetName.substring(0, 31);
-            }
-            XSSFSheet sheet = wb.createSheet(sheetName);
-
-            String title = String.format("Timetable — %s %s — Year %d — %s — %s",
-                division.getDepartment() != null ? division.getDepartment().getName() : "",
-                division.getName(),
-                division.getYear(),
-                year != null ? year.getYearName() : "",
-                semester != null ? semester.name().replace("_", " ") : "");
-
-            // Title rows
-            Row titleRow = sheet.createRow(0);
-            org.apache.poi.ss.usermodel.Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("MIT Academy of Engineering");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 6));
-
-            Row subtitleRow = sheet.createRow(1);
-            subtitleRow.createCell(0).setCellValue(title);
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            Row dateRow = sheet.createRow(2);
-            dateRow.createCell(0).setCellValue("Generated: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+        try {
+            // Styles shared across sheets
+            XSSFCellStyle headerStyle = xssf.createCellStyle();
+            XSSFFont headerFont = xssf.createFont();
+            headerFont.setBold(true);
+            headerFont.setColor(IndexedColors.WHITE.getIndex());
+            headerFont.setFontHeightInPoints((short) 10);
+            headerStyle.setFont(headerFont);
+            headerStyle.setFillForegroundColor(new XSSFColor(new byte[]{27, 42, 78}, null));
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setAlignment(HorizontalAlignment.CENTER);
+            headerStyle.setBorderBottom(BorderStyle.THIN);
+
+            XSSFCellStyle cellStyle = xssf.createCellStyle();
+            cellStyle.setWrapText(true);
+            cellStyle.setVerticalAlignment(VerticalAlignment.TOP);
+            cellStyle.setBorderBottom(BorderStyle.THIN);
+            cellStyle.setBorderRight(BorderStyle.THIN);
+
+            XSSFCellStyle breakStyle = xssf.createCellStyle();
+            breakStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 240, (byte) 240, (byte) 240}, null));
+            breakStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            breakStyle.setAlignment(HorizontalAlignment.CENTER);
+            XSSFFont breakFont = xssf.createFont();
+            breakFont.setItalic(true);
+            breakFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
+            breakStyle.setFont(breakFont);
+
+            XSSFCellStyle theoryStyle = xssf.createCellStyle();
+            theoryStyle.cloneStyleFrom(cellStyle);
+            theoryStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 232, (byte) 240, (byte) 254}, null));
+            theoryStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+            XSSFCellStyle labStyle = xssf.createCellStyle();
+            labStyle.cloneStyleFrom(cellStyle);
+            labStyle.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 243, (byte) 232, (byte) 255}, null));
+            labStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+            XSSFCellStyle titleStyle = xssf.createCellStyle();
+            XSSFFont titleFont = xssf.createFont();
+            titleFont.setBold(true);
+            titleFont.setFontHeightInPoints((short) 14);
+            titleStyle.setFont(titleFont);
+
+            for (Division division : divisions) {
+                // Get all entries for division and filter by semester
+                List<TimetableEntry> allEntries = timetableService.getDivisionTimetable(division.getId(), academicYearId);
+                List<TimetableEntry> entries = allEntries.stream()
+                    .filter(e -> e.getSemester() == semester)
+                    .collect(Collectors.toList());
+
+                List<TimeSlot> slots = getSortedSlots(division);
+
+                String sheetName = division.getName() + " Year " + division.getYear();
+                if (sheetName.length() > 31) {
+                    sheetName = sheetName.substring(0, 31);
+                }
+                Sheet sheet = wb.createSheet(sheetName);
+
+                String title = String.format("Timetable — %s %s — Year %d — %s — %s",
+                    division.getDepartment() != null ? division.getDepartment().getName() : "",
+                    division.getName(),
+                    division.getYear(),
+                    year != null ? year.getYearName() : "",
+                    semester != null ? semester.name().replace("_", " ") : "");
+
+                // Title rows
+                Row titleRow = sheet.createRow(0);
+                org.apache.poi.ss.usermodel.Cell titleCell = titleRow.createCell(0);
+                titleCell.setCellValue("MIT Academy of Engineering");
+                titleCell.setCellStyle(titleStyle);
+                sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 6));
+
+                Row subtitleRow = sheet.createRow(1);
+                subtitleRow.createCell(0).setCellValue(title);
+                sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
+
+                Row dateRow = sheet.createRow(2);
+                dateRow.createCell(0).setCellValue("Generated: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+
+                // Header row
+                int rowIdx = 4;
+                Row headerRow = sheet.createRow(rowIdx++);
+                String[] headers = {"Time", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+                for (int i = 0; i < headers.length; i++) {
+                    org.apache.poi.ss.usermodel.Cell c = headerRow.createCell(i);
+                    c.setCellValue(headers[i]);
+                    c.setCellStyle(headerStyle);
+                }
 
-            // Header row
-            int rowIdx = 4;
-            Row headerRow = sheet.createRow(rowIdx++);
-            String[] headers = {"Time", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
-            for (int i = 0; i < headers.length; i++) {
-                org.apache.poi.ss.usermodel.Cell c = headerRow.createCell(i);
-                c.setCellValue(headers[i]);
-                c.setCellStyle(headerStyle);
-            }
+                Map<String, TimetableEntry> lookup = buildLookup(entries);
+                java.util.Set<String> mergedCells = new java.util.HashSet<>();
 
-            Map<String, TimetableEntry> lookup = buildLookup(entries);
-            java.util.Set<String> mergedCells = new java.util.HashSet<>();
+                // Data rows
+                for (int slotIdx = 0; slotIdx < slots.size(); slotIdx++) {
+                    TimeSlot slot = slots.get(slotIdx);
+                    Row row = sheet.createRow(rowIdx++);
 
-            // Data rows
-            for (int slotIdx = 0; slotIdx < slots.size(); slotIdx++) {
-                TimeSlot slot = slots.get(slotIdx);
-                Row row = sheet.createRow(rowIdx++);
-
-                if (Boolean.TRUE.equals(slot.getIsBreak())) {
-                    org.apache.poi.ss.usermodel.Cell timeC = row.createCell(0);
-                    timeC.setCellValue(formatTime(slot));
-                    timeC.setCellStyle(breakStyle);
+                    if (Boolean.TRUE.equals(slot.getIsBreak())) {
+                        org.apache.poi.ss.usermodel.Cell timeC = row.createCell(0);
+                        timeC.setCellValue(formatTime(slot));
+                        timeC.setCellStyle(breakStyle);
                     
-                    org.apache.poi.ss.usermodel.Cell breakC = row.createCell(1);
-                    breakC.setCellValue(slot.getSlotName());
-                    breakC.setCellStyle(breakStyle);
-                    for (int i = 2; i <= 6; i++) {
-                        row.createCell(i).setCellStyle(breakStyle);
+                        org.apache.poi.ss.usermodel.Cell breakC = row.createCell(1);
+                        breakC.setCellValue(slot.getSlotName());
+                        breakC.setCellStyle(breakStyle);
+                        for (int i = 2; i <= 6; i++) {
+                            row.createCell(i).setCellStyle(breakStyle);
+                        }
+                        sheet.addMergedRegion(new CellRangeAddress(rowIdx - 1, rowIdx - 1, 1, 6));
+                        continue;
                     }
-                    sheet.addMergedRegion(new CellRangeAddress(rowIdx - 1, rowIdx - 1, 1, 6));
-                    continue;
-                }
 
-                // Time cell
-                org.apache.poi.ss.usermodel.Cell timeCell = row.createCell(0);
-                timeCell.setCellValue(formatTime(slot) + "\n" + slot.getSlotName());
-                timeCell.setCellStyle(cellStyle);
-                row.setHeightInPoints(45);
+                    // Time cell
+                    org.apache.poi.ss.usermodel.Cell timeCell = row.createCell(0);
+                    timeCell.setCellValue(formatTime(slot) + "\n" + slot.getSlotName());
+                    timeCell.setCellStyle(cellStyle);
+                    row.setHeightInPoints(45);
 
-                // Day cells
-                for (int d = 0; d < DAY_NAMES.length; d++) {
-                    String key = DAY_NAMES[d] + ":" + slot.getId();
-                    String cellKey = DAY_NAMES[d] + ":" + slotIdx;
+                    // Day cells
+                    for (int d = 0; d < DAY_NAMES.length; d++) {
+                        String key = DAY_NAMES[d] + ":" + slot.getId();
+                        String cellKey = DAY_NAMES[d] + ":" + slotIdx;
                     
-                    if (mergedCells.contains(cellKey)) {
-                        org.apache.poi.ss.usermodel.Cell cell = row.createCell(d + 1);
-                        cell.setCellStyle(cellStyle);
-                        continue;
-                    }
+                        if (mergedCells.contains(cellKey)) {
+                            org.apache.poi.ss.usermodel.Cell cell = row.createCell(d + 1);
+                            cell.setCellStyle(cellStyle);
+                            continue;
+                        }
                     
-                    TimetableEntry entry = lookup.get(key);
-                    org.apache.poi.ss.usermodel.Cell cell = row.createCell(d + 1);
+                        TimetableEntry entry = lookup.get(key);
+                        org.apache.poi.ss.usermodel.Cell cell = row.createCell(d + 1);
 
-                    if (entry != null) {
-                        String courseName = getCourseShortName(entry.getCourse());
-                        String profInitials = entry.getTeacher() != null ? getProfessorShortName(entry.getTeacher()) : "-";
-                        String roomLocation = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "-";
-                        boolean isLab = entry.getCourse() != null && entry.getCourse().getCourseType() == CourseType.LAB;
+                        if (entry != null) {
+                            String courseName = getCourseShortName(entry.getCourse());
+                            String profInitials = entry.getTeacher() != null ? getProfessorShortName(entry.getTeacher()) : "-";
+                            String roomLocation = entry.getRoom() != null ? entry.getRoom().getRoomNumber() : "-";
+                            boolean isLab = entry.getCourse() != null && entry.getCourse().getCourseType() == CourseType.LAB;
 
-                        String yearLabel = "";
-                        if (entry.getDivision() != null && entry.getDivision().getYear() != null) {
-                            yearLabel = getYearLabel(entry.getDivision().getYear());
-                        }
+                            String yearLabel = "";
+                            if (entry.getDivision() != null && entry.getDivision().getYear() != null) {
+                                yearLabel = getYearLabel(entry.getDivision().getYear());
+                            }
 
-                        boolean shouldMerge = false;
-                        if (isLab && slotIdx + 1 < slots.size()) {
-                            TimeSlot nextSlot = slots.get(slotIdx + 1);
-                            if (!Boolean.TRUE.equals(nextSlot.getIsBreak())) {
-                                String nextKey = DAY_NAMES[d] + ":" + nextSlot.getId();
-                                TimetableEntry nextEntry = lookup.get(nextKey);
+                            boolean shouldMerge = false;
+                            if (isLab && slotIdx + 1 < slots.size()) {
+                                TimeSlot nextSlot = slots.get(slotIdx + 1);
+                                if (!Boolean.TRUE.equals(nextSlot.getIsBreak())) {
+                                    String nextKey = DAY_NAMES[d] + ":" + nextSlot.getId();
+                                    TimetableEntry nextEntry = lookup.get(nextKey);
                                 
-                                if (nextEntry != null && 
-                                    nextEntry.getCourse() != null && 
-                                    nextEntry.getCourse().getCourseType() == CourseType.LAB &&
-                                    entry.getCourse().getId().equals(nextEntry.getCourse().getId()) &&
-                                    entry.getTeacher().getId().equals(nextEntry.getTeacher().getId()) &&
-                                    entry.getRoom().getId().equals(nextEntry.getRoom().getId()) &&
-                                    entry.getDayOfWeek() == nextEntry.getDayOfWeek()) {
+                                    if (nextEntry != null && 
+                                        nextEntry.getCourse() != null && 
+                                        nextEntry.getCourse().getCourseType() == CourseType.LAB &&
+                                        entry.getCourse().getId().equals(nextEntry.getCourse().getId()) &&
+                                        entry.getTeacher().getId().equals(nextEntry.getTeacher().getId()) &&
+                                        entry.getRoom().getId().equals(nextEntry.getRoom().getId()) &&
+                                        entry.getDayOfWeek() == nextEntry.getDayOfWeek()) {
                                     
-                                    if (entry.getLabSessionGroup() != null && nextEntry.getLabSessionGroup() != null) {
-                                        shouldMerge = entry.getLabSessionGroup().getId().equals(nextEntry.getLabSessionGroup().getId());
-                                    } else if (entry.getBatch() != null && nextEntry.getBatch() != null) {
-                                        shouldMerge = entry.getBatch().getId().equals(nextEntry.getBatch().getId());
-                                    } else {
-                                        shouldMerge = true;
+                                        if (entry.getLabSessionGroup() != null && nextEntry.getLabSessionGroup() != null) {
+                                            shouldMerge = entry.getLabSessionGroup().getId().equals(nextEntry.getLabSessionGroup().getId());
+                                        } else if (entry.getBatch() != null && nextEntry.getBatch() != null) {
+                                            shouldMerge = entry.getBatch().getId().equals(nextEntry.getBatch().getId());
+                                        } else {
+                                            shouldMerge = true;
+                                        }
                                     }
                                 }
                             }
-                        }
 
-                        String displayText;
-                        if (isLab && entry.getBatch() != null) {
-                            displayText = yearLabel + " " + entry.getBatch().getName() + " - " + courseName + " - " + roomLocation;
-                        } else {
-                            displayText = yearLabel + " " + division.getName() + " - " + courseName + " - " + roomLocation;
-                        }
+                            String displayText;
+                            if (isLab && entry.getBatch() != null) {
+                                displayText = yearLabel + " " + entry.getBatch().getName() + " - " + courseName + " - " + roomLocation;
+                            } else {
+                                displayText = yearLabel + " " + division.getName() + " - " + courseName + " - " + roomLocation;
+                            }
 
-                        if (shouldMerge) {
-                            cell.setCellValue(displayText);
-                            cell.setCellStyle(labStyle);
-                            sheet.addMergedRegion(new CellRangeAddress(rowIdx - 1, rowIdx, d + 1, d + 1));
-                            mergedCells.add(DAY_NAMES[d] + ":" + (slotIdx + 1));
+                            if (shouldMerge) {
+                                cell.setCellValue(displayText);
+                                cell.setCellStyle(labStyle);
+                                sheet.addMergedRegion(new CellRangeAddress(rowIdx - 1, rowIdx, d + 1, d + 1));
+                                mergedCells.add(DAY_NAMES[d] + ":" + (slotIdx + 1));
+                            } else {
+                                cell.setCellValue(displayText);
+                                cell.setCellStyle(isLab ? labStyle : theoryStyle);
+                            }
                         } else {
-                            cell.setCellValue(displayText);
-                            cell.setCellStyle(isLab ? labStyle : theoryStyle);
+                            cell.setCellValue("-");
+                            cell.setCellStyle(cellStyle);
                         }
-                    } else {
-                        cell.setCellValue("-");
-                        cell.setCellStyle(cellStyle);
                     }
                 }
+
+                // Auto-size columns
+                for (int i = 0; i < 7; i++) {
+                    sheet.setColumnWidth(i, i == 0 ? 4500 : 5000);
+                }
+
+                // The sheet is complete — move its rows out of the heap before the next division
+                if (sheet instanceof SXSSFSheet streamed) {
+                    streamed.flushRows();
+                }
             }
 
-            // Auto-size columns
-            for (int i = 0; i < 7; i++) {
-                sheet.setColumnWidth(i, i == 0 ? 4500 : 5000);
+            wb.write(out);
+        } finally {
+            if (wb instanceof SXSSFWorkbook streaming) {
+                streaming.dispose();
             }
+            wb.close();
         }
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        wb.write(out);
-        wb.close();
-        return out.toByteArray();
     }
 }
 
@@ -0,0 +1,632 @@
+package com.College.timetable.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.IO.GenerateTimetableRequest;
+import com.College.timetable.Repository.*;
+import com.College.timetable.Util.TimetableConflictException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Automatic DRAFT timetable generation for one division or a whole department.
+ *
+ * Reads the course load (active courses of the division's department/year/semester, their
+ * assigned teachers, batches, rooms and slots) plus the year's existing placements from the
+ * occupancy index, compiles them into a compact TimetableSolver.Problem and searches on a
+ * dedicated fork/join pool within a time budget. The hard rules are the ones
+ * ConflictCheckService enforces, so a generated draft passes the same checks as manual entries.
+ *
+ * Items that cannot be placed — no teacher assigned, no batch, no room large enough, or no
+ * feasible cell left — are reported instead of failing the whole run.
+ */
+@Service
+public class TimetableGeneratorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableGeneratorService.class);
+
+    private final Division_repo divisionRepo;
+    private final Course_repo courseRepo;
+    private final Teacher_Repo teacherRepo;
+    private final Batch_repo batchRepo;
+    private final ReferenceDataRegistry referenceData;
+    private final AcademicYearRepository academicYearRepo;
+    private final Lab_session_repo labSessionGroupRepo;
+    private final TimetableEntry_repo timetableRepo;
+    private final OccupancyIndexService occupancyIndex;
+    private final TeacherAvailabilityIndexService availabilityIndex;
+    private final TimetableCacheInvalidator cacheInvalidator;
+    private final TransactionTemplate writeTx;
+
+    @Value("${app.timetable.max-periods-per-day:6}")
+    private int maxPeriodsPerDay;
+
+    @Value("${app.timetable.generator.time-budget-ms:10000}")
+    private long defaultTimeBudgetMs;
+
+    @Value("${app.timetable.generator.max-time-budget-ms:60000}")
+    private long maxTimeBudgetMs;
+
+    // 0 = one worker per core
+    @Value("${app.timetable.generator.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    public TimetableGeneratorService(Division_repo divisionRepo, Course_repo courseRepo, Teacher_Repo teacherRepo,
+                                     Batch_repo batchRepo, ReferenceDataRegistry referenceData,
+                                     AcademicYearRepository academicYearRepo, Lab_session_repo labSessionGroupRepo,
+                                     TimetableEntry_repo timetableRepo, OccupancyIndexService occupancyIndex,
+                                     TeacherAvailabilityIndexService availabilityIndex,
+                                     TimetableCacheInvalidator cacheInvalidator,
+                                     PlatformTransactionManager transactionManager) {
+        this.divisionRepo = divisionRepo;
+        this.courseRepo = courseRepo;
+        this.teacherRepo = teacherRepo;
+        this.batchRepo = batchRepo;
+        this.referenceData = referenceData;
+        this.academicYearRepo = academicYearRepo;
+        this.labSessionGroupRepo = labSessionGroupRepo;
+        this.timetableRepo = timetableRepo;
+        this.occupancyIndex = occupancyIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.cacheInvalidator = cacheInvalidator;
+        this.writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void startPool() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(workers);
+    }
+
+    @PreDestroy
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+    // GENERATE
+    // ---------------------------------------------------------------
+
+    /**
+     * Generate a DRAFT timetable. Unless {@code persist=true} the proposal is returned and
+     * nothing is written. Solving runs outside any transaction; only the final write is
+     * transactional.
+     */
+    public GenerationResult generate(GenerateTimetableRequest request) {
+        long started = System.currentTimeMillis();
+        Long yearId = request.getAcademicYearId();
+        Semester semester = request.getSemester();
+        boolean replaceDraft = !Boolean.FALSE.equals(request.getReplaceDraft());
+        boolean persist = Boolean.TRUE.equals(request.getPersist());
+
+        AcademicYear academicYear = academicYearRepo.findById(yearId)
+            .orElseThrow(() -> new EntityNotFoundException("Academic year not found"));
+        List<Division> divisions = resolveDivisions(request);
+
+        Model model = buildModel(divisions, yearId, semester, replaceDraft);
+
+        long budget = request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : defaultTimeBudgetMs;
+        budget = Math.min(budget, maxTimeBudgetMs);
+        TimetableSolver.Solution solution = model.problem.loadCount() > 0
+            ? TimetableSolver.solve(model.problem, pool, budget, started)
+            : null;
+
+        List<TimetableEntry> entries = solution != null
+            ? toEntries(model, solution, academicYear, semester)
+            : new ArrayList<>();
+        List<UnplacedItem> unplaced = new ArrayList<>(model.unplaceable);
+        int placedUnits = 0;
+        if (solution != null) {
+            placedUnits = solution.getAssignments().size();
+            for (int i = 0; i < model.loads.size(); i++) {
+                int missing = solution.unplaced(i);
+                if (missing > 0) {
+                    LoadInfo info = model.loads.get(i);
+                    unplaced.add(unplacedItem(info.division, info.course, info.batch, missing,
+                        "No conflict-free slot, teacher and room combination found"));
+                }
+            }
+        }
+
+        if (persist) {
+            save(divisions, yearId, semester, replaceDraft, entries);
+        }
+
+        GenerationResult result = new GenerationResult();
+        result.setAcademicYearId(yearId);
+        result.setSemester(semester);
+        result.setDivisionIds(divisions.stream().map(Division::getId).toList());
+        result.setPersisted(persist);
+        result.setComplete(unplaced.isEmpty());
+        result.setTimedOut(solution != null && solution.isTimedOut());
+        result.setRequestedUnits(model.requestedUnits);
+        result.setPlacedUnits(placedUnits);
+        result.setEntriesCreated(persist ? entries.size() : 0);
+        result.setSearchNodes(solution != null ? solution.getNodes() : 0);
+        result.setRestarts(solution != null ? solution.getRestarts() : 0);
+        result.setUnplaced(unplaced);
+        result.setEntries(entries.stream().map(ProposedEntry::of).toList());
+        result.setElapsedMs(System.currentTimeMillis() - started);
+
+        logger.info("[GENERATOR] year={} semester={} divisions={} placed {}/{} units ({} entries) in {} ms, {} nodes, {} restarts{}",
+            yearId, semester, result.getDivisionIds(), placedUnits, model.requestedUnits, entries.size(),
+            result.getElapsedMs(), result.getSearchNodes(), result.getRestarts(),
+            result.isTimedOut() ? ", time budget exhausted" : "");
+        return result;
+    }
+
+    private List<Division> resolveDivisions(GenerateTimetableRequest request) {
+        if (request.getDivisionId() != null) {
+            Division division = divisionRepo.findById(request.getDivisionId())
+                .orElseThrow(() -> new EntityNotFoundException("Division not found"));
+            return List.of(division);
+        }
+        List<Division> divisions = divisionRepo.findByDepartmentId(request.getDepartmentId()).stream()
+            .filter(d -> !Boolean.FALSE.equals(d.getIsActive()))
+            .filter(d -> d.getAcademicYear() != null && request.getAcademicYearId().equals(d.getAcademicYear().getId()))
+            .sorted(Comparator.comparing(Division::getId))
+            .toList();
+        if (divisions.isEmpty()) {
+            throw new EntityNotFoundException("No active divisions in this department for the academic year");
+        }
+        return divisions;
+    }
+
+    // ---------------------------------------------------------------
+    // MODEL — entities <-> solver indexes
+    // ---------------------------------------------------------------
+
+    private Model buildModel(List<Division> divisions, Long yearId, Semester semester, boolean replaceDraft) {
+        Model m = new Model(new TimetableSolver.Problem(maxPeriodsPerDay));
+        Set<Long> divisionIds = new LinkedHashSet<>();
+        divisions.forEach(d -> divisionIds.add(d.getId()));
+
+        // Slots per time-slot type, sorted by start. Only non-break slots are schedulable;
+        // a lab's second period is the next active slot of the same type, which must not be a break.
+        Map<String, List<Integer>> slotOptionsByType = new HashMap<>();
+        for (Division d : divisions) {
+            String type = slotType(d);
+            if (slotOptionsByType.containsKey(type)) continue;
+            List<TimeSlot> typeSlots = referenceData.activeSlots(type);
+            List<Integer> options = new ArrayList<>();
+            for (TimeSlot slot : typeSlots) {
+                if (Boolean.TRUE.equals(slot.getIsBreak())) continue;
+                options.add(m.addSlot(slot));
+            }
+            for (TimeSlot slot : typeSlots) {
+                if (Boolean.TRUE.equals(slot.getIsBreak())) continue;
+                typeSlots.stream()
+                    .filter(s -> !s.getStartTime().isBefore(slot.getEndTime()))
+                    .findFirst()
+                    .filter(next -> !Boolean.TRUE.equals(next.getIsBreak()))
+                    .ifPresent(next -> {
+                        int first = m.slotIndex.get(slot.getId());
+                        int second = m.slotIndex.get(next.getId());
+                        m.problem.linkNext(first, second);
+                        m.nextSlot.put(first, second);
+                    });
+            }
+            slotOptionsByType.put(type, options);
+        }
+
+        // Courses per (department, year) — shared by divisions of the same class
+        Map<String, List<CourseEntity>> coursesByClass = new HashMap<>();
+        Set<Long> courseIds = new LinkedHashSet<>();
+        for (Division d : divisions) {
+            coursesByClass.computeIfAbsent(classKey(d), k -> d.getDepartment() == null ? List.of()
+                    : courseRepo.findByDepartmentIdAndYearAndSemesterAndIsActiveTrue(d.getDepartment().getId(), d.getYear(), semester))
+                .forEach(c -> courseIds.add(c.getId()));
+        }
+
+        Map<Long, List<Long>> teacherIdsByCourse = new HashMap<>();
+        Set<Long> teacherIds = new LinkedHashSet<>();
+        if (!courseIds.isEmpty()) {
+            for (Object[] row : teacherRepo.findCourseTeacherPairs(courseIds)) {
+                teacherIdsByCourse.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+                teacherIds.add((Long) row[1]);
+            }
+        }
+        for (TeacherEntity teacher : teacherRepo.findAllById(teacherIds)) {
+            if (Boolean.TRUE.equals(teacher.getIsActive())) m.addTeacher(teacher);
+        }
+
+        List<ClassRoom> rooms = referenceData.activeRooms();
+        rooms.forEach(m::addRoom);
+
+        Map<Long, List<Batch>> batchesByDivision = new HashMap<>();
+        for (Division d : divisions) {
+            m.addDivision(d);
+            List<Batch> batches = batchRepo.findByDivisionId(d.getId());
+            batches.forEach(m::addBatch);
+            batchesByDivision.put(d.getId(), batches);
+        }
+
+        seedOccupancy(m, divisionIds, yearId, semester, replaceDraft);
+        seedAvailability(m);
+
+        for (Division d : divisions) {
+            Map<String, Integer> drafted = replaceDraft ? Map.of() : draftedUnits(d, yearId, semester);
+            List<Integer> slotOptions = slotOptionsByType.getOrDefault(slotType(d), List.of());
+            for (CourseEntity course : coursesByClass.getOrDefault(classKey(d), List.of())) {
+                int[] teachers = teacherIdsByCourse.getOrDefault(course.getId(), List.of()).stream()
+                    .map(m.teacherIndex::get)
+                    .filter(i -> i != null)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+                if (course.getCourseType() == CourseType.LAB) {
+                    addLabLoads(m, d, course, teachers, slotOptions, batchesByDivision.get(d.getId()), rooms, drafted);
+                } else {
+                    addTheoryLoad(m, d, course, teachers, slotOptions, rooms, drafted);
+                }
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Existing placements of the year block teachers, rooms, divisions and batches exactly as
+     * ConflictCheckService would see them — every status and semester. The DRAFT being replaced
+     * is left out. Teacher workload is counted even for slots outside this problem.
+     */
+    private void seedOccupancy(Model m, Set<Long> divisionIds, Long yearId, Semester semester, boolean replaceDraft) {
+        for (OccupancyIndexService.Placement p : occupancyIndex.placements(yearId)) {
+            if (replaceDraft && p.status() == TimetableStatus.DRAFT && p.semester() == semester
+                    && divisionIds.contains(p.divisionId())) {
+                continue;
+            }
+            Integer slot = m.slotIndex.get(p.timeSlotId());
+            Integer teacher = m.teacherIndex.get(p.teacherId());
+            if (teacher != null) {
+                DayOfWeek countedDay = p.status() != TimetableStatus.ARCHIVED ? p.day() : null;
+                m.problem.addTeacherWorkload(teacher, countedDay, 1, p.durationMinutes());
+                if (slot != null) m.problem.blockTeacher(teacher, p.day(), slot);
+            }
+            if (slot == null) continue;
+            Integer room = m.roomIndex.get(p.roomId());
+            if (room != null) m.problem.blockRoom(room, p.day(), slot);
+            Integer division = m.divisionIndex.get(p.divisionId());
+            if (division != null) m.problem.blockDivision(division, p.day(), slot, p.batchId() == null);
+            Integer batch = m.batchIndex.get(p.batchId());
+            if (batch != null) m.problem.blockBatch(batch, p.day(), slot);
+        }
+    }
+
+    private void seedAvailability(Model m) {
+        for (int t = 0; t < m.teachers.size(); t++) {
+            Long teacherId = m.teachers.get(t).getId();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                for (int s = 0; s < m.slots.size(); s++) {
+                    TimeSlot slot = m.slots.get(s);
+                    if (availabilityIndex.isMarkedUnavailable(teacherId, day, slot.getStartTime(), slot.getEndTime())) {
+                        m.problem.blockTeacher(t, day, s);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addTheoryLoad(Model m, Division d, CourseEntity course, int[] teachers, List<Integer> slotOptions,
+                               List<ClassRoom> rooms, Map<String, Integer> drafted) {
+        int hours = course.getHoursPerWeek() != null ? course.getHoursPerWeek() : 0;
+        int units = hours - drafted.getOrDefault(unitKey(course.getId(), null), 0);
+        if (units <= 0) return;
+        m.requestedUnits += units;
+
+        int strength = d.getTotalStudents() != null ? d.getTotalStudents() : 0;
+        int[] roomOptions = roomOptions(m, rooms, strength, RoomType.CLASSROOM);
+        String reason = teachers.length == 0 ? "No active teacher is assigned to this course"
+            : roomOptions.length == 0 ? "No active room can seat the division (" + strength + " students)"
+            : slotOptions.isEmpty() ? "No lecture slots configured for time slot type " + slotType(d)
+            : null;
+        if (reason != null) {
+            m.unplaceable.add(unplacedItem(d, course, null, units, reason));
+            return;
+        }
+        m.problem.addLoad(m.divisionIndex.get(d.getId()), -1, teachers, roomOptions,
+            slotOptions.stream().mapToInt(Integer::intValue).toArray(), units, 1);
+        m.loads.add(new LoadInfo(d, course, null));
+    }
+
+    private void addLabLoads(Model m, Division d, CourseEntity course, int[] teachers, List<Integer> slotOptions,
+                             List<Batch> batches, List<ClassRoom> rooms, Map<String, Integer> drafted) {
+        int hours = course.getHoursPerWeek() != null ? course.getHoursPerWeek() : 0;
+        int sessions = (hours + 1) / 2;
+        if (sessions <= 0) return;
+        if (batches.isEmpty()) {
+            m.requestedUnits += sessions;
+            m.unplaceable.add(unplacedItem(d, course, null, sessions,
+                "Division has no batches — lab sessions are scheduled per batch"));
+            return;
+        }
+
+        int[] labStarts = slotOptions.stream()
+            .filter(m.nextSlot::containsKey)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        int divStrength = d.getTotalStudents() != null ? d.getTotalStudents() : 0;
+        for (Batch batch : batches) {
+            // Each lab session is two entries (one per period)
+            int units = sessions - drafted.getOrDefault(unitKey(course.getId(), batch.getId()), 0) / 2;
+            if (units <= 0) continue;
+            m.requestedUnits += units;
+
+            int strength = batch.getStrength() != null && batch.getStrength() > 0
+                ? batch.getStrength()
+                : (int) Math.ceil((double) divStrength / batches.size());
+            int[] roomOptions = roomOptions(m, rooms, strength, RoomType.LAB);
+            String reason = teachers.length == 0 ? "No active teacher is assigned to this course"
+                : roomOptions.length == 0 ? "No active room can seat the batch (" + strength + " students)"
+                : labStarts.length == 0 ? "No two consecutive lecture periods without a break in between"
+                : null;
+            if (reason != null) {
+                m.unplaceable.add(unplacedItem(d, course, batch, units, reason));
+                continue;
+            }
+            m.problem.addLoad(m.divisionIndex.get(d.getId()), m.batchIndex.get(batch.getId()), teachers,
+                roomOptions, labStarts, units, 2);
+            m.loads.add(new LoadInfo(d, course, batch));
+        }
+    }
+
+    /** Rooms that seat {@code strength}, preferred room type first, then smallest that fits. */
+    private static int[] roomOptions(Model m, List<ClassRoom> rooms, int strength, RoomType preferred) {
+        return rooms.stream()
+            .filter(r -> r.getCapacity() == null || r.getCapacity() >= strength)
+            .sorted(Comparator
+                .comparing((ClassRoom r) -> r.getRoomType() != preferred)
+                .thenComparing(r -> r.getCapacity() != null ? r.getCapacity() : Integer.MAX_VALUE))
+            .mapToInt(r -> m.roomIndex.get(r.getId()))
+            .toArray();
+    }
+
+    /** Entries already drafted for a division/semester, per course and batch. */
+    private Map<String, Integer> draftedUnits(Division d, Long yearId, Semester semester) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (TimetableEntry e : timetableRepo.findByDivisionIdAndAcademicYearIdAndStatus(d.getId(), yearId, TimetableStatus.DRAFT)) {
+            if (e.getSemester() != semester || e.getCourse() == null) continue;
+            Long batchId = e.getBatch() != null ? e.getBatch().getId() : null;
+            counts.merge(unitKey(e.getCourse().getId(), batchId), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private List<TimetableEntry> toEntries(Model m, TimetableSolver.Solution solution,
+                                           AcademicYear academicYear, Semester semester) {
+        List<TimetableEntry> entries = new ArrayList<>();
+        for (TimetableSolver.Assignment a : solution.getAssignments()) {
+            LoadInfo info = m.loads.get(a.load());
+            TeacherEntity teacher = m.teachers.get(a.teacher());
+            ClassRoom room = m.rooms.get(a.room());
+            entries.add(entry(info, teacher, room, m.slots.get(a.slot()), a.day(), academicYear, semester));
+            if (info.batch != null) {
+                TimeSlot second = m.slots.get(m.nextSlot.get(a.slot()));
+                entries.add(entry(info, teacher, room, second, a.day(), academicYear, semester));
+            }
+        }
+        return entries;
+    }
+
+    private static TimetableEntry entry(LoadInfo info, TeacherEntity teacher, ClassRoom room, TimeSlot slot,
+                                        DayOfWeek day, AcademicYear academicYear, Semester semester) {
+        TimetableEntry entry = new TimetableEntry();
+        entry.setDivision(info.division);
+        entry.setCourse(info.course);
+        entry.setTeacher(teacher);
+        entry.setRoom(room);
+        entry.setTimeSlot(slot);
+        entry.setDayOfWeek(day);
+        entry.setAcademicYear(academicYear);
+        entry.setSemester(semester);
+        entry.setStatus(TimetableStatus.DRAFT);
+        entry.setIsLabSession(info.batch != null);
+        entry.setBatch(info.batch);
+        entry.setWeekNumber(1);
+        entry.setIsRecurring(true);
+        entry.setNotes("Auto-generated");
+        return entry;
+    }
+
+    // ---------------------------------------------------------------
+    // PERSIST
+    // ---------------------------------------------------------------
+
+    private void save(List<Division> divisions, Long yearId, Semester semester, boolean replaceDraft,
+                      List<TimetableEntry> entries) {
+        writeTx.executeWithoutResult(status -> {
+            TimetableCacheInvalidator.Scope cacheScope = cacheInvalidator.scope();
+            if (replaceDraft) {
+                for (Division d : divisions) {
+                    cacheScope.division(d.getId(), yearId);
+                    timetableRepo.clearDraftTimetableBySemester(d.getId(), yearId, semester);
+                    occupancyIndex.onDraftCleared(d.getId(), yearId, semester);
+                }
+            }
+            // One lab group per (division, course, day, first period) — all batches of that session share it
+            Map<String, LabSessionGroup> groups = new LinkedHashMap<>();
+            for (int i = 0; i < entries.size(); i++) {
+                TimetableEntry e = entries.get(i);
+                if (!Boolean.TRUE.equals(e.getIsLabSession())) continue;
+                String key = e.getDivision().getId() + "_" + e.getCourse().getId() + "_" + e.getDayOfWeek()
+                    + "_" + e.getTimeSlot().getId();
+                LabSessionGroup group = groups.computeIfAbsent(key, k -> {
+                    LabSessionGroup g = new LabSessionGroup();
+                    g.setDivision(e.getDivision());
+                    g.setCourse(e.getCourse());
+                    g.setAcademicYear(e.getAcademicYear());
+                    g.setDayOfWeek(e.getDayOfWeek());
+                    g.setTimeSlot(e.getTimeSlot());
+                    g.setSemester(semester);
+                    return labSessionGroupRepo.save(g);
+                });
+                e.setLabSessionGroup(group);
+                entries.get(++i).setLabSessionGroup(group); // second period of the same session
+            }
+            try {
+                timetableRepo.saveAllAndFlush(entries).forEach(occupancyIndex::onEntrySaved);
+                cacheScope.entries(entries).evictAfterCommit();
+            } catch (DataIntegrityViolationException e) {
+                // Someone booked one of the proposed cells after the model was built
+                TimetableConflictException conflict = BookingConstraints.translate(e, null);
+                if (conflict == null) throw e;
+                occupancyIndex.onBookingConflict(yearId);
+                throw conflict;
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private static String slotType(Division d) {
+        return d.getTimeSlotType() != null ? d.getTimeSlotType() : "TYPE_1";
+    }
+
+    private static String classKey(Division d) {
+        return (d.getDepartment() != null ? d.getDepartment().getId() : null) + "_" + d.getYear();
+    }
+
+    private static String unitKey(Long courseId, Long batchId) {
+        return courseId + "_" + (batchId != null ? batchId : "-");
+    }
+
+    private static UnplacedItem unplacedItem(Division d, CourseEntity course, Batch batch, int units, String reason) {
+        UnplacedItem item = new UnplacedItem();
+        item.setDivisionId(d.getId());
+        item.setCourseId(course.getId());
+        item.setCourseName(course.getName());
+        item.setBatchId(batch != null ? batch.getId() : null);
+        item.setKind(course.getCourseType() == CourseType.LAB ? "LAB" : "THEORY");
+        item.setUnplacedUnits(units);
+        item.setReason(reason);
+        return item;
+    }
+
+    private record LoadInfo(Division division, CourseEntity course, Batch batch) {}
+
+    /** Entity lists, id -> solver index maps, and the per-load bookkeeping of one run. */
+    private static final class Model {
+        final TimetableSolver.Problem problem;
+        final List<TimeSlot> slots = new ArrayList<>();
+        final Map<Long, Integer> slotIndex = new HashMap<>();
+        final Map<Integer, Integer> nextSlot = new HashMap<>();
+        final List<TeacherEntity> teachers = new ArrayList<>();
+        final Map<Long, Integer> teacherIndex = new HashMap<>();
+        final List<ClassRoom> rooms = new ArrayList<>();
+        final Map<Long, Integer> roomIndex = new HashMap<>();
+        final Map<Long, Integer> divisionIndex = new HashMap<>();
+        final Map<Long, Integer> batchIndex = new HashMap<>();
+        final List<LoadInfo> loads = new ArrayList<>();
+        final List<UnplacedItem> unplaceable = new ArrayList<>();
+        int requestedUnits;
+
+        Model(TimetableSolver.Problem problem) {
+            this.problem = problem;
+        }
+
+        int addSlot(TimeSlot slot) {
+            int minutes = slot.getDurationMinutes() != null ? slot.getDurationMinutes() : 60;
+            int index = problem.addSlot(minutes);
+            slots.add(slot);
+            slotIndex.put(slot.getId(), index);
+            return index;
+        }
+
+        void addTeacher(TeacherEntity teacher) {
+            teacherIndex.put(teacher.getId(), problem.addTeacher(teacher.getMaxWeeklyHours()));
+            teachers.add(teacher);
+        }
+
+        void addRoom(ClassRoom room) {
+            roomIndex.put(room.getId(), problem.addRoom());
+            rooms.add(room);
+        }
+
+        void addDivision(Division division) {
+            divisionIndex.put(division.getId(), problem.addDivision());
+        }
+
+        void addBatch(Batch batch) {
+            batchIndex.put(batch.getId(), problem.addBatch());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class GenerationResult {
+        private Long academicYearId;
+        private Semester semester;
+        private List<Long> divisionIds;
+        private boolean persisted;
+        private boolean complete;
+        private boolean timedOut;
+        private int requestedUnits;
+        private int placedUnits;
+        private int entriesCreated;
+        private long elapsedMs;
+        private long searchNodes;
+        private int restarts;
+        private List<UnplacedItem> unplaced;
+        private List<ProposedEntry> entries;
+    }
+
+    @lombok.Data
+    public static class UnplacedItem {
+        private Long divisionId;
+        private Long courseId;
+        private String courseName;
+        private Long batchId;
+        private String kind;
+        private int unplacedUnits;
+        private String reason;
+    }
+
+    @lombok.Data
+    public static class ProposedEntry {
+        private Long divisionId;
+        private Long courseId;
+        private Long teacherId;
+        private Long roomId;
+        private Long batchId;
+        private DayOfWeek day;
+        private Long timeSlotId;
+        private boolean lab;
+
+        static ProposedEntry of(TimetableEntry e) {
+            ProposedEntry p = new ProposedEntry();
+            p.setDivisionId(e.getDivision().getId());
+            p.setCourseId(e.getCourse().getId());
+            p.setTeacherId(e.getTeacher().getId());
+            p.setRoomId(e.getRoom().getId());
+            p.setBatchId(e.getBatch() != null ? e.getBatch().getId() : null);
+            p.setDay(e.getDayOfWeek());
+            p.setTimeSlotId(e.getTimeSlot().getId());
+            p.setLab(Boolean.TRUE.equals(e.getIsLabSession()));
+            return p;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.College.timetable.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.College.timetable.Entity.CourseType;
+import com.College.timetable.Entity.TimeSlot;
+import com.College.timetable.Entity.TimetableEntry;
+
+/**
+ * Layout of one timetable document: days (MON–SAT) × slots in time order, with break
+ * columns, period numbers and the entries of every cell worked out once. The PDF and Excel
+ * backends only walk it, so every export lays the week out the same way.
+ *
+ * <p>Cells holding several lab batches are sorted by batch name. Consecutive teaching slots
+ * of one lab session — same course, teacher, room and batch or lab group, with no break in
+ * between — are merged: {@link #span} is the number of slots the first cell covers and 0 for
+ * the cells it covers.
+ */
+public final class TimetableGrid {
+
+    public static final String[] DAY_KEYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"};
+    public static final String[] DAY_ABBREVIATIONS = {"MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    private static final Comparator<TimetableEntry> BY_BATCH = Comparator.comparing(
+        e -> e.getBatch() != null && e.getBatch().getName() != null ? e.getBatch().getName() : "");
+
+    private final List<TimeSlot> slots;
+    private final List<TimeSlot> teachingSlots;
+    private final boolean[] breaks;
+    private final int[] periods;
+    private final List<List<List<TimetableEntry>>> cells;
+    private final int[][] spans;
+
+    private TimetableGrid(List<TimeSlot> slots) {
+        this.slots = List.copyOf(slots);
+        this.breaks = new boolean[slots.size()];
+        this.periods = new int[slots.size()];
+        List<TimeSlot> teaching = new ArrayList<>();
+        for (int c = 0; c < slots.size(); c++) {
+            breaks[c] = Boolean.TRUE.equals(slots.get(c).getIsBreak());
+            if (!breaks[c]) {
+                teaching.add(slots.get(c));
+                periods[c] = teaching.size();
+            }
+        }
+        this.teachingSlots = Collections.unmodifiableList(teaching);
+        this.cells = new ArrayList<>(DAY_KEYS.length);
+        for (int d = 0; d < DAY_KEYS.length; d++) {
+            List<List<TimetableEntry>> row = new ArrayList<>(slots.size());
+            for (int c = 0; c < slots.size(); c++) row.add(new ArrayList<>(1));
+            cells.add(row);
+        }
+        this.spans = new int[DAY_KEYS.length][slots.size()];
+    }
+
+    /**
+     * Lay out {@code entries} over {@code slots} (already in time order). Entries in a slot
+     * that is not listed — an inactive one — are left out, as before.
+     */
+    public static TimetableGrid of(List<TimeSlot> slots, List<TimetableEntry> entries) {
+        TimetableGrid grid = new TimetableGrid(slots);
+
+        Map<Long, Integer> columnOfSlot = new HashMap<>();
+        for (int c = 0; c < slots.size(); c++) columnOfSlot.putIfAbsent(slots.get(c).getId(), c);
+        Map<String, Integer> rowOfDay = new HashMap<>();
+        for (int d = 0; d < DAY_KEYS.length; d++) rowOfDay.put(DAY_KEYS[d], d);
+
+        for (TimetableEntry e : entries) {
+            if (e.getDayOfWeek() == null || e.getTimeSlot() == null) continue;
+            Integer d = rowOfDay.get(e.getDayOfWeek().name());
+            Integer c = columnOfSlot.get(e.getTimeSlot().getId());
+            if (d == null || c == null || grid.breaks[c]) continue;
+            grid.cells.get(d).get(c).add(e);
+        }
+
+        for (int d = 0; d < DAY_KEYS.length; d++) {
+            for (int c = 0; c < slots.size(); c++) {
+                List<TimetableEntry> cell = grid.cells.get(d).get(c);
+                if (cell.size() > 1 && cell.stream().allMatch(TimetableGrid::isLab)) cell.sort(BY_BATCH);
+            }
+            grid.mergeLabSessions(d);
+        }
+        return grid;
+    }
+
+    private void mergeLabSessions(int d) {
+        List<List<TimetableEntry>> row = cells.get(d);
+        int c = 0;
+        while (c < slots.size()) {
+            if (breaks[c]) {
+                c++;
+                continue;
+            }
+            int end = c + 1;
+            List<TimetableEntry> first = row.get(c);
+            if (!first.isEmpty() && isLab(first.get(0))) {
+                while (end < slots.size() && !breaks[end] && !row.get(end).isEmpty()
+                        && sameSession(first.get(0), row.get(end).get(0))) {
+                    end++;
+                }
+            }
+            spans[d][c] = end - c;
+            c = end;
+        }
+    }
+
+    /** One lab session booked over consecutive slots: same course, teacher, room and batch or lab group. */
+    static boolean sameSession(TimetableEntry a, TimetableEntry b) {
+        if (!isLab(a) || !isLab(b)) return false;
+        if (!Objects.equals(a.getCourse().getId(), b.getCourse().getId())) return false;
+        if (!Objects.equals(a.getTeacher() != null ? a.getTeacher().getId() : null,
+                b.getTeacher() != null ? b.getTeacher().getId() : null)) return false;
+        if (!Objects.equals(a.getRoom() != null ? a.getRoom().getId() : null,
+                b.getRoom() != null ? b.getRoom().getId() : null)) return false;
+        if (a.getLabSessionGroup() != null && b.getLabSessionGroup() != null) {
+            return Objects.equals(a.getLabSessionGroup().getId(), b.getLabSessionGroup().getId());
+        }
+        if (a.getBatch() != null && b.getBatch() != null) {
+            return Objects.equals(a.getBatch().getId(), b.getBatch().getId());
+        }
+        return true;
+    }
+
+    static boolean isLab(TimetableEntry e) {
+        return e.getCourse() != null && e.getCourse().getCourseType() == CourseType.LAB;
+    }
+
+    public int days() {
+        return DAY_KEYS.length;
+    }
+
+    /** Number of slot columns, breaks included. */
+    public int columns() {
+        return slots.size();
+    }
+
+    public List<TimeSlot> slots() {
+        return slots;
+    }
+
+    public TimeSlot slot(int column) {
+        return slots.get(column);
+    }
+
+    /** The non-break slots, in order. */
+    public List<TimeSlot> teachingSlots() {
+        return teachingSlots;
+    }
+
+    public int breakCount() {
+        return slots.size() - teachingSlots.size();
+    }
+
+    public boolean isBreak(int column) {
+        return breaks[column];
+    }
+
+    /** 1-based period number of a teaching column, 0 for a break. */
+    public int period(int column) {
+        return periods[column];
+    }
+
+    /** Entries booked in a cell; empty for free cells and breaks. */
+    public List<TimetableEntry> entries(int day, int column) {
+        return Collections.unmodifiableList(cells.get(day).get(column));
+    }
+
+    /**
+     * Number of consecutive teaching slots the cell covers: 1 normally, more for the first
+     * slot of a merged lab session, 0 for the slots it covers and for breaks.
+     */
+    public int span(int day, int column) {
+        return spans[day][column];
+    }
+
+    /**
+     * Relative column widths with the day column first: breaks get {@code breakWidth} each and
+     * the teaching columns share what is left of 100.
+     */
+    public float[] columnWidths(float dayWidth, float breakWidth) {
+        float[] widths = new float[slots.size() + 1];
+        widths[0] = dayWidth;
+        float rest = 100f - dayWidth - breakCount() * breakWidth;
+        float teachingWidth = teachingSlots.isEmpty() ? rest : rest / teachingSlots.size();
+        for (int c = 0; c < slots.size(); c++) {
+            widths[c + 1] = breaks[c] ? breakWidth : teachingWidth;
+        }
+        return widths;
+    }
+}
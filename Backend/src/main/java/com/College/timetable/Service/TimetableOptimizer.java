@@ -0,0 +1,484 @@
+package com.College.timetable.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.College.timetable.Entity.DayOfWeek;
+
+/**
+ * In-memory local search behind TimetableOptimizerService.
+ *
+ * Improves an existing placement of movable units (DRAFT theory entries) by moving a unit to
+ * another cell or swapping two units of the same division. Every move keeps the hard rules
+ * ConflictCheckService enforces — no teacher/room/division clash, teacher availability, daily
+ * period limit and weekly hour limit; rooms and teachers stay as they are, so capacity and
+ * course assignment are unaffected.
+ *
+ * The soft score is a weighted sum of per-key penalties:
+ * teacher gaps and heavy days per (teacher, day), student gaps per (division, day) and repeated
+ * lectures of a course per (course group, day). A move touches at most two units, so only the
+ * few keys on their old and new days are re-scored — each move costs O(slots), which keeps
+ * millions of moves per minute within reach.
+ *
+ * Workers run independent simulated-annealing walks with different seeds on a fork/join pool;
+ * the best walk wins.
+ */
+public final class TimetableOptimizer {
+
+    static final int DAYS = DayOfWeek.values().length;
+
+    private TimetableOptimizer() {}
+
+    /** Penalty weights. {@code heavyDayPeriods} is the per-day period count above which a day is heavy. */
+    public record Weights(int teacherGap, int teacherHeavyDay, int divisionGap, int courseRepeat, int heavyDayPeriods) {
+        public static Weights defaults() {
+            return new Weights(3, 5, 2, 4, 5);
+        }
+    }
+
+    /** Penalty breakdown of a whole assignment. */
+    public record Score(int teacherGaps, int heavyDays, int divisionGaps, int courseRepeats, int total) {}
+
+    // ---------------------------------------------------------------
+    // PROBLEM — built once by the service, shared read-only by all workers
+    // ---------------------------------------------------------------
+
+    public static final class Problem {
+        private final int maxPeriodsPerDay;
+        private final Weights weights;
+        private final List<Integer> slotMinutes = new ArrayList<>();     // slots in time order
+        private final List<Integer> teacherMaxWeeklyHours = new ArrayList<>();
+        private final List<int[]> teacherFixed = new ArrayList<>();      // per cell
+        private final List<boolean[]> teacherBlocked = new ArrayList<>();
+        private final List<int[]> teacherDaily = new ArrayList<>();
+        private final List<int[]> teacherMinutes = new ArrayList<>();
+        private final List<int[]> roomFixed = new ArrayList<>();
+        private final List<int[]> divisionFixed = new ArrayList<>();
+        private final List<List<Integer>> divisionUnits = new ArrayList<>();
+        private int groups;
+        private final List<Unit> units = new ArrayList<>();
+        private boolean sealed;
+
+        public Problem(int maxPeriodsPerDay, Weights weights) {
+            this.maxPeriodsPerDay = maxPeriodsPerDay;
+            this.weights = weights;
+        }
+
+        /** Register a lecture slot. Slots must be added first, in time order. */
+        public int addSlot(int durationMinutes) {
+            if (sealed) throw new IllegalStateException("Slots must be added before teachers, rooms and units");
+            slotMinutes.add(durationMinutes);
+            return slotMinutes.size() - 1;
+        }
+
+        public int addTeacher(Integer maxWeeklyHours) {
+            sealed = true;
+            teacherMaxWeeklyHours.add(maxWeeklyHours);
+            teacherFixed.add(new int[cells()]);
+            teacherBlocked.add(new boolean[cells()]);
+            teacherDaily.add(new int[DAYS]);
+            teacherMinutes.add(new int[1]);
+            return teacherMaxWeeklyHours.size() - 1;
+        }
+
+        public int addRoom() {
+            sealed = true;
+            roomFixed.add(new int[cells()]);
+            return roomFixed.size() - 1;
+        }
+
+        public int addDivision() {
+            sealed = true;
+            divisionFixed.add(new int[cells()]);
+            divisionUnits.add(new ArrayList<>());
+            return divisionFixed.size() - 1;
+        }
+
+        /** A set of units whose lectures should not repeat on a day (one course of one division). */
+        public int addGroup() {
+            sealed = true;
+            return groups++;
+        }
+
+        /** A fixed placement occupying a cell. Pass -1 for resources not in the problem. */
+        public void addFixed(int teacher, int room, int division, DayOfWeek day, int slot) {
+            int cell = cell(day, slot);
+            if (teacher >= 0) teacherFixed.get(teacher)[cell]++;
+            if (room >= 0) roomFixed.get(room)[cell]++;
+            if (division >= 0) divisionFixed.get(division)[cell]++;
+        }
+
+        /** Workload of fixed placements: periods on a day (non-archived, else pass null) and minutes. */
+        public void addTeacherWorkload(int teacher, DayOfWeek day, int periods, int minutes) {
+            if (day != null) teacherDaily.get(teacher)[day.ordinal()] += periods;
+            teacherMinutes.get(teacher)[0] += minutes;
+        }
+
+        /** Teacher marked unavailable in this cell. */
+        public void blockTeacher(int teacher, DayOfWeek day, int slot) {
+            teacherBlocked.get(teacher)[cell(day, slot)] = true;
+        }
+
+        /**
+         * A movable single-period unit at its current cell. {@code slotOptions} are the slots it
+         * may move to (the division's lecture slots).
+         */
+        public int addUnit(int teacher, int room, int division, int group, int[] slotOptions, DayOfWeek day, int slot) {
+            sealed = true;
+            boolean[] allowed = new boolean[slotMinutes.size()];
+            for (int s : slotOptions) allowed[s] = true;
+            units.add(new Unit(teacher, room, division, group, slotOptions, allowed, cell(day, slot)));
+            divisionUnits.get(division).add(units.size() - 1);
+            return units.size() - 1;
+        }
+
+        public int unitCount() {
+            return units.size();
+        }
+
+        int slots() {
+            return slotMinutes.size();
+        }
+
+        int cells() {
+            return slotMinutes.size() * DAYS;
+        }
+
+        static int cell(DayOfWeek day, int slot) {
+            return slot * DAYS + day.ordinal();
+        }
+    }
+
+    record Unit(int teacher, int room, int division, int group, int[] slots, boolean[] allowed, int initialCell) {}
+
+    // ---------------------------------------------------------------
+    // RESULT
+    // ---------------------------------------------------------------
+
+    public static final class Result {
+        private final int[] cells;
+        private final Score initialScore;
+        private final Score score;
+        private long movesEvaluated;
+        private long movesAccepted;
+        private int workers;
+
+        Result(int[] cells, Score initialScore, Score score) {
+            this.cells = cells;
+            this.initialScore = initialScore;
+            this.score = score;
+        }
+
+        public DayOfWeek day(int unit) { return DayOfWeek.values()[cells[unit] % DAYS]; }
+        public int slot(int unit) { return cells[unit] / DAYS; }
+        public Score getInitialScore() { return initialScore; }
+        public Score getScore() { return score; }
+        public long getMovesEvaluated() { return movesEvaluated; }
+        public long getMovesAccepted() { return movesAccepted; }
+        public int getWorkers() { return workers; }
+    }
+
+    // ---------------------------------------------------------------
+    // ENTRY POINT
+    // ---------------------------------------------------------------
+
+    /**
+     * Optimize on the given pool until {@code timeBudgetMs} runs out (or a zero-penalty
+     * assignment is found) and return the best assignment seen.
+     */
+    public static Result optimize(Problem problem, ForkJoinPool pool, long timeBudgetMs, long seed) {
+        problem.sealed = true;
+        long start = System.currentTimeMillis();
+        long deadline = start + Math.max(1, timeBudgetMs);
+        int workers = Math.max(1, pool.getParallelism());
+        Result best = pool.invoke(new SearchTask(problem, start, deadline, seed, 0, workers));
+        best.workers = workers;
+        return best;
+    }
+
+    private static final class SearchTask extends RecursiveTask<Result> {
+        private final Problem problem;
+        private final long start;
+        private final long deadline;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        SearchTask(Problem problem, long start, long deadline, long seed, int from, int to) {
+            this.problem = problem;
+            this.start = start;
+            this.deadline = deadline;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                SearchTask left = new SearchTask(problem, start, deadline, seed, from, mid);
+                SearchTask right = new SearchTask(problem, start, deadline, seed, mid, to);
+                left.fork();
+                Result r = right.compute();
+                Result l = left.join();
+                Result better = l.score.total() <= r.score.total() ? l : r;
+                better.movesEvaluated = l.movesEvaluated + r.movesEvaluated;
+                better.movesAccepted = l.movesAccepted + r.movesAccepted;
+                return better;
+            }
+            return new Walker(problem, start, deadline, seed + from * 7919L).run();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // WALKER — one thread, simulated annealing with incremental scoring
+    // ---------------------------------------------------------------
+
+    private static final class Walker {
+        private final Problem p;
+        private final Weights w;
+        private final long start;
+        private final long deadline;
+        private final Random random;
+        private final int slots;
+
+        private final int[][] teacherCount;
+        private final int[][] roomCount;
+        private final int[][] divisionCount;
+        private final int[][] teacherDaily;
+        private final int[] teacherMinutes;
+        private final int[][] groupDaily;
+        private final int[] cellOf;
+
+        // keys touched by the current move (deduplicated)
+        private final int[] teacherKeys = new int[4];
+        private final int[] divisionKeys = new int[4];
+        private final int[] groupKeys = new int[4];
+        private int teacherKeyCount;
+        private int divisionKeyCount;
+        private int groupKeyCount;
+
+        private long moves;
+        private long accepted;
+
+        Walker(Problem p, long start, long deadline, long seed) {
+            this.p = p;
+            this.w = p.weights;
+            this.start = start;
+            this.deadline = deadline;
+            this.random = new Random(seed);
+            this.slots = p.slots();
+            teacherCount = p.teacherFixed.stream().map(int[]::clone).toArray(int[][]::new);
+            roomCount = p.roomFixed.stream().map(int[]::clone).toArray(int[][]::new);
+            divisionCount = p.divisionFixed.stream().map(int[]::clone).toArray(int[][]::new);
+            teacherDaily = p.teacherDaily.stream().map(int[]::clone).toArray(int[][]::new);
+            teacherMinutes = p.teacherMinutes.stream().mapToInt(m -> m[0]).toArray();
+            groupDaily = new int[p.groups][DAYS];
+            cellOf = new int[p.units.size()];
+            for (int u = 0; u < cellOf.length; u++) place(u, p.units.get(u).initialCell());
+        }
+
+        Result run() {
+            Score initial = fullScore();
+            int current = initial.total();
+            int best = current;
+            int[] bestCells = cellOf.clone();
+            int n = cellOf.length;
+            double startTemperature = Math.max(1, Math.max(w.teacherGap(), w.courseRepeat()));
+            double temperature = startTemperature;
+
+            while (n > 0 && best > 0) {
+                if ((moves & 1023) == 0) {
+                    long now = System.currentTimeMillis();
+                    if (now >= deadline) break;
+                    double progress = (double) (now - start) / Math.max(1, deadline - start);
+                    temperature = startTemperature * (1 - progress) + 0.01;
+                }
+                moves++;
+                int delta = randomMove(n, temperature);
+                if (delta == Integer.MAX_VALUE) continue;
+                accepted++;
+                current += delta;
+                if (current < best) {
+                    best = current;
+                    System.arraycopy(cellOf, 0, bestCells, 0, n);
+                }
+            }
+
+            // Re-score the best assignment from scratch for the breakdown
+            for (int u = 0; u < n; u++) unplace(u);
+            for (int u = 0; u < n; u++) place(u, bestCells[u]);
+            Result result = new Result(bestCells, initial, fullScore());
+            result.movesEvaluated = moves;
+            result.movesAccepted = accepted;
+            return result;
+        }
+
+        /** Try one move or swap. Returns the applied delta, or MAX_VALUE when rejected. */
+        private int randomMove(int n, double temperature) {
+            int u = random.nextInt(n);
+            Unit a = p.units.get(u);
+            int v = -1;
+            int targetU;
+            int targetV = -1;
+            if (random.nextBoolean()) {
+                List<Integer> peers = p.divisionUnits.get(a.division());
+                v = peers.get(random.nextInt(peers.size()));
+                if (v == u || cellOf[v] == cellOf[u]) return Integer.MAX_VALUE;
+                targetU = cellOf[v];
+                targetV = cellOf[u];
+                if (!a.allowed()[targetU / DAYS] || !p.units.get(v).allowed()[targetV / DAYS]) return Integer.MAX_VALUE;
+            } else {
+                int slot = a.slots()[random.nextInt(a.slots().length)];
+                targetU = slot * DAYS + random.nextInt(DAYS);
+                if (targetU == cellOf[u]) return Integer.MAX_VALUE;
+            }
+
+            int fromU = cellOf[u];
+            int fromV = v >= 0 ? cellOf[v] : -1;
+            collectKeys(u, fromU, targetU, v, fromV, targetV);
+            int before = keyPenalty();
+
+            unplace(u);
+            if (v >= 0) unplace(v);
+            boolean ok = fits(u, targetU, fromU);
+            if (ok) {
+                place(u, targetU);
+                if (v >= 0) {
+                    ok = fits(v, targetV, fromV);
+                    if (ok) place(v, targetV);
+                    else unplace(u);
+                }
+            }
+            if (!ok) {
+                place(u, fromU);
+                if (v >= 0) place(v, fromV);
+                return Integer.MAX_VALUE;
+            }
+
+            int delta = keyPenalty() - before;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                return delta;
+            }
+            unplace(u);
+            if (v >= 0) unplace(v);
+            place(u, fromU);
+            if (v >= 0) place(v, fromV);
+            return Integer.MAX_VALUE;
+        }
+
+        /** Hard rules for placing a (currently unplaced) unit at {@code cell}. */
+        private boolean fits(int u, int cell, int fromCell) {
+            Unit a = p.units.get(u);
+            int t = a.teacher();
+            if (teacherCount[t][cell] > 0 || p.teacherBlocked.get(t)[cell]) return false;
+            if (roomCount[a.room()][cell] > 0 || divisionCount[a.division()][cell] > 0) return false;
+            // Moving within a day never changes its period count
+            if (cell % DAYS != fromCell % DAYS && teacherDaily[t][cell % DAYS] + 1 > p.maxPeriodsPerDay) return false;
+            Integer maxHours = p.teacherMaxWeeklyHours.get(t);
+            int minutesAfter = teacherMinutes[t] + p.slotMinutes.get(cell / DAYS);
+            int minutesBefore = teacherMinutes[t] + p.slotMinutes.get(fromCell / DAYS);
+            return maxHours == null || minutesAfter / 60 <= maxHours || minutesAfter <= minutesBefore;
+        }
+
+        private void place(int u, int cell) {
+            update(u, cell, 1);
+            cellOf[u] = cell;
+        }
+
+        private void unplace(int u) {
+            update(u, cellOf[u], -1);
+        }
+
+        private void update(int u, int cell, int sign) {
+            Unit a = p.units.get(u);
+            teacherCount[a.teacher()][cell] += sign;
+            roomCount[a.room()][cell] += sign;
+            divisionCount[a.division()][cell] += sign;
+            teacherDaily[a.teacher()][cell % DAYS] += sign;
+            teacherMinutes[a.teacher()] += sign * p.slotMinutes.get(cell / DAYS);
+            groupDaily[a.group()][cell % DAYS] += sign;
+        }
+
+        // ── scoring ──
+
+        private void collectKeys(int u, int fromU, int toU, int v, int fromV, int toV) {
+            teacherKeyCount = divisionKeyCount = groupKeyCount = 0;
+            addKeys(p.units.get(u), fromU, toU);
+            if (v >= 0) addKeys(p.units.get(v), fromV, toV);
+        }
+
+        private void addKeys(Unit a, int from, int to) {
+            for (int cell : new int[] { from, to }) {
+                int day = cell % DAYS;
+                teacherKeyCount = addKey(teacherKeys, teacherKeyCount, a.teacher() * DAYS + day);
+                divisionKeyCount = addKey(divisionKeys, divisionKeyCount, a.division() * DAYS + day);
+                groupKeyCount = addKey(groupKeys, groupKeyCount, a.group() * DAYS + day);
+            }
+        }
+
+        private static int addKey(int[] keys, int count, int key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) return count;
+            }
+            keys[count] = key;
+            return count + 1;
+        }
+
+        private int keyPenalty() {
+            int total = 0;
+            for (int i = 0; i < teacherKeyCount; i++) {
+                int t = teacherKeys[i] / DAYS;
+                int day = teacherKeys[i] % DAYS;
+                total += w.teacherGap() * gaps(teacherCount[t], day) + w.teacherHeavyDay() * heavy(t, day);
+            }
+            for (int i = 0; i < divisionKeyCount; i++) {
+                total += w.divisionGap() * gaps(divisionCount[divisionKeys[i] / DAYS], divisionKeys[i] % DAYS);
+            }
+            for (int i = 0; i < groupKeyCount; i++) {
+                total += w.courseRepeat() * repeats(groupKeys[i] / DAYS, groupKeys[i] % DAYS);
+            }
+            return total;
+        }
+
+        private Score fullScore() {
+            int teacherGaps = 0, heavyDays = 0, divisionGaps = 0, courseRepeats = 0;
+            for (int day = 0; day < DAYS; day++) {
+                for (int t = 0; t < teacherCount.length; t++) {
+                    teacherGaps += gaps(teacherCount[t], day);
+                    heavyDays += heavy(t, day);
+                }
+                for (int[] counts : divisionCount) divisionGaps += gaps(counts, day);
+                for (int g = 0; g < groupDaily.length; g++) courseRepeats += repeats(g, day);
+            }
+            int total = w.teacherGap() * teacherGaps + w.teacherHeavyDay() * heavyDays
+                + w.divisionGap() * divisionGaps + w.courseRepeat() * courseRepeats;
+            return new Score(teacherGaps, heavyDays, divisionGaps, courseRepeats, total);
+        }
+
+        /** Idle periods between the first and last occupied slot of a day. */
+        private int gaps(int[] counts, int day) {
+            int first = -1, last = -1, busy = 0;
+            for (int s = 0; s < slots; s++) {
+                if (counts[s * DAYS + day] > 0) {
+                    if (first < 0) first = s;
+                    last = s;
+                    busy++;
+                }
+            }
+            return first < 0 ? 0 : last - first + 1 - busy;
+        }
+
+        private int heavy(int t, int day) {
+            return Math.max(0, teacherDaily[t][day] - w.heavyDayPeriods());
+        }
+
+        private int repeats(int g, int day) {
+            return Math.max(0, groupDaily[g][day] - 1);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.College.timetable.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.IO.OptimizeTimetableRequest;
+import com.College.timetable.Repository.*;
+import com.College.timetable.Util.TimetableConflictException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Soft-constraint optimizer for existing DRAFT timetables.
+ *
+ * Takes the DRAFT theory entries of a division or department as movable units and everything
+ * else in the academic year (published/archived entries, other divisions, lab sessions) as
+ * fixed occupancy, then runs TimetableOptimizer on a dedicated fork/join pool. Teachers and
+ * rooms of an entry never change — only its day and slot — so the result stays valid under
+ * ConflictCheckService.
+ *
+ * Returns the score before/after and the list of moved entries. With {@code persist=true} the
+ * moves are applied in one transaction, provided none of the entries changed meanwhile.
+ */
+@Service
+public class TimetableOptimizerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableOptimizerService.class);
+
+    private final Division_repo divisionRepo;
+    private final ReferenceDataRegistry referenceData;
+    private final TimetableEntry_repo timetableRepo;
+    private final OccupancyIndexService occupancyIndex;
+    private final TeacherAvailabilityIndexService availabilityIndex;
+    private final TimetableCacheInvalidator cacheInvalidator;
+    private final TransactionTemplate writeTx;
+
+    @Value("${app.timetable.max-periods-per-day:6}")
+    private int maxPeriodsPerDay;
+
+    @Value("${app.timetable.optimizer.time-budget-ms:10000}")
+    private long defaultTimeBudgetMs;
+
+    @Value("${app.timetable.optimizer.max-time-budget-ms:60000}")
+    private long maxTimeBudgetMs;
+
+    // 0 = one worker per core
+    @Value("${app.timetable.optimizer.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.timetable.optimizer.weight.teacher-gap:3}")
+    private int teacherGapWeight;
+
+    @Value("${app.timetable.optimizer.weight.teacher-heavy-day:5}")
+    private int teacherHeavyDayWeight;
+
+    @Value("${app.timetable.optimizer.weight.division-gap:2}")
+    private int divisionGapWeight;
+
+    @Value("${app.timetable.optimizer.weight.course-repeat:4}")
+    private int courseRepeatWeight;
+
+    // Same threshold as TimetableValidationService's TEACHER_DAILY_HEAVY warning
+    @Value("${app.timetable.optimizer.heavy-day-periods:5}")
+    private int heavyDayPeriods;
+
+    private ForkJoinPool pool;
+
+    public TimetableOptimizerService(Division_repo divisionRepo, ReferenceDataRegistry referenceData,
+                                     TimetableEntry_repo timetableRepo, OccupancyIndexService occupancyIndex,
+                                     TeacherAvailabilityIndexService availabilityIndex,
+                                     TimetableCacheInvalidator cacheInvalidator,
+                                     PlatformTransactionManager transactionManager) {
+        this.divisionRepo = divisionRepo;
+        this.referenceData = referenceData;
+        this.timetableRepo = timetableRepo;
+        this.occupancyIndex = occupancyIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.cacheInvalidator = cacheInvalidator;
+        this.writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void startPool() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(workers);
+    }
+
+    @PreDestroy
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+    // OPTIMIZE
+    // ---------------------------------------------------------------
+
+    public OptimizationResult optimize(OptimizeTimetableRequest request) {
+        long started = System.currentTimeMillis();
+        Long yearId = request.getAcademicYearId();
+        Semester semester = request.getSemester();
+        boolean persist = Boolean.TRUE.equals(request.getPersist());
+
+        List<Division> divisions = resolveDivisions(request);
+        Model model = buildModel(divisions, yearId, semester);
+
+        long budget = request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : defaultTimeBudgetMs;
+        budget = Math.min(budget, maxTimeBudgetMs);
+        TimetableOptimizer.Result optimized = TimetableOptimizer.optimize(model.problem, pool, budget, started);
+
+        List<EntryMove> changes = new ArrayList<>();
+        for (int u = 0; u < model.units.size(); u++) {
+            TimetableEntry entry = model.units.get(u);
+            TimeSlot toSlot = model.slots.get(optimized.slot(u));
+            DayOfWeek toDay = optimized.day(u);
+            if (toDay != entry.getDayOfWeek() || !toSlot.getId().equals(entry.getTimeSlot().getId())) {
+                changes.add(EntryMove.of(entry, toDay, toSlot));
+            }
+        }
+
+        if (persist && !changes.isEmpty()) {
+            apply(changes, model);
+        }
+
+        OptimizationResult result = new OptimizationResult();
+        result.setAcademicYearId(yearId);
+        result.setSemester(semester);
+        result.setDivisionIds(divisions.stream().map(Division::getId).toList());
+        result.setPersisted(persist && !changes.isEmpty());
+        result.setMovableEntries(model.units.size());
+        result.setInitialScore(optimized.getInitialScore());
+        result.setScore(optimized.getScore());
+        result.setWorkers(optimized.getWorkers());
+        result.setMovesEvaluated(optimized.getMovesEvaluated());
+        result.setMovesAccepted(optimized.getMovesAccepted());
+        result.setChanges(changes);
+        result.setElapsedMs(System.currentTimeMillis() - started);
+
+        logger.info("[OPTIMIZER] year={} semester={} divisions={} score {} -> {} ({} entries moved, {} moves evaluated in {} ms)",
+            yearId, semester, result.getDivisionIds(), optimized.getInitialScore().total(), optimized.getScore().total(),
+            changes.size(), optimized.getMovesEvaluated(), result.getElapsedMs());
+        return result;
+    }
+
+    private List<Division> resolveDivisions(OptimizeTimetableRequest request) {
+        if (request.getDivisionId() != null) {
+            Division division = divisionRepo.findById(request.getDivisionId())
+                .orElseThrow(() -> new EntityNotFoundException("Division not found"));
+            return List.of(division);
+        }
+        List<Division> divisions = divisionRepo.findByDepartmentId(request.getDepartmentId()).stream()
+            .filter(d -> !Boolean.FALSE.equals(d.getIsActive()))
+            .filter(d -> d.getAcademicYear() != null && request.getAcademicYearId().equals(d.getAcademicYear().getId()))
+            .sorted(Comparator.comparing(Division::getId))
+            .toList();
+        if (divisions.isEmpty()) {
+            throw new EntityNotFoundException("No active divisions in this department for the academic year");
+        }
+        return divisions;
+    }
+
+    // ---------------------------------------------------------------
+    // MODEL
+    // ---------------------------------------------------------------
+
+    private Model buildModel(List<Division> divisions, Long yearId, Semester semester) {
+        TimetableOptimizer.Weights weights = new TimetableOptimizer.Weights(
+            teacherGapWeight, teacherHeavyDayWeight, divisionGapWeight, courseRepeatWeight, heavyDayPeriods);
+        Model m = new Model(new TimetableOptimizer.Problem(maxPeriodsPerDay, weights));
+
+        // Every active lecture slot in time order — gaps are measured along this order
+        List<TimeSlot> lectureSlots = referenceData.activeSlots().stream()
+            .filter(s -> !Boolean.TRUE.equals(s.getIsBreak()))
+            .toList();
+        for (TimeSlot slot : lectureSlots) {
+            int minutes = slot.getDurationMinutes() != null ? slot.getDurationMinutes() : 60;
+            m.slotIndex.put(slot.getId(), m.problem.addSlot(minutes));
+            m.slots.add(slot);
+        }
+
+        // Movable units: DRAFT theory entries of the target divisions in this semester
+        List<TimetableEntry> movable = new ArrayList<>();
+        for (Division d : divisions) {
+            String type = d.getTimeSlotType() != null ? d.getTimeSlotType() : "TYPE_1";
+            for (TimetableEntry e : timetableRepo.findByDivisionIdAndAcademicYearIdAndStatus(d.getId(), yearId, TimetableStatus.DRAFT)) {
+                if (e.getSemester() != semester || Boolean.TRUE.equals(e.getIsLabSession())) continue;
+                if (e.getTeacher() == null || e.getRoom() == null || e.getTimeSlot() == null || e.getCourse() == null) continue;
+                if (!m.slotIndex.containsKey(e.getTimeSlot().getId()) || !type.equals(e.getTimeSlot().getType())) continue;
+                movable.add(e);
+            }
+        }
+
+        Set<Long> movableIds = new LinkedHashSet<>();
+        for (TimetableEntry e : movable) {
+            movableIds.add(e.getId());
+            m.teacherIndex.computeIfAbsent(e.getTeacher().getId(), id -> m.problem.addTeacher(e.getTeacher().getMaxWeeklyHours()));
+            m.roomIndex.computeIfAbsent(e.getRoom().getId(), id -> m.problem.addRoom());
+        }
+        for (Division d : divisions) {
+            m.divisionIndex.put(d.getId(), m.problem.addDivision());
+        }
+
+        // Everything else in the year is fixed occupancy
+        for (OccupancyIndexService.Placement p : occupancyIndex.placements(yearId)) {
+            if (movableIds.contains(p.entryId())) continue;
+            Integer teacher = m.teacherIndex.get(p.teacherId());
+            if (teacher != null) {
+                DayOfWeek countedDay = p.status() != TimetableStatus.ARCHIVED ? p.day() : null;
+                m.problem.addTeacherWorkload(teacher, countedDay, 1, p.durationMinutes());
+            }
+            Integer slot = m.slotIndex.get(p.timeSlotId());
+            if (slot == null) continue;
+            m.problem.addFixed(
+                teacher != null ? teacher : -1,
+                m.roomIndex.getOrDefault(p.roomId(), -1),
+                m.divisionIndex.getOrDefault(p.divisionId(), -1),
+                p.day(), slot);
+        }
+
+        m.teacherIndex.forEach((teacherId, t) -> {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                for (int s = 0; s < m.slots.size(); s++) {
+                    TimeSlot slot = m.slots.get(s);
+                    if (availabilityIndex.isMarkedUnavailable(teacherId, day, slot.getStartTime(), slot.getEndTime())) {
+                        m.problem.blockTeacher(t, day, s);
+                    }
+                }
+            }
+        });
+
+        Map<String, int[]> slotOptionsByType = new HashMap<>();
+        Map<String, Integer> groups = new HashMap<>();
+        for (TimetableEntry e : movable) {
+            String type = e.getTimeSlot().getType();
+            int[] options = slotOptionsByType.computeIfAbsent(type, k -> lectureSlots.stream()
+                .filter(s -> k.equals(s.getType()))
+                .mapToInt(s -> m.slotIndex.get(s.getId()))
+                .toArray());
+            int group = groups.computeIfAbsent(e.getDivision().getId() + "_" + e.getCourse().getId(),
+                k -> m.problem.addGroup());
+            m.problem.addUnit(
+                m.teacherIndex.get(e.getTeacher().getId()),
+                m.roomIndex.get(e.getRoom().getId()),
+                m.divisionIndex.get(e.getDivision().getId()),
+                group, options, e.getDayOfWeek(), m.slotIndex.get(e.getTimeSlot().getId()));
+            m.units.add(e);
+        }
+        return m;
+    }
+
+    // ---------------------------------------------------------------
+    // PERSIST
+    // ---------------------------------------------------------------
+
+    private void apply(List<EntryMove> changes, Model model) {
+        Map<Long, TimeSlot> slotsById = new HashMap<>();
+        model.slots.forEach(s -> slotsById.put(s.getId(), s));
+        writeTx.executeWithoutResult(status -> {
+            Map<Long, TimetableEntry> current = new HashMap<>();
+            timetableRepo.findAllById(changes.stream().map(EntryMove::getEntryId).toList())
+                .forEach(e -> current.put(e.getId(), e));
+
+            List<String> stale = new ArrayList<>();
+            for (EntryMove move : changes) {
+                TimetableEntry e = current.get(move.getEntryId());
+                if (e == null || e.getStatus() != TimetableStatus.DRAFT || e.getDayOfWeek() != move.getFromDay()
+                        || !e.getTimeSlot().getId().equals(move.getFromSlotId())) {
+                    stale.add("Entry " + move.getEntryId() + " changed while optimizing. Run the optimizer again.");
+                }
+            }
+            if (!stale.isEmpty()) {
+                throw new TimetableConflictException(stale);
+            }
+
+            // Swapped entries trade cells, which would trip the booking unique indexes row by row
+            // (Postgres cannot defer a unique index). Park the moved entries outside the indexes
+            // as ARCHIVED first, then write the final cells back as DRAFT.
+            List<TimetableEntry> updated = changes.stream().map(move -> current.get(move.getEntryId())).toList();
+            updated.forEach(e -> e.setStatus(TimetableStatus.ARCHIVED));
+            timetableRepo.saveAllAndFlush(updated);
+            for (EntryMove move : changes) {
+                TimetableEntry e = current.get(move.getEntryId());
+                e.setDayOfWeek(move.getToDay());
+                e.setTimeSlot(slotsById.get(move.getToSlotId()));
+                e.setStatus(TimetableStatus.DRAFT);
+            }
+            try {
+                timetableRepo.saveAllAndFlush(updated).forEach(occupancyIndex::onEntrySaved);
+                cacheInvalidator.scope().entries(updated).evictAfterCommit();
+            } catch (DataIntegrityViolationException e) {
+                // A cell was booked by another writer while the optimizer ran
+                TimetableConflictException conflict = BookingConstraints.translate(e, null);
+                if (conflict == null) throw e;
+                occupancyIndex.onBookingConflict(updated.get(0).getAcademicYear().getId());
+                throw conflict;
+            }
+        });
+    }
+
+    /** Solver indexes and the entry behind each unit. */
+    private static final class Model {
+        final TimetableOptimizer.Problem problem;
+        final List<TimeSlot> slots = new ArrayList<>();
+        final Map<Long, Integer> slotIndex = new HashMap<>();
+        final Map<Long, Integer> teacherIndex = new HashMap<>();
+        final Map<Long, Integer> roomIndex = new HashMap<>();
+        final Map<Long, Integer> divisionIndex = new HashMap<>();
+        final List<TimetableEntry> units = new ArrayList<>();
+
+        Model(TimetableOptimizer.Problem problem) {
+            this.problem = problem;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    @lombok.Data
+    public static class OptimizationResult {
+        private Long academicYearId;
+        private Semester semester;
+        private List<Long> divisionIds;
+        private boolean persisted;
+        private int movableEntries;
+        private TimetableOptimizer.Score initialScore;
+        private TimetableOptimizer.Score score;
+        private int workers;
+        private long movesEvaluated;
+        private long movesAccepted;
+        private long elapsedMs;
+        private List<EntryMove> changes;
+    }
+
+    @lombok.Data
+    public static class EntryMove {
+        private Long entryId;
+        private Long divisionId;
+        private Long courseId;
+        private String courseName;
+        private Long teacherId;
+        private Long roomId;
+        private DayOfWeek fromDay;
+        private Long fromSlotId;
+        private DayOfWeek toDay;
+        private Long toSlotId;
+
+        static EntryMove of(TimetableEntry e, DayOfWeek toDay, TimeSlot toSlot) {
+            EntryMove move = new EntryMove();
+            move.setEntryId(e.getId());
+            move.setDivisionId(e.getDivision().getId());
+            move.setCourseId(e.getCourse().getId());
+            move.setCourseName(e.getCourse().getName());
+            move.setTeacherId(e.getTeacher().getId());
+            move.setRoomId(e.getRoom().getId());
+            move.setFromDay(e.getDayOfWeek());
+            move.setFromSlotId(e.getTimeSlot().getId());
+            move.setToDay(toDay);
+            move.setToSlotId(toSlot.getId());
+            return move;
+        }
+    }
+}
@@ -3,17 +3,19 @@ package com.College.timetable.Service;
 import java.util.List;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 
 import com.College.timetable.Entity.AcademicYear;
 import com.College.timetable.Entity.Batch;
 import com.College.timetable.Entity.ClassRoom;
 import com.College.timetable.Entity.CourseEntity;
+import com.College.timetable.Entity.DayOfWeek;
 import com.College.timetable.Entity.Division;
 import com.College.timetable.Entity.LabSessionGroup;
 import com.College.timetable.Entity.Semester;
@@ -32,7 +34,6 @@ import com.College.timetable.Repository.Room_repo;
 import com.College.timetable.Repository.Teacher_Repo;
 import com.College.timetable.Repository.TimeSlot_repo;
 import com.College.timetable.Repository.TimetableEntry_repo;
-import com.College.timetable.Repository.TeacherAvailability_repo;
 import com.College.timetable.Service.ConflictCheckService.TimetableEntryRequest;
 import com.College.timetable.Util.TimetableConflictException;
 
@@ -40,11 +41,13 @@ import com.College.timetable.Util.TimetableConflictException;
 @Transactional(readOnly = true)
 public class TimetableService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TimetableService.class);
+
     @Autowired
     private TimetableEntry_repo timetableRepo;
 
     @Autowired
-    private TeacherAvailability_repo availabilityRepo;
+    private TeacherAvailabilityIndexService availabilityIndex;
 
     @Value("${app.timetable.max-periods-per-day:6}")
     private int maxPeriodsPerDay;
@@ -76,19 +79,62 @@ public class TimetableService {
     @Autowired
     private Division_repo divisionRepository;
 
-    @Cacheable(value = "timetable-division", key = "{#divisionId, #academicYearId}")
+    @Autowired
+    private OccupancyIndexService occupancyIndex;
+
+    @Autowired
+    private TimetableCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private TimetableViewService timetableViews;
+
+    @Autowired
+    private TimetableCacheWarmer cacheWarmer;
+
+    @Autowired
+    private ReferenceDataRegistry referenceData;
+
     public List<TimetableEntry> getTimetableForDivision(Long divisionId, Long academicYearId) {
-        return timetableRepo.findByDivisionIdAndAcademicYearId(divisionId, academicYearId);
+        return timetableViews.divisionAll(divisionId, academicYearId).toEntries();
     }
 
-    @Cacheable(value = "timetable-teacher", key = "{#teacherId, #academicYearId}")
     public List<TimetableEntry> getTimetableForTeacher(Long teacherId, Long academicYearId) {
-        return timetableRepo.findByTeacherIdAndAcademicYearId(teacherId, academicYearId);
+        return timetableViews.teacherAll(teacherId, academicYearId).toEntries();
     }
     
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public TimetableEntry addEntry(CreateTimetableEntryDTO dto) {
+        // Every check (both lab periods included) runs before the first write
+        EntryPlan plan = planEntry(dto);
+        if (!plan.conflicts().isEmpty()) {
+            throw new TimetableConflictException(plan.conflicts());
+        }
+
+        TimetableEntry saved = null;
+        for (TimetableEntry entry : plan.entries()) {
+            TimetableEntry persisted = saveBooking(entry);
+            occupancyIndex.onEntrySaved(persisted);
+            if (saved == null) saved = persisted;
+        }
+        cacheInvalidator.scope().entries(plan.entries()).evictAfterCommit();
+        logger.debug("[TIMETABLE] Saved entry {} ({} entries created)", saved.getId(), plan.entries().size());
+        return saved;
+    }
+
+    /**
+     * Dry run of addEntry — same validation, returns the would-be entries (a lab yields both periods)
+     * and any conflicts. Nothing is saved and no cache is evicted.
+     */
+    public PlacementPreview previewEntry(CreateTimetableEntryDTO dto) {
+        EntryPlan plan = planEntry(dto);
+        return PlacementPreview.of(plan.entries(), plan.conflicts(), null);
+    }
+
+    /**
+     * Validate an entry and build it — plus the auto-booked second period for labs — without saving.
+     * The second lab period goes through the batch checker so it sees the first period as already placed.
+     */
+    private EntryPlan planEntry(CreateTimetableEntryDTO dto) {
 
         // 1. Build conflict check request with all context needed for validation
         var teacherOpt = teacherRepository.findById(dto.getTeacherId());
@@ -115,7 +161,7 @@ public class TimetableService {
         // 2. Check ALL conflicts — collect all messages before failing
         List<String> conflicts = conflictCheckService.checkConflicts(conflictRequest, null);
         if (!conflicts.isEmpty()) {
-            throw new TimetableConflictException(conflicts);
+            return new EntryPlan(List.of(), conflicts);
         }
 
         // 3. Load all related entities
@@ -152,12 +198,12 @@ public class TimetableService {
         boolean isLabCourse = course.getCourseType() == com.College.timetable.Entity.CourseType.LAB;
         
         if (isLabCourse) {
-            System.out.println("DEBUG: Lab course detected - courseType: LAB");
+            logger.debug("[TIMETABLE] Lab course detected");
             entry.setIsLabSession(true);
             
             // Set lab session group if provided (for wizard-created labs)
             if (dto.getLabSessionGroupId() != null) {
-                System.out.println("DEBUG: Lab session group provided - labSessionGroupId: " + dto.getLabSessionGroupId());
+                logger.debug("[TIMETABLE] Lab session group provided: {}", dto.getLabSessionGroupId());
                 LabSessionGroup group = labSessionGroupRepository.findById(dto.getLabSessionGroupId())
                     .orElseThrow(() -> new RuntimeException("Lab session group not found"));
                 entry.setLabSessionGroup(group);
@@ -165,102 +211,116 @@ public class TimetableService {
             
             // Set batch if provided (required for lab courses)
             if (dto.getBatchId() != null) {
-                System.out.println("DEBUG: Setting batch - batchId: " + dto.getBatchId());
+                logger.debug("[TIMETABLE] Setting batch {}", dto.getBatchId());
                 Batch batch = batchRepository.findById(dto.getBatchId())
                     .orElseThrow(() -> new RuntimeException("Batch not found: " + dto.getBatchId()));
                 entry.setBatch(batch);
             } else {
-                System.out.println("DEBUG: WARNING - Lab course but batchId is null");
+                logger.debug("[TIMETABLE] Lab course without a batchId");
             }
         } else {
-            System.out.println("DEBUG: Theory course - courseType: " + course.getCourseType());
+            logger.debug("[TIMETABLE] Theory course: {}", course.getCourseType());
+            return new EntryPlan(List.of(entry), List.of());
         }
 
-        // 6. Save the primary entry
-        System.out.println("DEBUG: Before save - batch: " + (entry.getBatch() != null ? "Batch{id=" + entry.getBatch().getId() + ", name=" + entry.getBatch().getName() + "}" : "null") + 
-                          ", labSessionGroup: " + (entry.getLabSessionGroup() != null ? "LabSessionGroup{id=" + entry.getLabSessionGroup().getId() + "}" : "null"));
-        TimetableEntry saved = timetableRepo.save(entry);
-        System.out.println("DEBUG: After save - Entry ID: " + saved.getId() + 
-                          ", batch: " + (saved.getBatch() != null ? "Batch{id=" + saved.getBatch().getId() + ", name=" + saved.getBatch().getName() + "}" : "null") + 
-                          ", labSessionGroup: " + (saved.getLabSessionGroup() != null ? "LabSessionGroup{id=" + saved.getLabSessionGroup().getId() + "}" : "null"));
-
-        // 7. AUTO-BOOK NEXT CONSECUTIVE SLOT FOR LAB COURSES
+        // 6. NEXT CONSECUTIVE SLOT FOR LAB COURSES
         // Lab sessions occupy 2 truly consecutive lecture periods with NO break in between.
         // If the immediate next slot is a break, the lab cannot be scheduled here.
-        if (course.getCourseType() == com.College.timetable.Entity.CourseType.LAB) {
-            String slotType = timeSlot.getType() != null ? timeSlot.getType() : "TYPE_1";
+        String slotType = timeSlot.getType() != null ? timeSlot.getType() : "TYPE_1";
 
-            // Find whatever slot comes immediately after (break or lecture)
-            java.util.Optional<TimeSlot> immediateNextOpt = timeSlotRepository.findFirstByTypeAndIsActiveTrueAndStartTimeGreaterThanEqualOrderByStartTimeAsc(
-                slotType, timeSlot.getEndTime()
-            );
+        // Find whatever slot comes immediately after (break or lecture)
+        java.util.Optional<TimeSlot> immediateNextOpt = timeSlotRepository.findFirstByTypeAndIsActiveTrueAndStartTimeGreaterThanEqualOrderByStartTimeAsc(
+            slotType, timeSlot.getEndTime()
+        );
 
-            if (immediateNextOpt.isEmpty()) {
-                // No slot exists after this one — last period of the day
-                timetableRepo.delete(saved);
-                throw new TimetableConflictException(List.of(
-                    "Lab scheduling error: No period exists after " + timeSlot.getSlotName() +
-                    " (" + timeSlot.getEndTime() + "). Labs require 2 consecutive lecture periods. " +
-                    "Choose an earlier slot."
-                ));
-            }
+        if (immediateNextOpt.isEmpty()) {
+            // No slot exists after this one — last period of the day
+            return new EntryPlan(List.of(), List.of(
+                "Lab scheduling error: No period exists after " + timeSlot.getSlotName() +
+                " (" + timeSlot.getEndTime() + "). Labs require 2 consecutive lecture periods. " +
+                "Choose an earlier slot."
+            ));
+        }
 
-            TimeSlot nextSlot = immediateNextOpt.get();
-
-            // If the immediate next slot is a break, reject — can't split a lab across a break
-            if (Boolean.TRUE.equals(nextSlot.getIsBreak())) {
-                timetableRepo.delete(saved);
-                throw new TimetableConflictException(List.of(
-                    "Lab scheduling error: The next slot after " + timeSlot.getSlotName() +
-                    " is '" + nextSlot.getSlotName() + "' (break). " +
-                    "Labs require 2 consecutive lecture periods with no break in between. " +
-                    "Choose a different slot where two lecture periods are back-to-back."
-                ));
-            }
+        TimeSlot nextSlot = immediateNextOpt.get();
 
-            // Next slot is a lecture period — check conflicts for it
-            TimetableEntryRequest nextConflictReq = TimetableEntryRequest.builder()
-                .teacherId(dto.getTeacherId())
-                .roomId(dto.getRoomId())
-                .divisionId(dto.getDivisionId())
-                .timeSlotId(nextSlot.getId())
-                .academicYearId(dto.getAcademicYearId())
-                .labSessionGroupId(dto.getLabSessionGroupId())
-                .dayOfWeek(dto.getDayOfWeek())
-                .teacherMaxWeeklyHours(teacherOpt.map(TeacherEntity::getMaxWeeklyHours).orElse(null))
-                .courseType("LAB")
-                .batchId(dto.getBatchId())
-                .build();
-
-            List<String> nextConflicts = conflictCheckService.checkConflicts(nextConflictReq, null);
-            if (!nextConflicts.isEmpty()) {
-                timetableRepo.delete(saved);
-                nextConflicts.add(0, "Lab requires 2 consecutive periods. The next slot (" + nextSlot.getSlotName() + ") has conflicts:");
-                throw new TimetableConflictException(nextConflicts);
-            }
+        // If the immediate next slot is a break, reject — can't split a lab across a break
+        if (Boolean.TRUE.equals(nextSlot.getIsBreak())) {
+            return new EntryPlan(List.of(), List.of(
+                "Lab scheduling error: The next slot after " + timeSlot.getSlotName() +
+                " is '" + nextSlot.getSlotName() + "' (break). " +
+                "Labs require 2 consecutive lecture periods with no break in between. " +
+                "Choose a different slot where two lecture periods are back-to-back."
+            ));
+        }
+
+        // Next slot is a lecture period — check conflicts for it with the first period in place
+        TimetableEntryRequest nextConflictReq = TimetableEntryRequest.builder()
+            .teacherId(dto.getTeacherId())
+            .roomId(dto.getRoomId())
+            .divisionId(dto.getDivisionId())
+            .timeSlotId(nextSlot.getId())
+            .academicYearId(dto.getAcademicYearId())
+            .labSessionGroupId(dto.getLabSessionGroupId())
+            .dayOfWeek(dto.getDayOfWeek())
+            .teacherMaxWeeklyHours(teacherOpt.map(TeacherEntity::getMaxWeeklyHours).orElse(null))
+            .courseType("LAB")
+            .batchId(dto.getBatchId())
+            .build();
 
-            // All clear — create the second entry
-            TimetableEntry secondEntry = new TimetableEntry();
-            secondEntry.setDivision(division);
-            secondEntry.setCourse(course);
-            secondEntry.setTeacher(teacher);
-            secondEntry.setRoom(room);
-            secondEntry.setTimeSlot(nextSlot);
-            secondEntry.setDayOfWeek(dto.getDayOfWeek());
-            secondEntry.setAcademicYear(academicYear);
-            secondEntry.setSemester(dto.getSemester());
-            secondEntry.setNotes(dto.getNotes() != null ? dto.getNotes() : "Auto-booked: Lab period 2 of 2");
-            secondEntry.setIsRecurring(true);
-            secondEntry.setWeekNumber(1);
-            secondEntry.setStatus(TimetableStatus.DRAFT);
-            secondEntry.setIsLabSession(entry.getIsLabSession());
-            secondEntry.setLabSessionGroup(entry.getLabSessionGroup());
-            secondEntry.setBatch(entry.getBatch());
-
-            timetableRepo.save(secondEntry);
+        List<String> nextConflicts = new java.util.ArrayList<>(
+            conflictCheckService.checkConflictsBatch(List.of(conflictRequest, nextConflictReq)).get(1).getConflicts()
+        );
+        if (!nextConflicts.isEmpty()) {
+            nextConflicts.add(0, "Lab requires 2 consecutive periods. The next slot (" + nextSlot.getSlotName() + ") has conflicts:");
+            return new EntryPlan(List.of(), nextConflicts);
         }
 
-        return saved;
+        // All clear — build the second entry
+        TimetableEntry secondEntry = new TimetableEntry();
+        secondEntry.setDivision(division);
+        secondEntry.setCourse(course);
+        secondEntry.setTeacher(teacher);
+        secondEntry.setRoom(room);
+        secondEntry.setTimeSlot(nextSlot);
+        secondEntry.setDayOfWeek(dto.getDayOfWeek());
+        secondEntry.setAcademicYear(academicYear);
+        secondEntry.setSemester(dto.getSemester());
+        secondEntry.setNotes(dto.getNotes() != null ? dto.getNotes() : "Auto-booked: Lab period 2 of 2");
+        secondEntry.setIsRecurring(true);
+        secondEntry.setWeekNumber(1);
+        secondEntry.setStatus(TimetableStatus.DRAFT);
+        secondEntry.setIsLabSession(entry.getIsLabSession());
+        secondEntry.setLabSessionGroup(entry.getLabSessionGroup());
+        secondEntry.setBatch(entry.getBatch());
+
+        return new EntryPlan(List.of(entry, secondEntry), List.of());
+    }
+
+    // ---------------------------------------------------------------
+    // BATCH CONFLICT CHECK — validate many candidate placements in one call
+    // ---------------------------------------------------------------
+
+    /**
+     * Check a list of candidate placements without saving anything.
+     * Missing teacher weekly limits are filled from the teacher records (one query for the batch)
+     * so the weekly-hours rule behaves exactly as it does for addEntry.
+     */
+    public List<ConflictCheckService.CandidateResult> checkCandidateConflicts(List<TimetableEntryRequest> candidates) {
+        java.util.Set<Long> teacherIds = candidates.stream()
+            .filter(c -> c != null && c.getTeacherId() != null && c.getTeacherMaxWeeklyHours() == null)
+            .map(TimetableEntryRequest::getTeacherId)
+            .collect(java.util.stream.Collectors.toSet());
+        if (!teacherIds.isEmpty()) {
+            Map<Long, Integer> maxHours = new java.util.HashMap<>();
+            teacherRepository.findAllById(teacherIds).forEach(t -> {
+                if (t.getMaxWeeklyHours() != null) maxHours.put(t.getId(), t.getMaxWeeklyHours());
+            });
+            candidates.stream()
+                .filter(c -> c != null && c.getTeacherId() != null && c.getTeacherMaxWeeklyHours() == null)
+                .forEach(c -> c.setTeacherMaxWeeklyHours(maxHours.get(c.getTeacherId())));
+        }
+        return conflictCheckService.checkConflictsBatch(candidates);
     }
 
     // ---------------------------------------------------------------
@@ -268,7 +328,6 @@ public class TimetableService {
     // ---------------------------------------------------------------
 
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public TimetableEntry updateEntry(Long entryId, CreateTimetableEntryDTO dto) {
 
         TimetableEntry existing = timetableRepo.findById(entryId)
@@ -307,6 +366,9 @@ public class TimetableService {
             throw new TimetableConflictException(conflicts);
         }
 
+        // Old teacher / room are captured before the update, new ones after
+        TimetableCacheInvalidator.Scope cacheScope = cacheInvalidator.scope().entry(existing);
+
         // Apply updates
         existing.setTeacher(teacherRepository.findById(dto.getTeacherId()).orElseThrow());
         existing.setRoom(classRoomRepository.findById(dto.getRoomId()).orElseThrow());
@@ -315,7 +377,26 @@ public class TimetableService {
         existing.setNotes(dto.getNotes());
         existing.setSemester(dto.getSemester());
 
-        return timetableRepo.save(existing);
+        TimetableEntry updated = saveBooking(existing);
+        occupancyIndex.onEntrySaved(updated);
+        cacheScope.entry(updated).evictAfterCommit();
+        return updated;
+    }
+
+    /**
+     * Save and flush a DRAFT booking. The booking unique indexes are the real guard against
+     * double booking — the conflict check above is a fast hint — so a violation surfaces here,
+     * inside the service, as the same conflict message the check would have given.
+     */
+    private TimetableEntry saveBooking(TimetableEntry entry) {
+        try {
+            return timetableRepo.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException e) {
+            TimetableConflictException conflict = BookingConstraints.translate(e, entry.getDayOfWeek());
+            if (conflict == null) throw e;
+            occupancyIndex.onBookingConflict(entry.getAcademicYear().getId());
+            throw conflict;
+        }
     }
 
     // ---------------------------------------------------------------
@@ -323,7 +404,6 @@ public class TimetableService {
     // ---------------------------------------------------------------
 
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public void deleteEntry(Long entryId) {
         TimetableEntry entry = timetableRepo.findById(entryId)
             .orElseThrow(() -> new RuntimeException("Timetable entry not found: " + entryId));
@@ -332,6 +412,8 @@ public class TimetableService {
             throw new RuntimeException("Cannot delete a published entry. Archive the timetable first.");
         }
 
+        TimetableCacheInvalidator.Scope cacheScope = cacheInvalidator.scope().entry(entry);
+
         // If this is a LAB entry, also delete its paired consecutive-slot entry
         if (entry.getCourse() != null && entry.getCourse().getCourseType() == com.College.timetable.Entity.CourseType.LAB) {
             // Find entries with same course, teacher, room, day, division, academic year, status=DRAFT
@@ -348,9 +430,13 @@ public class TimetableService {
                 .toList();
 
             timetableRepo.deleteAll(pairedEntries);
+            occupancyIndex.onEntriesDeleted(pairedEntries);
+            cacheScope.entries(pairedEntries);
         }
 
         timetableRepo.delete(entry);
+        occupancyIndex.onEntryDeleted(entry);
+        cacheScope.evictAfterCommit();
     }
 
     // ---------------------------------------------------------------
@@ -358,12 +444,16 @@ public class TimetableService {
     // ---------------------------------------------------------------
 
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public int publishTimetable(Long divisionId, Long academicYearId, Semester semester) {
+        TimetableCacheInvalidator.Scope cacheScope = cacheInvalidator.scope().division(divisionId, academicYearId);
         int count = timetableRepo.publishDivisionTimetableBySemester(divisionId, academicYearId, semester);
         if (count == 0) {
             throw new RuntimeException("No draft entries found to publish for this division and semester.");
         }
+        occupancyIndex.onStatusChanged(divisionId, academicYearId, semester, TimetableStatus.DRAFT, TimetableStatus.PUBLISHED);
+        cacheScope.evictAfterCommit();
+        // Rebuild the evicted views in the background before students and faculty read them
+        cacheWarmer.warmAfterCommit(cacheScope);
         return count;
     }
 
@@ -372,9 +462,12 @@ public class TimetableService {
     // ---------------------------------------------------------------
 
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public int archiveTimetable(Long divisionId, Long academicYearId, Semester semester) {
-        return timetableRepo.archiveDivisionTimetableBySemester(divisionId, academicYearId, semester);
+        TimetableCacheInvalidator.Scope cacheScope = cacheInvalidator.scope().division(divisionId, academicYearId);
+        int count = timetableRepo.archiveDivisionTimetableBySemester(divisionId, academicYearId, semester);
+        occupancyIndex.onStatusChanged(divisionId, academicYearId, semester, TimetableStatus.PUBLISHED, TimetableStatus.ARCHIVED);
+        cacheScope.evictAfterCommit();
+        return count;
     }
 
     // ---------------------------------------------------------------
@@ -382,37 +475,32 @@ public class TimetableService {
     // ---------------------------------------------------------------
 
     /**
-     * Get published timetable for a division — CACHED
-     * Cache key: divisionTimetable::{divisionId}::{academicYearId}
+     * Get published timetable for a division — CACHED (as a compact TimetableView)
+     * Cache key: divisionTimetable::{divisionId}_{academicYearId}
      */
-    @Cacheable(value = "divisionTimetable", key = "#divisionId + '_' + #academicYearId")
     public List<TimetableEntry> getDivisionTimetable(Long divisionId, Long academicYearId) {
-        return timetableRepo
-            .findByDivisionIdAndAcademicYearIdAndStatus(divisionId, academicYearId, TimetableStatus.PUBLISHED);
+        return timetableViews.division(divisionId, academicYearId).toEntries();
     }
 
     /**
      * Get published timetable for a department — CACHED
      */
-    @Cacheable(value = "departmentTimetable", key = "#departmentId + '_' + #academicYearId")
     public List<TimetableEntry> getDepartmentTimetable(Long departmentId, Long academicYearId) {
-        return timetableRepo
-            .findByDivisionDepartmentIdAndAcademicYearIdAndStatus(departmentId, academicYearId, TimetableStatus.PUBLISHED);
+        return timetableViews.department(departmentId, academicYearId).toEntries();
     }
 
     /**
-     * Get published and draft timetable entries for a room
+     * Get published and draft timetable entries for a room — CACHED
      */
     public List<TimetableEntry> getRoomTimetable(Long roomId, Long academicYearId) {
-        return timetableRepo.findByRoomAndAcademicYear(roomId, academicYearId);
+        return timetableViews.room(roomId, academicYearId).toEntries();
     }
 
     /**
      * Get timetable for a teacher (DRAFT + PUBLISHED) — CACHED
      */
-    @Cacheable(value = "teacherTimetable", key = "#teacherId + '_' + #academicYearId")
     public List<TimetableEntry> getTeacherTimetable(Long teacherId, Long academicYearId) {
-        return timetableRepo.findByProfessorAndAcademicYear(teacherId, academicYearId);
+        return timetableViews.teacher(teacherId, academicYearId).toEntries();
     }
 
     /**
@@ -459,9 +547,12 @@ public class TimetableService {
      * Clear all DRAFT entries for a division and semester — start fresh
      */
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public int clearDraft(Long divisionId, Long academicYearId, Semester semester) {
-        return timetableRepo.clearDraftTimetableBySemester(divisionId, academicYearId, semester);
+        TimetableCacheInvalidator.Scope cacheScope = cacheInvalidator.scope().division(divisionId, academicYearId);
+        int count = timetableRepo.clearDraftTimetableBySemester(divisionId, academicYearId, semester);
+        occupancyIndex.onDraftCleared(divisionId, academicYearId, semester);
+        cacheScope.evictAfterCommit();
+        return count;
     }
 
     // ---------------------------------------------------------------
@@ -481,13 +572,16 @@ public class TimetableService {
     }
 
     /**
-     * Copy all non-lab DRAFT entries from one division to another.
-     * Preserves course, teacher, room, time slot, day — only changes division reference.
-     * Skips lab sessions (they need batch-specific config for the target division).
+     * Copy all non-lab DRAFT entries from one division to another: same course, teacher, room,
+     * day and slot. Cells where the teacher or room is already booked, or where the target division
+     * already has a class, are skipped and reported — the booking unique indexes would reject them.
+     * With {@code reassign}, a busy teacher or room is instead replaced by the first free teacher
+     * assigned to the course and the first free active room of the same type that seats the target
+     * division. Skips lab sessions (they need batch-specific config for the target division).
      */
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
-    public int copyDraftEntries(Long sourceDivisionId, Long targetDivisionId, Long academicYearId) {
+    public CopyResult copyDraftEntries(Long sourceDivisionId, Long targetDivisionId, Long academicYearId,
+                                       boolean reassign) {
         if (sourceDivisionId.equals(targetDivisionId)) {
             throw new RuntimeException("Source and target division cannot be the same");
         }
@@ -505,16 +599,101 @@ public class TimetableService {
                 .filter(e -> !Boolean.TRUE.equals(e.getIsLabSession()))
                 .toList();
 
+        // Replacement teachers per course, loaded once — only needed when reassigning
+        Map<Long, List<Long>> teacherIdsByCourse = new java.util.HashMap<>();
+        Map<Long, TeacherEntity> teachers = new java.util.HashMap<>();
+        if (reassign && !sourceEntries.isEmpty()) {
+            java.util.Set<Long> courseIds = new java.util.HashSet<>();
+            sourceEntries.forEach(e -> courseIds.add(e.getCourse().getId()));
+            for (Object[] row : teacherRepository.findCourseTeacherPairs(courseIds)) {
+                teacherIdsByCourse.computeIfAbsent((Long) row[0], k -> new java.util.ArrayList<>()).add((Long) row[1]);
+            }
+            teacherRepository.findAllById(teacherIdsByCourse.values().stream().flatMap(List::stream).toList())
+                .forEach(t -> teachers.put(t.getId(), t));
+        }
+
+        // Cells booked by this copy — the occupancy index only sees them after commit
+        java.util.Set<String> claimed = new java.util.HashSet<>();
+        List<String> skipped = new java.util.ArrayList<>();
         int copied = 0;
+        int reassigned = 0;
+        TimetableCacheInvalidator.Scope cacheScope = cacheInvalidator.scope();
         for (TimetableEntry source : sourceEntries) {
+            DayOfWeek day = source.getDayOfWeek();
+            TimeSlot slot = source.getTimeSlot();
+            String cell = day + "/" + slot.getId();
+            String label = day + " " + slot.getSlotName() + " (" + source.getCourse().getName() + ")";
+
+            if (claimed.contains("D" + cell)
+                    || occupancyIndex.isDivisionBooked(targetDivisionId, day, slot.getId(), academicYearId, null)) {
+                skipped.add(label + ": the target division already has a class in this slot");
+                continue;
+            }
+
+            // The source's own teacher and room first, then replacements when reassigning
+            List<TeacherEntity> teacherCandidates = new java.util.ArrayList<>();
+            teacherCandidates.add(source.getTeacher());
+            List<ClassRoom> roomCandidates = new java.util.ArrayList<>();
+            roomCandidates.add(source.getRoom());
+            if (reassign) {
+                for (Long id : teacherIdsByCourse.getOrDefault(source.getCourse().getId(), List.of())) {
+                    TeacherEntity candidate = teachers.get(id);
+                    if (candidate != null && !Boolean.FALSE.equals(candidate.getIsActive())) {
+                        teacherCandidates.add(candidate);
+                    }
+                }
+                for (ClassRoom candidate : referenceData.activeRooms()) {
+                    if (candidate.getRoomType() != source.getRoom().getRoomType()) continue;
+                    if (candidate.getCapacity() != null && targetDivision.getTotalStudents() != null
+                            && candidate.getCapacity() < targetDivision.getTotalStudents()) {
+                        continue;
+                    }
+                    roomCandidates.add(candidate);
+                }
+            }
+
+            TeacherEntity teacher = null;
+            for (TeacherEntity candidate : teacherCandidates) {
+                Long id = candidate.getId();
+                if (claimed.contains("T" + id + "/" + cell)
+                        || occupancyIndex.isTeacherBooked(id, day, slot.getId(), academicYearId, null)
+                        || availabilityIndex.isMarkedUnavailable(id, day, slot.getStartTime(), slot.getEndTime())) {
+                    continue;
+                }
+                teacher = candidate;
+                break;
+            }
+            ClassRoom room = null;
+            for (ClassRoom candidate : roomCandidates) {
+                if (claimed.contains("R" + candidate.getId() + "/" + cell)
+                        || occupancyIndex.isRoomBooked(candidate.getId(), day, slot.getId(), academicYearId, null)) {
+                    continue;
+                }
+                room = candidate;
+                break;
+            }
+
+            if (teacher == null) {
+                skipped.add(label + (reassign ? ": no free teacher assigned to the course"
+                    : ": the teacher is already booked in this slot"));
+                continue;
+            }
+            if (room == null) {
+                skipped.add(label + (reassign ? ": no free room" : ": the room is already booked in this slot"));
+                continue;
+            }
+            claimed.add("D" + cell);
+            claimed.add("T" + teacher.getId() + "/" + cell);
+            claimed.add("R" + room.getId() + "/" + cell);
+
             TimetableEntry copy = new TimetableEntry();
             copy.setDivision(targetDivision);
             copy.setAcademicYear(academicYear);
             copy.setCourse(source.getCourse());
-            copy.setTeacher(source.getTeacher());
-            copy.setRoom(source.getRoom());
-            copy.setTimeSlot(source.getTimeSlot());
-            copy.setDayOfWeek(source.getDayOfWeek());
+            copy.setTeacher(teacher);
+            copy.setRoom(room);
+            copy.setTimeSlot(slot);
+            copy.setDayOfWeek(day);
             copy.setSemester(source.getSemester());
             copy.setStatus(com.College.timetable.Entity.TimetableStatus.DRAFT);
             copy.setIsLabSession(false);
@@ -522,20 +701,64 @@ public class TimetableService {
             copy.setWeekNumber(1);
             copy.setNotes(source.getNotes());
 
-            timetableRepo.save(copy);
+            occupancyIndex.onEntrySaved(saveBooking(copy));
+            cacheScope.entry(copy);
             copied++;
+            if (!teacher.getId().equals(source.getTeacher().getId()) || !room.getId().equals(source.getRoom().getId())) {
+                reassigned++;
+            }
         }
+        cacheScope.evictAfterCommit();
 
-        return copied;
+        return new CopyResult(copied, reassigned, skipped);
     }
 
+    /**
+     * Outcome of a draft copy: entries created, how many of them got a different teacher or
+     * room than the source (always 0 without {@code reassign}), and the cells left out with the reason.
+     */
+    public record CopyResult(int copied, int reassigned, List<String> skipped) {}
+
     // ---------------------------------------------------------------
     // LAB SESSION — Single-step creation (group + all batch entries)
     // ---------------------------------------------------------------
 
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public Map<String, Object> createLabSession(com.College.timetable.IO.CreateLabSessionRequest request) {
+        LabSessionPlan plan = planLabSession(request);
+        if (!plan.conflicts().isEmpty()) {
+            throw new TimetableConflictException(plan.conflicts());
+        }
+
+        LabSessionGroup group = labSessionGroupRepository.save(plan.group());
+        for (TimetableEntry entry : plan.entries()) {
+            entry.setLabSessionGroup(group);
+            occupancyIndex.onEntrySaved(saveBooking(entry));
+        }
+        cacheInvalidator.scope().entries(plan.entries()).evictAfterCommit();
+
+        return Map.of(
+            "message", "Lab session created successfully",
+            "groupId", group.getId(),
+            "entriesCreated", plan.entries().size(),
+            "batches", request.getBatchAssignments().size(),
+            "slots", plan.slots()
+        );
+    }
+
+    /**
+     * Dry run of createLabSession — same validation, returns the would-be batch entries and any
+     * conflicts. Nothing is saved and no cache is evicted.
+     */
+    public PlacementPreview previewLabSession(com.College.timetable.IO.CreateLabSessionRequest request) {
+        LabSessionPlan plan = planLabSession(request);
+        return PlacementPreview.of(plan.entries(), plan.conflicts(), plan.slots());
+    }
+
+    /**
+     * Validate a lab session and build its group and batch entries (2 per batch) without saving.
+     */
+    private LabSessionPlan planLabSession(com.College.timetable.IO.CreateLabSessionRequest request) {
 
         // 1. Load shared entities
         Division division = divisionRepository.findById(request.getDivisionId())
@@ -557,13 +780,13 @@ public class TimetableService {
         java.util.Optional<TimeSlot> immediateNextOpt = timeSlotRepository.findFirstByTypeAndIsActiveTrueAndStartTimeGreaterThanEqualOrderByStartTimeAsc(slotType, timeSlot.getEndTime());
 
         if (immediateNextOpt.isEmpty()) {
-            throw new TimetableConflictException(List.of(
+            return LabSessionPlan.rejected(List.of(
                 "No period exists after " + timeSlot.getSlotName() + ". Labs require 2 consecutive lecture periods."
             ));
         }
         TimeSlot nextSlot = immediateNextOpt.get();
         if (Boolean.TRUE.equals(nextSlot.getIsBreak())) {
-            throw new TimetableConflictException(List.of(
+            return LabSessionPlan.rejected(List.of(
                 "The next slot after " + timeSlot.getSlotName() + " is '" + nextSlot.getSlotName() + "' (break). " +
                 "Labs require 2 consecutive lecture periods with no break in between."
             ));
@@ -584,7 +807,7 @@ public class TimetableService {
             }
         }
         if (!validationErrors.isEmpty()) {
-            throw new TimetableConflictException(validationErrors);
+            return LabSessionPlan.rejected(validationErrors);
         }
 
         // 5. Check conflicts for each batch on BOTH slots
@@ -595,28 +818,28 @@ public class TimetableService {
 
             // Check slot 1
             for (TimeSlot slot : List.of(timeSlot, nextSlot)) {
-                boolean roomBooked = timetableRepo.isRoomBooked(ba.getRoomId(), request.getDayOfWeek(), slot.getId(), request.getAcademicYearId(), null);
+                boolean roomBooked = occupancyIndex.isRoomBooked(ba.getRoomId(), request.getDayOfWeek(), slot.getId(), request.getAcademicYearId(), null);
                 if (roomBooked) {
                     allConflicts.add(batchLabel + ": Room already booked on " + request.getDayOfWeek() + " at " + slot.getSlotName());
                 }
                 // Teacher conflict — only check if teacher is not already in another lab entry at this time
-                boolean teacherBooked = timetableRepo.isTeacherBooked(ba.getTeacherId(), request.getDayOfWeek(), slot.getId(), request.getAcademicYearId(), null);
+                boolean teacherBooked = occupancyIndex.isTeacherBooked(ba.getTeacherId(), request.getDayOfWeek(), slot.getId(), request.getAcademicYearId(), null);
                 if (teacherBooked) {
                     allConflicts.add(batchLabel + ": Teacher already assigned on " + request.getDayOfWeek() + " at " + slot.getSlotName());
                 }
             }
         }
         // Division conflict — check if division already has a non-lab class at this slot
-        boolean div1 = timetableRepo.isDivisionBooked(request.getDivisionId(), request.getDayOfWeek(), timeSlot.getId(), request.getAcademicYearId(), null);
-        boolean div2 = timetableRepo.isDivisionBooked(request.getDivisionId(), request.getDayOfWeek(), nextSlot.getId(), request.getAcademicYearId(), null);
+        boolean div1 = occupancyIndex.isDivisionBooked(request.getDivisionId(), request.getDayOfWeek(), timeSlot.getId(), request.getAcademicYearId(), null);
+        boolean div2 = occupancyIndex.isDivisionBooked(request.getDivisionId(), request.getDayOfWeek(), nextSlot.getId(), request.getAcademicYearId(), null);
         if (div1) allConflicts.add("Division already has a class at " + timeSlot.getSlotName() + " on " + request.getDayOfWeek());
         if (div2) allConflicts.add("Division already has a class at " + nextSlot.getSlotName() + " on " + request.getDayOfWeek());
 
         if (!allConflicts.isEmpty()) {
-            throw new TimetableConflictException(allConflicts);
+            return LabSessionPlan.rejected(allConflicts);
         }
 
-        // 6. Create the lab session group
+        // 6. Build the lab session group
         LabSessionGroup group = new LabSessionGroup();
         group.setDivision(division);
         group.setCourse(course);
@@ -624,10 +847,9 @@ public class TimetableService {
         group.setTimeSlot(timeSlot);
         group.setDayOfWeek(request.getDayOfWeek());
         group.setSemester(request.getSemester());
-        group = labSessionGroupRepository.save(group);
 
-        // 7. Create batch entries — 2 per batch (slot 1 + slot 2)
-        int entriesCreated = 0;
+        // 7. Build batch entries — 2 per batch (slot 1 + slot 2)
+        List<TimetableEntry> entries = new java.util.ArrayList<>();
         for (var ba : assignments) {
             TeacherEntity teacher = teacherRepository.findById(ba.getTeacherId())
                 .orElseThrow(() -> new RuntimeException("Teacher not found: " + ba.getTeacherId()));
@@ -652,29 +874,23 @@ public class TimetableService {
                 entry.setBatch(batch);
                 entry.setIsRecurring(true);
                 entry.setWeekNumber(1);
-                timetableRepo.save(entry);
-                entriesCreated++;
+                entries.add(entry);
             }
         }
 
-        return Map.of(
-            "message", "Lab session created successfully",
-            "groupId", group.getId(),
-            "entriesCreated", entriesCreated,
-            "batches", assignments.size(),
-            "slots", timeSlot.getSlotName() + " + " + nextSlot.getSlotName()
-        );
+        return new LabSessionPlan(group, entries, List.of(), timeSlot.getSlotName() + " + " + nextSlot.getSlotName());
     }
 
     /**
      * Delete an entire lab session group and all its entries.
      */
     @Transactional
-    @CacheEvict(value = {"divisionTimetable", "teacherTimetable", "departmentTimetable"}, allEntries = true)
     public int deleteLabSessionGroup(Long groupId) {
         List<TimetableEntry> entries = timetableRepo.findByLabSessionGroupId(groupId);
         int count = entries.size();
         timetableRepo.deleteAll(entries);
+        occupancyIndex.onEntriesDeleted(entries);
+        cacheInvalidator.scope().entries(entries).evictAfterCommit();
         labSessionGroupRepository.deleteById(groupId);
         return count;
     }
@@ -711,23 +927,11 @@ public class TimetableService {
         Long courseId,
         Long batchId
     ) {
-        // Get all active rooms
-        List<ClassRoom> allRooms = classRoomRepository.findAll().stream()
-            .filter(r -> Boolean.TRUE.equals(r.getIsActive()))
-            .toList();
-
         // Get all booked room IDs for this day + slot + academic year (DRAFT + PUBLISHED)
         // Check conflicts across all semesters in the same series (odd or even)
-        List<Long> bookedRoomIds = timetableRepo.findAll().stream()
-            .filter(e -> e.getAcademicYear() != null && e.getAcademicYear().getId().equals(academicYearId))
-            .filter(e -> e.getDayOfWeek() == day)
-            .filter(e -> e.getTimeSlot() != null && e.getTimeSlot().getId().equals(slotId))
-            .filter(e -> e.getStatus() == TimetableStatus.DRAFT || e.getStatus() == TimetableStatus.PUBLISHED)
-            .filter(e -> e.getSemester() != null && semester != null && semester.isSameSeries(e.getSemester())) // Same series check
-            .map(e -> e.getRoom() != null ? e.getRoom().getId() : null)
-            .filter(java.util.Objects::nonNull)
-            .distinct()
-            .toList();
+        java.util.Set<Long> bookedRoomIds = semester == null
+            ? java.util.Set.of()
+            : new java.util.HashSet<>(timetableRepo.findBookedRoomIds(academicYearId, day, slotId, sameSeries(semester)));
 
         // Capacity and Room-type requirements
         CourseEntity course = courseId != null ? courseRepository.findById(courseId).orElse(null) : null;
@@ -760,12 +964,11 @@ public class TimetableService {
 
         final int reqCap = requiredCapacity;
 
-        return allRooms.stream()
-            // 1. Room is not booked
+        // Active rooms that fit, smallest first, from the capacity index
+        return referenceData.activeRoomsWithCapacity(reqCap).stream()
+            // Room is not booked
             .filter(r -> !bookedRoomIds.contains(r.getId()))
-            // 2. Room capacity matches
-            .filter(r -> r.getCapacity() == null || r.getCapacity() >= reqCap)
-            // 3. Room type compatibility - REMOVED: Allow all room types for all courses
+            // Room type compatibility - REMOVED: Allow all room types for all courses
             // Users can schedule labs in classrooms and theory in labs if needed
             .toList();
     }
@@ -802,18 +1005,11 @@ public class TimetableService {
 
         // Get all booked teacher IDs for this day + slot + academic year (DRAFT + PUBLISHED)
         // Check conflicts across all semesters in the same series (odd or even)
-        List<Long> bookedTeacherIds = timetableRepo.findAll().stream()
-            .filter(e -> e.getAcademicYear() != null && e.getAcademicYear().getId().equals(academicYearId))
-            .filter(e -> e.getDayOfWeek() == day)
-            .filter(e -> e.getTimeSlot() != null && e.getTimeSlot().getId().equals(slotId))
-            .filter(e -> e.getStatus() == TimetableStatus.DRAFT || e.getStatus() == TimetableStatus.PUBLISHED)
-            .filter(e -> e.getSemester() != null && semester != null && semester.isSameSeries(e.getSemester())) // Same series check
-            .map(e -> e.getTeacher() != null ? e.getTeacher().getId() : null)
-            .filter(java.util.Objects::nonNull)
-            .distinct()
-            .toList();
+        java.util.Set<Long> bookedTeacherIds = semester == null
+            ? java.util.Set.of()
+            : new java.util.HashSet<>(timetableRepo.findBookedTeacherIds(academicYearId, day, slotId, sameSeries(semester)));
 
-        TimeSlot slot = timeSlotRepository.findById(slotId).orElse(null);
+        TimeSlot slot = referenceData.slot(slotId).orElse(null);
         int newSlotMinutes = slot != null && slot.getDurationMinutes() != null ? slot.getDurationMinutes() : 60;
         
         CourseEntity course = courseId != null ? courseRepository.findById(courseId).orElse(null) : null;
@@ -824,35 +1020,36 @@ public class TimetableService {
         
         final int neededMinutes = newSlotMinutes;
 
+        // Teachers not explicitly marked unavailable for this slot — one in-memory pass
+        java.util.Set<Long> availableIds = new java.util.HashSet<>();
+        List<Long> teacherIds = allTeachers.stream().map(TeacherEntity::getId).toList();
+        try {
+            availableIds.addAll(slot == null ? teacherIds
+                : availabilityIndex.availableTeachers(teacherIds, day, slot.getStartTime(), slot.getEndTime()));
+        } catch (Exception e) {
+            availableIds.addAll(teacherIds); // fall through on lookup failure
+        }
+
+        // Daily periods and weekly minutes come from the in-memory workload ledger
+        java.util.Map<Long, OccupancyIndexService.TeacherWorkload> workloads = occupancyIndex.teacherWorkloads(academicYearId);
+
         return allTeachers.stream()
             // 1. Teacher not booked in this slot
             .filter(t -> !bookedTeacherIds.contains(t.getId()))
             // 2. Explicit availability check
-            .filter(t -> {
-                if (slot == null) return true;
-                try {
-                    long availCount = availabilityRepo.countAvailability(
-                        t.getId(), day, slot.getStartTime(), slot.getEndTime()
-                    );
-                    var dayAvailability = availabilityRepo.findByTeacherIdAndDayOfWeek(t.getId(), day);
-                    if (!dayAvailability.isEmpty() && availCount == 0) {
-                        return false; // explicitly marked unavailable
-                    }
-                } catch (Exception e) {
-                    // fall through on repo failure
-                }
-                return true;
-            })
+            .filter(t -> availableIds.contains(t.getId()))
             // 3. Daily workload limit check
             .filter(t -> {
-                long dailyPeriods = timetableRepo.countTeacherPeriodsOnDay(t.getId(), academicYearId, day);
+                var load = workloads.get(t.getId());
+                long dailyPeriods = load != null ? load.periodsOn(day) : 0;
                 return dailyPeriods < maxPeriodsPerDay;
             })
             // 4. Weekly workload limit check
             .filter(t -> {
                 if (t.getMaxWeeklyHours() == null) return true;
-                Integer weeklyMinutes = timetableRepo.calculateTeacherWeeklyMinutes(t.getId(), academicYearId, null);
-                int projectedHours = ((weeklyMinutes != null ? weeklyMinutes : 0) + neededMinutes) / 60;
+                var load = workloads.get(t.getId());
+                int weeklyMinutes = load != null ? load.totalMinutes() : 0;
+                int projectedHours = (weeklyMinutes + neededMinutes) / 60;
                 return projectedHours <= t.getMaxWeeklyHours();
             })
             .toList();
@@ -871,22 +1068,13 @@ public class TimetableService {
         Semester semester
     ) {
         // Get all batches for this division
-        List<Batch> divisionBatches = batchRepository.findAll().stream()
-            .filter(b -> b.getDivision() != null && b.getDivision().getId().equals(divisionId))
-            .toList();
+        List<Batch> divisionBatches = batchRepository.findByDivisionId(divisionId);
 
         // Get all booked batch IDs for this day + slot + academic year (DRAFT + PUBLISHED)
         // Check conflicts across all semesters in the same series (odd or even)
-        List<Long> bookedBatchIds = timetableRepo.findAll().stream()
-            .filter(e -> e.getAcademicYear() != null && e.getAcademicYear().getId().equals(academicYearId))
-            .filter(e -> e.getDayOfWeek() == day)
-            .filter(e -> e.getTimeSlot() != null && e.getTimeSlot().getId().equals(slotId))
-            .filter(e -> e.getStatus() == TimetableStatus.DRAFT || e.getStatus() == TimetableStatus.PUBLISHED)
-            .filter(e -> e.getSemester() != null && semester != null && semester.isSameSeries(e.getSemester()))
-            .map(e -> e.getBatch() != null ? e.getBatch().getId() : null)
-            .filter(java.util.Objects::nonNull)
-            .distinct()
-            .toList();
+        java.util.Set<Long> bookedBatchIds = semester == null
+            ? java.util.Set.of()
+            : new java.util.HashSet<>(timetableRepo.findBookedBatchIds(academicYearId, day, slotId, sameSeries(semester)));
 
         // Filter out booked batches
         return divisionBatches.stream()
@@ -894,19 +1082,25 @@ public class TimetableService {
             .toList();
     }
 
+    /**
+     * All semesters in the same series (odd or even) as the given one.
+     */
+    private static List<Semester> sameSeries(Semester semester) {
+        return java.util.Arrays.stream(Semester.values()).filter(semester::isSameSeries).toList();
+    }
+
     /**
      * Get aggregated teacher workload hours for all teachers in an academic year.
      * Returns a Map of Teacher ID -> Allocated Hours (duration in minutes / 60).
      */
     public java.util.Map<Long, Double> getTeacherWorkloads(Long academicYearId) {
-        List<Object[]> results = timetableRepo.getTeacherWorkloadMinutes(academicYearId);
         java.util.Map<Long, Double> workloads = new java.util.HashMap<>();
-        for (Object[] row : results) {
-            Long teacherId = (Long) row[0];
-            Number minutes = (Number) row[1];
-            double hours = minutes != null ? minutes.doubleValue() / 60.0 : 0.0;
-            workloads.put(teacherId, hours);
-        }
+        occupancyIndex.teacherWorkloads(academicYearId).forEach((teacherId, load) -> {
+            // Only teachers with non-archived entries, as the old GROUP BY query returned
+            if (java.util.Arrays.stream(load.periodsPerDay()).sum() > 0) {
+                workloads.put(teacherId, load.scheduledMinutes() / 60.0);
+            }
+        });
         return workloads;
     }
 
@@ -1029,4 +1223,33 @@ public class TimetableService {
 
         return stats;
     }
+
+    // ---------------------------------------------------------------
+    // DRY RUN — validated placements that have not been written
+    // ---------------------------------------------------------------
+
+    private record EntryPlan(List<TimetableEntry> entries, List<String> conflicts) {}
+
+    private record LabSessionPlan(LabSessionGroup group, List<TimetableEntry> entries, List<String> conflicts, String slots) {
+        static LabSessionPlan rejected(List<String> conflicts) {
+            return new LabSessionPlan(null, List.of(), conflicts, null);
+        }
+    }
+
+    @lombok.Data
+    public static class PlacementPreview {
+        private boolean valid;
+        private List<TimetableEntry> entries;     // unsaved — ids are null
+        private List<String> conflicts;
+        private String slots;                     // lab sessions: "<slot 1> + <slot 2>"
+
+        static PlacementPreview of(List<TimetableEntry> entries, List<String> conflicts, String slots) {
+            PlacementPreview preview = new PlacementPreview();
+            preview.setValid(conflicts.isEmpty());
+            preview.setEntries(entries);
+            preview.setConflicts(conflicts);
+            preview.setSlots(slots);
+            return preview;
+        }
+    }
 }
@@ -0,0 +1,484 @@
+package com.College.timetable.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.College.timetable.Entity.DayOfWeek;
+
+/**
+ * In-memory constraint solver behind TimetableGeneratorService.
+ *
+ * Works on a compact model: every teacher, room, division and batch is a small integer and its
+ * weekly occupancy is a bitset over cells ({@code slot * DAYS + day}). The hard rules are the ones
+ * ConflictCheckService enforces — teacher/room/division/batch clashes, break slots, teacher
+ * availability, daily period limit, weekly hour limit and room capacity (rooms are pre-filtered
+ * per load). Labs take two consecutive non-break slots.
+ *
+ * Search is a branch-and-bound DFS that may skip a unit (leaving it unplaced) and prunes any
+ * branch that cannot beat the best number of skipped units found so far. Each worker restarts
+ * with a different random seed after a node budget; workers run in parallel on a fork/join pool
+ * until a complete solution is found or the time budget runs out.
+ */
+public final class TimetableSolver {
+
+    static final int DAYS = DayOfWeek.values().length;
+
+    // Options tried per unit before falling back to "skip" — keeps restarts diverse
+    private static final int MAX_OPTIONS_PER_UNIT = 6;
+    private static final int NODES_PER_RESTART = 20_000;
+
+    private TimetableSolver() {}
+
+    // ---------------------------------------------------------------
+    // PROBLEM — built once by the generator, shared read-only by all workers
+    // ---------------------------------------------------------------
+
+    public static final class Problem {
+        private final List<int[]> slots = new ArrayList<>();      // [minutes, nextSlot or -1]
+        private final List<Integer> teacherMaxWeeklyHours = new ArrayList<>();
+        private final List<long[]> teacherBlocked = new ArrayList<>();
+        private final List<int[]> teacherDaily = new ArrayList<>();
+        private final List<int[]> teacherMinutes = new ArrayList<>();
+        private final List<long[]> roomBlocked = new ArrayList<>();
+        private final List<long[]> divisionBlocked = new ArrayList<>();
+        private final List<long[]> divisionTheory = new ArrayList<>();
+        private final List<long[]> batchBlocked = new ArrayList<>();
+        private final List<Load> loads = new ArrayList<>();
+        private final int maxPeriodsPerDay;
+        private int words;
+        private boolean sealed;
+
+        public Problem(int maxPeriodsPerDay) {
+            this.maxPeriodsPerDay = maxPeriodsPerDay;
+        }
+
+        /** Register a lecture slot. Slots must be added before anything else. */
+        public int addSlot(int durationMinutes) {
+            if (sealed) throw new IllegalStateException("Slots must be added before teachers, rooms and loads");
+            slots.add(new int[] { durationMinutes, -1 });
+            return slots.size() - 1;
+        }
+
+        /** Mark {@code next} as the period immediately after {@code slot} (no break in between). */
+        public void linkNext(int slot, int next) {
+            slots.get(slot)[1] = next;
+        }
+
+        public int addTeacher(Integer maxWeeklyHours) {
+            seal();
+            teacherMaxWeeklyHours.add(maxWeeklyHours);
+            teacherBlocked.add(new long[words]);
+            teacherDaily.add(new int[DAYS]);
+            teacherMinutes.add(new int[1]);
+            return teacherMaxWeeklyHours.size() - 1;
+        }
+
+        public int addRoom() {
+            seal();
+            roomBlocked.add(new long[words]);
+            return roomBlocked.size() - 1;
+        }
+
+        public int addDivision() {
+            seal();
+            divisionBlocked.add(new long[words]);
+            divisionTheory.add(new long[words]);
+            return divisionBlocked.size() - 1;
+        }
+
+        public int addBatch() {
+            seal();
+            batchBlocked.add(new long[words]);
+            return batchBlocked.size() - 1;
+        }
+
+        /** Teacher already booked or marked unavailable in this cell. */
+        public void blockTeacher(int teacher, DayOfWeek day, int slot) {
+            set(teacherBlocked.get(teacher), cell(day, slot));
+        }
+
+        /** Existing workload: periods on a day (non-archived) and weekly minutes (every status). */
+        public void addTeacherWorkload(int teacher, DayOfWeek day, int periods, int minutes) {
+            if (day != null) teacherDaily.get(teacher)[day.ordinal()] += periods;
+            teacherMinutes.get(teacher)[0] += minutes;
+        }
+
+        public void blockRoom(int room, DayOfWeek day, int slot) {
+            set(roomBlocked.get(room), cell(day, slot));
+        }
+
+        /** Division already has an entry here; {@code theory} when it is not a batch lab. */
+        public void blockDivision(int division, DayOfWeek day, int slot, boolean theory) {
+            set(divisionBlocked.get(division), cell(day, slot));
+            if (theory) set(divisionTheory.get(division), cell(day, slot));
+        }
+
+        public void blockBatch(int batch, DayOfWeek day, int slot) {
+            set(batchBlocked.get(batch), cell(day, slot));
+        }
+
+        /**
+         * A course load: {@code units} placements of {@code length} consecutive slots (1 theory, 2 lab),
+         * all taught by one teacher chosen from {@code teachers}. {@code batch} is -1 for theory.
+         * {@code rooms} must already be capacity-filtered, best fit first.
+         */
+        public int addLoad(int division, int batch, int[] teachers, int[] rooms, int[] slotOptions, int units, int length) {
+            seal();
+            loads.add(new Load(loads.size(), division, batch, teachers, rooms, slotOptions, units, length));
+            return loads.size() - 1;
+        }
+
+        public int loadCount() {
+            return loads.size();
+        }
+
+        private void seal() {
+            if (!sealed) {
+                sealed = true;
+                words = Math.max(1, (slots.size() * DAYS + 63) / 64);
+            }
+        }
+
+        int cell(DayOfWeek day, int slot) {
+            return slot * DAYS + day.ordinal();
+        }
+
+        int minutes(int slot) {
+            return slots.get(slot)[0];
+        }
+
+        int next(int slot) {
+            return slots.get(slot)[1];
+        }
+    }
+
+    record Load(int index, int division, int batch, int[] teachers, int[] rooms, int[] slots, int units, int length) {
+        boolean isLab() {
+            return batch >= 0;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // SOLUTION
+    // ---------------------------------------------------------------
+
+    /** One placed unit — {@code slot} is the first slot; labs also take {@code next(slot)}. */
+    public record Assignment(int load, int teacher, int room, DayOfWeek day, int slot) {}
+
+    public static final class Solution {
+        private final List<Assignment> assignments;
+        private final int[] unplacedPerLoad;
+        private final int skipped;
+        private long nodes;
+        private int restarts;
+        private boolean timedOut;
+
+        Solution(List<Assignment> assignments, int[] unplacedPerLoad, int skipped) {
+            this.assignments = assignments;
+            this.unplacedPerLoad = unplacedPerLoad;
+            this.skipped = skipped;
+        }
+
+        public List<Assignment> getAssignments() { return assignments; }
+        public int unplaced(int load) { return unplacedPerLoad[load]; }
+        public int getUnplacedUnits() { return skipped; }
+        public boolean isComplete() { return skipped == 0; }
+        public long getNodes() { return nodes; }
+        public int getRestarts() { return restarts; }
+        public boolean isTimedOut() { return timedOut; }
+    }
+
+    // ---------------------------------------------------------------
+    // ENTRY POINT
+    // ---------------------------------------------------------------
+
+    /**
+     * Solve on the given pool. Returns the best assignment found before {@code timeBudgetMs}.
+     */
+    public static Solution solve(Problem problem, ForkJoinPool pool, long timeBudgetMs, long seed) {
+        problem.seal();
+        long deadline = System.currentTimeMillis() + Math.max(1, timeBudgetMs);
+        AtomicBoolean solved = new AtomicBoolean();
+        int workers = Math.max(1, pool.getParallelism());
+        Solution best = pool.invoke(new SearchTask(problem, deadline, solved, seed, 0, workers));
+        best.timedOut = !best.isComplete() && System.currentTimeMillis() >= deadline;
+        return best;
+    }
+
+    /**
+     * Fork/join split of the worker range — each leaf runs restarts with its own seeds.
+     */
+    private static final class SearchTask extends RecursiveTask<Solution> {
+        private final Problem problem;
+        private final long deadline;
+        private final AtomicBoolean solved;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        SearchTask(Problem problem, long deadline, AtomicBoolean solved, long seed, int from, int to) {
+            this.problem = problem;
+            this.deadline = deadline;
+            this.solved = solved;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Solution compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                SearchTask left = new SearchTask(problem, deadline, solved, seed, from, mid);
+                SearchTask right = new SearchTask(problem, deadline, solved, seed, mid, to);
+                left.fork();
+                Solution r = right.compute();
+                Solution l = left.join();
+                Solution better = l.skipped <= r.skipped ? l : r;
+                better.nodes = l.nodes + r.nodes;
+                better.restarts = l.restarts + r.restarts;
+                return better;
+            }
+            return new Worker(problem, deadline, solved, seed + from * 7919L).run();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // WORKER — one thread, restarts until solved or out of time
+    // ---------------------------------------------------------------
+
+    private static final class Worker {
+        private final Problem p;
+        private final long deadline;
+        private final AtomicBoolean solved;
+        private final Random random;
+        private final int[] units;              // unit -> load, in search order
+
+        // mutable search state
+        private long[][] teacherBusy;
+        private long[][] roomBusy;
+        private long[][] divisionBusy;
+        private long[][] divisionTheory;
+        private int[][] divisionLabs;           // lab units of the division per cell
+        private long[][] batchBusy;
+        private int[][] teacherDaily;
+        private int[] teacherMinutes;
+        private int[] loadTeacher;
+        private int[] loadPlaced;
+        private int[][] loadDays;
+        private final List<Assignment> stack = new ArrayList<>();
+        private final int[] skippedPerLoad;
+
+        private Solution best;
+        private long nodes;
+        private long totalNodes;
+        private int restarts;
+        private boolean stop;
+
+        Worker(Problem p, long deadline, AtomicBoolean solved, long seed) {
+            this.p = p;
+            this.deadline = deadline;
+            this.solved = solved;
+            this.random = new Random(seed);
+            this.skippedPerLoad = new int[p.loads.size()];
+            this.units = orderUnits();
+        }
+
+        Solution run() {
+            best = new Solution(List.of(), unitsPerLoad(), units.length);
+            do {
+                reset();
+                nodes = 0;
+                stop = false;
+                dfs(0, 0);
+                totalNodes += nodes;
+                restarts++;
+            } while (!best.isComplete() && !solved.get() && System.currentTimeMillis() < deadline);
+            if (best.isComplete()) solved.set(true);
+            best.nodes = totalNodes;
+            best.restarts = restarts;
+            return best;
+        }
+
+        /** Hardest loads first: labs, then fewest teacher/room/slot options, then most units. */
+        private int[] orderUnits() {
+            List<Load> sorted = new ArrayList<>(p.loads);
+            sorted.sort(Comparator
+                .comparing((Load l) -> !l.isLab())
+                .thenComparingLong(l -> (long) l.teachers().length * l.rooms().length * l.slots().length / Math.max(1, l.units()))
+                .thenComparingInt(l -> random.nextInt(1_000)));
+            int total = sorted.stream().mapToInt(Load::units).sum();
+            int[] order = new int[total];
+            int i = 0;
+            for (Load l : sorted) {
+                for (int u = 0; u < l.units(); u++) order[i++] = l.index();
+            }
+            return order;
+        }
+
+        private int[] unitsPerLoad() {
+            int[] counts = new int[p.loads.size()];
+            for (Load l : p.loads) counts[l.index()] = l.units();
+            return counts;
+        }
+
+        private void reset() {
+            teacherBusy = copy(p.teacherBlocked);
+            roomBusy = copy(p.roomBlocked);
+            divisionBusy = copy(p.divisionBlocked);
+            divisionTheory = copy(p.divisionTheory);
+            divisionLabs = new int[p.divisionBlocked.size()][p.slots.size() * DAYS];
+            batchBusy = copy(p.batchBlocked);
+            teacherDaily = p.teacherDaily.stream().map(int[]::clone).toArray(int[][]::new);
+            teacherMinutes = p.teacherMinutes.stream().mapToInt(m -> m[0]).toArray();
+            loadTeacher = new int[p.loads.size()];
+            Arrays.fill(loadTeacher, -1);
+            loadPlaced = new int[p.loads.size()];
+            loadDays = new int[p.loads.size()][DAYS];
+            stack.clear();
+            Arrays.fill(skippedPerLoad, 0);
+        }
+
+        private void dfs(int i, int skipped) {
+            if (stop) return;
+            if (skipped >= best.skipped) return; // cannot beat the best solution
+            if (++nodes > NODES_PER_RESTART || (nodes & 255) == 0 && (System.currentTimeMillis() >= deadline || solved.get())) {
+                stop = true;
+                return;
+            }
+            if (i == units.length) {
+                best = new Solution(new ArrayList<>(stack), skippedPerLoad.clone(), skipped);
+                if (skipped == 0) stop = true;
+                return;
+            }
+
+            Load load = p.loads.get(units[i]);
+            for (Assignment option : options(load)) {
+                apply(option, load, 1);
+                dfs(i + 1, skipped);
+                apply(option, load, -1);
+                if (stop) return;
+            }
+
+            skippedPerLoad[load.index()]++;
+            dfs(i + 1, skipped + 1);
+            skippedPerLoad[load.index()]--;
+        }
+
+        /** Feasible (teacher, day, slot, room) options for the next unit of a load, best first. */
+        private List<Assignment> options(Load load) {
+            int[] teachers = loadTeacher[load.index()] >= 0 ? new int[] { loadTeacher[load.index()] } : load.teachers();
+            List<Assignment> feasible = new ArrayList<>();
+            List<Integer> scores = new ArrayList<>();
+            for (int t : teachers) {
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    for (int slot : load.slots()) {
+                        if (!fits(load, t, day, slot)) continue;
+                        int room = freeRoom(load, day, slot);
+                        if (room < 0) continue;
+                        feasible.add(new Assignment(load.index(), t, room, day, slot));
+                        // Spread a load over the week, balance teachers' days, break ties randomly
+                        scores.add(loadDays[load.index()][day.ordinal()] * 100
+                            + teacherDaily[t][day.ordinal()] * 10
+                            + random.nextInt(10));
+                    }
+                }
+            }
+            Integer[] idx = new Integer[feasible.size()];
+            for (int k = 0; k < idx.length; k++) idx[k] = k;
+            Arrays.sort(idx, Comparator.comparingInt(scores::get));
+            List<Assignment> ordered = new ArrayList<>(Math.min(idx.length, MAX_OPTIONS_PER_UNIT));
+            for (int k = 0; k < idx.length && k < MAX_OPTIONS_PER_UNIT; k++) ordered.add(feasible.get(idx[k]));
+            return ordered;
+        }
+
+        private boolean fits(Load load, int t, DayOfWeek day, int slot) {
+            Integer maxHours = p.teacherMaxWeeklyHours.get(t);
+            int minutes = teacherMinutes[t];
+            int s = slot;
+            for (int k = 0; k < load.length(); k++) {
+                if (s < 0) return false; // lab needs a following period
+                int cell = p.cell(day, s);
+                if (get(teacherBusy[t], cell)) return false;
+                if (load.isLab()) {
+                    if (get(batchBusy[load.batch()], cell) || get(divisionTheory[load.division()], cell)) return false;
+                } else if (get(divisionBusy[load.division()], cell) || divisionLabs[load.division()][cell] > 0) {
+                    return false;
+                }
+                if (teacherDaily[t][day.ordinal()] + k >= p.maxPeriodsPerDay) return false;
+                minutes += p.minutes(s);
+                if (maxHours != null && minutes / 60 > maxHours) return false;
+                s = k + 1 < load.length() ? p.next(s) : s;
+            }
+            return true;
+        }
+
+        private int freeRoom(Load load, DayOfWeek day, int slot) {
+            for (int r : load.rooms()) {
+                boolean free = true;
+                int s = slot;
+                for (int k = 0; k < load.length() && free; k++) {
+                    free = !get(roomBusy[r], p.cell(day, s));
+                    if (k + 1 < load.length()) s = p.next(s);
+                }
+                if (free) return r;
+            }
+            return -1;
+        }
+
+        private void apply(Assignment a, Load load, int sign) {
+            boolean add = sign > 0;
+            int s = a.slot();
+            for (int k = 0; k < load.length(); k++) {
+                int cell = p.cell(a.day(), s);
+                flip(teacherBusy[a.teacher()], cell, add);
+                flip(roomBusy[a.room()], cell, add);
+                // A unit is only placed on clear bits, so clearing on undo is exact
+                if (load.isLab()) {
+                    flip(batchBusy[load.batch()], cell, add);
+                    divisionLabs[load.division()][cell] += sign;
+                } else {
+                    flip(divisionBusy[load.division()], cell, add);
+                    flip(divisionTheory[load.division()], cell, add);
+                }
+                teacherMinutes[a.teacher()] += sign * p.minutes(s);
+                if (k + 1 < load.length()) s = p.next(s);
+            }
+            teacherDaily[a.teacher()][a.day().ordinal()] += sign * load.length();
+            loadDays[load.index()][a.day().ordinal()] += sign;
+            loadPlaced[load.index()] += sign;
+            if (add) {
+                loadTeacher[load.index()] = a.teacher();
+                stack.add(a);
+            } else {
+                stack.remove(stack.size() - 1);
+                if (loadPlaced[load.index()] == 0) loadTeacher[load.index()] = -1;
+            }
+        }
+
+        private static long[][] copy(List<long[]> bits) {
+            return bits.stream().map(long[]::clone).toArray(long[][]::new);
+        }
+    }
+
+    // ── bitset helpers over long[] words ──
+
+    private static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    private static boolean get(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void flip(long[] bits, int cell, boolean on) {
+        if (on) bits[cell >>> 6] |= 1L << cell;
+        else bits[cell >>> 6] &= ~(1L << cell);
+    }
+}
@@ -19,7 +19,7 @@ import java.util.stream.Collectors;
 public class TimetableValidationService {
 
     private final TimetableEntry_repo timetableRepo;
-    private final TimeSlot_repo timeSlotRepo;
+    private final ReferenceDataRegistry referenceData;
     private final Division_repo divisionRepo;
     private final Teacher_Repo teacherRepo;
 
@@ -43,15 +43,9 @@ public class TimetableValidationService {
 
         // Load reference data
         Division division = divisionRepo.findById(divisionId).orElse(null);
-        List<TimeSlot> allSlots = timeSlotRepo.findAll().stream()
-            .filter(s -> !Boolean.TRUE.equals(s.getIsBreak()))
-            .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
-            .collect(Collectors.toList());
-
         String slotType = division != null ? division.getTimeSlotType() : "TYPE_1";
-        List<TimeSlot> divisionSlots = allSlots.stream()
-            .filter(s -> slotType.equals(s.getType()))
-            .sorted(Comparator.comparing(TimeSlot::getStartTime))
+        List<TimeSlot> divisionSlots = referenceData.activeSlots(slotType).stream()
+            .filter(s -> !Boolean.TRUE.equals(s.getIsBreak()))
             .collect(Collectors.toList());
 
         // ── Check 1: Empty days ──
@@ -0,0 +1,177 @@
+package com.College.timetable.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.College.timetable.Configuration.RedisCircuitBreaker;
+
+/**
+ * Per-scope version counters for the cached timetable views, used for conditional GETs.
+ *
+ * Each view key ({@code {id}_{academicYearId}} of a division, teacher, room or department)
+ * has a Redis hash holding a version and a last-modified time. TimetableCacheInvalidator
+ * bumps them right after it evicts the same keys, so a request can answer 304 from one
+ * Redis read without loading any entries, and every app node sees the same version.
+ *
+ * A missing counter starts at the current time in millis rather than 0. If Redis loses the
+ * hash (flush, or the TTL below), the new version is still far above any version handed
+ * out before, so an old ETag can never match new content. The TTL bounds how long a bump
+ * that failed (Redis briefly unreachable) can leave clients on an old version.
+ *
+ * While the Redis circuit is open no conditional GETs are answered and bumps are skipped;
+ * when it closes again every version is bumped once, covering whatever changed meanwhile.
+ */
+@Service
+public class TimetableVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableVersionService.class);
+
+    static final String PREFIX = "samaysetu:timetable-version:";
+    static final String VERSION = "v";
+    static final String MODIFIED = "m";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Duration ttl;
+
+    // Set when a bump was skipped or failed; the next recovery bumps everything
+    private volatile boolean bumpsLost;
+
+    public TimetableVersionService(StringRedisTemplate redisTemplate, RedisCircuitBreaker circuitBreaker,
+                                   @Value("${app.timetable.version.ttl-hours:24}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.ttl = Duration.ofHours(ttlHours);
+        circuitBreaker.onRecovery(() -> {
+            if (bumpsLost) {
+                bumpsLost = false;
+                try {
+                    bumpAllKeys();
+                } catch (DataAccessException e) {
+                    bumpsLost = true;
+                    throw e;
+                }
+            }
+        });
+    }
+
+    static String redisKey(String cacheName, String key) {
+        return PREFIX + cacheName + ":" + key;
+    }
+
+    /**
+     * Current version of one view, or null when Redis cannot be read — callers then serve
+     * the full response without validators.
+     */
+    public Version current(String cacheName, Long id, Long academicYearId) {
+        if (!circuitBreaker.allowRequest()) return null;
+        String key = redisKey(cacheName, TimetableCacheInvalidator.key(id, academicYearId));
+        try {
+            HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+            List<String> values = hash.multiGet(key, List.of(VERSION, MODIFIED));
+            if (values.get(0) == null || values.get(1) == null) {
+                String now = String.valueOf(System.currentTimeMillis());
+                hash.putIfAbsent(key, VERSION, now);
+                hash.putIfAbsent(key, MODIFIED, now);
+                redisTemplate.expire(key, ttl);
+                values = hash.multiGet(key, List.of(VERSION, MODIFIED));
+            }
+            return new Version(Long.parseLong(values.get(0)), Long.parseLong(values.get(1)));
+        } catch (DataAccessException | NumberFormatException | NullPointerException e) {
+            if (e instanceof DataAccessException dae) circuitBreaker.recordFailure(dae);
+            logger.warn("[TIMETABLE-VERSION] Could not read {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Bump the versions of evicted view keys (cache name -> keys) in one pipelined round trip.
+     */
+    public void bump(Map<String, Set<String>> keys) {
+        if (circuitBreaker.isOpen()) {
+            bumpsLost = true;
+            return;
+        }
+        List<String> redisKeys = new ArrayList<>();
+        keys.forEach((cacheName, cacheKeys) -> cacheKeys.forEach(k -> redisKeys.add(redisKey(cacheName, k))));
+        try {
+            bumpRedisKeys(redisKeys);
+        } catch (DataAccessException e) {
+            bumpsLost = true;
+            circuitBreaker.recordFailure(e);
+            logger.warn("[TIMETABLE-VERSION] Could not bump versions of {}: {}", keys, e.getMessage());
+        }
+    }
+
+    /**
+     * Bump every view's version — after a reference-data edit changed what all views render.
+     * Views without a counter need nothing; their first read starts one at the current time.
+     */
+    public void bumpAll() {
+        if (circuitBreaker.isOpen()) {
+            bumpsLost = true;
+            return;
+        }
+        try {
+            bumpAllKeys();
+        } catch (DataAccessException e) {
+            bumpsLost = true;
+            circuitBreaker.recordFailure(e);
+            logger.warn("[TIMETABLE-VERSION] Could not bump all versions: {}", e.getMessage());
+        }
+    }
+
+    private void bumpAllKeys() {
+        List<String> redisKeys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(PREFIX + "*").count(500).build())) {
+            cursor.forEachRemaining(redisKeys::add);
+        }
+        bumpRedisKeys(redisKeys);
+    }
+
+    private void bumpRedisKeys(List<String> redisKeys) {
+        if (redisKeys.isEmpty()) return;
+        String now = String.valueOf(System.currentTimeMillis());
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                redisKeys.forEach(key -> {
+                    ops.opsForHash().putIfAbsent(key, VERSION, now);
+                    ops.opsForHash().increment(key, VERSION, 1);
+                    ops.opsForHash().put(key, MODIFIED, now);
+                    ops.expire(key, ttl);
+                });
+                return null;
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------
+    // DTOs
+    // ---------------------------------------------------------------
+
+    public record Version(long version, long lastModified) {
+
+        /** Weak ETag — the JSON is semantically, not byte-for-byte, the same. */
+        public String etag(String cacheName, Long id, Long academicYearId) {
+            return "W/\"" + cacheName + "-" + id + "-" + academicYearId + "-" + version + "\"";
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.College.timetable.Service;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.College.timetable.Entity.TimetableStatus;
+import com.College.timetable.IO.TimetableView;
+import com.College.timetable.Repository.TimetableEntry_repo;
+
+/**
+ * Cached timetable views. Each method loads the entries once and stores the compact
+ * {@link TimetableView}; TimetableService rebuilds entries from it for callers.
+ * Kept in its own bean so the @Cacheable proxy applies to calls from TimetableService.
+ *
+ * {@code sync = true} sends a miss through {@code Cache.get(key, loader)}, so concurrent
+ * misses on one hot view share a single DB load. {@link #load} builds a view without
+ * touching the cache — TimetableCacheWarmer uses it to refresh views ahead of expiry.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TimetableViewService {
+
+    private final TimetableEntry_repo timetableRepo;
+
+    public TimetableViewService(TimetableEntry_repo timetableRepo) {
+        this.timetableRepo = timetableRepo;
+    }
+
+    /** PUBLISHED entries of a division. */
+    @Cacheable(value = TimetableCacheInvalidator.DIVISION, key = "#divisionId + '_' + #academicYearId", sync = true)
+    public TimetableView division(Long divisionId, Long academicYearId) {
+        return load(TimetableCacheInvalidator.DIVISION, divisionId, academicYearId);
+    }
+
+    /** PUBLISHED entries of every division in a department. */
+    @Cacheable(value = TimetableCacheInvalidator.DEPARTMENT, key = "#departmentId + '_' + #academicYearId", sync = true)
+    public TimetableView department(Long departmentId, Long academicYearId) {
+        return load(TimetableCacheInvalidator.DEPARTMENT, departmentId, academicYearId);
+    }
+
+    /** DRAFT + PUBLISHED entries of a teacher. */
+    @Cacheable(value = TimetableCacheInvalidator.TEACHER, key = "#teacherId + '_' + #academicYearId", sync = true)
+    public TimetableView teacher(Long teacherId, Long academicYearId) {
+        return load(TimetableCacheInvalidator.TEACHER, teacherId, academicYearId);
+    }
+
+    /** DRAFT + PUBLISHED entries of a room. */
+    @Cacheable(value = TimetableCacheInvalidator.ROOM, key = "#roomId + '_' + #academicYearId", sync = true)
+    public TimetableView room(Long roomId, Long academicYearId) {
+        return load(TimetableCacheInvalidator.ROOM, roomId, academicYearId);
+    }
+
+    /** Entries of a division in every status. */
+    @Cacheable(value = TimetableCacheInvalidator.DIVISION_ALL, key = "#divisionId + '_' + #academicYearId", sync = true)
+    public TimetableView divisionAll(Long divisionId, Long academicYearId) {
+        return load(TimetableCacheInvalidator.DIVISION_ALL, divisionId, academicYearId);
+    }
+
+    /** Entries of a teacher in every status. */
+    @Cacheable(value = TimetableCacheInvalidator.TEACHER_ALL, key = "#teacherId + '_' + #academicYearId", sync = true)
+    public TimetableView teacherAll(Long teacherId, Long academicYearId) {
+        return load(TimetableCacheInvalidator.TEACHER_ALL, teacherId, academicYearId);
+    }
+
+    /**
+     * Build the view a cache holds under {@code {id}_{academicYearId}}, straight from the DB.
+     */
+    public TimetableView load(String cacheName, Long id, Long academicYearId) {
+        return TimetableView.of(academicYearId, switch (cacheName) {
+            case TimetableCacheInvalidator.DIVISION -> timetableRepo
+                .findByDivisionIdAndAcademicYearIdAndStatus(id, academicYearId, TimetableStatus.PUBLISHED);
+            case TimetableCacheInvalidator.DEPARTMENT -> timetableRepo
+                .findByDivisionDepartmentIdAndAcademicYearIdAndStatus(id, academicYearId, TimetableStatus.PUBLISHED);
+            case TimetableCacheInvalidator.TEACHER -> timetableRepo.findByProfessorAndAcademicYear(id, academicYearId);
+            case TimetableCacheInvalidator.ROOM -> timetableRepo.findByRoomAndAcademicYear(id, academicYearId);
+            case TimetableCacheInvalidator.DIVISION_ALL -> timetableRepo.findByDivisionIdAndAcademicYearId(id, academicYearId);
+            case TimetableCacheInvalidator.TEACHER_ALL -> timetableRepo.findByTeacherIdAndAcademicYearId(id, academicYearId);
+            default -> throw new IllegalArgumentException("Not a timetable view cache: " + cacheName);
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.College.timetable.Util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the timetable_entries index scripts (V2 booking unique indexes, V3
+ * per-cell lookup index) while Flyway is switched off. The scripts are
+ * idempotent, so they are safe on every start and become a no-op once Flyway
+ * owns db/migration.
+ *
+ * A booking index cannot be created while the table already holds double bookings
+ * for its key. That does not stop the start-up: the duplicates are logged so an
+ * operator can resolve them, ConflictCheckService keeps enforcing uniqueness in the
+ * service layer, the {@code bookingIndexes} health component reports DEGRADED
+ * (still HTTP 200), and the index is created on the first start after the data is clean.
+ */
+@Component("bookingIndexes")
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "false")
+public class BookingIndexInitializer implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIndexInitializer.class);
+
+    static final String[] SCRIPTS = {
+        "db/migration/V2__timetable_booking_unique_indexes.sql",
+        "db/migration/V3__timetable_entries_year_day_slot_index.sql"
+    };
+
+    static final Status DEGRADED = new Status("DEGRADED",
+        "Booking unique indexes missing — double bookings are only refused by the service-layer checks");
+
+    // Booking index -> the column it keeps unique per (academic year, day, slot)
+    static final Map<String, String> BOOKING_INDEXES = new LinkedHashMap<>();
+    static {
+        BOOKING_INDEXES.put("ux_timetable_entries_teacher_booking", "user_id");
+        BOOKING_INDEXES.put("ux_timetable_entries_room_booking", "classroom_id");
+        BOOKING_INDEXES.put("ux_timetable_entries_batch_booking", "batch_id");
+    }
+
+    private static final int REPORTED_DUPLICATES = 50;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+
+    // null until the scripts have run
+    private volatile List<String> missingIndexes;
+
+    public BookingIndexInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void applyBookingIndexes() {
+        try {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+            for (String script : SCRIPTS) {
+                populator.addScript(new ClassPathResource(script));
+            }
+            // Every statement is attempted — a dirty teacher key must not keep the room index out
+            populator.setContinueOnError(true);
+            populator.execute(dataSource);
+
+            List<String> present = jdbc.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'timetable_entries'", String.class);
+            List<String> missing = new ArrayList<>();
+            BOOKING_INDEXES.forEach((index, column) -> {
+                if (!present.contains(index)) {
+                    missing.add(index);
+                    reportDuplicates(index, column);
+                }
+            });
+            missingIndexes = missing;
+            if (missing.isEmpty()) {
+                logger.info("[BOOKING-INDEX] Booking unique indexes and the per-cell lookup index are in place");
+            }
+        } catch (RuntimeException e) {
+            missingIndexes = new ArrayList<>(BOOKING_INDEXES.keySet());
+            logger.error("[BOOKING-INDEX] Could not apply the timetable_entries index scripts — " +
+                "uniqueness is enforced by the service-layer checks only", e);
+        }
+    }
+
+    @Override
+    public Health health() {
+        List<String> missing = missingIndexes;
+        if (missing == null) {
+            return Health.unknown().build();
+        }
+        if (missing.isEmpty()) {
+            return Health.up().withDetail("indexes", BOOKING_INDEXES.keySet()).build();
+        }
+        return Health.status(DEGRADED)
+            .withDetail("missing", missing)
+            .withDetail("action", "Resolve the duplicate live entries logged at start-up and restart")
+            .build();
+    }
+
+    private void reportDuplicates(String index, String column) {
+        List<Map<String, Object>> groups = jdbc.queryForList(
+            "SELECT academic_year_id, day_of_week, time_slot_id, " + column + " AS booked, " +
+            "string_agg(id::text, ',' ORDER BY id) AS entry_ids " +
+            "FROM timetable_entries WHERE status <> 'ARCHIVED' AND " + column + " IS NOT NULL " +
+            "GROUP BY academic_year_id, day_of_week, time_slot_id, " + column + " HAVING COUNT(*) > 1 " +
+            "ORDER BY academic_year_id, day_of_week, time_slot_id LIMIT " + REPORTED_DUPLICATES);
+        if (groups.isEmpty()) {
+            logger.error("[BOOKING-INDEX] {} was not created and no duplicate live {} bookings were found — " +
+                "check the database log for the failed CREATE INDEX", index, column);
+            return;
+        }
+        logger.error("[BOOKING-INDEX] {} was not created: {} duplicate live {} bookings{}. Uniqueness is " +
+            "enforced by the service-layer checks only until they are resolved and the app restarted",
+            index, groups.size(), column, groups.size() == REPORTED_DUPLICATES ? " (first " + REPORTED_DUPLICATES + ")" : "");
+        for (Map<String, Object> g : groups) {
+            logger.error("[BOOKING-INDEX]   year {}, {}, slot {}, {} {}: entries {}",
+                g.get("academic_year_id"), g.get("day_of_week"), g.get("time_slot_id"),
+                column, g.get("booked"), g.get("entry_ids"));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Per-cell lookup index for timetable_entries.
+-- Serves the booked-ID projections behind the available-teacher / available-room filters,
+-- which select every entry of one academic year + day + time slot.
+-- Same name as the @Index on TimetableEntry, so a dev schema built by ddl-auto=update already has it.
+
+CREATE INDEX IF NOT EXISTS idx_timetable_entries_year_day_slot
+    ON timetable_entries (academic_year_id, day_of_week, time_slot_id);
@@ -0,0 +1,63 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.College.timetable.Entity.DayOfWeek;
+import com.College.timetable.Service.BookingConstraints;
+import com.College.timetable.Util.TimetableConflictException;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingConstraintsTest {
+
+    private static DataIntegrityViolationException violation(String driverMessage) {
+        return new DataIntegrityViolationException("could not execute statement", new SQLException(driverMessage));
+    }
+
+    @Test
+    void testTeacherIndexViolationReadsLikeThePreCheck() {
+        // Arrange — Postgres reports the day inside the key values
+        DataIntegrityViolationException e = violation(
+            "ERROR: duplicate key value violates unique constraint \"ux_timetable_entries_teacher_booking\"\n"
+            + "  Detail: Key (academic_year_id, day_of_week, time_slot_id, user_id)=(1, TUESDAY, 3, 7) already exists.");
+
+        // Act
+        TimetableConflictException conflict = BookingConstraints.translate(e, DayOfWeek.MONDAY);
+
+        // Assert
+        assertNotNull(conflict);
+        assertEquals(List.of(
+            "Teacher conflict: This teacher is already assigned to another class on TUESDAY at this time slot."),
+            conflict.getConflicts());
+        assertSame(e, conflict.getCause());
+    }
+
+    @Test
+    void testRoomAndBatchFallBackToTheGivenDay() {
+        // Act
+        TimetableConflictException room = BookingConstraints.translate(
+            violation("unique constraint \"ux_timetable_entries_room_booking\""), DayOfWeek.FRIDAY);
+        TimetableConflictException batch = BookingConstraints.translate(
+            violation("unique constraint \"ux_timetable_entries_batch_booking\""), DayOfWeek.FRIDAY);
+
+        // Assert
+        assertEquals("Room conflict: This room is already booked on FRIDAY at this time slot.",
+            room.getConflicts().get(0));
+        assertEquals("Batch conflict: This batch already has a class/lab scheduled on FRIDAY at this time slot.",
+            batch.getConflicts().get(0));
+    }
+
+    @Test
+    void testOtherIntegrityErrorsAreNotTranslated() {
+        // Act
+        TimetableConflictException conflict = BookingConstraints.translate(
+            violation("null value in column \"course_id\" violates not-null constraint"), DayOfWeek.MONDAY);
+
+        // Assert
+        assertNull(conflict);
+    }
+}
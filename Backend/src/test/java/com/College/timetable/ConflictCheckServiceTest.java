@@ -11,10 +11,12 @@ import org.springframework.test.util.ReflectionTestUtils;
 import com.College.timetable.Entity.*;
 import com.College.timetable.Repository.*;
 import com.College.timetable.Service.ConflictCheckService;
+import com.College.timetable.Service.OccupancyIndexService;
+import com.College.timetable.Service.TeacherAvailabilityIndexService;
 import com.College.timetable.Service.ConflictCheckService.TimetableEntryRequest;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +43,12 @@ public class ConflictCheckServiceTest {
     @Mock
     private Batch_repo batchRepo;
 
+    @Mock
+    private OccupancyIndexService occupancyIndex;
+
+    @Mock
+    private TeacherAvailabilityIndexService availabilityIndex;
+
     @InjectMocks
     private ConflictCheckService conflictCheckService;
 
@@ -233,4 +241,54 @@ public class ConflictCheckServiceTest {
         assertFalse(conflicts.isEmpty());
         assertTrue(conflicts.stream().anyMatch(c -> c.contains("Room capacity: Batch has 24 students but room 'SmallLabRoom' only holds 20.")));
     }
+
+    @Test
+    void testBatchCheckReportsClashBetweenCandidates() {
+        // Arrange — two candidates put the same teacher in the same cell
+        TimetableEntryRequest first = TimetableEntryRequest.builder()
+                .teacherId(7L).roomId(1L).divisionId(2L).timeSlotId(3L).academicYearId(1L)
+                .courseType("THEORY").dayOfWeek(DayOfWeek.MONDAY)
+                .build();
+        TimetableEntryRequest second = TimetableEntryRequest.builder()
+                .teacherId(7L).roomId(9L).divisionId(8L).timeSlotId(3L).academicYearId(1L)
+                .courseType("THEORY").dayOfWeek(DayOfWeek.MONDAY)
+                .build();
+
+        // Act
+        List<ConflictCheckService.CandidateResult> results =
+                conflictCheckService.checkConflictsBatch(List.of(first, second));
+
+        // Assert
+        assertTrue(results.get(0).isClear());
+        assertTrue(results.get(1).getConflicts().stream()
+                .anyMatch(c -> c.contains("This teacher is also placed by candidate 0")));
+        assertTrue(results.get(1).getConflicts().stream().noneMatch(c -> c.contains("room")));
+    }
+
+    @Test
+    void testBatchCheckCountsEarlierCandidatesTowardsDailyLimit() {
+        // Arrange — teacher already has 5 periods on Monday, the batch adds two more
+        int[] periodsPerDay = new int[DayOfWeek.values().length];
+        periodsPerDay[DayOfWeek.MONDAY.ordinal()] = 5;
+        when(occupancyIndex.teacherWorkloads(1L)).thenReturn(
+                Map.of(7L, new OccupancyIndexService.TeacherWorkload(periodsPerDay, 300, 300)));
+
+        TimetableEntryRequest first = TimetableEntryRequest.builder()
+                .teacherId(7L).roomId(1L).divisionId(2L).timeSlotId(3L).academicYearId(1L)
+                .courseType("THEORY").dayOfWeek(DayOfWeek.MONDAY)
+                .build();
+        TimetableEntryRequest second = TimetableEntryRequest.builder()
+                .teacherId(7L).roomId(1L).divisionId(2L).timeSlotId(4L).academicYearId(1L)
+                .courseType("THEORY").dayOfWeek(DayOfWeek.MONDAY)
+                .build();
+
+        // Act
+        List<ConflictCheckService.CandidateResult> results =
+                conflictCheckService.checkConflictsBatch(List.of(first, second));
+
+        // Assert
+        assertTrue(results.get(0).isClear());
+        assertTrue(results.get(1).getConflicts().stream()
+                .anyMatch(c -> c.contains("Teacher daily limit: This teacher already has 6 periods on MONDAY")));
+    }
 }
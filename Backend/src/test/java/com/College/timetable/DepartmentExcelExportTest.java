@@ -0,0 +1,189 @@
+package com.College.timetable;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.Repository.*;
+import com.College.timetable.Service.ReferenceDataRegistry;
+import com.College.timetable.Service.TimetableExportService;
+import com.College.timetable.Service.TimetableService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DepartmentExcelExportTest {
+
+    @Mock
+    private TimetableService timetableService;
+
+    @Mock
+    private Division_repo divisionRepo;
+
+    @Mock
+    private Teacher_Repo teacherRepo;
+
+    @Mock
+    private TimetableEntry_repo timetableEntryRepo;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    private TimetableExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new TimetableExportService(timetableService, divisionRepo, teacherRepo, timetableEntryRepo,
+            referenceData);
+        ReflectionTestUtils.setField(exportService, "excelRowWindow", 100);
+    }
+
+    @Test
+    void testStreamingWorkbookMatchesTheInMemoryOne() throws Exception {
+        // Arrange
+        department(5);
+
+        // Act
+        byte[] streamed = render(true);
+        byte[] inMemory = render(false);
+
+        // Assert — same sheets, same cells
+        try (XSSFWorkbook a = new XSSFWorkbook(new ByteArrayInputStream(streamed));
+             XSSFWorkbook b = new XSSFWorkbook(new ByteArrayInputStream(inMemory))) {
+            assertEquals(5, a.getNumberOfSheets());
+            assertEquals(b.getNumberOfSheets(), a.getNumberOfSheets());
+            for (int i = 0; i < a.getNumberOfSheets(); i++) {
+                assertEquals(b.getSheetAt(i).getLastRowNum(), a.getSheetAt(i).getLastRowNum());
+                assertEquals(b.getSheetAt(i).getNumMergedRegions(), a.getSheetAt(i).getNumMergedRegions());
+                assertEquals(b.getSheetAt(i).getRow(6).getCell(1).getStringCellValue(),
+                    a.getSheetAt(i).getRow(6).getCell(1).getStringCellValue());
+            }
+        }
+    }
+
+    /**
+     * Peak heap and time of the streaming and in-memory department workbooks. Run with
+     * {@code mvn test -Dtest=DepartmentExcelExportTest -Dbenchmark=true [-Dbenchmark.divisions=300]}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkStreamingAgainstInMemory() throws Exception {
+        // Arrange
+        int divisions = Integer.getInteger("benchmark.divisions", 200);
+        department(divisions);
+        measure(true);
+        measure(false);
+
+        // Act
+        long[] streaming = { Long.MAX_VALUE, 0 };
+        long[] inMemory = { Long.MAX_VALUE, 0 };
+        for (int run = 0; run < 3; run++) {
+            best(streaming, measure(true));
+            best(inMemory, measure(false));
+        }
+
+        // Assert
+        System.out.printf("[BENCHMARK] Department Excel, %d divisions%n", divisions);
+        System.out.printf("[BENCHMARK]   streaming : %5d ms, peak heap %6.1f MB%n", streaming[0], streaming[1] / 1048576.0);
+        System.out.printf("[BENCHMARK]   in-memory : %5d ms, peak heap %6.1f MB%n", inMemory[0], inMemory[1] / 1048576.0);
+        assertTrue(streaming[1] < inMemory[1], "streaming should peak lower than the in-memory workbook");
+    }
+
+    private byte[] render(boolean streaming) throws Exception {
+        ReflectionTestUtils.setField(exportService, "streamingExcel", streaming);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeDepartmentExcel(1L, 9L, Semester.SEM_1, out);
+        return out.toByteArray();
+    }
+
+    /** {@code [elapsed ms, peak heap bytes]} of one export written to a discarding stream. */
+    private long[] measure(boolean streaming) throws Exception {
+        ReflectionTestUtils.setField(exportService, "streamingExcel", streaming);
+        System.gc();
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(p -> p.getType() == MemoryType.HEAP)
+            .toList();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        exportService.writeDepartmentExcel(1L, 9L, Semester.SEM_1, OutputStream.nullOutputStream());
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        long peak = heap.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        return new long[] { elapsed, peak };
+    }
+
+    private static void best(long[] best, long[] run) {
+        best[0] = Math.min(best[0], run[0]);
+        best[1] = Math.max(best[1], run[1]);
+    }
+
+    // A department with fully booked divisions: 10 teaching slots and a break, six days a week
+    private void department(int divisionCount) {
+        List<TimeSlot> slots = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            TimeSlot slot = new TimeSlot();
+            slot.setId((long) i + 1);
+            slot.setSlotName(i == 5 ? "Lunch" : "P" + (i + 1));
+            slot.setStartTime(LocalTime.of(8 + i, 0));
+            slot.setEndTime(LocalTime.of(9 + i, 0));
+            slot.setIsBreak(i == 5);
+            slots.add(slot);
+        }
+        List<Division> divisions = new ArrayList<>();
+        for (int d = 0; d < divisionCount; d++) {
+            Division division = new Division();
+            division.setId((long) d + 1);
+            division.setName("D" + (d + 1));
+            division.setYear(d % 4 + 1);
+            divisions.add(division);
+        }
+        CourseEntity course = new CourseEntity();
+        course.setId(1L);
+        course.setName("Data Structures");
+        course.setCourseType(CourseType.THEORY);
+        TeacherEntity teacher = new TeacherEntity();
+        teacher.setId(1L);
+        teacher.setName("Asha Rao");
+        ClassRoom room = new ClassRoom();
+        room.setId(1L);
+        room.setRoomNumber("H301");
+        List<TimetableEntry> entries = new ArrayList<>();
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY,
+                DayOfWeek.FRIDAY, DayOfWeek.SATURDAY)) {
+            for (TimeSlot slot : slots) {
+                if (slot.getIsBreak()) continue;
+                TimetableEntry entry = new TimetableEntry();
+                entry.setDayOfWeek(day);
+                entry.setTimeSlot(slot);
+                entry.setCourse(course);
+                entry.setTeacher(teacher);
+                entry.setRoom(room);
+                entry.setSemester(Semester.SEM_1);
+                entries.add(entry);
+            }
+        }
+        when(divisionRepo.findByDepartmentId(1L)).thenReturn(divisions);
+        when(referenceData.academicYear(9L)).thenReturn(Optional.empty());
+        when(referenceData.activeSlots("TYPE_1")).thenReturn(slots);
+        when(timetableService.getDivisionTimetable(anyLong(), eq(9L))).thenReturn(entries);
+    }
+}
@@ -0,0 +1,205 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.Repository.TimetableEntry_repo;
+import com.College.timetable.Service.OccupancyIndexService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OccupancyIndexServiceTest {
+
+    private static final Long YEAR = 1L;
+
+    @Mock
+    private TimetableEntry_repo timetableEntryRepository;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    private OccupancyIndexService occupancyIndex;
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        occupancyIndex = new OccupancyIndexService(timetableEntryRepository, txManager);
+        // entry 100: teacher 10, room 20, division 30, no batch — MONDAY slot 5
+        rows.add(row(100L, 10L, 20L, 30L, null, DayOfWeek.MONDAY, 5L));
+        when(timetableEntryRepository.findOccupancyRowsByAcademicYear(YEAR)).thenAnswer(inv -> new ArrayList<>(rows));
+    }
+
+    @Test
+    void testLoadedEntryIsBookedOnlyInItsCell() {
+        assertTrue(occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L, YEAR, null));
+        assertTrue(occupancyIndex.isRoomBooked(20L, DayOfWeek.MONDAY, 5L, YEAR, null));
+        assertTrue(occupancyIndex.isDivisionBooked(30L, DayOfWeek.MONDAY, 5L, YEAR, null));
+
+        assertFalse(occupancyIndex.isTeacherBooked(10L, DayOfWeek.TUESDAY, 5L, YEAR, null));
+        assertFalse(occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 6L, YEAR, null));
+        assertFalse(occupancyIndex.isTeacherBooked(11L, DayOfWeek.MONDAY, 5L, YEAR, null));
+        assertFalse(occupancyIndex.isBatchBooked(40L, DayOfWeek.MONDAY, 5L, YEAR, null));
+
+        // Year is loaded once and then served from memory
+        verify(timetableEntryRepository, times(1)).findOccupancyRowsByAcademicYear(YEAR);
+    }
+
+    @Test
+    void testExcludedEntryDoesNotCountAgainstItself() {
+        assertFalse(occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L, YEAR, 100L));
+
+        // A second entry for the same teacher in the same cell still blocks the update
+        occupancyIndex.onEntrySaved(entry(101L, 10L, 21L, 31L, DayOfWeek.MONDAY, 5L));
+        assertTrue(occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L, YEAR, 100L));
+    }
+
+    @Test
+    void testMutationsKeepIndexUpToDate() {
+        occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L, YEAR, null); // load year
+
+        TimetableEntry moved = entry(100L, 10L, 20L, 30L, DayOfWeek.FRIDAY, 5L);
+        occupancyIndex.onEntrySaved(moved);
+        assertFalse(occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L, YEAR, null));
+        assertTrue(occupancyIndex.isTeacherBooked(10L, DayOfWeek.FRIDAY, 5L, YEAR, null));
+
+        occupancyIndex.onEntryDeleted(moved);
+        assertFalse(occupancyIndex.isTeacherBooked(10L, DayOfWeek.FRIDAY, 5L, YEAR, null));
+        assertFalse(occupancyIndex.isRoomBooked(20L, DayOfWeek.FRIDAY, 5L, YEAR, null));
+    }
+
+    @Test
+    void testVerifyDetectsDriftAndRebuilds() {
+        occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L, YEAR, null); // load year
+
+        // Another node writes an entry the index never saw
+        rows.add(row(200L, 12L, 22L, 32L, 42L, DayOfWeek.WEDNESDAY, 7L));
+
+        OccupancyIndexService.ConsistencyReport report = occupancyIndex.verify(YEAR, true);
+        assertFalse(report.isConsistent());
+        assertEquals(1, report.getMissingFromIndex());
+        assertTrue(report.isRebuilt());
+        assertTrue(occupancyIndex.isBatchBooked(42L, DayOfWeek.WEDNESDAY, 7L, YEAR, null));
+
+        assertTrue(occupancyIndex.verify(YEAR, true).isConsistent());
+    }
+
+    @Test
+    void testChangeCommittedDuringVerifyIsNotLost() throws Exception {
+        occupancyIndex.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L, YEAR, null); // load year
+        rows.add(row(200L, 12L, 22L, 32L, 42L, DayOfWeek.WEDNESDAY, 7L));
+
+        // Another request commits entry 300 after the first reload has read the table
+        Thread writer = new Thread(() -> {
+            rows.add(row(300L, 13L, 23L, 33L, null, DayOfWeek.THURSDAY, 8L));
+            occupancyIndex.onEntrySaved(entry(300L, 13L, 23L, 33L, DayOfWeek.THURSDAY, 8L));
+        });
+        List<Boolean> writerFinishedDuringLoad = new ArrayList<>();
+        when(timetableEntryRepository.findOccupancyRowsByAcademicYear(YEAR)).thenAnswer(inv -> {
+            List<Object[]> snapshot = new ArrayList<>(rows);
+            if (writerFinishedDuringLoad.isEmpty()) {
+                writer.start();
+                writer.join(2000);
+                writerFinishedDuringLoad.add(!writer.isAlive());
+            }
+            return snapshot;
+        });
+
+        OccupancyIndexService.ConsistencyReport report = occupancyIndex.verify(YEAR, true);
+
+        // The writer was not held up by the load, and the stale first load was not swapped in
+        assertEquals(List.of(true), writerFinishedDuringLoad);
+        assertTrue(report.isRebuilt());
+        assertFalse(report.isChangedDuringLoad());
+        assertEquals(3, report.getDatabaseEntries());
+        assertTrue(occupancyIndex.isTeacherBooked(13L, DayOfWeek.THURSDAY, 8L, YEAR, null));
+        assertTrue(occupancyIndex.isBatchBooked(42L, DayOfWeek.WEDNESDAY, 7L, YEAR, null));
+    }
+
+    @Test
+    void testWorkloadLedgerFollowsMutations() {
+        // Arrange — teacher 10 already teaches MONDAY slot 5 (60 minutes)
+        assertEquals(1, occupancyIndex.teacherPeriodsOnDay(10L, YEAR, DayOfWeek.MONDAY));
+        assertEquals(60, occupancyIndex.teacherWeeklyMinutes(10L, YEAR, null));
+
+        // Act — add a second entry, then archive the division
+        occupancyIndex.onEntrySaved(entry(101L, 10L, 21L, 30L, DayOfWeek.MONDAY, 6L));
+        assertEquals(2, occupancyIndex.teacherPeriodsOnDay(10L, YEAR, DayOfWeek.MONDAY));
+        assertEquals(60, occupancyIndex.teacherWeeklyMinutes(10L, YEAR, 101L));
+
+        occupancyIndex.onStatusChanged(30L, YEAR, Semester.SEM_3, TimetableStatus.DRAFT, TimetableStatus.ARCHIVED);
+
+        // Assert — archived entries leave the daily count but still count towards weekly minutes
+        assertEquals(0, occupancyIndex.teacherPeriodsOnDay(10L, YEAR, DayOfWeek.MONDAY));
+        assertEquals(120, occupancyIndex.teacherWeeklyMinutes(10L, YEAR, null));
+        assertEquals(0, occupancyIndex.teacherWorkloads(YEAR).get(10L).scheduledMinutes());
+    }
+
+    @Test
+    void testGridSnapshotOnlyBooksSameSeriesActiveEntries() {
+        // Arrange — archived entry in the same cell and an even-semester entry elsewhere
+        rows.add(new Object[] { 101L, 11L, 21L, 31L, null, DayOfWeek.MONDAY, 5L,
+            TimetableStatus.ARCHIVED, Semester.SEM_3, 60 });
+        rows.add(new Object[] { 102L, 10L, 22L, 32L, 42L, DayOfWeek.TUESDAY, 5L,
+            TimetableStatus.PUBLISHED, Semester.SEM_4, 60 });
+
+        // Act
+        OccupancyIndexService.GridSnapshot grid = occupancyIndex.gridSnapshot(YEAR, Semester.SEM_5);
+
+        // Assert
+        assertTrue(grid.isTeacherBooked(10L, DayOfWeek.MONDAY, 5L));
+        assertTrue(grid.isRoomBooked(20L, DayOfWeek.MONDAY, 5L));
+        assertFalse(grid.isTeacherBooked(11L, DayOfWeek.MONDAY, 5L));
+        assertFalse(grid.isTeacherBooked(10L, DayOfWeek.TUESDAY, 5L));
+        assertFalse(grid.isBatchBooked(42L, DayOfWeek.TUESDAY, 5L));
+
+        // Workload still counts every semester
+        assertEquals(1, grid.teacherPeriodsOnDay(10L, DayOfWeek.TUESDAY));
+        assertEquals(120, grid.teacherWeeklyMinutes(10L));
+        assertEquals(0, grid.teacherPeriodsOnDay(11L, DayOfWeek.MONDAY));
+        assertEquals(60, grid.teacherWeeklyMinutes(11L));
+    }
+
+    private static Object[] row(Long id, Long teacherId, Long roomId, Long divisionId, Long batchId,
+                                DayOfWeek day, Long slotId) {
+        return new Object[] { id, teacherId, roomId, divisionId, batchId, day, slotId,
+            TimetableStatus.DRAFT, Semester.SEM_3, 60 };
+    }
+
+    private static TimetableEntry entry(Long id, Long teacherId, Long roomId, Long divisionId,
+                                        DayOfWeek day, Long slotId) {
+        TeacherEntity teacher = new TeacherEntity();
+        teacher.setId(teacherId);
+        ClassRoom room = new ClassRoom();
+        room.setId(roomId);
+        Division division = new Division();
+        division.setId(divisionId);
+        TimeSlot slot = new TimeSlot();
+        slot.setId(slotId);
+        slot.setDurationMinutes(60);
+        AcademicYear year = new AcademicYear();
+        year.setId(YEAR);
+
+        TimetableEntry e = new TimetableEntry();
+        e.setId(id);
+        e.setTeacher(teacher);
+        e.setRoom(room);
+        e.setDivision(division);
+        e.setTimeSlot(slot);
+        e.setAcademicYear(year);
+        e.setDayOfWeek(day);
+        e.setSemester(Semester.SEM_3);
+        e.setStatus(TimetableStatus.DRAFT);
+        return e;
+    }
+}
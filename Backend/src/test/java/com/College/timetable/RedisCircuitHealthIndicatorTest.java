@@ -0,0 +1,66 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.data.redis.RedisHealthContributorAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.data.redis.RedisReactiveHealthContributorAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthContributorAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import com.College.timetable.Configuration.RedisCircuitBreaker;
+import com.College.timetable.Configuration.RedisCircuitHealthIndicator;
+import com.College.timetable.Configuration.ResilientCacheManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RedisCircuitHealthIndicatorTest {
+
+    @Test
+    void testUnreachableRedisKeepsTheProdHealthEndpointAt200() throws Exception {
+        // Arrange — the prod actuator settings, Boot's Redis auto-configuration pointed at a closed
+        // port, and an open circuit
+        RedisCircuitBreaker breaker = mock(RedisCircuitBreaker.class);
+        when(breaker.snapshot()).thenReturn(new RedisCircuitBreaker.Snapshot(
+            RedisCircuitBreaker.State.OPEN, Instant.now(), 3, "Connection refused"));
+        ResilientCacheManager cacheManager = mock(ResilientCacheManager.class);
+        when(cacheManager.fallbackSizes()).thenReturn(Map.of());
+
+        new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RedisAutoConfiguration.class,
+                RedisHealthContributorAutoConfiguration.class, RedisReactiveHealthContributorAutoConfiguration.class,
+                HealthContributorAutoConfiguration.class, HealthEndpointAutoConfiguration.class))
+            .withPropertyValues(prodManagementProperties())
+            .withPropertyValues("spring.data.redis.host=localhost", "spring.data.redis.port=1",
+                "spring.data.redis.timeout=200ms")
+            .withBean("redisCircuit", RedisCircuitHealthIndicator.class,
+                () -> new RedisCircuitHealthIndicator(breaker, cacheManager))
+            .run(context -> {
+                // Act
+                HealthComponent health = context.getBean(HealthEndpoint.class).health();
+
+                // Assert
+                assertEquals("DEGRADED", health.getStatus().getCode());
+                assertEquals(200, context.getBean(HttpCodeStatusMapper.class).getStatusCode(health.getStatus()));
+            });
+    }
+
+    private static String[] prodManagementProperties() throws Exception {
+        Properties prod = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application-prod.properties"));
+        return prod.stringPropertyNames().stream()
+            .filter(name -> name.startsWith("management."))
+            .map(name -> name + "=" + prod.getProperty(name))
+            .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,188 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.College.timetable.Configuration.CacheInvalidationBus;
+import com.College.timetable.Entity.AcademicYear;
+import com.College.timetable.Entity.ClassRoom;
+import com.College.timetable.Entity.TimeSlot;
+import com.College.timetable.Repository.AcademicYearRepository;
+import com.College.timetable.Repository.Dep_repo;
+import com.College.timetable.Repository.Room_repo;
+import com.College.timetable.Repository.TimeSlot_repo;
+import com.College.timetable.Service.ReferenceDataRegistry;
+import com.College.timetable.Service.TimetableCacheInvalidator;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReferenceDataRegistryTest {
+
+    @Mock
+    private TimeSlot_repo timeSlotRepo;
+
+    @Mock
+    private Room_repo roomRepo;
+
+    @Mock
+    private Dep_repo departmentRepo;
+
+    @Mock
+    private AcademicYearRepository academicYearRepo;
+
+    @Mock
+    private TimetableCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private CacheInvalidationBus bus;
+
+    private ReferenceDataRegistry referenceData;
+
+    private final List<TimeSlot> slots = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        referenceData = new ReferenceDataRegistry(timeSlotRepo, roomRepo, departmentRepo, academicYearRepo,
+            cacheInvalidator, bus);
+        // Stored out of time order, one inactive, one of another type
+        slots.add(slot(1L, "TYPE_1", "10:00", false, true));
+        slots.add(slot(2L, "TYPE_1", "09:00", false, true));
+        slots.add(slot(3L, "TYPE_1", "11:00", true, true));
+        slots.add(slot(4L, "TYPE_1", "08:00", false, false));
+        slots.add(slot(5L, "TYPE_2", "08:30", false, true));
+        when(timeSlotRepo.findAll()).thenAnswer(inv -> new ArrayList<>(slots));
+        when(roomRepo.findAll()).thenReturn(List.of(
+            room(10L, 60, true), room(11L, 30, true), room(12L, null, true), room(13L, 90, false), room(14L, 60, true)));
+        when(departmentRepo.findAll()).thenReturn(List.of());
+        when(academicYearRepo.findAll()).thenReturn(List.of(year(7L, false), year(9L, true)));
+    }
+
+    @Test
+    void testSlotsAreGroupedByTypeAndSortedByStart() {
+        // Act
+        List<TimeSlot> type1 = referenceData.activeSlots("TYPE_1");
+
+        // Assert — inactive slot dropped, break kept
+        assertEquals(List.of(2L, 1L, 3L), type1.stream().map(TimeSlot::getId).toList());
+        assertEquals(List.of(5L), referenceData.activeSlots("TYPE_2").stream().map(TimeSlot::getId).toList());
+        assertTrue(referenceData.activeSlots("TYPE_3").isEmpty());
+        assertEquals(List.of(5L, 2L, 1L, 3L), referenceData.activeSlots().stream().map(TimeSlot::getId).toList());
+        assertEquals(5, referenceData.allSlots().size());
+        assertEquals(9L, referenceData.currentAcademicYear().getId());
+
+        // Loaded once, then answered from memory
+        verify(timeSlotRepo, times(1)).findAll();
+    }
+
+    @Test
+    void testRoomsAreIndexedByCapacity() {
+        // Act
+        List<ClassRoom> fitting = referenceData.activeRoomsWithCapacity(60);
+
+        // Assert — a room without a capacity is assumed to fit; inactive room dropped
+        assertEquals(List.of(12L, 10L, 14L), fitting.stream().map(ClassRoom::getId).toList());
+        assertEquals(List.of(12L, 11L, 10L, 14L), referenceData.activeRoomsWithCapacity(0).stream().map(ClassRoom::getId).toList());
+        assertEquals(List.of(12L), referenceData.activeRoomsWithCapacity(100).stream().map(ClassRoom::getId).toList());
+        assertTrue(referenceData.room(13L).isPresent());
+    }
+
+    @Test
+    void testInvalidateReloadsAndClearsTimetableViews() {
+        // Arrange
+        referenceData.activeSlots("TYPE_1");
+        slots.get(3).setIsActive(true);
+
+        // Act — outside a transaction the invalidation is immediate
+        referenceData.invalidateAfterCommit();
+        List<TimeSlot> reloaded = referenceData.activeSlots("TYPE_1");
+
+        // Assert
+        assertEquals(List.of(4L, 2L, 1L, 3L), reloaded.stream().map(TimeSlot::getId).toList());
+        assertEquals(2, referenceData.version());
+        verify(cacheInvalidator).evictAll();
+        verify(bus).publishClear("referenceData");
+    }
+
+    @Test
+    void testRemoteInvalidationDropsTheSnapshot() {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<BiConsumer<String, String>> handler = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(bus).addHandler(handler.capture());
+        referenceData.activeSlots("TYPE_1");
+
+        // Act — other caches' messages are ignored
+        handler.getValue().accept("divisionTimetable", "1_9");
+        referenceData.activeSlots("TYPE_1");
+        handler.getValue().accept("referenceData", null);
+        referenceData.activeSlots("TYPE_1");
+
+        // Assert
+        verify(timeSlotRepo, times(2)).findAll();
+        verify(cacheInvalidator, never()).evictAll();
+        verify(bus, never()).publishClear(any());
+    }
+
+    @Test
+    void testInvalidationDuringALoadIsNotLost() {
+        // Arrange — a slot is added and committed while the first load is reading the tables
+        List<Boolean> edited = new ArrayList<>();
+        when(timeSlotRepo.findAll()).thenAnswer(inv -> {
+            List<TimeSlot> read = new ArrayList<>(slots);
+            if (edited.isEmpty()) {
+                edited.add(true);
+                slots.add(slot(6L, "TYPE_1", "12:00", false, true));
+                referenceData.invalidateAfterCommit();
+            }
+            return read;
+        });
+
+        // Act
+        List<TimeSlot> duringEdit = referenceData.activeSlots("TYPE_1");
+        List<TimeSlot> afterEdit = referenceData.activeSlots("TYPE_1");
+        referenceData.activeSlots("TYPE_1");
+
+        // Assert — the pre-commit load served its own caller only
+        assertEquals(List.of(2L, 1L, 3L), duringEdit.stream().map(TimeSlot::getId).toList());
+        assertEquals(List.of(2L, 1L, 3L, 6L), afterEdit.stream().map(TimeSlot::getId).toList());
+        verify(timeSlotRepo, times(2)).findAll();
+    }
+
+    private static TimeSlot slot(Long id, String type, String start, boolean isBreak, boolean active) {
+        TimeSlot slot = new TimeSlot();
+        slot.setId(id);
+        slot.setType(type);
+        slot.setStartTime(LocalTime.parse(start));
+        slot.setEndTime(LocalTime.parse(start).plusHours(1));
+        slot.setIsBreak(isBreak);
+        slot.setIsActive(active);
+        return slot;
+    }
+
+    private static ClassRoom room(Long id, Integer capacity, boolean active) {
+        ClassRoom room = new ClassRoom();
+        room.setId(id);
+        room.setCapacity(capacity);
+        room.setIsActive(active);
+        return room;
+    }
+
+    private static AcademicYear year(Long id, boolean current) {
+        AcademicYear year = new AcademicYear();
+        year.setId(id);
+        year.setIsCurrent(current);
+        return year;
+    }
+}
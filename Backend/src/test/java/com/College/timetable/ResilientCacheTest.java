@@ -0,0 +1,144 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.College.timetable.Configuration.RedisCircuitBreaker;
+import com.College.timetable.Configuration.ResilientCacheManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ResilientCacheTest {
+
+    @Mock
+    private CacheManager redisCacheManager;
+
+    @Mock
+    private Cache redis;
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private RedisConnection connection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RedisCircuitBreaker breaker;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new RedisCircuitBreaker(connectionFactory, 2, Duration.ofMillis(100), meterRegistry);
+        when(redisCacheManager.getCache("departments")).thenReturn(redis);
+        cache = new ResilientCacheManager(redisCacheManager, breaker, 10, Duration.ofMinutes(1), null)
+            .getCache("departments");
+    }
+
+    @AfterEach
+    void tearDown() {
+        breaker.shutdown();
+    }
+
+    @Test
+    void testRepeatedFailuresOpenTheCircuit() {
+        // Arrange
+        when(redis.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act — two failures trip it, the third read does not touch Redis
+        assertNull(cache.get("1"));
+        assertNull(cache.get("1"));
+        assertNull(cache.get("1"));
+
+        // Assert
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+        verify(redis, times(2)).get(any());
+        assertEquals(1.0, meterRegistry.get("cache.redis.circuit.state").gauge().value());
+        assertEquals(1.0, meterRegistry.get("cache.redis.circuit.short-circuited").counter().count());
+    }
+
+    @Test
+    void testOpenCircuitServesFromLocalFallback() {
+        // Arrange
+        when(redis.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+        cache.get("1");
+        cache.get("1");
+
+        // Act — the miss was loaded from the DB and cached locally
+        String loaded = cache.get("1", () -> "from-db");
+        String cached = cache.get("1", () -> "loaded-again");
+
+        // Assert
+        assertEquals("from-db", loaded);
+        assertEquals("from-db", cached);
+        verify(redis, never()).put(any(), any());
+    }
+
+    @Test
+    void testRecoveryClearsCachesThatMissedAnEvictionAndCloses() throws Exception {
+        // Arrange — open the circuit, then evict while Redis is unreachable
+        when(redis.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        cache.get("1");
+        cache.get("1");
+        cache.evict("1");
+
+        // Act — the background probe succeeds
+        long deadline = System.currentTimeMillis() + 5000;
+        while (breaker.state() != RedisCircuitBreaker.State.CLOSED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+        verify(redis).clear();
+        verify(redis, never()).evict(any());
+        assertEquals(1.0, meterRegistry.get("cache.redis.circuit.transitions").tag("to", "CLOSED").counter().count());
+    }
+
+    @Test
+    void testErrorHandlerTurnsCacheErrorsIntoMisses() {
+        // Act + Assert — a broken payload does not count against Redis
+        assertDoesNotThrow(() -> breaker.handleCacheGetError(new SerializationException("bad json"), redis, "1"));
+        assertDoesNotThrow(() -> breaker.handleCacheGetError(new RedisConnectionFailureException("down"), redis, "1"));
+        assertEquals(1.0, meterRegistry.get("cache.redis.failures").counter().count());
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void testRedisRoundTripsAreTimedPerCache() {
+        // Arrange
+        when(redis.getName()).thenReturn("departments");
+        ResilientCacheManager manager = new ResilientCacheManager(redisCacheManager, breaker, 10,
+            Duration.ofMinutes(1), null);
+        manager.bindTo(meterRegistry);
+        Cache bound = manager.getCache("departments");
+
+        // Act
+        bound.get("1");
+        bound.put("1", "dept");
+
+        // Assert
+        assertEquals(1, meterRegistry.get("cache.redis.latency").tags("cache", "departments", "operation", "get")
+            .timer().count());
+        assertEquals(1, meterRegistry.get("cache.redis.latency").tags("cache", "departments", "operation", "put")
+            .timer().count());
+    }
+}
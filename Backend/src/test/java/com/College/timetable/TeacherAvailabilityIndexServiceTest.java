@@ -0,0 +1,128 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.College.timetable.Entity.DayOfWeek;
+import com.College.timetable.Entity.TeacherAvailability;
+import com.College.timetable.Repository.TeacherAvailability_repo;
+import com.College.timetable.Service.TeacherAvailabilityIndexService;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TeacherAvailabilityIndexServiceTest {
+
+    @Mock
+    private TeacherAvailability_repo availabilityRepo;
+
+    private TeacherAvailabilityIndexService availabilityIndex;
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new TeacherAvailabilityIndexService(availabilityRepo);
+        // teacher 1: MONDAY 09:00-11:00 and 10:00-13:00 available, 14:00-15:00 unavailable
+        rows.add(row(1L, DayOfWeek.MONDAY, "09:00", "11:00", true));
+        rows.add(row(1L, DayOfWeek.MONDAY, "10:00", "13:00", true));
+        rows.add(row(1L, DayOfWeek.MONDAY, "14:00", "15:00", false));
+        when(availabilityRepo.findAvailabilityRows()).thenAnswer(inv -> new ArrayList<>(rows));
+    }
+
+    @Test
+    void testSlotMustFitInsideOneAvailableRow() {
+        assertFalse(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("09:00"), time("10:00")));
+        assertFalse(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("10:00"), time("13:00")));
+        assertFalse(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("10:30"), time("11:30")));
+
+        // Before the first row, inside an unavailable row, and after the last row
+        assertTrue(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("08:00"), time("09:00")));
+        assertTrue(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("14:00"), time("15:00")));
+        assertTrue(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("12:30"), time("13:30")));
+
+        // No rows on a day (or for a teacher) means available
+        assertFalse(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.TUESDAY, time("08:00"), time("09:00")));
+        assertFalse(availabilityIndex.isMarkedUnavailable(2L, DayOfWeek.MONDAY, time("08:00"), time("09:00")));
+
+        // Loaded once, then answered from memory
+        verify(availabilityRepo, times(1)).findAvailabilityRows();
+    }
+
+    @Test
+    void testAvailableTeachersFiltersInOneCall() {
+        List<Long> available = availabilityIndex.availableTeachers(
+            List.of(1L, 2L), DayOfWeek.MONDAY, time("14:00"), time("15:00"));
+
+        assertEquals(List.of(2L), available);
+    }
+
+    @Test
+    void testSavedAvailabilityReplacesTeacherIntervals() {
+        // Arrange — load the index first
+        assertTrue(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("14:00"), time("15:00")));
+
+        TeacherAvailability afternoon = new TeacherAvailability();
+        afternoon.setDayOfWeek(DayOfWeek.MONDAY);
+        afternoon.setStartTime(time("13:00"));
+        afternoon.setEndTime(time("17:00"));
+        afternoon.setIsAvailable(true);
+
+        // Act
+        availabilityIndex.onAvailabilitySaved(1L, List.of(afternoon));
+
+        // Assert
+        assertFalse(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("14:00"), time("15:00")));
+        assertTrue(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("09:00"), time("10:00")));
+
+        // Clearing all rows makes the teacher available everywhere again
+        availabilityIndex.onAvailabilitySaved(1L, List.of());
+        assertFalse(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("09:00"), time("10:00")));
+    }
+
+    @Test
+    void testSaveCommittedDuringReloadIsNotLost() throws Exception {
+        // Arrange — load the index, then let a save commit while the reload reads the table
+        assertTrue(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("14:00"), time("15:00")));
+
+        TeacherAvailability afternoon = new TeacherAvailability();
+        afternoon.setDayOfWeek(DayOfWeek.MONDAY);
+        afternoon.setStartTime(time("13:00"));
+        afternoon.setEndTime(time("17:00"));
+        afternoon.setIsAvailable(true);
+        Thread writer = new Thread(() -> availabilityIndex.onAvailabilitySaved(1L, List.of(afternoon)));
+        when(availabilityRepo.findAvailabilityRows()).thenAnswer(inv -> {
+            List<Object[]> snapshot = new ArrayList<>(rows);
+            writer.start();
+            long deadline = System.currentTimeMillis() + 2000;
+            while (writer.getState() != Thread.State.BLOCKED && writer.isAlive()
+                    && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            return snapshot;
+        });
+
+        // Act
+        availabilityIndex.reload();
+        writer.join();
+
+        // Assert
+        assertFalse(availabilityIndex.isMarkedUnavailable(1L, DayOfWeek.MONDAY, time("14:00"), time("15:00")));
+    }
+
+    private static Object[] row(Long teacherId, DayOfWeek day, String start, String end, boolean available) {
+        return new Object[] { teacherId, day, time(start), time(end), available };
+    }
+
+    private static LocalTime time(String value) {
+        return LocalTime.parse(value);
+    }
+}
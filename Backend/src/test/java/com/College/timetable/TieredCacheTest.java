@@ -0,0 +1,198 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.College.timetable.Configuration.CacheInvalidationBus;
+import com.College.timetable.Configuration.CacheLoadPolicy;
+import com.College.timetable.Configuration.StampedValue;
+import com.College.timetable.Configuration.TieredCache;
+import com.College.timetable.Configuration.TieredCacheManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TieredCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private Message message;
+
+    @Test
+    void testSecondReadIsServedFromTheLocalTier() {
+        // Arrange — the value is only in the shared tier
+        ConcurrentMapCache shared = new ConcurrentMapCache("divisionTimetable");
+        shared.put("1_9", List.of("entry"));
+        TieredCache cache = new TieredCache(shared, 10, Duration.ofMinutes(1), null);
+
+        // Act
+        cache.get("1_9");
+        cache.get("1_9");
+        cache.get("2_9");
+
+        // Assert
+        TieredCache.TierStats stats = cache.stats();
+        assertEquals(1, stats.getL1Hits());
+        assertEquals(1, stats.getL2Hits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getL2HitRatio());
+        assertEquals(1, stats.getL1Size());
+    }
+
+    @Test
+    void testLocalTierIsBoundedAndFallsBackToShared() {
+        // Arrange
+        ConcurrentMapCache shared = new ConcurrentMapCache("teacherTimetable");
+        TieredCache cache = new TieredCache(shared, 2, Duration.ofMinutes(1), null);
+
+        // Act
+        cache.put("1_9", "a");
+        cache.put("2_9", "b");
+        cache.put("3_9", "c");
+
+        // Assert — the least recently used key left L1 but Redis still has it
+        assertEquals(2, cache.stats().getL1Size());
+        assertEquals(1, cache.stats().getL1Evictions());
+        assertEquals("a", cache.get("1_9").get());
+        assertEquals(1, cache.stats().getL2Hits());
+    }
+
+    @Test
+    void testInvalidationFromAnotherNodeDropsTheLocalCopy() {
+        // Arrange — this node has "1_9" in L1; another node then changes it in Redis
+        CacheInvalidationBus bus = new CacheInvalidationBus(redisTemplate, "test-channel");
+        ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager("divisionTimetable");
+        TieredCacheManager manager = new TieredCacheManager(redis, Set.of("divisionTimetable"), 10,
+            Duration.ofMinutes(1), bus);
+        Cache cache = manager.getCache("divisionTimetable");
+        cache.put("1_9", "old");
+        verify(redisTemplate).convertAndSend(eq("test-channel"), anyString());
+        redis.getCache("divisionTimetable").put("1_9", "new");
+        when(message.getBody()).thenReturn("other-node\ndivisionTimetable\n1_9".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        bus.onMessage(message, null);
+
+        // Assert
+        assertEquals("new", cache.get("1_9").get());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        // Arrange — the first load blocks until a second request has joined it
+        ConcurrentMapCache shared = new ConcurrentMapCache("departmentTimetable");
+        TieredCache cache = new TieredCache(shared, 10, Duration.ofMinutes(1), null);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "view";
+        };
+
+        // Act
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("4_9", loader));
+        while (loads.get() == 0) Thread.sleep(5);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("4_9", loader));
+        while (cache.stats().getCoalescedLoads() == 0) Thread.sleep(5);
+        release.countDown();
+
+        // Assert
+        assertEquals("view", first.get(5, TimeUnit.SECONDS));
+        assertEquals("view", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getLoads());
+        assertEquals("view", cache.get("4_9").get());
+    }
+
+    @Test
+    void testHitCloseToExpiryIsRefreshedInTheBackground() {
+        // Arrange — one minute left of a ten minute TTL, refresh in the last 20%
+        CacheLoadPolicy policy = new CacheLoadPolicy(Duration.ofMinutes(10), 0, 0.2, Duration.ofSeconds(30));
+        policy.setRefresher((cacheName, key) -> "fresh", Runnable::run);
+        ConcurrentMapCache shared = new ConcurrentMapCache("roomTimetable");
+        shared.put("7_9", new StampedValue("old", System.currentTimeMillis() + 60_000));
+        TieredCache cache = new TieredCache(shared, 10, Duration.ofMinutes(1), null, policy);
+
+        // Act
+        Object served = cache.get("7_9").get();
+
+        // Assert — the request got the current value, the next one gets the reloaded one
+        assertEquals("old", served);
+        assertEquals("fresh", cache.get("7_9").get());
+        StampedValue stored = (StampedValue) shared.get("7_9").get();
+        assertTrue(stored.expiresAt() > System.currentTimeMillis() + Duration.ofMinutes(9).toMillis());
+        assertEquals(1, cache.stats().getEarlyRefreshes());
+    }
+
+    @Test
+    void testWritesExpireWithJitter() {
+        // Arrange
+        CacheLoadPolicy policy = new CacheLoadPolicy(Duration.ofMinutes(10), 0.1, 0.2, Duration.ofSeconds(30));
+        ConcurrentMapCache shared = new ConcurrentMapCache("teacherTimetable");
+        TieredCache cache = new TieredCache(shared, 100, Duration.ofMinutes(1), null, policy);
+        long now = System.currentTimeMillis();
+
+        // Act
+        for (int i = 0; i < 20; i++) cache.put(i + "_9", "view");
+
+        // Assert — every expiry is within ±10% of the TTL, and they are spread out
+        Set<Long> expiries = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            StampedValue stored = (StampedValue) shared.get(i + "_9").get();
+            assertTrue(stored.expiresAt() >= now + Duration.ofMinutes(9).toMillis());
+            assertTrue(stored.expiresAt() <= System.currentTimeMillis() + Duration.ofMinutes(11).toMillis());
+            expiries.add(stored.expiresAt());
+        }
+        assertTrue(expiries.size() > 1);
+        assertEquals("view", cache.get("3_9").get());
+    }
+
+    @Test
+    void testMetersAreTaggedByCacheName() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager("divisionTimetable");
+        TieredCacheManager manager = new TieredCacheManager(redis, Set.of("divisionTimetable"), 10,
+            Duration.ofMinutes(1), null);
+        manager.bindTo(registry);
+        Cache cache = manager.getCache("divisionTimetable");
+
+        // Act — a miss that loads, then a local hit
+        cache.get("1_9", () -> "view");
+        cache.get("1_9");
+
+        // Assert
+        assertEquals(1.0, registry.get("cache.lookups").tags("cache", "divisionTimetable", "result", "miss")
+            .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.lookups").tags("cache", "divisionTimetable", "result", "near-hit")
+            .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.writes").tag("cache", "divisionTimetable").functionCounter().count());
+        assertEquals(1, registry.get("cache.load").tags("cache", "divisionTimetable", "result", "success")
+            .timer().count());
+        assertEquals(1.0, registry.get("cache.near.size").tag("cache", "divisionTimetable").gauge().value());
+    }
+}
@@ -0,0 +1,210 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.IO.BulkExportRequest;
+import com.College.timetable.Repository.Division_repo;
+import com.College.timetable.Repository.Teacher_Repo;
+import com.College.timetable.Repository.TimetableEntry_repo;
+import com.College.timetable.Service.OccupancyIndexService;
+import com.College.timetable.Service.ReferenceDataRegistry;
+import com.College.timetable.Service.TimetableBulkExportService;
+import com.College.timetable.Service.TimetableExportCache;
+import com.College.timetable.Service.TimetableExportService;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableBulkExportServiceTest {
+
+    private static final Long YEAR = 9L;
+
+    @Mock
+    private TimetableExportService exportService;
+
+    @Mock
+    private TimetableExportCache exportCache;
+
+    @Mock
+    private TimetableEntry_repo timetableEntryRepo;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    @Mock
+    private Division_repo divisionRepo;
+
+    @Mock
+    private Teacher_Repo teacherRepo;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    @TempDir
+    Path store;
+
+    private TimetableBulkExportService bulkExport;
+
+    @BeforeEach
+    void setUp() {
+        bulkExport = new TimetableBulkExportService(exportService, exportCache,
+            new OccupancyIndexService(timetableEntryRepo, txManager), divisionRepo, teacherRepo, referenceData,
+            store.toString(), 2, 24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkExport.shutdown();
+    }
+
+    @Test
+    void testZipHoldsEveryPublishedDocumentOfTheSemester() throws Exception {
+        // Arrange
+        publishedYear();
+        doAnswer(writes("teacher")).when(exportService).writeTeacherPDF(anyLong(), anyLong(), any());
+
+        // Act
+        TimetableBulkExportService.Job job = bulkExport.start(request());
+        job.completion().join();
+
+        // Assert
+        TimetableBulkExportService.BulkExportProgress progress = bulkExport.progress(job.id()).orElseThrow();
+        assertEquals("DONE", progress.getState());
+        assertEquals(5, progress.getTotal());
+        assertEquals(5, progress.getCompleted());
+        assertEquals(100, progress.getPercent());
+        assertEquals("/api/timetable/export/bulk/" + job.id() + "/download", progress.getDownloadUrl());
+
+        try (ZipFile zip = new ZipFile(bulkExport.zip(job.id()).orElseThrow().toFile())) {
+            List<String> names = Collections.list(zip.entries()).stream().map(ZipEntry::getName).sorted().toList();
+            assertEquals(List.of("divisions/2-A_30.pdf", "divisions/2-B_31.pdf", "rooms/H_204_20.pdf",
+                "teachers/Asha_Rao_10.pdf", "teachers/Ravi_Kumar_11.pdf"), names);
+            assertEquals("division-30", read(zip, "divisions/2-A_30.pdf"));
+        }
+        verify(exportService, never()).writeDivisionPDF(eq(32L), anyLong(), any(), any());
+        verify(exportService, never()).writeDivisionPDF(eq(33L), anyLong(), any(), any());
+    }
+
+    @Test
+    void testFailedDocumentIsReportedAndTheRestStillZipped() throws Exception {
+        // Arrange
+        publishedYear();
+        doAnswer(inv -> {
+            if (inv.<Long>getArgument(0) == 11L) throw new IllegalStateException("no time slots");
+            inv.<OutputStream>getArgument(2).write("teacher".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).writeTeacherPDF(anyLong(), anyLong(), any());
+
+        // Act
+        TimetableBulkExportService.Job job = bulkExport.start(request());
+        job.completion().join();
+
+        // Assert
+        TimetableBulkExportService.BulkExportProgress progress = job.progress();
+        assertEquals("DONE", progress.getState());
+        assertEquals(4, progress.getCompleted());
+        assertEquals(1, progress.getFailed());
+        assertEquals(List.of("teachers/Ravi_Kumar_11.pdf: no time slots"), progress.getErrors());
+
+        try (ZipFile zip = new ZipFile(bulkExport.zip(job.id()).orElseThrow().toFile())) {
+            assertNull(zip.getEntry("teachers/Ravi_Kumar_11.pdf"));
+            assertNotNull(zip.getEntry("teachers/Asha_Rao_10.pdf"));
+            assertEquals("teachers/Ravi_Kumar_11.pdf: no time slots\n", read(zip, "errors.txt"));
+        }
+    }
+
+    @Test
+    void testJobIdsThatAreNotUuidsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> bulkExport.zip("../../etc/passwd"));
+        assertTrue(bulkExport.progress("6f1c2b7e-5d1a-4c3e-9a4b-2f6d8e9a0b1c").isEmpty());
+    }
+
+    // Published SEM_3 entries of divisions 30 and 31; a draft and another semester that stay out
+    private void publishedYear() throws Exception {
+        List<Object[]> rows = List.of(
+            row(1L, 10L, 20L, 30L, TimetableStatus.PUBLISHED, Semester.SEM_3),
+            row(2L, 11L, 20L, 31L, TimetableStatus.PUBLISHED, Semester.SEM_3),
+            row(3L, 12L, 21L, 32L, TimetableStatus.DRAFT, Semester.SEM_3),
+            row(4L, 13L, 22L, 33L, TimetableStatus.PUBLISHED, Semester.SEM_4));
+        when(timetableEntryRepo.findOccupancyRowsByAcademicYear(YEAR)).thenReturn(new ArrayList<>(rows));
+        when(divisionRepo.findByAcademicYearId(YEAR)).thenReturn(List.of(
+            division(30L, "A"), division(31L, "B"), division(32L, "C"), division(33L, "D")));
+        when(teacherRepo.findAllById(any())).thenReturn(List.of(teacher(10L, "Asha Rao"), teacher(11L, "Ravi Kumar")));
+        ClassRoom room = new ClassRoom();
+        room.setId(20L);
+        room.setRoomNumber("H 204");
+        when(referenceData.room(20L)).thenReturn(Optional.of(room));
+
+        when(exportCache.etag(anyString(), anyLong(), anyLong(), any(), anyString())).thenReturn("\"etag\"");
+        doAnswer(inv -> {
+            inv.<TimetableExportCache.DocumentWriter>getArgument(2).write(inv.getArgument(1));
+            return null;
+        }).when(exportCache).writeTo(anyString(), any(), any());
+        doAnswer(writes("division")).when(exportService).writeDivisionPDF(anyLong(), anyLong(), any(), any());
+        doAnswer(writes("room")).when(exportService).writeRoomPDF(anyLong(), anyLong(), any(), any());
+    }
+
+    private static BulkExportRequest request() {
+        BulkExportRequest request = new BulkExportRequest();
+        request.setAcademicYearId(YEAR);
+        request.setSemester(Semester.SEM_3);
+        request.setScopes(Set.of(BulkExportRequest.Scope.DIVISION, BulkExportRequest.Scope.TEACHER,
+            BulkExportRequest.Scope.ROOM));
+        return request;
+    }
+
+    // Writes "<prefix>-<id>" to the OutputStream argument, whichever position it is in
+    private static Answer<Void> writes(String prefix) {
+        return inv -> {
+            Object[] args = inv.getArguments();
+            ((OutputStream) args[args.length - 1]).write((prefix + "-" + args[0]).getBytes(StandardCharsets.UTF_8));
+            return null;
+        };
+    }
+
+    private static String read(ZipFile zip, String name) throws Exception {
+        return new String(zip.getInputStream(zip.getEntry(name)).readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static Object[] row(Long id, Long teacherId, Long roomId, Long divisionId, TimetableStatus status,
+                                Semester semester) {
+        return new Object[] { id, teacherId, roomId, divisionId, null, DayOfWeek.MONDAY, id, status, semester, 60 };
+    }
+
+    private static Division division(Long id, String name) {
+        Division division = new Division();
+        division.setId(id);
+        division.setName(name);
+        division.setYear(2);
+        return division;
+    }
+
+    private static TeacherEntity teacher(Long id, String name) {
+        TeacherEntity teacher = new TeacherEntity();
+        teacher.setId(id);
+        teacher.setName(name);
+        return teacher;
+    }
+}
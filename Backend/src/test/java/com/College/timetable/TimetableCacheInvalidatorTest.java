@@ -0,0 +1,136 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.Repository.Division_repo;
+import com.College.timetable.Service.OccupancyIndexService;
+import com.College.timetable.Service.TimetableCacheInvalidator;
+import com.College.timetable.Service.TimetableVersionService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableCacheInvalidatorTest {
+
+    @Mock
+    private Division_repo divisionRepo;
+
+    @Mock
+    private OccupancyIndexService occupancyIndex;
+
+    @Mock
+    private TimetableVersionService timetableVersions;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private TimetableCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(TimetableCacheInvalidator.CACHE_NAMES.toArray(String[]::new));
+        invalidator = new TimetableCacheInvalidator(cacheManager, divisionRepo, occupancyIndex, timetableVersions);
+    }
+
+    @Test
+    void testUpdateEvictsOldAndNewTeacherOnly() {
+        // Arrange — year 9: division 1 (department 4), teacher 2 moves to teacher 3, room 5
+        TimetableEntry entry = entry(1L, 4L, 2L, 5L, 9L);
+        Cache teachers = cacheManager.getCache(TimetableCacheInvalidator.TEACHER);
+        Cache divisions = cacheManager.getCache(TimetableCacheInvalidator.DIVISION);
+        teachers.put("2_9", List.of());
+        teachers.put("3_9", List.of());
+        teachers.put("7_9", List.of());
+        teachers.put("2_8", List.of());
+        divisions.put("1_9", List.of());
+        divisions.put("6_9", List.of());
+
+        // Act — outside a transaction the eviction runs immediately
+        TimetableCacheInvalidator.Scope scope = invalidator.scope().entry(entry);
+        TeacherEntity newTeacher = new TeacherEntity();
+        newTeacher.setId(3L);
+        entry.setTeacher(newTeacher);
+        scope.entry(entry).evictAfterCommit();
+
+        // Assert — other teachers, other divisions and other years stay cached
+        assertNull(teachers.get("2_9"));
+        assertNull(teachers.get("3_9"));
+        assertNotNull(teachers.get("7_9"));
+        assertNotNull(teachers.get("2_8"));
+        assertNull(divisions.get("1_9"));
+        assertNotNull(divisions.get("6_9"));
+
+        TimetableCacheInvalidator.EvictionStats stats = invalidator.stats();
+        assertEquals(1, stats.getInvalidations());
+        assertEquals(2, stats.getEvictedKeys().get(TimetableCacheInvalidator.TEACHER));
+        assertEquals(1, stats.getEvictedKeys().get(TimetableCacheInvalidator.DEPARTMENT));
+        assertEquals(1, stats.getEvictedKeys().get(TimetableCacheInvalidator.ROOM));
+        assertEquals(8, stats.getTotalEvictedKeys());
+        verify(timetableVersions).bump(argThat(keys -> keys.get(TimetableCacheInvalidator.TEACHER).contains("3_9")));
+    }
+
+    @Test
+    void testEmptyScopeEvictsNothing() {
+        // Act
+        invalidator.scope().evictAfterCommit();
+
+        // Assert
+        assertEquals(0, invalidator.stats().getInvalidations());
+        assertEquals(0, invalidator.stats().getTotalEvictedKeys());
+        verifyNoInteractions(timetableVersions);
+    }
+
+    @Test
+    void testEvictAllAfterCommitWaitsForTheCommitThenClearsAndBumps() {
+        // Arrange — a course rename inside a transaction
+        Cache divisions = cacheManager.getCache(TimetableCacheInvalidator.DIVISION);
+        divisions.put("1_9", List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            invalidator.evictAllAfterCommit();
+
+            // Assert — nothing happens before the commit
+            assertNotNull(divisions.get("1_9"));
+            verifyNoInteractions(timetableVersions);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert — the views are dropped and every ETag version moves on
+        assertNull(divisions.get("1_9"));
+        verify(timetableVersions).bumpAll();
+    }
+
+    private static TimetableEntry entry(Long divisionId, Long departmentId, Long teacherId, Long roomId, Long yearId) {
+        DepartmentEntity department = new DepartmentEntity();
+        department.setId(departmentId);
+        Division division = new Division();
+        division.setId(divisionId);
+        division.setDepartment(department);
+        TeacherEntity teacher = new TeacherEntity();
+        teacher.setId(teacherId);
+        ClassRoom room = new ClassRoom();
+        room.setId(roomId);
+        AcademicYear year = new AcademicYear();
+        year.setId(yearId);
+
+        TimetableEntry entry = new TimetableEntry();
+        entry.setDivision(division);
+        entry.setTeacher(teacher);
+        entry.setRoom(room);
+        entry.setAcademicYear(year);
+        return entry;
+    }
+}
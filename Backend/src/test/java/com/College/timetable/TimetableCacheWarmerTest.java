@@ -0,0 +1,102 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.College.timetable.Configuration.TieredCacheManager;
+import com.College.timetable.Repository.Division_repo;
+import com.College.timetable.Service.OccupancyIndexService;
+import com.College.timetable.Service.ReferenceDataRegistry;
+import com.College.timetable.Service.TimetableCacheInvalidator;
+import com.College.timetable.Service.TimetableCacheWarmer;
+import com.College.timetable.Service.TimetableViewService;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableCacheWarmerTest {
+
+    @Mock
+    private TimetableViewService timetableViews;
+
+    @Mock
+    private OccupancyIndexService occupancyIndex;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    @Mock
+    private Division_repo divisionRepo;
+
+    @Mock
+    private TieredCacheManager cacheManager;
+
+    private TimetableCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        warmer = new TimetableCacheWarmer(timetableViews, occupancyIndex, referenceData, divisionRepo, cacheManager,
+            true, false, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        warmer.shutdown();
+    }
+
+    @Test
+    void testWarmLoadsPublishedViewsOnly() {
+        // Arrange — keys a publish of division 1 (department 4) in year 9 evicted
+        Map<String, Set<String>> keys = Map.of(
+            TimetableCacheInvalidator.DIVISION, Set.of("1_9"),
+            TimetableCacheInvalidator.DIVISION_ALL, Set.of("1_9"),
+            TimetableCacheInvalidator.DEPARTMENT, Set.of("4_9"),
+            TimetableCacheInvalidator.TEACHER, Set.of("2_9", "3_9"),
+            TimetableCacheInvalidator.ROOM, Set.of("5_9"));
+
+        // Act
+        warmer.warm("PUBLISH", keys).join();
+
+        // Assert — the admin-only *_ALL view is not warmed
+        verify(timetableViews).division(1L, 9L);
+        verify(timetableViews).department(4L, 9L);
+        verify(timetableViews).teacher(2L, 9L);
+        verify(timetableViews).teacher(3L, 9L);
+        verify(timetableViews).room(5L, 9L);
+        verify(timetableViews, never()).divisionAll(anyLong(), anyLong());
+
+        TimetableCacheWarmer.RunProgress run = warmer.progress().getRuns().get(0);
+        assertEquals("PUBLISH", run.getTrigger());
+        assertEquals("DONE", run.getState());
+        assertEquals(5, run.getTotal());
+        assertEquals(5, run.getCompleted());
+        assertEquals(100, run.getPercent());
+    }
+
+    @Test
+    void testFailedKeyIsCountedAndOthersStillWarm() {
+        // Arrange
+        when(timetableViews.room(5L, 9L)).thenThrow(new RuntimeException("DB down"));
+
+        // Act
+        warmer.warm("PUBLISH", Map.of(
+            TimetableCacheInvalidator.DIVISION, Set.of("1_9"),
+            TimetableCacheInvalidator.ROOM, Set.of("5_9"))).join();
+
+        // Assert
+        verify(timetableViews).division(1L, 9L);
+        TimetableCacheWarmer.WarmupProgress progress = warmer.progress();
+        assertEquals(1, progress.getWarmedKeys());
+        assertEquals(1, progress.getFailedKeys());
+        assertEquals(1, progress.getRuns().get(0).getFailed());
+    }
+}
@@ -0,0 +1,138 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.IO.TimetableView;
+import com.College.timetable.Repository.*;
+import com.College.timetable.Service.ReferenceDataRegistry;
+import com.College.timetable.Service.TimetableExportCache;
+import com.College.timetable.Service.TimetableViewService;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableExportCacheTest {
+
+    @Mock
+    private TimetableViewService timetableViews;
+
+    @Mock
+    private Division_repo divisionRepo;
+
+    @Mock
+    private Teacher_Repo teacherRepo;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    private TimetableExportCache exportCache;
+
+    @BeforeEach
+    void setUp() {
+        exportCache = new TimetableExportCache(new ConcurrentMapCacheManager(TimetableExportCache.CACHE), timetableViews,
+            divisionRepo, teacherRepo, referenceData, 1);
+    }
+
+    @Test
+    void testVersionChangesWithEntriesAndTimeSlots() {
+        // Arrange
+        TimeSlot slot = new TimeSlot();
+        slot.setId(4L);
+        slot.setSlotName("P1");
+        when(referenceData.allSlots()).thenReturn(List.of(slot));
+        when(timetableViews.division(1L, 9L)).thenReturn(view("Maths"));
+        String original = exportCache.version(TimetableExportCache.DIVISION, 1L, 9L);
+
+        // Act
+        String unchanged = exportCache.version(TimetableExportCache.DIVISION, 1L, 9L);
+        when(timetableViews.division(1L, 9L)).thenReturn(view("Physics"));
+        String entryChanged = exportCache.version(TimetableExportCache.DIVISION, 1L, 9L);
+        slot.setSlotName("Period 1");
+        String slotChanged = exportCache.version(TimetableExportCache.DIVISION, 1L, 9L);
+
+        // Assert
+        assertEquals(original, unchanged);
+        assertNotEquals(original, entryChanged);
+        assertNotEquals(entryChanged, slotChanged);
+    }
+
+    @Test
+    void testDocumentIsGeneratedOncePerVersion() throws Exception {
+        // Arrange
+        AtomicInteger generated = new AtomicInteger();
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        // Act
+        exportCache.writeTo("\"division-1-9-SEM_1-pdf-abc\"", first, out -> {
+            generated.incrementAndGet();
+            out.write(new byte[] { 1, 2, 3 });
+        });
+        exportCache.writeTo("\"division-1-9-SEM_1-pdf-abc\"", second, out -> {
+            generated.incrementAndGet();
+            out.write(9);
+        });
+
+        // Assert
+        assertEquals(1, generated.get());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, second.toByteArray());
+        assertArrayEquals(first.toByteArray(), second.toByteArray());
+    }
+
+    @Test
+    void testDocumentOverTheLimitIsStreamedButNotCached() throws Exception {
+        // Arrange — the limit is 1 KB
+        AtomicInteger generated = new AtomicInteger();
+        byte[] large = new byte[1500];
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            response.reset();
+            exportCache.writeTo("\"department-2-9-SEM_1-pdf-abc\"", response, out -> {
+                generated.incrementAndGet();
+                out.write(large, 0, 1000);
+                out.write(large, 1000, 500);
+            });
+        }
+
+        // Assert
+        assertEquals(2, generated.get());
+        assertEquals(1500, response.size());
+    }
+
+    @Test
+    void testIfNoneMatch() {
+        // Arrange
+        String etag = "\"room-5-9-SEM_1-excel-0123456789abcdef\"";
+
+        // Act + Assert — exact, listed, weak and wildcard validators match
+        assertTrue(TimetableExportCache.matches(etag, etag));
+        assertTrue(TimetableExportCache.matches("\"other\", W/" + etag, etag));
+        assertTrue(TimetableExportCache.matches("*", etag));
+        assertFalse(TimetableExportCache.matches("\"room-5-9-SEM_1-excel-fedcba9876543210\"", etag));
+        assertFalse(TimetableExportCache.matches(null, etag));
+    }
+
+    private static TimetableView view(String courseName) {
+        CourseEntity course = new CourseEntity();
+        course.setId(2L);
+        course.setName(courseName);
+        TimetableEntry entry = new TimetableEntry();
+        entry.setId(3L);
+        entry.setCourse(course);
+        entry.setDayOfWeek(DayOfWeek.MONDAY);
+        return TimetableView.of(9L, List.of(entry));
+    }
+}
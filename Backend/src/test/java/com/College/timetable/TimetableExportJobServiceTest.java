@@ -0,0 +1,176 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.College.timetable.Service.TimetableExportCache;
+import com.College.timetable.Service.TimetableExportJobService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableExportJobServiceTest {
+
+    @Mock
+    private TimetableExportCache exportCache;
+
+    @TempDir
+    Path store;
+
+    private TimetableExportJobService exportJobs;
+
+    @AfterEach
+    void tearDown() {
+        exportJobs.shutdown();
+    }
+
+    @Test
+    void testInlineRendersShareTheRenderSlots() {
+        // Arrange
+        exportJobs = new TimetableExportJobService(exportCache, store.toString(), 2, 5, 60);
+
+        // Act + Assert
+        assertTrue(exportJobs.tryRenderInline());
+        assertTrue(exportJobs.tryRenderInline());
+        assertFalse(exportJobs.tryRenderInline());
+        exportJobs.releaseInline();
+        assertTrue(exportJobs.tryRenderInline());
+    }
+
+    @Test
+    void testInlineBodyThatNeverRunsHoldsNoSlot() throws Exception {
+        // Arrange — one render slot; downloads decide on inline bodies that are then never run
+        // (client gone before the async dispatch, async timeout)
+        exportJobs = new TimetableExportJobService(exportCache, store.toString(), 1, 5, 60);
+        rendersThroughTheCache();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertTrue(exportJobs.canRenderInline());
+        }
+
+        // Assert — the slot is still free, and a body that does run gives it back
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportJobs.renderInline("\"etag\"", "a.pdf", "application/pdf", o -> o.write(1), out);
+        assertArrayEquals(new byte[] { 1 }, out.toByteArray());
+        assertThrows(java.io.IOException.class, () -> exportJobs.renderInline("\"etag\"", "b.pdf",
+            "application/pdf", o -> { throw new IllegalStateException("no time slots"); }, new ByteArrayOutputStream()));
+        assertTrue(exportJobs.tryRenderInline());
+    }
+
+    @Test
+    void testInlineBodyFallsBackToAJobWhenTheSlotWasTaken() throws Exception {
+        // Arrange — the slot was free when the response was built, but is busy when the body runs
+        exportJobs = new TimetableExportJobService(exportCache, store.toString(), 1, 5, 60);
+        rendersThroughTheCache();
+        assertTrue(exportJobs.canRenderInline());
+        assertTrue(exportJobs.tryRenderInline());
+
+        // Act — the body waits for its job, which renders once the other download is done
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Thread download = new Thread(() -> {
+            try {
+                exportJobs.renderInline("\"etag\"", "a.pdf", "application/pdf", o -> o.write(7), out);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        download.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (download.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        exportJobs.releaseInline();
+        download.join(10_000);
+
+        // Assert
+        assertFalse(download.isAlive());
+        assertArrayEquals(new byte[] { 7 }, out.toByteArray());
+    }
+
+    @Test
+    void testQueuedJobRendersIntoTheStore() throws Exception {
+        // Arrange
+        exportJobs = new TimetableExportJobService(exportCache, store.toString(), 1, 5, 60);
+        rendersThroughTheCache();
+
+        // Act
+        TimetableExportJobService.Job job = exportJobs.submit("\"etag\"", "timetable_room_3_SEM_1.pdf",
+            "application/pdf", out -> out.write("room-3".getBytes(StandardCharsets.UTF_8)));
+        job.completion().join();
+
+        // Assert
+        TimetableExportJobService.ExportJobProgress progress = exportJobs.job(job.id()).orElseThrow().progress();
+        assertEquals("DONE", progress.getState());
+        assertEquals(6, progress.getSizeBytes());
+        assertEquals("/api/timetable/export/jobs/" + job.id() + "/download", progress.getDownloadUrl());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportJobs.copy(job, out);
+        assertEquals("room-3", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testJobsWaitForTheSlotsAndAFullQueueIsRejected() throws Exception {
+        // Arrange — one render slot, held by an inline download; room for one waiting job
+        exportJobs = new TimetableExportJobService(exportCache, store.toString(), 1, 1, 60);
+        rendersThroughTheCache();
+        assertTrue(exportJobs.tryRenderInline());
+
+        // Act — the first job takes the worker and waits for the slot, the second waits in the queue
+        CountDownLatch firstMayFinish = new CountDownLatch(1);
+        TimetableExportJobService.Job first = exportJobs.submit("\"a\"", "a.pdf", "application/pdf", out -> {
+            firstMayFinish.await();
+            out.write(1);
+        });
+        TimetableExportJobService.Job second = exportJobs.submit("\"b\"", "b.pdf", "application/pdf", out -> out.write(2));
+
+        // Assert
+        assertThrows(RejectedExecutionException.class,
+            () -> exportJobs.submit("\"c\"", "c.pdf", "application/pdf", out -> out.write(3)));
+        assertFalse(first.isDone());
+        exportJobs.releaseInline();
+        assertFalse(exportJobs.tryRenderInline(), "inline downloads must not overtake waiting jobs");
+        firstMayFinish.countDown();
+        second.completion().join();
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    void testFailedRenderIsReported() throws Exception {
+        // Arrange
+        exportJobs = new TimetableExportJobService(exportCache, store.toString(), 1, 5, 60);
+        rendersThroughTheCache();
+
+        // Act
+        TimetableExportJobService.Job job = exportJobs.submit("\"etag\"", "a.pdf", "application/pdf", out -> {
+            throw new IllegalStateException("no time slots");
+        });
+        job.completion().join();
+
+        // Assert
+        TimetableExportJobService.ExportJobProgress progress = job.progress();
+        assertEquals("FAILED", progress.getState());
+        assertEquals("no time slots", progress.getError());
+        assertNull(progress.getDownloadUrl());
+    }
+
+    private void rendersThroughTheCache() throws Exception {
+        doAnswer(inv -> {
+            inv.<TimetableExportCache.DocumentWriter>getArgument(2).write(inv.getArgument(1));
+            return null;
+        }).when(exportCache).writeTo(anyString(), any(), any());
+    }
+}
@@ -0,0 +1,190 @@
+package com.College.timetable;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.Service.ExcelStyles;
+import com.College.timetable.Service.ExportPalette;
+import com.College.timetable.Service.TimetableGrid;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimetableGridTest {
+
+    // P1, P2, P3, Lunch, P4
+    private final List<TimeSlot> slots = List.of(slot(1, false), slot(2, false), slot(3, false), slot(4, true),
+        slot(5, false));
+
+    private final CourseEntity lab = course(10, CourseType.LAB);
+    private final CourseEntity theory = course(20, CourseType.THEORY);
+    private final TeacherEntity teacher = teacher(1);
+    private final ClassRoom room = room(1);
+
+    @Test
+    void testBreaksAndPeriodNumbers() {
+        // Act
+        TimetableGrid grid = TimetableGrid.of(slots, List.of());
+
+        // Assert
+        assertEquals(5, grid.columns());
+        assertEquals(4, grid.teachingSlots().size());
+        assertTrue(grid.isBreak(3));
+        assertEquals(3, grid.period(2));
+        assertEquals(0, grid.period(3));
+        assertEquals(4, grid.period(4));
+        assertEquals(0, grid.span(0, 3));
+    }
+
+    @Test
+    void testBatchesSharingASlotAreSortedByName() {
+        // Arrange
+        TimetableEntry b2 = entry(DayOfWeek.MONDAY, 1, lab, batch(2, "B2"));
+        TimetableEntry b1 = entry(DayOfWeek.MONDAY, 1, lab, batch(1, "B1"));
+
+        // Act
+        TimetableGrid grid = TimetableGrid.of(slots, List.of(b2, b1));
+
+        // Assert
+        assertEquals(List.of(b1, b2), grid.entries(0, 0));
+        assertTrue(grid.entries(0, 1).isEmpty());
+    }
+
+    @Test
+    void testConsecutiveSlotsOfOneLabSessionAreMerged() {
+        // Arrange — a three-slot lab on Tuesday, a lab either side of lunch on Wednesday
+        Batch b1 = batch(1, "B1");
+        List<TimetableEntry> entries = new ArrayList<>();
+        for (int slotId = 1; slotId <= 3; slotId++) entries.add(entry(DayOfWeek.TUESDAY, slotId, lab, b1));
+        entries.add(entry(DayOfWeek.WEDNESDAY, 3, lab, b1));
+        entries.add(entry(DayOfWeek.WEDNESDAY, 5, lab, b1));
+
+        // Act
+        TimetableGrid grid = TimetableGrid.of(slots, entries);
+
+        // Assert
+        assertEquals(3, grid.span(1, 0));
+        assertEquals(0, grid.span(1, 1));
+        assertEquals(0, grid.span(1, 2));
+        assertEquals(1, grid.span(2, 2));
+        assertEquals(1, grid.span(2, 4));
+    }
+
+    @Test
+    void testDifferentBatchesAndTheoryAreNotMerged() {
+        // Arrange
+        List<TimetableEntry> entries = List.of(
+            entry(DayOfWeek.MONDAY, 1, lab, batch(1, "B1")),
+            entry(DayOfWeek.MONDAY, 2, lab, batch(2, "B2")),
+            entry(DayOfWeek.FRIDAY, 1, theory, null),
+            entry(DayOfWeek.FRIDAY, 2, theory, null));
+
+        // Act
+        TimetableGrid grid = TimetableGrid.of(slots, entries);
+
+        // Assert
+        assertEquals(1, grid.span(0, 0));
+        assertEquals(1, grid.span(0, 1));
+        assertEquals(1, grid.span(4, 0));
+        assertEquals(1, grid.span(4, 1));
+    }
+
+    @Test
+    void testEntriesInUnlistedSlotsAreLeftOut() {
+        // Arrange — a slot that is no longer active
+        List<TimetableEntry> entries = List.of(entry(DayOfWeek.MONDAY, 99, theory, null));
+
+        // Act
+        TimetableGrid grid = TimetableGrid.of(slots, entries);
+
+        // Assert
+        for (int d = 0; d < grid.days(); d++) {
+            for (int c = 0; c < grid.columns(); c++) assertTrue(grid.entries(d, c).isEmpty());
+        }
+    }
+
+    @Test
+    void testColumnWidthsShareWhatTheBreaksLeave() {
+        // Act
+        float[] widths = TimetableGrid.of(slots, List.of()).columnWidths(4f, 2f);
+
+        // Assert — (100 - 4 - 2) / 4 teaching columns
+        assertArrayEquals(new float[]{4f, 23.5f, 23.5f, 23.5f, 2f, 23.5f}, widths, 0.001f);
+    }
+
+    @Test
+    void testEachStyleIsCreatedOncePerWorkbook() throws Exception {
+        // Arrange
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            int before = wb.getNumCellStyles();
+            ExcelStyles styles = new ExcelStyles(wb);
+
+            // Act
+            for (int i = 0; i < 100; i++) {
+                styles.get(ExportPalette.Excel.CELL);
+                styles.get(ExportPalette.Excel.GRID_HEADER);
+            }
+
+            // Assert
+            assertSame(styles.get(ExportPalette.Excel.CELL), styles.get(ExportPalette.Excel.CELL));
+            assertEquals(2, styles.size());
+            assertEquals(before + 2, wb.getNumCellStyles());
+        }
+    }
+
+    private static TimeSlot slot(long id, boolean isBreak) {
+        TimeSlot slot = new TimeSlot();
+        slot.setId(id);
+        slot.setSlotName(isBreak ? "Lunch" : "P" + id);
+        slot.setStartTime(LocalTime.of(8 + (int) id, 0));
+        slot.setEndTime(LocalTime.of(9 + (int) id, 0));
+        slot.setIsBreak(isBreak);
+        return slot;
+    }
+
+    private TimetableEntry entry(DayOfWeek day, long slotId, CourseEntity course, Batch batch) {
+        TimeSlot slot = new TimeSlot();
+        slot.setId(slotId);
+        TimetableEntry entry = new TimetableEntry();
+        entry.setDayOfWeek(day);
+        entry.setTimeSlot(slot);
+        entry.setCourse(course);
+        entry.setTeacher(teacher);
+        entry.setRoom(room);
+        entry.setBatch(batch);
+        return entry;
+    }
+
+    private static CourseEntity course(long id, CourseType type) {
+        CourseEntity course = new CourseEntity();
+        course.setId(id);
+        course.setName("Course " + id);
+        course.setCourseType(type);
+        return course;
+    }
+
+    private static TeacherEntity teacher(long id) {
+        TeacherEntity teacher = new TeacherEntity();
+        teacher.setId(id);
+        teacher.setName("Asha Rao");
+        return teacher;
+    }
+
+    private static ClassRoom room(long id) {
+        ClassRoom room = new ClassRoom();
+        room.setId(id);
+        room.setRoomNumber("H204");
+        return room;
+    }
+
+    private static Batch batch(long id, String name) {
+        Batch batch = new Batch();
+        batch.setId(id);
+        batch.setName(name);
+        return batch;
+    }
+}
@@ -0,0 +1,80 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.College.timetable.Entity.DayOfWeek;
+import com.College.timetable.Service.TimetableOptimizer;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimetableOptimizerTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testRemovesGapsAndRepeatsWithoutBreakingHardRules() {
+        // Arrange — one teacher, four lectures of one course on MONDAY at slots 0, 2, 4, 5
+        TimetableOptimizer.Problem problem = new TimetableOptimizer.Problem(6, TimetableOptimizer.Weights.defaults());
+        int[] slots = new int[6];
+        for (int i = 0; i < slots.length; i++) slots[i] = problem.addSlot(60);
+        int teacher = problem.addTeacher(30);
+        int room = problem.addRoom();
+        int division = problem.addDivision();
+        int course = problem.addGroup();
+        for (int slot : new int[] { 0, 2, 4, 5 }) {
+            problem.addUnit(teacher, room, division, course, slots, DayOfWeek.MONDAY, slot);
+        }
+        // The room is taken on TUESDAY slot 0 and the teacher is away all of WEDNESDAY
+        problem.addFixed(-1, room, -1, DayOfWeek.TUESDAY, 0);
+        for (int slot : slots) problem.blockTeacher(teacher, DayOfWeek.WEDNESDAY, slot);
+
+        // Act
+        TimetableOptimizer.Result result = TimetableOptimizer.optimize(problem, pool, 1_000, 11);
+
+        // Assert
+        assertTrue(result.getInitialScore().total() > 0);
+        assertEquals(0, result.getScore().total());
+        Set<DayOfWeek> days = new HashSet<>();
+        for (int u = 0; u < problem.unitCount(); u++) {
+            assertTrue(days.add(result.day(u)), "course repeated on " + result.day(u));
+            assertNotEquals(DayOfWeek.WEDNESDAY, result.day(u));
+            assertFalse(result.day(u) == DayOfWeek.TUESDAY && result.slot(u) == 0, "room double-booked");
+        }
+        assertTrue(result.getMovesEvaluated() > 0);
+    }
+
+    @Test
+    void testKeepsAssignmentWhenNothingCanImprove() {
+        // Arrange — a single lecture has no gaps or repeats
+        TimetableOptimizer.Problem problem = new TimetableOptimizer.Problem(6, TimetableOptimizer.Weights.defaults());
+        int slot = problem.addSlot(60);
+        int teacher = problem.addTeacher(30);
+        int room = problem.addRoom();
+        int division = problem.addDivision();
+        int unit = problem.addUnit(teacher, room, division, problem.addGroup(), new int[] { slot }, DayOfWeek.FRIDAY, slot);
+
+        // Act
+        TimetableOptimizer.Result result = TimetableOptimizer.optimize(problem, pool, 100, 3);
+
+        // Assert
+        assertEquals(0, result.getScore().total());
+        assertEquals(DayOfWeek.FRIDAY, result.day(unit));
+        assertEquals(slot, result.slot(unit));
+    }
+}
@@ -0,0 +1,226 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.Repository.*;
+import com.College.timetable.Service.OccupancyIndexService;
+import com.College.timetable.Service.ReferenceDataRegistry;
+import com.College.timetable.Service.TeacherAvailabilityIndexService;
+import com.College.timetable.Service.TimetableCacheInvalidator;
+import com.College.timetable.Service.TimetableService;
+import com.College.timetable.Service.TimetableVersionService;
+
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableServiceCopyDraftTest {
+
+    private static final Long SOURCE = 1L;
+    private static final Long TARGET = 2L;
+    private static final Long YEAR = 6L;
+
+    @Mock
+    private TimetableEntry_repo timetableRepo;
+
+    @Mock
+    private Teacher_Repo teacherRepository;
+
+    @Mock
+    private AcademicYearRepository academicYearRepository;
+
+    @Mock
+    private Division_repo divisionRepository;
+
+    @Mock
+    private OccupancyIndexService occupancyIndex;
+
+    @Mock
+    private TeacherAvailabilityIndexService availabilityIndex;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    @InjectMocks
+    private TimetableService timetableService;
+
+    private final Set<String> bookedTeachers = new HashSet<>();
+    private final Set<String> bookedRooms = new HashSet<>();
+    private CourseEntity course;
+    private TeacherEntity sourceTeacher;
+    private ClassRoom sourceRoom;
+    private TimeSlot p1;
+    private TimeSlot p2;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timetableService, "cacheInvalidator", new TimetableCacheInvalidator(
+            mock(CacheManager.class), divisionRepository, occupancyIndex, mock(TimetableVersionService.class)));
+
+        Division target = new Division();
+        target.setId(TARGET);
+        target.setTotalStudents(50);
+        AcademicYear year = new AcademicYear();
+        year.setId(YEAR);
+        course = new CourseEntity();
+        course.setId(20L);
+        course.setName("DBMS");
+        sourceTeacher = teacher(3L);
+        sourceRoom = room(4L, 60);
+        p1 = slot(5L, "P1", 9);
+        p2 = slot(7L, "P2", 10);
+
+        when(divisionRepository.findById(TARGET)).thenReturn(Optional.of(target));
+        when(academicYearRepository.findById(YEAR)).thenReturn(Optional.of(year));
+        when(occupancyIndex.isTeacherBooked(anyLong(), any(), anyLong(), eq(YEAR), isNull()))
+            .thenAnswer(inv -> bookedTeachers.contains(cell(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2))));
+    }
+
+    @Test
+    void testClashingCellsAreSkippedAndReportedByDefault() {
+        // Arrange — the source division holds its teacher in P1; P2 is free
+        draftEntries(entry(DayOfWeek.MONDAY, p1), entry(DayOfWeek.MONDAY, p2));
+        bookedTeachers.add(cell(3L, DayOfWeek.MONDAY, 5L));
+        roomsFreeUnlessBooked();
+        when(timetableRepo.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        TimetableService.CopyResult result = timetableService.copyDraftEntries(SOURCE, TARGET, YEAR, false);
+
+        // Assert — nobody is swapped in without asking
+        assertEquals(1, result.copied());
+        assertEquals(0, result.reassigned());
+        assertEquals(List.of("MONDAY P1 (DBMS): the teacher is already booked in this slot"), result.skipped());
+        ArgumentCaptor<TimetableEntry> saved = ArgumentCaptor.forClass(TimetableEntry.class);
+        verify(timetableRepo).saveAndFlush(saved.capture());
+        assertEquals(p2, saved.getValue().getTimeSlot());
+        assertEquals(3L, saved.getValue().getTeacher().getId());
+        assertEquals(4L, saved.getValue().getRoom().getId());
+        verifyNoInteractions(teacherRepository, referenceData);
+    }
+
+    @Test
+    void testReassignSwapsBusySourceTeacherAndRoomForFreeOnes() {
+        // Arrange — the source division holds its teacher and room in P1; P2 is free for both
+        draftEntries(entry(DayOfWeek.MONDAY, p1), entry(DayOfWeek.MONDAY, p2));
+        courseTeachers();
+        bookedTeachers.add(cell(3L, DayOfWeek.MONDAY, 5L));
+        bookedRooms.add(cell(4L, DayOfWeek.MONDAY, 5L));
+        roomsFreeUnlessBooked();
+        when(referenceData.activeRooms()).thenReturn(List.of(sourceRoom, room(10L, 30), room(9L, 60)));
+        when(timetableRepo.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        TimetableService.CopyResult result = timetableService.copyDraftEntries(SOURCE, TARGET, YEAR, true);
+
+        // Assert
+        assertEquals(2, result.copied());
+        assertEquals(1, result.reassigned());
+        assertTrue(result.skipped().isEmpty());
+        ArgumentCaptor<TimetableEntry> saved = ArgumentCaptor.forClass(TimetableEntry.class);
+        verify(timetableRepo, times(2)).saveAndFlush(saved.capture());
+        TimetableEntry moved = saved.getAllValues().get(0);
+        assertEquals(8L, moved.getTeacher().getId());
+        assertEquals(9L, moved.getRoom().getId(), "room 10 is too small for the target division");
+        assertEquals(TARGET, moved.getDivision().getId());
+        TimetableEntry kept = saved.getAllValues().get(1);
+        assertEquals(3L, kept.getTeacher().getId());
+        assertEquals(4L, kept.getRoom().getId());
+        verify(occupancyIndex, times(2)).onEntrySaved(any());
+    }
+
+    @Test
+    void testReassignReportsCellsThatCannotBePlaced() {
+        // Arrange — every teacher of the course is busy in P1; the target already has a class in P2
+        draftEntries(entry(DayOfWeek.MONDAY, p1), entry(DayOfWeek.MONDAY, p2));
+        courseTeachers();
+        bookedTeachers.add(cell(3L, DayOfWeek.MONDAY, 5L));
+        bookedTeachers.add(cell(8L, DayOfWeek.MONDAY, 5L));
+        roomsFreeUnlessBooked();
+        when(referenceData.activeRooms()).thenReturn(List.of(sourceRoom));
+        when(occupancyIndex.isDivisionBooked(eq(TARGET), eq(DayOfWeek.MONDAY), anyLong(), eq(YEAR), isNull()))
+            .thenAnswer(inv -> inv.<Long>getArgument(2) == 7L);
+
+        // Act
+        TimetableService.CopyResult result = timetableService.copyDraftEntries(SOURCE, TARGET, YEAR, true);
+
+        // Assert
+        assertEquals(0, result.copied());
+        assertEquals(List.of(
+            "MONDAY P1 (DBMS): no free teacher assigned to the course",
+            "MONDAY P2 (DBMS): the target division already has a class in this slot"), result.skipped());
+        verify(timetableRepo, never()).saveAndFlush(any());
+    }
+
+    private void draftEntries(TimetableEntry... entries) {
+        when(timetableRepo.findByDivisionIdAndAcademicYearIdAndStatus(SOURCE, YEAR, TimetableStatus.DRAFT))
+            .thenReturn(List.of(entries));
+    }
+
+    // Teachers 3 (the source's) and 8 are assigned to the course
+    private void courseTeachers() {
+        when(teacherRepository.findCourseTeacherPairs(Set.of(20L)))
+            .thenReturn(List.of(new Object[] { 20L, 3L }, new Object[] { 20L, 8L }));
+        when(teacherRepository.findAllById(List.of(3L, 8L))).thenReturn(List.of(sourceTeacher, teacher(8L)));
+    }
+
+    private void roomsFreeUnlessBooked() {
+        doAnswer(inv -> bookedRooms.contains(cell(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2))))
+            .when(occupancyIndex).isRoomBooked(anyLong(), any(), anyLong(), eq(YEAR), isNull());
+    }
+
+    private TimetableEntry entry(DayOfWeek day, TimeSlot slot) {
+        TimetableEntry entry = new TimetableEntry();
+        entry.setCourse(course);
+        entry.setTeacher(sourceTeacher);
+        entry.setRoom(sourceRoom);
+        entry.setTimeSlot(slot);
+        entry.setDayOfWeek(day);
+        entry.setSemester(Semester.SEM_3);
+        entry.setIsLabSession(false);
+        return entry;
+    }
+
+    private static String cell(Long id, DayOfWeek day, Long slotId) {
+        return id + "/" + day + "/" + slotId;
+    }
+
+    private static TeacherEntity teacher(Long id) {
+        TeacherEntity teacher = new TeacherEntity();
+        teacher.setId(id);
+        return teacher;
+    }
+
+    private static ClassRoom room(Long id, int capacity) {
+        ClassRoom room = new ClassRoom();
+        room.setId(id);
+        room.setCapacity(capacity);
+        room.setRoomType(RoomType.CLASSROOM);
+        return room;
+    }
+
+    private static TimeSlot slot(Long id, String name, int hour) {
+        TimeSlot slot = new TimeSlot();
+        slot.setId(id);
+        slot.setSlotName(name);
+        slot.setStartTime(LocalTime.of(hour, 0));
+        slot.setEndTime(LocalTime.of(hour + 1, 0));
+        return slot;
+    }
+}
@@ -0,0 +1,139 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.College.timetable.Entity.*;
+import com.College.timetable.IO.CreateTimetableEntryDTO;
+import com.College.timetable.Repository.*;
+import com.College.timetable.Service.ConflictCheckService;
+import com.College.timetable.Service.OccupancyIndexService;
+import com.College.timetable.Service.TimetableService;
+import com.College.timetable.Util.TimetableConflictException;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableServiceDryRunTest {
+
+    @Mock
+    private TimetableEntry_repo timetableRepo;
+
+    @Mock
+    private ConflictCheckService conflictCheckService;
+
+    @Mock
+    private Course_repo courseRepository;
+
+    @Mock
+    private Room_repo classRoomRepository;
+
+    @Mock
+    private TimeSlot_repo timeSlotRepository;
+
+    @Mock
+    private Teacher_Repo teacherRepository;
+
+    @Mock
+    private AcademicYearRepository academicYearRepository;
+
+    @Mock
+    private Division_repo divisionRepository;
+
+    @Mock
+    private OccupancyIndexService occupancyIndex;
+
+    @InjectMocks
+    private TimetableService timetableService;
+
+    private CreateTimetableEntryDTO dto;
+    private CourseEntity course;
+    private TimeSlot slot;
+
+    @BeforeEach
+    void setUp() {
+        dto = new CreateTimetableEntryDTO();
+        dto.setDivisionId(1L);
+        dto.setCourseId(2L);
+        dto.setTeacherId(3L);
+        dto.setRoomId(4L);
+        dto.setTimeSlotId(5L);
+        dto.setAcademicYearId(6L);
+        dto.setDayOfWeek(DayOfWeek.MONDAY);
+        dto.setSemester(Semester.SEM_3);
+
+        course = new CourseEntity();
+        course.setId(2L);
+        slot = new TimeSlot();
+        slot.setId(5L);
+        slot.setType("TYPE_1");
+        slot.setSlotName("P1");
+        slot.setStartTime(LocalTime.of(9, 0));
+        slot.setEndTime(LocalTime.of(10, 0));
+
+        when(teacherRepository.findById(3L)).thenReturn(Optional.of(new TeacherEntity()));
+        when(courseRepository.findById(2L)).thenReturn(Optional.of(course));
+        when(conflictCheckService.checkConflicts(any(), any())).thenReturn(new ArrayList<>());
+        when(divisionRepository.findById(1L)).thenReturn(Optional.of(new Division()));
+        when(classRoomRepository.findById(4L)).thenReturn(Optional.of(new ClassRoom()));
+        when(timeSlotRepository.findById(5L)).thenReturn(Optional.of(slot));
+        when(academicYearRepository.findById(6L)).thenReturn(Optional.of(new AcademicYear()));
+    }
+
+    @Test
+    void testPreviewEntryBuildsEntryWithoutSaving() {
+        // Arrange
+        course.setCourseType(CourseType.THEORY);
+
+        // Act
+        TimetableService.PlacementPreview preview = timetableService.previewEntry(dto);
+
+        // Assert
+        assertTrue(preview.isValid());
+        assertEquals(1, preview.getEntries().size());
+        assertEquals(slot, preview.getEntries().get(0).getTimeSlot());
+        assertNull(preview.getEntries().get(0).getId());
+        verify(timetableRepo, never()).save(any());
+        verifyNoInteractions(occupancyIndex);
+    }
+
+    @Test
+    void testLabSecondPeriodConflictIsReportedBeforeAnyWrite() {
+        // Arrange — the next period is free of breaks but has a teacher clash
+        course.setCourseType(CourseType.LAB);
+        TimeSlot next = new TimeSlot();
+        next.setId(7L);
+        next.setSlotName("P2");
+        next.setIsBreak(false);
+        when(timeSlotRepository.findFirstByTypeAndIsActiveTrueAndStartTimeGreaterThanEqualOrderByStartTimeAsc("TYPE_1", LocalTime.of(10, 0)))
+            .thenReturn(Optional.of(next));
+        when(conflictCheckService.checkConflictsBatch(any())).thenReturn(List.of(
+            new ConflictCheckService.CandidateResult(0, new ArrayList<>()),
+            new ConflictCheckService.CandidateResult(1, new ArrayList<>(List.of("Teacher conflict")))
+        ));
+
+        // Act
+        TimetableService.PlacementPreview preview = timetableService.previewEntry(dto);
+        TimetableConflictException thrown = assertThrows(TimetableConflictException.class,
+            () -> timetableService.addEntry(dto));
+
+        // Assert — same conflicts either way, and nothing was written or deleted
+        assertFalse(preview.isValid());
+        assertTrue(preview.getEntries().isEmpty());
+        assertEquals(preview.getConflicts(), thrown.getConflicts());
+        assertEquals("Teacher conflict", thrown.getConflicts().get(1));
+        verify(timetableRepo, never()).save(any());
+        verify(timetableRepo, never()).delete(any());
+    }
+}
@@ -0,0 +1,100 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.College.timetable.Entity.DayOfWeek;
+import com.College.timetable.Service.TimetableSolver;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimetableSolverTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testTheoryLoadIsPlacedWithoutClashes() {
+        // Arrange — 3 slots a day, one teacher, one room, 5 lectures
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(6);
+        int[] slots = { problem.addSlot(60), problem.addSlot(60), problem.addSlot(60) };
+        int teacher = problem.addTeacher(30);
+        int room = problem.addRoom();
+        int division = problem.addDivision();
+        problem.addLoad(division, -1, new int[] { teacher }, new int[] { room }, slots, 5, 1);
+
+        // Act
+        TimetableSolver.Solution solution = TimetableSolver.solve(problem, pool, 2_000, 42);
+
+        // Assert
+        assertTrue(solution.isComplete());
+        assertEquals(5, solution.getAssignments().size());
+        Set<String> cells = new HashSet<>();
+        for (TimetableSolver.Assignment a : solution.getAssignments()) {
+            assertTrue(cells.add(a.day() + "_" + a.slot()), "teacher double-booked at " + a);
+        }
+    }
+
+    @Test
+    void testLabStartsOnlyWhereANextPeriodIsLinked() {
+        // Arrange — only slot 0 -> 1 is consecutive; slot 2 follows a break
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(6);
+        int[] slots = { problem.addSlot(60), problem.addSlot(60), problem.addSlot(60) };
+        problem.linkNext(slots[0], slots[1]);
+        int teacher = problem.addTeacher(null);
+        int[] rooms = { problem.addRoom(), problem.addRoom() };
+        int division = problem.addDivision();
+        int batchA = problem.addBatch();
+        int batchB = problem.addBatch();
+        problem.addLoad(division, batchA, new int[] { teacher }, rooms, slots, 1, 2);
+        problem.addLoad(division, batchB, new int[] { teacher }, rooms, slots, 1, 2);
+
+        // Act
+        TimetableSolver.Solution solution = TimetableSolver.solve(problem, pool, 2_000, 7);
+
+        // Assert — both batches placed, each starting at slot 0, on different days (same teacher)
+        assertTrue(solution.isComplete());
+        List<TimetableSolver.Assignment> labs = solution.getAssignments();
+        assertEquals(2, labs.size());
+        assertTrue(labs.stream().allMatch(a -> a.slot() == slots[0]));
+        assertNotEquals(labs.get(0).day(), labs.get(1).day());
+    }
+
+    @Test
+    void testUnplaceableUnitsAreReported() {
+        // Arrange — the teacher is blocked everywhere except MONDAY and TUESDAY in slot 0
+        TimetableSolver.Problem problem = new TimetableSolver.Problem(6);
+        int slot = problem.addSlot(60);
+        int teacher = problem.addTeacher(30);
+        int room = problem.addRoom();
+        int division = problem.addDivision();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day != DayOfWeek.MONDAY && day != DayOfWeek.TUESDAY) problem.blockTeacher(teacher, day, slot);
+        }
+        int load = problem.addLoad(division, -1, new int[] { teacher }, new int[] { room }, new int[] { slot }, 3, 1);
+
+        // Act
+        TimetableSolver.Solution solution = TimetableSolver.solve(problem, pool, 200, 1);
+
+        // Assert
+        assertFalse(solution.isComplete());
+        assertEquals(2, solution.getAssignments().size());
+        assertEquals(1, solution.unplaced(load));
+        assertEquals(1, solution.getUnplacedUnits());
+    }
+}
@@ -0,0 +1,90 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.College.timetable.Configuration.RedisCircuitBreaker;
+import com.College.timetable.Service.TimetableCacheInvalidator;
+import com.College.timetable.Service.TimetableVersionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimetableVersionServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    private TimetableVersionService versions;
+
+    @BeforeEach
+    void setUp() {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(connectionFactory, 3, Duration.ofSeconds(5),
+            new SimpleMeterRegistry());
+        versions = new TimetableVersionService(redisTemplate, breaker, 24);
+    }
+
+    @Test
+    void testExistingVersionIsReadInOneCall() {
+        // Arrange
+        when(redisTemplate.opsForHash()).thenReturn(hashOps);
+        when(hashOps.multiGet(eq("samaysetu:timetable-version:divisionTimetable:1_9"), anyCollection()))
+            .thenReturn(List.of("1700000000042", "1700000005000"));
+
+        // Act
+        TimetableVersionService.Version version = versions.current(TimetableCacheInvalidator.DIVISION, 1L, 9L);
+
+        // Assert
+        assertEquals(1700000000042L, version.version());
+        assertEquals(1700000005000L, version.lastModified());
+        assertEquals("W/\"divisionTimetable-1-9-1700000000042\"", version.etag(TimetableCacheInvalidator.DIVISION, 1L, 9L));
+        verify(hashOps, never()).putIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void testMissingVersionStartsAtTheCurrentTime() {
+        // Arrange — first read of this view
+        long before = System.currentTimeMillis();
+        when(redisTemplate.opsForHash()).thenReturn(hashOps);
+        when(hashOps.multiGet(anyString(), anyCollection()))
+            .thenReturn(Arrays.asList(null, null))
+            .thenAnswer(inv -> List.of(String.valueOf(before), String.valueOf(before)));
+
+        // Act
+        TimetableVersionService.Version version = versions.current(TimetableCacheInvalidator.TEACHER, 2L, 9L);
+
+        // Assert
+        assertTrue(version.version() >= before);
+        verify(hashOps).putIfAbsent(eq("samaysetu:timetable-version:teacherTimetable:2_9"), eq("v"), anyString());
+    }
+
+    @Test
+    void testRedisOutageDisablesConditionalGet() {
+        // Arrange
+        when(redisTemplate.opsForHash()).thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act + Assert — callers fall back to a plain 200
+        assertNull(versions.current(TimetableCacheInvalidator.ROOM, 5L, 9L));
+    }
+}
@@ -0,0 +1,212 @@
+package com.College.timetable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import com.College.timetable.Configuration.RedisConfig;
+import com.College.timetable.Entity.*;
+import com.College.timetable.IO.TimetableView;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimetableViewTest {
+
+    private List<TimetableEntry> entries;
+
+    @BeforeEach
+    void setUp() {
+        // A typical published division week: 8 courses, 8 teachers, 4 rooms, 8 periods, 3 lab batches
+        AcademicYear year = new AcademicYear();
+        year.setId(1L);
+        year.setYearName("2025-26");
+        year.setStartDate(LocalDate.of(2025, 7, 1));
+        year.setEndDate(LocalDate.of(2026, 6, 30));
+        year.setIsCurrent(true);
+        DepartmentEntity dept = new DepartmentEntity();
+        dept.setId(2L);
+        dept.setName("Computer Engineering");
+        dept.setCode("COMP");
+        dept.setHeadOfDepartment("Dr. Head");
+        dept.setAcademicYear(year);
+        Division division = new Division();
+        division.setId(3L);
+        division.setName("A");
+        division.setYear(2);
+        division.setBranch("Computer");
+        division.setTotalStudents(72);
+        division.setClassTeacher("Prof. Class");
+        division.setDepartment(dept);
+        division.setAcademicYear(year);
+
+        List<CourseEntity> courses = new ArrayList<>();
+        List<TeacherEntity> teachers = new ArrayList<>();
+        for (long i = 0; i < 8; i++) {
+            CourseEntity c = new CourseEntity();
+            c.setId(100 + i);
+            c.setName("Course number " + i);
+            c.setCode("CS20" + i);
+            c.setShortName("C" + i);
+            c.setCourseType(i < 6 ? CourseType.THEORY : CourseType.LAB);
+            c.setCredits(3);
+            c.setHoursPerWeek(4);
+            c.setDescription("A description of course " + i + " that the timetable never shows");
+            c.setDepartment(dept);
+            courses.add(c);
+            TeacherEntity t = new TeacherEntity();
+            t.setId(200 + i);
+            t.setName("Teacher Name " + i);
+            t.setShortName("T" + i);
+            t.setEmployeeId("EMP0" + i);
+            t.setEmail("teacher" + i + "@college.edu");
+            t.setPhone("98765432" + i);
+            t.setSpecialization("Systems");
+            t.setDepartment(dept);
+            teachers.add(t);
+        }
+        List<ClassRoom> rooms = new ArrayList<>();
+        for (long i = 0; i < 4; i++) {
+            ClassRoom r = new ClassRoom();
+            r.setId(300 + i);
+            r.setName("Room " + i);
+            r.setRoomNumber("A10" + i);
+            r.setBuildingWing("A");
+            r.setCapacity(72);
+            r.setRoomType(RoomType.CLASSROOM);
+            r.setDepartment(dept);
+            rooms.add(r);
+        }
+        List<TimeSlot> slots = new ArrayList<>();
+        for (long i = 0; i < 8; i++) {
+            TimeSlot s = new TimeSlot();
+            s.setId(400 + i);
+            s.setSlotName("P" + (i + 1));
+            s.setStartTime(LocalTime.of(9 + (int) i, 0));
+            s.setEndTime(LocalTime.of(10 + (int) i, 0));
+            s.setDurationMinutes(60);
+            slots.add(s);
+        }
+        List<Batch> batches = new ArrayList<>();
+        for (long i = 0; i < 3; i++) {
+            Batch b = new Batch();
+            b.setId(500 + i);
+            b.setName("A" + (i + 1));
+            b.setStrength(24);
+            b.setDivision(division);
+            batches.add(b);
+        }
+
+        entries = new ArrayList<>();
+        long id = 1;
+        for (DayOfWeek day : new DayOfWeek[] { DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY }) {
+            for (int p = 0; p < 8; p++) {
+                int c = (p + day.ordinal()) % 8;
+                TimetableEntry e = new TimetableEntry();
+                e.setId(id++);
+                e.setDivision(division);
+                e.setCourse(courses.get(c));
+                e.setTeacher(teachers.get(c));
+                e.setRoom(rooms.get(p % 4));
+                e.setTimeSlot(slots.get(p));
+                e.setDayOfWeek(day);
+                e.setAcademicYear(year);
+                e.setStatus(TimetableStatus.PUBLISHED);
+                e.setSemester(Semester.SEM_3);
+                e.setIsLabSession(c >= 6);
+                e.setBatch(c >= 6 ? batches.get(p % 3) : null);
+                e.setUpdatedAt(new Timestamp(1_700_000_000_000L + id));
+                entries.add(e);
+            }
+        }
+    }
+
+    @Test
+    void testRoundTripKeepsDisplayFields() {
+        // Act
+        TimetableView view = TimetableView.of(1L, entries);
+        List<TimetableEntry> rebuilt = view.toEntries();
+
+        // Assert — reference tables hold each object once
+        assertEquals(40, view.size());
+        assertEquals(8, view.courses().size());
+        assertEquals(1, view.departments().size());
+        for (int i = 0; i < entries.size(); i++) {
+            TimetableEntry a = entries.get(i);
+            TimetableEntry b = rebuilt.get(i);
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getCourse().getShortName(), b.getCourse().getShortName());
+            assertEquals(a.getCourse().getCourseType(), b.getCourse().getCourseType());
+            assertEquals(a.getTeacher().getName(), b.getTeacher().getName());
+            assertEquals(a.getRoom().getRoomNumber(), b.getRoom().getRoomNumber());
+            assertEquals(a.getTimeSlot().getStartTime(), b.getTimeSlot().getStartTime());
+            assertEquals(a.getDivision().getDepartment().getCode(), b.getDivision().getDepartment().getCode());
+            assertEquals(a.getBatch() != null ? a.getBatch().getName() : null,
+                b.getBatch() != null ? b.getBatch().getName() : null);
+            assertEquals(a.getDayOfWeek(), b.getDayOfWeek());
+            assertEquals(a.getUpdatedAt(), b.getUpdatedAt());
+            assertEquals("2025-26", b.getAcademicYear().getYearName());
+        }
+        // Fields the views never display are not carried
+        assertNull(rebuilt.get(0).getTeacher().getEmail());
+        assertNull(rebuilt.get(0).getCourse().getDescription());
+    }
+
+    @Test
+    void testCompactPayloadIsSmallerThanTheEntityGraph() {
+        // Arrange — the serializers RedisConfig used before and uses now
+        GenericJackson2JsonRedisSerializer legacy = new GenericJackson2JsonRedisSerializer(RedisConfig.typedMapper());
+        Jackson2JsonRedisSerializer<TimetableView> compact =
+            new Jackson2JsonRedisSerializer<>(RedisConfig.timetableViewMapper(), TimetableView.class);
+        TimetableView view = TimetableView.of(1L, entries);
+
+        // Act
+        byte[] legacyBytes = legacy.serialize(entries);
+        byte[] compactBytes = compact.serialize(view);
+        TimetableView restored = compact.deserialize(compactBytes);
+
+        // Assert
+        assertEquals(view, restored);
+        assertTrue(compactBytes.length * 4 < legacyBytes.length,
+            "compact " + compactBytes.length + " B vs entity graph " + legacyBytes.length + " B");
+    }
+
+    /**
+     * Round-trip time of the entity graph and the compact view. Run with
+     * {@code mvn test -Dtest=TimetableViewTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkRoundTripAgainstTheEntityGraph() {
+        // Arrange
+        GenericJackson2JsonRedisSerializer legacy = new GenericJackson2JsonRedisSerializer(RedisConfig.typedMapper());
+        Jackson2JsonRedisSerializer<TimetableView> compact =
+            new Jackson2JsonRedisSerializer<>(RedisConfig.timetableViewMapper(), TimetableView.class);
+
+        // Act
+        long legacyNanos = time(() -> legacy.deserialize(legacy.serialize(entries)));
+        long compactNanos = time(() -> compact.deserialize(compact.serialize(TimetableView.of(1L, entries))).toEntries());
+
+        // Assert
+        System.out.printf("[BENCHMARK] 40-entry division: entity graph %d bytes, %d us/round trip; "
+                + "TimetableView %d bytes, %d us/round trip%n",
+            legacy.serialize(entries).length, legacyNanos / 1_000,
+            compact.serialize(TimetableView.of(1L, entries)).length, compactNanos / 1_000);
+    }
+
+    private static long time(Runnable roundTrip) {
+        for (int i = 0; i < 200; i++) roundTrip.run(); // warm-up
+        int runs = 500;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) roundTrip.run();
+        return (System.nanoTime() - start) / runs;
+    }
+}